@@ -5,7 +5,12 @@ import io.activej.inject.annotation.Inject;
 import io.activej.inject.annotation.Provides;
 import io.activej.launcher.Launcher;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.config.converter.ConfigConverters.ofBoolean;
 import static io.activej.config.converter.ConfigConverters.ofInteger;
+import static java.lang.Math.max;
 
 public class ByteBufPoolMultithreadedBenchmark extends Launcher {
 
@@ -27,6 +32,7 @@ public class ByteBufPoolMultithreadedBenchmark extends Launcher {
 				ByteBuf buf = ByteBufPool.allocate(allocationSize);
 				buf.recycle();
 			}
+			ByteBufPool.flushThreadCache();
 			long res = System.currentTimeMillis() - start;
 			System.out.println("Thread #" + number + " ends its job. Time : " + res + " ms.");
 		}
@@ -34,6 +40,7 @@ public class ByteBufPoolMultithreadedBenchmark extends Launcher {
 
 	private static final int ALLOCATION_SIZE = 32;
 	private static final int THREADS = 32;
+	private static final int MAX_SCALING_THREADS = 64;
 	private static final int ITERATIONS = 200_000;
 	private static final int WARMUP_ROUNDS = 3;
 	private static final int BENCHMARK_ROUNDS = 10;
@@ -52,6 +59,7 @@ public class ByteBufPoolMultithreadedBenchmark extends Launcher {
 	private int iterations;
 	private int warmupRounds;
 	private int measureRounds;
+	private boolean scaling;
 
 	@Override
 	protected void onStart() throws Exception {
@@ -60,11 +68,33 @@ public class ByteBufPoolMultithreadedBenchmark extends Launcher {
 		this.iterations = config.get(ofInteger(), "benchmark.iterations", ITERATIONS);
 		this.warmupRounds = config.get(ofInteger(), "benchmark.warmupRounds", WARMUP_ROUNDS);
 		this.measureRounds = config.get(ofInteger(), "benchmark.measureRounds", BENCHMARK_ROUNDS);
+		this.scaling = config.get(ofBoolean(), "benchmark.scaling", false);
 		super.onStart();
 	}
 
 	@Override
 	protected void run() throws Exception {
+		if (!scaling) {
+			benchmark();
+			printThreadCacheStats();
+			return;
+		}
+
+		// measures how throughput of a pool scales with a number of threads
+		List<String> results = new ArrayList<>();
+		for (int threads = 1; threads <= MAX_SCALING_THREADS; threads *= 2) {
+			this.threads = threads;
+			long avgRps = benchmark();
+			results.add("Threads: " + threads + "; Requests per second: " + avgRps +
+					"; Per thread: " + avgRps / threads);
+		}
+		System.out.println();
+		System.out.println("Scaling results" + (ByteBufPool.USE_THREAD_CACHE ? " (thread cache enabled):" : ":"));
+		results.forEach(System.out::println);
+		printThreadCacheStats();
+	}
+
+	private long benchmark() throws InterruptedException {
 		long timeAllRounds = 0;
 		long bestTime = -1;
 		long worstTime = -1;
@@ -72,7 +102,7 @@ public class ByteBufPoolMultithreadedBenchmark extends Launcher {
 		System.out.println("Warming up ...");
 		for (int i = 0; i < warmupRounds; i++) {
 			double roundTime = round();
-			long rps = iterations * 1000L * THREADS / Math.round(roundTime);
+			long rps = iterations * 1000L * threads / max(1, Math.round(roundTime));
 			System.out.println();
 			System.out.println("Round: " + (i + 1) + "; ROUND TIME: " + Math.round(roundTime) + " ms; " +
 					"RPS : " + rps);
@@ -92,7 +122,7 @@ public class ByteBufPoolMultithreadedBenchmark extends Launcher {
 			if (worstTime == -1 || roundTime > worstTime) {
 				worstTime = (long) roundTime;
 			}
-			long rps = iterations * 1000L * threads / Math.round(roundTime);
+			long rps = iterations * 1000L * threads / max(1, Math.round(roundTime));
 			System.out.println();
 			System.out.println("Round: " + (i + 1) + "; ROUND TIME: " + Math.round(roundTime) + " ms; " +
 					"RPS : " + rps);
@@ -103,6 +133,15 @@ public class ByteBufPoolMultithreadedBenchmark extends Launcher {
 		long avgRps = Math.round((iterations / avgTime * 1000L * threads));
 		System.out.println("Time: " + timeAllRounds + "ms; Average time: " + avgTime + " ms; Best time: " +
 				bestTime + "ms; Worst time: " + worstTime + "ms; Requests per second: " + avgRps);
+		return avgRps;
+	}
+
+	private static void printThreadCacheStats() {
+		if (!ByteBufPool.USE_THREAD_CACHE) return;
+		ByteBufPool.ByteBufPoolStats stats = ByteBufPool.getStats();
+		System.out.println("Thread cache hits: " + stats.getThreadCacheHits() +
+				"; refills: " + stats.getThreadCacheRefills() +
+				"; flushes: " + stats.getThreadCacheFlushes());
 	}
 
 	private long round() throws InterruptedException {
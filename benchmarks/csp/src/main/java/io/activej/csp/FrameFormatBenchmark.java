@@ -0,0 +1,138 @@
+package io.activej.csp;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufs;
+import io.activej.common.exception.MalformedDataException;
+import io.activej.csp.process.frames.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares frame formats on log-like records packed into blocks of {@code blockSize} bytes.
+ * Each operation encodes (or decodes) {@value DATA_SIZE} bytes of original data,
+ * a compression ratio of each format is printed once per trial
+ */
+@State(Scope.Benchmark)
+public class FrameFormatBenchmark {
+	private static final int DATA_SIZE = 4 * 1024 * 1024;
+	private static final int DICTIONARY_SIZE = 4 * 1024;
+
+	private static final String[] NAMES = {"alice", "bob", "carol", "dave", "eve", "frank", "grace", "heidi"};
+	private static final String[] ACTIONS = {"login", "logout", "purchase", "view", "search"};
+
+	@Param({"LZ4", "LZ4_HIGH", "DEFLATE_1", "DEFLATE_6", "DEFLATE_9", "DEFLATE_6_DICTIONARY"})
+	String format;
+
+	@Param({"256", "65536"})
+	int blockSize;
+
+	private FrameFormat frameFormat;
+	private List<byte[]> blocks;
+	private byte[] encoded;
+
+	@Setup(Level.Trial)
+	public void setup() throws MalformedDataException {
+		Random random = new Random(0);
+		frameFormat = switch (format) {
+			case "LZ4" -> LZ4FrameFormat.create();
+			case "LZ4_HIGH" -> LZ4FrameFormat.create().withHighCompression();
+			case "DEFLATE_1" -> DeflateFrameFormat.create().withCompressionLevel(1);
+			case "DEFLATE_6" -> DeflateFrameFormat.create().withCompressionLevel(6);
+			case "DEFLATE_9" -> DeflateFrameFormat.create().withCompressionLevel(9);
+			case "DEFLATE_6_DICTIONARY" -> {
+				List<byte[]> samples = new ArrayList<>();
+				for (int i = 0; i < 10_000; i++) {
+					samples.add(record(random));
+				}
+				yield DeflateFrameFormat.create()
+						.withDictionary(DeflateFrameFormat.trainDictionary(samples, DICTIONARY_SIZE));
+			}
+			default -> throw new IllegalArgumentException(format);
+		};
+
+		blocks = new ArrayList<>();
+		ByteArrayOutputStream block = new ByteArrayOutputStream();
+		int size = 0;
+		while (size < DATA_SIZE) {
+			byte[] record = record(random);
+			if (block.size() + record.length > blockSize && block.size() != 0) {
+				blocks.add(block.toByteArray());
+				block.reset();
+			}
+			block.writeBytes(record);
+			size += record.length;
+		}
+		blocks.add(block.toByteArray());
+
+		ByteBufs bufs = new ByteBufs();
+		BlockEncoder encoder = frameFormat.createEncoder();
+		for (byte[] bytes : blocks) {
+			bufs.add(encoder.encode(ByteBuf.wrapForReading(bytes)));
+		}
+		bufs.add(encoder.encodeEndOfStreamBlock());
+		encoder.close();
+		encoded = bufs.takeRemaining().asArray();
+
+		System.out.printf("%n%s, block size %d: compression ratio %.2f%n", format, blockSize, (double) size / encoded.length);
+	}
+
+	@Benchmark
+	public void encode(Blackhole blackhole) {
+		BlockEncoder encoder = frameFormat.createEncoder();
+		for (byte[] bytes : blocks) {
+			ByteBuf buf = encoder.encode(ByteBuf.wrapForReading(bytes));
+			blackhole.consume(buf.readRemaining());
+			buf.recycle();
+		}
+		encoder.close();
+	}
+
+	@Benchmark
+	public void decode(Blackhole blackhole) throws MalformedDataException {
+		BlockDecoder decoder = frameFormat.createDecoder();
+		ByteBufs bufs = new ByteBufs();
+		bufs.add(ByteBuf.wrapForReading(encoded));
+		while (true) {
+			ByteBuf buf = decoder.decode(bufs);
+			if (buf == null || buf == BlockDecoder.END_OF_STREAM) break;
+			blackhole.consume(buf.readRemaining());
+			buf.recycle();
+		}
+		decoder.close();
+	}
+
+	private static byte[] record(Random random) {
+		return ("{\"timestamp\":" + (1_600_000_000_000L + random.nextInt(1_000_000)) +
+				",\"user\":\"" + NAMES[random.nextInt(NAMES.length)] + "\"" +
+				",\"action\":\"" + ACTIONS[random.nextInt(ACTIONS.length)] + "\"" +
+				",\"amount\":" + random.nextInt(1000) + "}\n").getBytes(UTF_8);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(FrameFormatBenchmark.class.getSimpleName())
+				.forks(1)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1L))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(2L))
+				.mode(Mode.AverageTime)
+				.timeUnit(TimeUnit.MILLISECONDS)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -2,6 +2,8 @@ package io.activej.datastream;
 
 import io.activej.config.Config;
 import io.activej.datastream.processor.StreamFilter;
+import io.activej.datastream.processor.StreamReducer;
+import io.activej.datastream.processor.StreamReducer.MergeStrategy;
 import io.activej.eventloop.Eventloop;
 import io.activej.inject.InstanceProvider;
 import io.activej.inject.annotation.Inject;
@@ -14,27 +16,35 @@ import io.activej.service.ServiceGraphModule;
 
 import java.util.function.Function;
 
-import static io.activej.config.converter.ConfigConverters.ofInteger;
+import static io.activej.config.converter.ConfigConverters.*;
+import static io.activej.datastream.processor.StreamReducers.mergeReducer;
 
 @SuppressWarnings("WeakerAccess")
 public class DatastreamBenchmark extends Launcher {
 	private static final int TOTAL_ELEMENTS = 100_000_000;
 	private static final int WARMUP_ROUNDS = 3;
 	private static final int BENCHMARK_ROUNDS = 10;
+	private static final int MERGE_INPUTS = 0;
 
 	static final class IntegerStreamSupplier extends AbstractStreamSupplier<Integer> {
 		private Integer integer;
 		private final int limit;
+		private final int step;
 
 		public IntegerStreamSupplier(int limit) {
-			this.integer = 0;
+			this(0, limit, 1);
+		}
+
+		public IntegerStreamSupplier(int start, int limit, int step) {
+			this.integer = start;
 			this.limit = limit;
+			this.step = step;
 		}
 
 		@Override
 		protected void onResumed() {
 			while (integer < limit) {
-				send(++integer);
+				send(integer += step);
 			}
 			sendEndOfStream();
 		}
@@ -95,12 +105,16 @@ public class DatastreamBenchmark extends Launcher {
 	private int warmupRounds;
 	private int benchmarkRounds;
 	private int totalElements;
+	private int mergeInputs;
+	private MergeStrategy mergeStrategy;
 
 	@Override
 	protected void onStart() {
 		warmupRounds = config.get(ofInteger(), "benchmark.warmupRounds", WARMUP_ROUNDS);
 		benchmarkRounds = config.get(ofInteger(), "benchmark.benchmarkRounds", BENCHMARK_ROUNDS);
 		totalElements = config.get(ofInteger(), "benchmark.totalElements", TOTAL_ELEMENTS);
+		mergeInputs = config.get(ofInteger(), "benchmark.mergeInputs", MERGE_INPUTS);
+		mergeStrategy = config.get(ofEnum(MergeStrategy.class), "benchmark.mergeStrategy", StreamReducer.DEFAULT_MERGE_STRATEGY);
 	}
 
 	@Override
@@ -145,6 +159,9 @@ public class DatastreamBenchmark extends Launcher {
 	}
 
 	private Promise<Long> roundCall() {
+		if (mergeInputs != 0) {
+			return mergeRoundCall();
+		}
 		StreamSupplier<Integer> input = inputProvider.get();
 		StreamFilter<Integer, Integer> mapper = mapperProvider.get();
 		StreamConsumer<Integer> output = outputProvider.get();
@@ -155,6 +172,22 @@ public class DatastreamBenchmark extends Launcher {
 				.map($ -> System.currentTimeMillis() - start);
 	}
 
+	/**
+	 * Merges sorted inputs with interleaving keys, like chunks of an aggregation which are consolidated
+	 */
+	private Promise<Long> mergeRoundCall() {
+		StreamReducer<Integer, Integer, Void> reducer = StreamReducer.create(Integer::compare, mergeStrategy);
+		for (int i = 0; i < mergeInputs; i++) {
+			new IntegerStreamSupplier(i - mergeInputs, totalElements - mergeInputs, mergeInputs)
+					.streamTo(reducer.newInput(Function.identity(), mergeReducer()));
+		}
+		StreamConsumer<Integer> output = outputProvider.get();
+		long start = System.currentTimeMillis();
+		return reducer.getOutput()
+				.streamTo(output)
+				.map($ -> System.currentTimeMillis() - start);
+	}
+
 	public static void main(String[] args) throws Exception {
 		DatastreamBenchmark benchmark = new DatastreamBenchmark();
 		benchmark.launch(args);
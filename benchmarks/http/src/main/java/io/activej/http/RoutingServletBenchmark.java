@@ -0,0 +1,92 @@
+package io.activej.http;
+
+import io.activej.promise.Promise;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.activej.http.HttpMethod.GET;
+import static io.activej.http.HttpMethod.POST;
+
+/**
+ * Compares routing of {@link RoutingServlet} with static path segments compiled into byte-level tries
+ * against routing by decoded path segments looked up in hash maps
+ */
+@State(Scope.Benchmark)
+public class RoutingServletBenchmark {
+	private static final int ROUTES = 2000;
+	private static final int REQUESTS = 1024;
+
+	private static final Promise<HttpResponse> RESPONSE = Promise.of(HttpResponse.ok200());
+
+	private HttpRequest[] requests;
+	private int[] positions;
+	private RoutingServlet router;
+	private int index;
+
+	@Setup
+	public void setup() {
+		router = RoutingServlet.create();
+		for (int i = 0; i < ROUTES; i++) {
+			router.map(i % 2 == 0 ? GET : POST, "/api/v" + (i % 4) + "/resource" + (i / 4) + "/items", request -> RESPONSE);
+		}
+		router.map(GET, "/api/v1/users/:id/profile", request -> RESPONSE);
+		router.map("/static/*", request -> RESPONSE);
+
+		Random random = new Random(0);
+		requests = new HttpRequest[REQUESTS];
+		positions = new int[REQUESTS];
+		for (int i = 0; i < REQUESTS; i++) {
+			int route = random.nextInt(ROUTES);
+			String path = switch (i % 8) {
+				case 0 -> "/api/v1/users/" + random.nextInt(1_000_000) + "/profile";
+				case 1 -> "/static/css/style" + i + ".css";
+				default -> "/api/v" + (route % 4) + "/resource" + (route / 4) + "/items";
+			};
+			HttpMethod method = i % 8 < 2 || route % 2 == 0 ? GET : POST;
+			requests[i] = HttpRequest.of(method, "http://127.0.0.1:8080" + path);
+			positions[i] = requests[i].getPos();
+		}
+	}
+
+	@Benchmark
+	@Fork(jvmArgsAppend = "-DRoutingServlet.compiledRoutes=true")
+	public void compiledRoutes(Blackhole blackhole) throws Exception {
+		route(blackhole);
+	}
+
+	@Benchmark
+	@Fork(jvmArgsAppend = "-DRoutingServlet.compiledRoutes=false")
+	public void decodedRoutes(Blackhole blackhole) throws Exception {
+		route(blackhole);
+	}
+
+	private void route(Blackhole blackhole) throws Exception {
+		int i = index++ & (REQUESTS - 1);
+		HttpRequest request = requests[i];
+		request.setPos(positions[i]);
+		blackhole.consume(router.serve(request));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(RoutingServletBenchmark.class.getSimpleName())
+				.forks(2)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1L))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(2L))
+				.mode(Mode.AverageTime)
+				.timeUnit(TimeUnit.NANOSECONDS)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,69 @@
+package io.activej.rpc;
+
+import io.activej.common.collection.IntObjectHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares maps of in-flight RPC requests: each operation registers a request
+ * with a next sequential cookie and completes a request sent {@code inFlight} requests earlier
+ */
+@State(Scope.Benchmark)
+public class ActiveRequestsMapBenchmark {
+	private static final Object CALLBACK = new Object();
+
+	@Param({"16", "1024", "65536"})
+	int inFlight;
+
+	private Map<Integer, Object> hashMap;
+	private IntObjectHashMap<Object> intObjectHashMap;
+	private int cookie;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		hashMap = new HashMap<>();
+		intObjectHashMap = IntObjectHashMap.create();
+		for (cookie = 0; cookie < inFlight; cookie++) {
+			hashMap.put(cookie, CALLBACK);
+			intObjectHashMap.put(cookie, CALLBACK);
+		}
+	}
+
+	@Benchmark
+	public void hashMap(Blackhole blackhole) {
+		int cookie = this.cookie++;
+		hashMap.put(cookie, CALLBACK);
+		blackhole.consume(hashMap.remove(cookie - inFlight));
+	}
+
+	@Benchmark
+	public void intObjectHashMap(Blackhole blackhole) {
+		int cookie = this.cookie++;
+		intObjectHashMap.put(cookie, CALLBACK);
+		blackhole.consume(intObjectHashMap.remove(cookie - inFlight));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(ActiveRequestsMapBenchmark.class.getSimpleName())
+				.forks(2)
+				.warmupIterations(3)
+				.warmupTime(TimeValue.seconds(1L))
+				.measurementIterations(5)
+				.measurementTime(TimeValue.seconds(2L))
+				.mode(Mode.AverageTime)
+				.timeUnit(TimeUnit.NANOSECONDS)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -16,19 +16,28 @@ import io.activej.launcher.Launcher;
 import io.activej.memcache.client.MemcacheClientModule;
 import io.activej.memcache.client.RawMemcacheClient;
 import io.activej.memcache.protocol.MemcacheRpcMessage.Slice;
-import io.activej.memcache.server.MemcacheServerModule;
+import io.activej.memcache.server.MemcacheShardedServerModule;
 import io.activej.promise.Promise;
 import io.activej.promise.SettablePromise;
 import io.activej.rpc.client.RpcClient;
 import io.activej.rpc.server.RpcServer;
 import io.activej.service.ServiceGraphModule;
 import io.activej.service.ServiceGraphModuleSettings;
+import io.activej.worker.WorkerPool;
+import io.activej.worker.WorkerPoolModule;
 import org.jetbrains.annotations.Nullable;
 
 import static io.activej.config.converter.ConfigConverters.ofInteger;
 import static io.activej.inject.module.Modules.combine;
 import static java.lang.Math.min;
-
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.IntStream.range;
+
+/**
+ * Benchmarks a memcache server sharded across {@code memcache.shards} eventloops.
+ * Scaling may be observed by varying a number of shards, e.g. {@code -Dconfig.memcache.shards=1},
+ * while {@code -Dconfig.client.batching=true} groups requests of each eventloop tick into multi-key requests
+ */
 public class MemcacheRpcBenchmark extends Launcher {
 	private static final int TOTAL_REQUESTS = 10_000_000;
 	private static final int WARMUP_ROUNDS = 3;
@@ -39,6 +48,9 @@ public class MemcacheRpcBenchmark extends Launcher {
 	private static final int NUMBER_BUFFERS = 4;
 	private static final MemSize BUFFER_CAPACITY = MemSize.megabytes(1);
 	private static final byte[] BYTES = "Hello world".getBytes();
+	private static final int SHARDS = 4;
+	private static final int PORT = 8080;
+	private static final int KEYS = 1 << 16;
 
 	private int totalRequests;
 	private int warmupRounds;
@@ -53,19 +65,29 @@ public class MemcacheRpcBenchmark extends Launcher {
 	RawMemcacheClient client;
 
 	@Inject
-	RpcServer server;
+	WorkerPool.Instances<RpcServer> servers;
 
 	@Inject
 	Config config;
 
+	@Provides
+	Eventloop eventloop() {
+		return Eventloop.create();
+	}
+
 	@Provides
 	Config config() {
-		return Config.create()
+		Config config = Config.create()
 				.with("memcache.buffers", Integer.toString(NUMBER_BUFFERS))
 				.with("memcache.bufferCapacity", BUFFER_CAPACITY.format())
-				.with("server.listenAddresses", "localhost:8080")
-				.with("client.addresses", "localhost:8080")
+				.with("memcache.shards", Integer.toString(SHARDS))
+				.with("server.listenAddresses", "localhost:" + PORT)
 				.overrideWith(Config.ofSystemProperties("config"));
+		// each shard listens on its own port, so that the client routes a key straight to its shard
+		int shards = config.get(ofInteger(), "memcache.shards");
+		return Config.create()
+				.with("client.addresses", range(0, shards).mapToObj(i -> "localhost:" + (PORT + i)).collect(joining(",")))
+				.overrideWith(config);
 	}
 
 	@ProvidesIntoSet
@@ -80,7 +102,8 @@ public class MemcacheRpcBenchmark extends Launcher {
 				ServiceGraphModule.create(),
 				ConfigModule.create()
 						.withEffectiveConfigLogger(),
-				MemcacheServerModule.create(),
+				WorkerPoolModule.create(),
+				MemcacheShardedServerModule.create(),
 				MemcacheClientModule.create()
 		);
 	}
@@ -221,11 +244,16 @@ public class MemcacheRpcBenchmark extends Launcher {
 	}
 
 	private void doPut(Callback<Void> callback) {
-		client.put(new byte[]{(byte) sent}, new Slice(BYTES)).run(callback);
+		client.put(key(sent), new Slice(BYTES)).run(callback);
 	}
 
 	private void doGet(Callback<Slice> callback) {
-		client.get(new byte[]{(byte) sent}).run(callback);
+		client.get(key(sent)).run(callback);
+	}
+
+	private static byte[] key(int n) {
+		int key = n & (KEYS - 1);
+		return new byte[]{(byte) (key >>> 24), (byte) (key >>> 16), (byte) (key >>> 8), (byte) key};
 	}
 
 	public static void main(String[] args) throws Exception {
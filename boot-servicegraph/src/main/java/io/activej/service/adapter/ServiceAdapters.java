@@ -17,6 +17,7 @@
 package io.activej.service.adapter;
 
 import io.activej.async.service.EventloopService;
+import io.activej.bytebuf.ByteBufPool;
 import io.activej.common.service.BlockingService;
 import io.activej.eventloop.Eventloop;
 import io.activej.eventloop.net.BlockingSocketServer;
@@ -279,7 +280,11 @@ public final class ServiceAdapters {
 				threadFactory.newThread(() -> {
 					eventloop.keepAlive(true);
 					future.complete(null);
-					eventloop.run();
+					try {
+						eventloop.run();
+					} finally {
+						ByteBufPool.flushThreadCache();
+					}
 				}).start();
 				return future;
 			}
@@ -102,6 +102,7 @@ public final class LocalActiveFs implements ActiveFs, EventloopService, Eventloo
 	private final Set<OpenOption> appendNewOptions = new HashSet<>(DEFAULT_APPEND_NEW_OPTIONS);
 
 	private MemSize readerBufferSize = MemSize.kilobytes(256);
+	private @Nullable MemSize readerMappingWindow;
 	private boolean hardLinkOnCopy = false;
 	private Path tempDir;
 	private boolean fsyncUploads = DEFAULT_FSYNC_UPLOADS;
@@ -156,6 +157,19 @@ public final class LocalActiveFs implements ActiveFs, EventloopService, Eventloo
 		return this;
 	}
 
+	/**
+	 * Makes downloaded files be read through memory-mapped regions of a given size.
+	 * <p>
+	 * Bytes of files are copied from mapped regions on an eventloop thread,
+	 * so this mode suits storages whose files are mostly read from a page cache.
+	 *
+	 * @see ChannelFileReader#withMemoryMapping(MemSize)
+	 */
+	public LocalActiveFs withReaderMemoryMapping(MemSize window) {
+		readerMappingWindow = window;
+		return this;
+	}
+
 	/**
 	 * If set to {@code true}, an attempt to create a hard link will be made when copying files
 	 */
@@ -297,6 +311,11 @@ public final class LocalActiveFs implements ActiveFs, EventloopService, Eventloo
 						.withBufferSize(readerBufferSize)
 						.withOffset(offset)
 						.withLimit(limit)
+						.withInitializer(reader -> {
+							if (readerMappingWindow != null) {
+								reader.withMemoryMapping(readerMappingWindow);
+							}
+						})
 						.withEndOfStream(eos -> eos
 								.then(translateScalarErrorsFn(name))
 								.whenComplete(downloadFinishPromise.recordStats())
@@ -118,6 +118,8 @@ public final class RpcClient implements IRpcClient, EventloopService, WithInitia
 	private MemSize defaultPacketSize = DEFAULT_PACKET_SIZE;
 	private @Nullable FrameFormat frameFormat;
 	private Duration autoFlushInterval = Duration.ZERO;
+	private @Nullable MemSize maxFlushSize;
+	private @Nullable Duration maxFlushDelay;
 	private Duration keepAliveInterval = Duration.ZERO;
 
 	private List<Class<?>> messageTypes;
@@ -234,6 +236,21 @@ public final class RpcClient implements IRpcClient, EventloopService, WithInitia
 		return this;
 	}
 
+	/**
+	 * Enables adaptive flushing of requests, which overrides an auto flush interval.
+	 * <p>
+	 * Requests are sent as soon as an eventloop goes idle. While new requests keep coming,
+	 * they are accumulated until their size reaches {@code maxFlushSize}
+	 * or the oldest of them has been waiting for {@code maxFlushDelay}
+	 *
+	 * @see ChannelSerializer#withAdaptiveFlush(MemSize, Duration)
+	 */
+	public RpcClient withAdaptiveFlush(MemSize maxFlushSize, Duration maxFlushDelay) {
+		this.maxFlushSize = maxFlushSize;
+		this.maxFlushDelay = maxFlushDelay;
+		return this;
+	}
+
 	public RpcClient withKeepAlive(Duration keepAliveInterval) {
 		this.keepAliveInterval = keepAliveInterval;
 		return this;
@@ -355,7 +372,8 @@ public final class RpcClient implements IRpcClient, EventloopService, WithInitia
 							asyncTcpSocketImpl :
 							wrapClientSocket(asyncTcpSocketImpl, sslContext, sslExecutor);
 					RpcStream stream = new RpcStream(socket, serializer, defaultPacketSize,
-							autoFlushInterval, frameFormat, false); // , statsSerializer, statsDeserializer, statsCompressor, statsDecompressor);
+							autoFlushInterval, maxFlushSize, maxFlushDelay, frameFormat, false,
+							ChannelSerializer.FlushStats.create(SMOOTHING_WINDOW)); // , statsSerializer, statsDeserializer, statsCompressor, statsDecompressor);
 					RpcClientConnection connection = new RpcClientConnection(eventloop, this, address, stream, keepAliveInterval.toMillis());
 					stream.setListener(connection);
 
@@ -20,9 +20,11 @@ import io.activej.async.callback.Callback;
 import io.activej.async.exception.AsyncCloseException;
 import io.activej.async.exception.AsyncTimeoutException;
 import io.activej.common.Checks;
+import io.activej.common.collection.IntObjectHashMap;
 import io.activej.common.recycle.Recyclers;
 import io.activej.common.time.Stopwatch;
 import io.activej.datastream.StreamDataAcceptor;
+import io.activej.datastream.csp.ChannelSerializer;
 import io.activej.eventloop.Eventloop;
 import io.activej.eventloop.schedule.ScheduledRunnable;
 import io.activej.jmx.api.JmxRefreshable;
@@ -38,9 +40,6 @@ import org.slf4j.Logger;
 
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static io.activej.common.Checks.checkState;
@@ -61,7 +60,7 @@ public final class RpcClientConnection implements RpcStream.Listener, RpcSender,
 	private final RpcClient rpcClient;
 	private final RpcStream stream;
 	private final InetSocketAddress address;
-	private final Map<Integer, Callback<?>> activeRequests = new HashMap<>();
+	private final IntObjectHashMap<Callback<?>> activeRequests = IntObjectHashMap.create();
 
 	private ArrayList<RpcMessage> initialBuffer = new ArrayList<>();
 
@@ -322,7 +321,7 @@ public final class RpcClientConnection implements RpcStream.Listener, RpcSender,
 		rpcClient.onClosedConnection(address);
 
 		while (!activeRequests.isEmpty()) {
-			for (Integer cookie : new HashSet<>(activeRequests.keySet())) {
+			for (int cookie : activeRequests.keys()) {
 				Callback<?> cb = activeRequests.remove(cookie);
 				if (cb != null) {
 					cb.accept(null, new AsyncCloseException("Connection closed"));
@@ -360,9 +359,15 @@ public final class RpcClientConnection implements RpcStream.Listener, RpcSender,
 		return activeRequests.size();
 	}
 
+	@JmxAttribute
+	public ChannelSerializer.FlushStats getFlushStats() {
+		return stream.getFlushStats();
+	}
+
 	@Override
 	public void refresh(long timestamp) {
 		connectionStats.refresh(timestamp);
+		stream.getFlushStats().refresh(timestamp);
 	}
 
 	private final class JmxConnectionMonitoringResultCallback<T> implements Callback<T> {
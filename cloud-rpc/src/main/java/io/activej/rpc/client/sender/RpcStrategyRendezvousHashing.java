@@ -30,6 +30,7 @@ import java.util.function.ToIntFunction;
 import java.util.function.ToLongBiFunction;
 
 import static io.activej.common.Checks.checkArgument;
+import static io.activej.common.Checks.checkState;
 import static java.lang.Math.min;
 
 public final class RpcStrategyRendezvousHashing implements RpcStrategy, WithInitializer<RpcStrategyRendezvousHashing> {
@@ -120,37 +121,12 @@ public final class RpcStrategyRendezvousHashing implements RpcStrategy, WithInit
 
 		RpcSender[] sendersBuckets = new RpcSender[buckets];
 
-		//noinspection NullableProblems
-		class ShardIdAndSender {
-			final @NotNull Object shardId;
-			final @Nullable RpcSender rpcSender;
-			private long hash;
-
-			public long getHash() {
-				return hash;
-			}
-
-			ShardIdAndSender(Object shardId, RpcSender rpcSender) {
-				this.shardId = shardId;
-				this.rpcSender = rpcSender;
-			}
-		}
-
-		ShardIdAndSender[] toSort = new ShardIdAndSender[shards.size()];
-		int i = 0;
-		for (Map.Entry<Object, RpcSender> entry : shardsSenders.entrySet()) {
-			toSort[i++] = new ShardIdAndSender(entry.getKey(), entry.getValue());
-		}
-
+		Object[] shardIds = shards.keySet().toArray();
 		for (int bucket = 0; bucket < sendersBuckets.length; bucket++) {
-			for (ShardIdAndSender obj : toSort) {
-				obj.hash = hashBucketFn.applyAsLong(obj.shardId, bucket);
-			}
-
-			Arrays.sort(toSort, Comparator.comparingLong(ShardIdAndSender::getHash).reversed());
+			Object[] rankedShardIds = rankShards(shardIds, bucket);
 
 			for (int j = 0; j < min(shards.size(), reshardings); j++) {
-				RpcSender rpcSender = toSort[j].rpcSender;
+				RpcSender rpcSender = shardsSenders.get(rankedShardIds[j]);
 				if (rpcSender != null) {
 					sendersBuckets[bucket] = rpcSender;
 					break;
@@ -161,6 +137,38 @@ public final class RpcStrategyRendezvousHashing implements RpcStrategy, WithInit
 		return new Sender(hashFn, sendersBuckets);
 	}
 
+	/**
+	 * Returns ids of shards which own each of the buckets while all the shards are active.
+	 * <p>
+	 * A request is routed to an owner of a bucket which is picked by a hash of the request,
+	 * so the owners may be used to tell which shard a request is sent to
+	 */
+	public List<Object> getBucketOwners() {
+		checkState(!shards.isEmpty(), "No shards");
+		Object[] shardIds = shards.keySet().toArray();
+		Object[] owners = new Object[buckets];
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			owners[bucket] = rankShards(shardIds, bucket)[0];
+		}
+		return List.of(owners);
+	}
+
+	private Object[] rankShards(Object[] shardIds, int bucket) {
+		long[] hashes = new long[shardIds.length];
+		Integer[] indexes = new Integer[shardIds.length];
+		for (int i = 0; i < shardIds.length; i++) {
+			hashes[i] = hashBucketFn.applyAsLong(shardIds[i], bucket);
+			indexes[i] = i;
+		}
+		Arrays.sort(indexes, Comparator.comparingLong((Integer i) -> hashes[i]).reversed());
+
+		Object[] rankedShardIds = new Object[shardIds.length];
+		for (int i = 0; i < shardIds.length; i++) {
+			rankedShardIds[i] = shardIds[indexes[i]];
+		}
+		return rankedShardIds;
+	}
+
 	static final class Sender implements RpcSender {
 		private final ToIntFunction<Object> hashFunction;
 		private final @Nullable RpcSender[] hashBuckets;
@@ -36,8 +36,11 @@ import org.jetbrains.annotations.Nullable;
 import java.time.Duration;
 
 public final class RpcStream {
+	private static final Duration DEFAULT_SMOOTHING_WINDOW = Duration.ofMinutes(1);
+
 	private final ChannelDeserializer<RpcMessage> deserializer;
 	private final ChannelSerializer<RpcMessage> serializer;
+	private final ChannelSerializer.FlushStats flushStats;
 	private Listener listener;
 
 	private final AbstractStreamConsumer<RpcMessage> internalConsumer = new AbstractStreamConsumer<>() {};
@@ -81,13 +84,27 @@ public final class RpcStream {
 			BinarySerializer<RpcMessage> messageSerializer,
 			MemSize initialBufferSize,
 			Duration autoFlushInterval, @Nullable FrameFormat frameFormat, boolean server) {
+		this(socket, messageSerializer, initialBufferSize, autoFlushInterval, null, null, frameFormat, server,
+				ChannelSerializer.FlushStats.create(DEFAULT_SMOOTHING_WINDOW));
+	}
+
+	public RpcStream(AsyncTcpSocket socket,
+			BinarySerializer<RpcMessage> messageSerializer,
+			MemSize initialBufferSize,
+			Duration autoFlushInterval, @Nullable MemSize maxFlushSize, @Nullable Duration maxFlushDelay,
+			@Nullable FrameFormat frameFormat, boolean server, ChannelSerializer.FlushStats flushStats) {
 		this.server = server;
 		this.socket = socket;
+		this.flushStats = flushStats;
 
 		ChannelSerializer<RpcMessage> serializer = ChannelSerializer.create(messageSerializer)
 				.withInitialBufferSize(initialBufferSize)
 				.withAutoFlushInterval(autoFlushInterval)
+				.withFlushStats(flushStats)
 				.withSerializationErrorHandler((message, e) -> listener.onSerializationError(message, e));
+		if (maxFlushSize != null && maxFlushDelay != null) {
+			serializer.withAdaptiveFlush(maxFlushSize, maxFlushDelay);
+		}
 		ChannelDeserializer<RpcMessage> deserializer = ChannelDeserializer.create(messageSerializer);
 
 		if (frameFormat != null) {
@@ -121,6 +138,10 @@ public final class RpcStream {
 		internalConsumer.resume(this.listener);
 	}
 
+	public ChannelSerializer.FlushStats getFlushStats() {
+		return flushStats;
+	}
+
 	public void receiverSuspend() {
 		internalConsumer.suspend();
 	}
@@ -84,6 +84,8 @@ public final class RpcServer extends AbstractServer<RpcServer> {
 	private MemSize initialBufferSize = DEFAULT_INITIAL_BUFFER_SIZE;
 	private @Nullable FrameFormat frameFormat;
 	private Duration autoFlushInterval = Duration.ZERO;
+	private @Nullable MemSize maxFlushSize;
+	private @Nullable Duration maxFlushDelay;
 
 	private final Map<Class<?>, RpcRequestHandler<?, ?>> handlers = new LinkedHashMap<>();
 	private ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
@@ -175,6 +177,21 @@ public final class RpcServer extends AbstractServer<RpcServer> {
 		return this;
 	}
 
+	/**
+	 * Enables adaptive flushing of responses, which overrides an auto flush interval.
+	 * <p>
+	 * Responses are sent as soon as an eventloop goes idle. While new responses keep coming,
+	 * they are accumulated until their size reaches {@code maxFlushSize}
+	 * or the oldest of them has been waiting for {@code maxFlushDelay}
+	 *
+	 * @see ChannelSerializer#withAdaptiveFlush(MemSize, Duration)
+	 */
+	public RpcServer withAdaptiveFlush(MemSize maxFlushSize, Duration maxFlushDelay) {
+		this.maxFlushSize = maxFlushSize;
+		this.maxFlushDelay = maxFlushDelay;
+		return this;
+	}
+
 	/**
 	 * Adds a handler for a specified request-response pair.
 	 *
@@ -196,7 +213,8 @@ public final class RpcServer extends AbstractServer<RpcServer> {
 	@Override
 	protected void serve(AsyncTcpSocket socket, InetAddress remoteAddress) {
 		RpcStream stream = new RpcStream(socket, serializer, initialBufferSize,
-				autoFlushInterval, frameFormat, true); // , statsSerializer, statsDeserializer, statsCompressor, statsDecompressor);
+				autoFlushInterval, maxFlushSize, maxFlushDelay, frameFormat, true,
+				ChannelSerializer.FlushStats.create(SMOOTHING_WINDOW)); // , statsSerializer, statsDeserializer, statsCompressor, statsDecompressor);
 		RpcServerConnection connection = new RpcServerConnection(this, remoteAddress, handlers, stream);
 		stream.setListener(connection);
 		add(connection);
@@ -18,6 +18,7 @@ package io.activej.rpc.server;
 
 import io.activej.common.exception.MalformedDataException;
 import io.activej.datastream.StreamDataAcceptor;
+import io.activej.datastream.csp.ChannelSerializer;
 import io.activej.jmx.api.JmxRefreshable;
 import io.activej.jmx.api.attribute.JmxAttribute;
 import io.activej.jmx.stats.EventStats;
@@ -202,11 +203,17 @@ public final class RpcServerConnection implements RpcStream.Listener, JmxRefresh
 		return remoteAddress.toString();
 	}
 
+	@JmxAttribute
+	public ChannelSerializer.FlushStats getFlushStats() {
+		return stream.getFlushStats();
+	}
+
 	@Override
 	public void refresh(long timestamp) {
 		successfulRequests.refresh(timestamp);
 		failedRequests.refresh(timestamp);
 		requestHandlingTime.refresh(timestamp);
+		stream.getFlushStats().refresh(timestamp);
 	}
 
 	@Override
@@ -6,6 +6,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static io.activej.rpc.client.sender.Callbacks.assertNoCalls;
 import static io.activej.rpc.client.sender.RpcStrategies.server;
@@ -178,5 +182,35 @@ public class RpcStrategyRendezvousHashingTest {
 		assertNull(rendezvousHashing.createSender(pool));
 	}
 
+	@SuppressWarnings("ConstantConditions")
+	@Test
+	public void itShouldRouteRequestsToBucketOwners() {
+		RpcClientConnectionPoolStub pool = new RpcClientConnectionPoolStub();
+		Map<Object, RpcSenderStub> connections = Map.of(
+				1, new RpcSenderStub(),
+				2, new RpcSenderStub(),
+				3, new RpcSenderStub());
+		RpcStrategyRendezvousHashing rendezvousHashing = RpcStrategyRendezvousHashing.create(RpcMessageDataStubWithKey::key)
+				.withBuckets(64)
+				.withShard(1, server(address1))
+				.withShard(2, server(address2))
+				.withShard(3, server(address3));
+
+		pool.put(address1, connections.get(1));
+		pool.put(address2, connections.get(2));
+		pool.put(address3, connections.get(3));
+		RpcSender sender = rendezvousHashing.createSender(pool);
+
+		List<Object> owners = rendezvousHashing.getBucketOwners();
+		assertEquals(64, owners.size());
+		assertEquals(Set.of(1, 2, 3), new HashSet<>(owners));
+		for (int bucket = 0; bucket < owners.size(); bucket++) {
+			RpcSenderStub owner = connections.get(owners.get(bucket));
+			int requests = owner.getRequests();
+			sender.sendRequest(new RpcMessageDataStubWithKey(bucket), 50, assertNoCalls());
+			assertEquals(requests + 1, owner.getRequests());
+		}
+	}
+
 	private record RpcMessageDataStubWithKey(int key) {}
 }
@@ -55,6 +55,41 @@ final class ByteBufConcurrentQueue {
 			pos2 = ((long) head << 32) + (tail & 0xFFFFFFFFL);
 		} while (!pos.compareAndSet(pos1, pos2));
 
+		return take(tail);
+	}
+
+	/**
+	 * Retrieves up to {@code count} bufs with a single update of queue positions
+	 *
+	 * @param dst   an array to put retrieved bufs to, starting from index 0
+	 * @param count maximum number of bufs to be retrieved
+	 * @return number of retrieved bufs
+	 */
+	public int poll(ByteBuf[] dst, int count) {
+		long pos1, pos2;
+		int head, tail, n;
+		do {
+			pos1 = pos.get();
+			head = (int) (pos1 >>> 32);
+			tail = (int) pos1;
+			n = Math.min(count, head - tail);
+			if (n <= 0) {
+				return 0;
+			}
+			if (ByteBufPool.USE_WATCHDOG) {
+				int size = head - tail - n;
+				realMin.updateAndGet(prevMin -> Math.min(prevMin, size));
+			}
+			pos2 = ((long) head << 32) + ((tail + n) & 0xFFFFFFFFL);
+		} while (!pos.compareAndSet(pos1, pos2));
+
+		for (int i = 0; i < n; i++) {
+			dst[i] = take(tail + i + 1);
+		}
+		return n;
+	}
+
+	private ByteBuf take(int tail) {
 		Integer boxedTail = null;
 
 		while (true) {
@@ -84,7 +119,30 @@ final class ByteBufConcurrentQueue {
 			pos2 = pos1 + 0x100000000L;
 		} while (!pos.compareAndSet(pos1, pos2));
 
-		int head = (int) (pos2 >>> 32);
+		put((int) (pos2 >>> 32), buf);
+	}
+
+	/**
+	 * Adds bufs with a single update of queue positions
+	 *
+	 * @param src   an array of bufs to be added
+	 * @param from  an index of a first buf in array
+	 * @param count number of bufs to be added
+	 */
+	public void offer(ByteBuf[] src, int from, int count) {
+		long pos1, pos2;
+		do {
+			pos1 = pos.get();
+			pos2 = pos1 + ((long) count << 32);
+		} while (!pos.compareAndSet(pos1, pos2));
+
+		int head = (int) (pos1 >>> 32);
+		for (int i = 0; i < count; i++) {
+			put(head + i + 1, src[from + i]);
+		}
+	}
+
+	private void put(int head, @NotNull ByteBuf buf) {
 		buf.pos = head;
 
 		AtomicReferenceArray<ByteBuf> bufs = array.get();
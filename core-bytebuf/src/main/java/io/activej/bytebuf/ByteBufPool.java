@@ -22,9 +22,11 @@ import io.activej.common.MemSize;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.StackWalker.StackFrame;
+import java.lang.ref.WeakReference;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
 
 import static io.activej.common.Checks.checkArgument;
 import static java.lang.Integer.numberOfLeadingZeros;
@@ -42,6 +44,11 @@ import static java.util.stream.Collectors.toList;
  * When you need a new ByteBuf, it is either created (if a ByteBuf of
  * such capacity hasn't been used and recycled yet) or popped from the
  * appropriate slabs' stack.
+ * <p>
+ * Optionally, each thread may keep a small cache of ByteBufs for each slab
+ * (see {@link #USE_THREAD_CACHE}). ByteBufs are then allocated from and recycled into
+ * a cache of a current thread, and only batches of ByteBufs are exchanged with global slabs,
+ * so that threads rarely contend with each other.
  */
 @SuppressWarnings({"WeakerAccess", "unused"})
 public final class ByteBufPool {
@@ -86,6 +93,33 @@ public final class ByteBufPool {
 	 */
 	static final boolean CLEAR_ON_RECYCLE = ApplicationSettings.getBoolean(ByteBufPool.class, "clearOnRecycle", false);
 
+	/**
+	 * Maximum number of ByteBufs of a single slab stored in a cache of a thread,
+	 * half of them are exchanged with a global slab at once.
+	 * By default, set at 64
+	 */
+	static final int THREAD_CACHE_SIZE = ApplicationSettings.getInt(ByteBufPool.class, "threadCacheSize", 64);
+
+	/**
+	 * Allows caching ByteBufs in each thread before returning them to global slabs
+	 * if set at value {@code true}. By default, set at value {@code false}.
+	 * <p>
+	 * A thread cache is useful when ByteBufs are allocated and recycled
+	 * in many threads concurrently. ByteBufs stored in a cache of a thread
+	 * are only available to that thread, so a thread that stops using a pool
+	 * should call {@link #flushThreadCache()}. Caches of threads that have exited
+	 * are returned to global slabs when global slabs run out of ByteBufs.
+	 */
+	static final boolean USE_THREAD_CACHE = ApplicationSettings.getBoolean(ByteBufPool.class, "useThreadCache", false) && THREAD_CACHE_SIZE > 0;
+
+	/**
+	 * Maximum size of ByteBufs stored in a cache of a thread,
+	 * larger ByteBufs are always recycled into global slabs.
+	 * By default, set at 64Kb
+	 */
+	static final int THREAD_CACHE_MAX_SIZE = ApplicationSettings.getMemSize(ByteBufPool.class, "threadCacheMaxSize", MemSize.kilobytes(64)).toInt();
+	private static final int THREAD_CACHE_MAX_INDEX = 32 - numberOfLeadingZeros(THREAD_CACHE_MAX_SIZE - 1);
+
 	static final boolean USE_WATCHDOG = ApplicationSettings.getBoolean(ByteBufPool.class, "useWatchdog", false);
 	static final Duration WATCHDOG_INTERVAL = ApplicationSettings.getDuration(ByteBufPool.class, "watchdogInterval", Duration.ofSeconds(2));
 	static final Duration WATCHDOG_SMOOTHING_WINDOW = ApplicationSettings.getDuration(ByteBufPool.class, "watchdogSmoothingWindow", Duration.ofSeconds(10));
@@ -108,6 +142,83 @@ public final class ByteBufPool {
 
 	private static final ByteBufPoolStats stats = new ByteBufPoolStats();
 
+	private static final List<ThreadCache> threadCaches = new ArrayList<>();
+	private static final ThreadLocal<ThreadCache> THREAD_CACHE = ThreadLocal.withInitial(() -> {
+		ThreadCache cache = new ThreadCache(Thread.currentThread());
+		synchronized (threadCaches) {
+			threadCaches.add(cache);
+		}
+		return cache;
+	});
+
+	/**
+	 * A per-thread cache of ByteBufs, accessed only by its own thread.
+	 * Counters may be read by other threads for stats.
+	 * <p>
+	 * Once its thread has exited, a cache is returned to global slabs by any thread.
+	 */
+	private static final class ThreadCache {
+		final WeakReference<Thread> thread;
+		final ByteBuf[][] magazines = new ByteBuf[NUMBER_OF_SLABS][];
+		final int[] counts = new int[NUMBER_OF_SLABS];
+
+		long hits;
+		long refills;
+		long flushes;
+
+		ThreadCache(Thread thread) {
+			this.thread = new WeakReference<>(thread);
+		}
+
+		boolean isThreadAlive() {
+			Thread thread = this.thread.get();
+			return thread != null && thread.isAlive();
+		}
+
+		void flush() {
+			for (int i = 0; i < NUMBER_OF_SLABS; i++) {
+				int count = counts[i];
+				if (count == 0) continue;
+				ByteBuf[] magazine = magazines[i];
+				slabs[i].offer(magazine, 0, count);
+				Arrays.fill(magazine, 0, count, null);
+				counts[i] = 0;
+			}
+		}
+
+		void clear() {
+			for (int i = 0; i < NUMBER_OF_SLABS; i++) {
+				if (magazines[i] != null) Arrays.fill(magazines[i], null);
+				counts[i] = 0;
+			}
+			hits = refills = flushes = 0;
+		}
+
+		ByteBuf[] magazine(int index) {
+			ByteBuf[] magazine = magazines[index];
+			if (magazine == null) {
+				magazine = magazines[index] = new ByteBuf[THREAD_CACHE_SIZE];
+			}
+			return magazine;
+		}
+
+		int items() {
+			int items = 0;
+			for (int count : counts) {
+				items += count;
+			}
+			return items;
+		}
+
+		long size() {
+			long size = 0;
+			for (int i = 0; i < NUMBER_OF_SLABS - 1; i++) {
+				size += (1L << i) * counts[i];
+			}
+			return size;
+		}
+	}
+
 	/**
 	 * Stores information about ByteBufs for stats.
 	 * <p>
@@ -219,8 +330,9 @@ public final class ByteBufPool {
 			}
 		}
 		int index = 32 - numberOfLeadingZeros(size - 1); // index==32 for size==0
-		ByteBufConcurrentQueue queue = slabs[index];
-		ByteBuf buf = queue.poll();
+		ByteBuf buf = USE_THREAD_CACHE && index <= THREAD_CACHE_MAX_INDEX ?
+				pollThreadCache(index) :
+				slabs[index].poll();
 		if (buf != null) {
 			if (ByteBuf.CHECK_RECYCLE && buf.refs != -1) throw onByteBufRecycled(buf);
 			buf.tail = 0;
@@ -306,9 +418,82 @@ public final class ByteBufPool {
 			recycleRegistry.put(buf, buildRegistryEntry(buf));
 			allocateRegistry.remove(buf);
 		}
+		if (USE_THREAD_CACHE && slab <= THREAD_CACHE_MAX_INDEX) {
+			offerThreadCache(slab, buf);
+			return;
+		}
 		queue.offer(buf);
 	}
 
+	private static ByteBuf pollThreadCache(int index) {
+		ThreadCache cache = THREAD_CACHE.get();
+		ByteBuf[] magazine = cache.magazine(index);
+		int count = cache.counts[index];
+		if (count != 0) {
+			cache.hits++;
+		} else {
+			count = slabs[index].poll(magazine, max(1, THREAD_CACHE_SIZE / 2));
+			if (count == 0 && flushExitedThreadCaches()) {
+				count = slabs[index].poll(magazine, max(1, THREAD_CACHE_SIZE / 2));
+			}
+			if (count == 0) return null;
+			cache.refills++;
+		}
+		ByteBuf buf = magazine[--count];
+		magazine[count] = null;
+		cache.counts[index] = count;
+		return buf;
+	}
+
+	private static void offerThreadCache(int index, ByteBuf buf) {
+		ThreadCache cache = THREAD_CACHE.get();
+		ByteBuf[] magazine = cache.magazine(index);
+		int count = cache.counts[index];
+		if (count == magazine.length) {
+			// return the least recently recycled half of a magazine to a global slab
+			int flushed = max(1, count / 2);
+			slabs[index].offer(magazine, 0, flushed);
+			System.arraycopy(magazine, flushed, magazine, 0, count - flushed);
+			Arrays.fill(magazine, count - flushed, count, null);
+			count -= flushed;
+			cache.flushes++;
+		}
+		magazine[count] = buf;
+		cache.counts[index] = count + 1;
+	}
+
+	/**
+	 * Returns all ByteBufs stored in a cache of a current thread to global slabs.
+	 * <p>
+	 * Should be called by threads that stop using this pool
+	 * if {@link #USE_THREAD_CACHE} is enabled, otherwise does nothing
+	 */
+	public static void flushThreadCache() {
+		if (!USE_THREAD_CACHE) return;
+		THREAD_CACHE.get().flush();
+	}
+
+	/**
+	 * Returns caches of exited threads to global slabs and unregisters them.
+	 * <p>
+	 * Writes of an exited thread are visible once {@link Thread#isAlive()} returns {@code false}
+	 *
+	 * @return {@code true} if any cache has been unregistered
+	 */
+	private static boolean flushExitedThreadCaches() {
+		boolean flushed = false;
+		synchronized (threadCaches) {
+			for (Iterator<ThreadCache> it = threadCaches.iterator(); it.hasNext(); ) {
+				ThreadCache cache = it.next();
+				if (cache.isThreadAlive()) continue;
+				cache.flush();
+				it.remove();
+				flushed = true;
+			}
+		}
+		return flushed;
+	}
+
 	public static @NotNull ByteBuf ensureWriteRemaining(@NotNull ByteBuf buf, int newWriteRemaining) {
 		return ensureWriteRemaining(buf, 0, newWriteRemaining);
 	}
@@ -394,9 +579,18 @@ public final class ByteBufPool {
 	}
 
 	/**
-	 * Clears all the slabs and stats.
+	 * Clears all the slabs, caches of all threads and stats.
+	 * <p>
+	 * Should not be called while other threads use this pool,
+	 * as their caches are cleared too
 	 */
 	public static void clear() {
+		if (USE_THREAD_CACHE) {
+			synchronized (threadCaches) {
+				threadCaches.removeIf(cache -> !cache.isThreadAlive());
+				threadCaches.forEach(ThreadCache::clear);
+			}
+		}
 		for (int i = 0; i < ByteBufPool.NUMBER_OF_SLABS; i++) {
 			slabs[i].clear();
 			created[i].set(0);
@@ -426,6 +620,16 @@ public final class ByteBufPool {
 
 		long getTotalEvicted();
 
+		long getThreadCacheHits();
+
+		long getThreadCacheRefills();
+
+		long getThreadCacheFlushes();
+
+		int getThreadCacheItems();
+
+		long getThreadCacheSizeKB();
+
 		List<String> getPoolSlabs();
 
 		List<Entry> queryUnrecycledBufs(int limit);
@@ -463,7 +667,7 @@ public final class ByteBufPool {
 
 		@Override
 		public int getPoolItems() {
-			return stream(slabs).mapToInt(ByteBufConcurrentQueue::size).sum();
+			return stream(slabs).mapToInt(ByteBufConcurrentQueue::size).sum() + getThreadCacheItems();
 		}
 
 		@SuppressWarnings("StringConcatenationInsideStringBufferAppend")
@@ -488,7 +692,7 @@ public final class ByteBufPool {
 				long slabSize = 1L << i;
 				result += slabSize * slabs[i].size();
 			}
-			return result;
+			return result + sumThreadCaches(ThreadCache::size);
 		}
 
 		@Override
@@ -516,6 +720,47 @@ public final class ByteBufPool {
 			return totalEvicted;
 		}
 
+		/**
+		 * Returns number of allocations served by thread caches without accessing global slabs
+		 */
+		@Override
+		public long getThreadCacheHits() {
+			return sumThreadCaches(cache -> cache.hits);
+		}
+
+		/**
+		 * Returns number of batches of ByteBufs taken by thread caches from global slabs
+		 */
+		@Override
+		public long getThreadCacheRefills() {
+			return sumThreadCaches(cache -> cache.refills);
+		}
+
+		/**
+		 * Returns number of batches of ByteBufs returned by thread caches to global slabs
+		 */
+		@Override
+		public long getThreadCacheFlushes() {
+			return sumThreadCaches(cache -> cache.flushes);
+		}
+
+		@Override
+		public int getThreadCacheItems() {
+			return (int) sumThreadCaches(ThreadCache::items);
+		}
+
+		@Override
+		public long getThreadCacheSizeKB() {
+			return sumThreadCaches(ThreadCache::size) / 1024;
+		}
+
+		private static long sumThreadCaches(ToLongFunction<ThreadCache> fn) {
+			if (!USE_THREAD_CACHE) return 0;
+			synchronized (threadCaches) {
+				return threadCaches.stream().mapToLong(fn).sum();
+			}
+		}
+
 		public Map<ByteBuf, Entry> getUnrecycledBufs() {
 			return new HashMap<>(allocateRegistry);
 		}
@@ -0,0 +1,88 @@
+package io.activej.bytebuf;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public final class ByteBufConcurrentQueueTest {
+
+	@Test
+	public void testBatchOperations() {
+		ByteBufConcurrentQueue queue = new ByteBufConcurrentQueue();
+		ByteBuf[] bufs = new ByteBuf[10];
+		for (int i = 0; i < bufs.length; i++) {
+			bufs[i] = ByteBuf.wrapForReading(new byte[]{(byte) i});
+		}
+
+		queue.offer(bufs, 2, 5);
+		queue.offer(bufs[0]);
+		assertEquals(6, queue.size());
+
+		ByteBuf[] polled = new ByteBuf[10];
+		assertEquals(4, queue.poll(polled, 4));
+		for (int i = 0; i < 4; i++) {
+			assertSame(bufs[2 + i], polled[i]);
+		}
+		assertSame(bufs[6], queue.poll());
+		assertEquals(1, queue.poll(polled, 10));
+		assertSame(bufs[0], polled[0]);
+		assertEquals(0, queue.poll(polled, 10));
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentBatchOperations() throws InterruptedException {
+		ByteBufConcurrentQueue queue = new ByteBufConcurrentQueue();
+		int threadsCount = 8;
+		int bufsPerThread = 32;
+		List<ByteBuf> allBufs = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < threadsCount; t++) {
+			int finalT = t;
+			threads.add(new Thread(() -> {
+				ByteBuf[] bufs = new ByteBuf[bufsPerThread];
+				for (int i = 0; i < bufsPerThread; i++) {
+					bufs[i] = ByteBuf.wrapForReading(new byte[1]);
+					allBufs.add(bufs[i]);
+				}
+				int owned = bufsPerThread;
+				for (int j = 0; j < 10_000; j++) {
+					if (finalT % 2 == 0) {
+						queue.offer(bufs, 0, owned);
+						owned = queue.poll(bufs, bufsPerThread);
+					} else {
+						for (int i = 0; i < owned; i++) {
+							queue.offer(bufs[i]);
+						}
+						owned = 0;
+						ByteBuf buf;
+						while (owned < bufsPerThread && (buf = queue.poll()) != null) {
+							bufs[owned++] = buf;
+						}
+					}
+				}
+				queue.offer(bufs, 0, owned);
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(threadsCount * bufsPerThread, queue.size());
+		Set<ByteBuf> polled = Collections.newSetFromMap(new IdentityHashMap<>());
+		ByteBuf buf;
+		while ((buf = queue.poll()) != null) {
+			assertTrue(polled.add(buf));
+		}
+		assertEquals(allBufs.size(), polled.size());
+	}
+}
@@ -24,12 +24,20 @@ import io.activej.bytebuf.ByteBufPool;
 import io.activej.common.MemSize;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.csp.AbstractChannelSupplier;
+import io.activej.csp.ChannelSupplier;
 import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.FileSystemException;
 import java.nio.file.Files;
@@ -37,20 +45,25 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
 
 import static io.activej.common.Checks.checkArgument;
+import static java.lang.invoke.MethodType.methodType;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
 import static java.nio.file.StandardOpenOption.READ;
 
 /**
  * This supplier allows you to asynchronously read binary data from a file.
  */
-public final class ChannelFileReader extends AbstractChannelSupplier<ByteBuf> implements WithInitializer<ChannelFileReader> {
+public final class ChannelFileReader extends AbstractChannelSupplier<ByteBuf> implements ChannelFileSupplier, WithInitializer<ChannelFileReader> {
 	private static final Logger logger = LoggerFactory.getLogger(ChannelFileReader.class);
 
 	private static final OpenOption[] DEFAULT_OPTIONS = new OpenOption[]{READ};
 
 	public static final MemSize DEFAULT_BUFFER_SIZE = MemSize.kilobytes(8);
 
+	private static final @Nullable MethodHandle UNMAPPER = unmapper();
+
 	private final AsyncFileService fileService;
 	private final FileChannel channel;
 
@@ -58,6 +71,10 @@ public final class ChannelFileReader extends AbstractChannelSupplier<ByteBuf> im
 	private long position = 0;
 	private long limit = Long.MAX_VALUE;
 
+	private int mappingWindow;
+	private @Nullable MappedByteBuffer mapped;
+	private long mappedPosition;
+
 	private ChannelFileReader(AsyncFileService fileService, FileChannel channel) {
 		this.fileService = fileService;
 		this.channel = channel;
@@ -118,16 +135,79 @@ public final class ChannelFileReader extends AbstractChannelSupplier<ByteBuf> im
 		return this;
 	}
 
+	/**
+	 * Makes this reader read a file through memory-mapped regions of a given size
+	 * instead of issuing a positional read for each buffer.
+	 * <p>
+	 * Bytes are copied from a mapped region directly in {@link #get()}, without a round trip
+	 * to an {@link AsyncFileService}. Pages of a file that are not in a page cache
+	 * are read from disk on a thread that calls {@link #get()}, so this mode
+	 * suits files that are read often and are likely to be cached.
+	 * A region is unmapped as soon as a reader moves past it or gets closed.
+	 *
+	 * @param window a maximum size of a single mapped region
+	 */
+	public ChannelFileReader withMemoryMapping(MemSize window) {
+		checkArgument(window.toLong() > 0 && window.toLong() <= Integer.MAX_VALUE, "Mapping window should be positive and less than 2GB");
+		this.mappingWindow = window.toInt();
+		return this;
+	}
+
+	/**
+	 * Returns a supplier which is wrapped the same way as by {@link ChannelSupplier#withEndOfStream(UnaryOperator)},
+	 * and which still exposes this reader as a {@link ChannelFileSupplier}
+	 */
+	@Override
+	public ChannelSupplier<ByteBuf> withEndOfStream(UnaryOperator<Promise<Void>> fn) {
+		return new EndOfStreamSupplier(this, fn);
+	}
+
+	@Override
+	public ChannelFileReader getFileReader() {
+		return this;
+	}
+
 	public long getPosition() {
 		return position;
 	}
 
+	public long getLimit() {
+		return limit;
+	}
+
+	public FileChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Returns the number of bytes that are left to be read from a file,
+	 * taking into account a limit of this reader
+	 */
+	public long getRemaining() throws IOException {
+		return Math.min(limit, Math.max(0, channel.size() - position));
+	}
+
+	/**
+	 * Marks bytes of a file as transferred directly from a file channel, bypassing {@link #get()}.
+	 * Nothing is left to be read after that, so a next {@link #get()} closes this reader
+	 * and returns an end of stream
+	 *
+	 * @param transferred number of transferred bytes
+	 */
+	public void onTransferred(long transferred) {
+		position += transferred;
+		limit = 0;
+	}
+
 	@Override
 	protected Promise<ByteBuf> doGet() {
 		if (limit == 0) {
 			close();
 			return Promise.of(null);
 		}
+		if (mappingWindow != 0) {
+			return doGetMapped();
+		}
 		ByteBuf buf = ByteBufPool.allocateExact((int) Math.min(bufferSize, limit));
 		return fileService.read(channel, position, buf.array(), buf.head(), buf.writeRemaining())
 				.then(
@@ -152,8 +232,65 @@ public final class ChannelFileReader extends AbstractChannelSupplier<ByteBuf> im
 						});
 	}
 
+	private Promise<ByteBuf> doGetMapped() {
+		MappedByteBuffer region;
+		try {
+			region = mapRegion();
+		} catch (IOException e) {
+			closeEx(e);
+			return Promise.ofException(getException());
+		}
+		if (region == null) {
+			close();
+			return Promise.of(null);
+		}
+		int offset = (int) (position - mappedPosition);
+		int size = (int) Math.min(Math.min(bufferSize, limit), region.limit() - offset);
+		ByteBuf buf = ByteBufPool.allocateExact(size);
+		region.get(offset, buf.array(), buf.tail(), size);
+		buf.moveTail(size);
+		position += size;
+		if (limit != Long.MAX_VALUE) {
+			limit -= size;
+		}
+		return Promise.of(buf);
+	}
+
+	/**
+	 * Returns a mapped region that contains current position,
+	 * mapping a next window of a file if needed
+	 *
+	 * @return a mapped region or {@code null} if there is nothing left to read
+	 */
+	private @Nullable MappedByteBuffer mapRegion() throws IOException {
+		if (mapped != null && position >= mappedPosition && position < mappedPosition + mapped.limit()) {
+			return mapped;
+		}
+		unmap();
+		long size = Math.min(Math.min(mappingWindow, limit), channel.size() - position);
+		if (size <= 0) {
+			return null;
+		}
+		mapped = channel.map(READ_ONLY, position, size);
+		mappedPosition = position;
+		return mapped;
+	}
+
+	private void unmap() {
+		MappedByteBuffer mapped = this.mapped;
+		if (mapped == null) return;
+		this.mapped = null;
+		if (UNMAPPER == null) return; // a region is unmapped once it is garbage collected
+		try {
+			UNMAPPER.invokeExact((ByteBuffer) mapped);
+		} catch (Throwable e) {
+			logger.warn("{}: failed to unmap a file region", this, e);
+		}
+	}
+
 	@Override
 	protected void onClosed(@NotNull Exception e) {
+		unmap();
 		try {
 			if (!channel.isOpen()) {
 				throw new AsyncCloseException("File has been closed");
@@ -166,6 +303,71 @@ public final class ChannelFileReader extends AbstractChannelSupplier<ByteBuf> im
 		}
 	}
 
+	/**
+	 * JDK does not provide a public way to unmap a region before it is garbage collected,
+	 * so {@code sun.misc.Unsafe#invokeCleaner} is used where it is available
+	 */
+	private static @Nullable MethodHandle unmapper() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			return MethodHandles.lookup()
+					.findVirtual(unsafeClass, "invokeCleaner", methodType(void.class, ByteBuffer.class))
+					.bindTo(theUnsafe.get(null));
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			logger.debug("Mapped file regions will be unmapped by garbage collector", e);
+			return null;
+		}
+	}
+
+	/**
+	 * A reader wrapped with an end-of-stream handler
+	 *
+	 * @see ChannelSupplier#withEndOfStream(UnaryOperator)
+	 */
+	private static final class EndOfStreamSupplier extends AbstractChannelSupplier<ByteBuf> implements ChannelFileSupplier {
+		private final ChannelFileSupplier supplier;
+		private final SettablePromise<Void> endOfStream = new SettablePromise<>();
+		private final Promise<Void> newEndOfStream;
+
+		EndOfStreamSupplier(ChannelFileSupplier supplier, UnaryOperator<Promise<Void>> fn) {
+			super(supplier);
+			this.supplier = supplier;
+			this.newEndOfStream = fn.apply(endOfStream);
+		}
+
+		@Override
+		public ChannelFileReader getFileReader() {
+			return supplier.getFileReader();
+		}
+
+		@Override
+		public ChannelSupplier<ByteBuf> withEndOfStream(UnaryOperator<Promise<Void>> fn) {
+			return new EndOfStreamSupplier(this, fn);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected Promise<ByteBuf> doGet() {
+			return supplier.get()
+					.then((item, e) -> {
+						if (e == null) {
+							if (item != null) return Promise.of(item);
+							endOfStream.trySet(null);
+						} else {
+							endOfStream.trySetException(e);
+						}
+						return (Promise<ByteBuf>) (Promise<?>) newEndOfStream;
+					});
+		}
+
+		@Override
+		protected void onClosed(@NotNull Exception e) {
+			endOfStream.trySetException(e);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "ChannelFileReader{" +
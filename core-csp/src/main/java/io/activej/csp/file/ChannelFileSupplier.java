@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.csp.file;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.csp.ChannelSupplier;
+
+/**
+ * A supplier of file contents which exposes an underlying {@link ChannelFileReader},
+ * either being the reader itself or a supplier that wraps it.
+ * <p>
+ * It allows consumers to transfer contents of a file directly, bypassing {@link #get()}.
+ * After contents have been transferred, a consumer should call {@link ChannelFileReader#onTransferred(long)}
+ * and then {@link #get()} this supplier, so that it reaches its end of stream
+ */
+public interface ChannelFileSupplier extends ChannelSupplier<ByteBuf> {
+	ChannelFileReader getFileReader();
+}
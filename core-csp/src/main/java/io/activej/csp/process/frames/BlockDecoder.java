@@ -66,4 +66,11 @@ public interface BlockDecoder {
 	 */
 	boolean ignoreMissingEndOfStreamBlock();
 
+	/**
+	 * Releases resources held by decoder, if any.
+	 * This method is called once {@link ChannelFrameDecoder} has finished decoding.
+	 * Decoder should not be used after it has been closed.
+	 */
+	default void close() {
+	}
 }
@@ -43,4 +43,12 @@ public interface BlockEncoder {
 	 * @return {@link ByteBuf} which contains End-Of-Stream block
 	 */
 	ByteBuf encodeEndOfStreamBlock();
+
+	/**
+	 * Releases resources held by encoder, if any.
+	 * This method is called once {@link ChannelFrameEncoder} has finished encoding.
+	 * Encoder should not be used after it has been closed.
+	 */
+	default void close() {
+	}
 }
@@ -30,6 +30,7 @@ import io.activej.csp.dsl.WithChannelTransformer;
 import io.activej.csp.process.AbstractCommunicatingProcess;
 import io.activej.promise.Promise;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import static io.activej.csp.process.frames.BlockDecoder.END_OF_STREAM;
 
@@ -138,6 +139,11 @@ public final class ChannelFrameDecoder extends AbstractCommunicatingProcess
 		}
 	}
 
+	@Override
+	protected void afterProcess(@Nullable Exception e) {
+		decoder.close();
+	}
+
 	@Override
 	protected void doClose(Exception e) {
 		input.closeEx(e);
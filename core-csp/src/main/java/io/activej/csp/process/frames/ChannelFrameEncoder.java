@@ -25,6 +25,7 @@ import io.activej.csp.ChannelSupplier;
 import io.activej.csp.dsl.WithChannelTransformer;
 import io.activej.csp.process.AbstractCommunicatingProcess;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public final class ChannelFrameEncoder extends AbstractCommunicatingProcess
 		implements WithChannelTransformer<ChannelFrameEncoder, ByteBuf, ByteBuf>, WithInitializer<ChannelFrameEncoder> {
@@ -98,6 +99,11 @@ public final class ChannelFrameEncoder extends AbstractCommunicatingProcess
 				});
 	}
 
+	@Override
+	protected void afterProcess(@Nullable Exception e) {
+		encoder.close();
+	}
+
 	@Override
 	protected void doClose(Exception e) {
 		input.closeEx(e);
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.csp.process.frames;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.common.Checks;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.zip.Deflater;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.csp.process.frames.DeflateFrameFormat.*;
+
+final class DeflateBlockEncoder implements BlockEncoder {
+	private static final boolean CHECK = Checks.isEnabled(DeflateBlockEncoder.class);
+
+	private final Deflater deflater;
+	private final byte @Nullable [] dictionary;
+	private final byte[] header;
+	private final byte[] headerAndLastBlockBytes;
+	private boolean writeHeader = true;
+
+	DeflateBlockEncoder(int compressionLevel, byte @Nullable [] dictionary) {
+		this.deflater = new Deflater(compressionLevel, true);
+		this.dictionary = dictionary;
+
+		this.header = new byte[HEADER_LENGTH];
+		System.arraycopy(MAGIC, 0, header, 0, MAGIC_LENGTH);
+		int dictionaryId = dictionaryId(dictionary);
+		for (int i = 0; i < 4; i++) {
+			header[MAGIC_LENGTH + i] = (byte) (dictionaryId >>> (24 - 8 * i));
+		}
+		this.headerAndLastBlockBytes = new byte[HEADER_LENGTH + LAST_BLOCK_BYTES.length];
+		System.arraycopy(header, 0, headerAndLastBlockBytes, 0, HEADER_LENGTH);
+		System.arraycopy(LAST_BLOCK_BYTES, 0, headerAndLastBlockBytes, HEADER_LENGTH, LAST_BLOCK_BYTES.length);
+	}
+
+	@Override
+	public void reset() {
+		writeHeader = true;
+	}
+
+	@Override
+	public ByteBuf encode(ByteBuf inputBuf) {
+		int headerSize = writeHeader ? HEADER_LENGTH : 0;
+		writeHeader = false;
+
+		int off = inputBuf.head();
+		int len = inputBuf.readRemaining();
+		byte[] array = inputBuf.array();
+
+		if (CHECK) checkArgument(len != 0, "Encoding empty buf");
+
+		// compressed data is only kept if it is smaller than original data
+		ByteBuf outputBuf = ByteBufPool.allocate(headerSize + 2 * 4 + len + 1);
+
+		if (headerSize != 0) {
+			System.arraycopy(header, 0, outputBuf.array(), 0, HEADER_LENGTH);
+			outputBuf.moveTail(HEADER_LENGTH);
+		}
+
+		deflater.reset();
+		if (dictionary != null) {
+			deflater.setDictionary(dictionary);
+		}
+		deflater.setInput(array, off, len);
+		deflater.finish();
+		int compressedLength = deflater.deflate(outputBuf.array(), headerSize + 2 * 4, Math.max(len - 4, 0));
+
+		if (deflater.finished() && compressedLength + 4 < len) {
+			outputBuf.writeInt(compressedLength | ~COMPRESSED_LENGTH_MASK);
+			outputBuf.writeInt(len);
+			outputBuf.moveTail(compressedLength);
+		} else {
+			outputBuf.writeInt(len);
+			System.arraycopy(array, off, outputBuf.array(), outputBuf.tail(), len);
+			outputBuf.moveTail(len);
+		}
+		outputBuf.put(END_OF_BLOCK);
+
+		return outputBuf;
+	}
+
+	@Override
+	public ByteBuf encodeEndOfStreamBlock() {
+		if (!writeHeader) return ByteBuf.wrapForReading(LAST_BLOCK_BYTES);
+		writeHeader = false;
+		return ByteBuf.wrapForReading(headerAndLastBlockBytes);
+	}
+
+	@Override
+	public void close() {
+		deflater.end();
+	}
+}
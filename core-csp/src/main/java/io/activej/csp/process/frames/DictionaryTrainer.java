@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.csp.process.frames;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds a compression dictionary out of samples, similarly to COVER algorithm of Zstandard.
+ * <p>
+ * Each k-mer (a substring of {@code K} bytes) is scored by a number of samples that contain it.
+ * Concatenated samples are split into epochs, one per dictionary segment,
+ * and a segment with the highest total score of k-mers is picked from each epoch.
+ * Scores of k-mers of a picked segment are reset, so that the same content is not picked twice.
+ */
+final class DictionaryTrainer {
+	private static final int K = 8;
+	private static final int SEGMENT_SIZE = 64;
+	private static final int TABLE_BITS = 20;
+
+	static byte[] train(Collection<byte[]> samples, int dictionarySize) {
+		int totalSize = 0;
+		for (byte[] sample : samples) {
+			totalSize += sample.length;
+		}
+		byte[] data = new byte[totalSize];
+		int[] kmers = new int[totalSize];
+		int[] scores = new int[1 << TABLE_BITS];
+		int[] lastSample = new int[1 << TABLE_BITS];
+
+		int offset = 0;
+		int sampleIndex = 0;
+		for (byte[] sample : samples) {
+			sampleIndex++;
+			System.arraycopy(sample, 0, data, offset, sample.length);
+			for (int i = 0; i < sample.length; i++) {
+				if (i + K > sample.length) {
+					kmers[offset + i] = -1;
+					continue;
+				}
+				int kmer = hash(sample, i);
+				kmers[offset + i] = kmer;
+				if (lastSample[kmer] != sampleIndex) {
+					lastSample[kmer] = sampleIndex;
+					scores[kmer]++;
+				}
+			}
+			offset += sample.length;
+		}
+
+		int epochs = Math.max(1, Math.min(dictionarySize / SEGMENT_SIZE, totalSize / SEGMENT_SIZE));
+		int epochSize = totalSize / epochs;
+		List<Segment> segments = new ArrayList<>();
+		int size = 0;
+		for (int epoch = 0; epoch < epochs && size < dictionarySize; epoch++) {
+			int from = epoch * epochSize;
+			int to = epoch == epochs - 1 ? totalSize : from + epochSize;
+			Segment segment = bestSegment(kmers, scores, from, to, Math.min(SEGMENT_SIZE, dictionarySize - size));
+			if (segment == null) continue;
+			for (int i = segment.from; i < segment.to - K + 1; i++) {
+				if (kmers[i] != -1) scores[kmers[i]] = 0;
+			}
+			segments.add(segment);
+			size += segment.to - segment.from;
+		}
+
+		// segments which are common to more samples are placed closer to the end, as they are cheaper to refer to
+		segments.sort(Comparator.comparingLong(segment -> segment.score));
+		byte[] dictionary = new byte[size];
+		int pos = 0;
+		for (Segment segment : segments) {
+			System.arraycopy(data, segment.from, dictionary, pos, segment.to - segment.from);
+			pos += segment.to - segment.from;
+		}
+		return dictionary;
+	}
+
+	private static @Nullable Segment bestSegment(int[] kmers, int[] scores, int from, int to, int segmentSize) {
+		int length = Math.min(segmentSize, to - from);
+		int window = length - K + 1;
+		if (window <= 0) return null;
+
+		long score = 0;
+		for (int i = from; i < from + window; i++) {
+			score += score(kmers, scores, i);
+		}
+		long bestScore = score;
+		int bestFrom = from;
+		for (int i = from + 1; i + length <= to; i++) {
+			score += score(kmers, scores, i + window - 1) - score(kmers, scores, i - 1);
+			if (score > bestScore) {
+				bestScore = score;
+				bestFrom = i;
+			}
+		}
+		// k-mers which occur in a single sample only do not help to compress other samples
+		return bestScore > window ? new Segment(bestFrom, bestFrom + length, bestScore) : null;
+	}
+
+	private static int score(int[] kmers, int[] scores, int i) {
+		int kmer = kmers[i];
+		return kmer != -1 ? scores[kmer] : 0;
+	}
+
+	private static int hash(byte[] array, int off) {
+		long value = 0;
+		for (int i = 0; i < K; i++) {
+			value = value << 8 | array[off + i] & 0xFF;
+		}
+		return (int) ((value * 0x9E3779B97F4A7C15L) >>> (64 - TABLE_BITS));
+	}
+
+	private static final class Segment {
+		final int from;
+		final int to;
+		final long score;
+
+		Segment(int from, int to, long score) {
+			this.from = from;
+			this.to = to;
+			this.score = score;
+		}
+	}
+}
@@ -115,7 +115,13 @@ public class FrameFormats {
 					if (decoder != null) return decoder.ignoreMissingEndOfStreamBlock();
 
 					// rare case of empty stream
-					return formats.stream().map(FrameFormat::createDecoder).anyMatch(BlockDecoder::ignoreMissingEndOfStreamBlock);
+					for (FrameFormat format : formats) {
+						BlockDecoder formatDecoder = format.createDecoder();
+						boolean ignore = formatDecoder.ignoreMissingEndOfStreamBlock();
+						formatDecoder.close();
+						if (ignore) return true;
+					}
+					return false;
 				}
 
 				@Override
@@ -124,6 +130,15 @@ public class FrameFormats {
 					return tryNextDecoder(bufs);
 				}
 
+				@Override
+				public void close() {
+					if (decoder != null) {
+						decoder.close();
+					} else if (possibleDecoder != null) {
+						possibleDecoder.close();
+					}
+				}
+
 				private ByteBuf tryNextDecoder(ByteBufs bufs) throws MalformedDataException {
 					while (true) {
 						if (possibleDecoder == null) {
@@ -142,6 +157,7 @@ public class FrameFormats {
 						} catch (MalformedDataException ignored) {
 						}
 
+						possibleDecoder.close();
 						possibleDecoder = null;
 					}
 				}
@@ -304,6 +320,11 @@ public class FrameFormats {
 					}
 					return peerEncodedEndOfStream;
 				}
+
+				@Override
+				public void close() {
+					peer.close();
+				}
 			};
 		}
 
@@ -333,6 +354,10 @@ public class FrameFormats {
 					return peer.ignoreMissingEndOfStreamBlock();
 				}
 
+				@Override
+				public void close() {
+					peer.close();
+				}
 			};
 		}
 	}
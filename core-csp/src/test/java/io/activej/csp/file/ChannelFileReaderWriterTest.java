@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static io.activej.promise.TestUtils.await;
@@ -127,4 +128,38 @@ public final class ChannelFileReaderWriterTest {
 
 		assertEquals("", byteBuf.asString(UTF_8));
 	}
+
+	@Test
+	public void endOfStreamWrapperExposesReader() throws IOException {
+		Path path = Paths.get("test_data/in.dat");
+		ChannelFileReader cfr = await(ChannelFileReader.open(newCachedThreadPool(), path));
+
+		StringBuilder sb = new StringBuilder();
+		ChannelSupplier<ByteBuf> supplier = cfr.withEndOfStream(eos -> eos.whenResult(() -> sb.append("eos1")))
+				.withEndOfStream(eos -> eos.whenResult(() -> sb.append(", eos2")));
+		assertNotSame(cfr, supplier);
+		assertSame(cfr, ((ChannelFileSupplier) supplier).getFileReader());
+
+		ByteBuf byteBuf = await(supplier.toCollector(ByteBufs.collector()));
+		assertArrayEquals(Files.readAllBytes(path), byteBuf.asArray());
+		assertEquals("eos1, eos2", sb.toString());
+	}
+
+	@Test
+	public void transferredReader() throws IOException {
+		Path path = Paths.get("test_data/in.dat");
+		long size = Files.size(path);
+		ChannelFileReader cfr = await(ChannelFileReader.open(newCachedThreadPool(), path));
+		cfr.withOffset(10);
+		assertEquals(size - 10, cfr.getRemaining());
+
+		StringBuilder sb = new StringBuilder();
+		ChannelSupplier<ByteBuf> supplier = cfr.withEndOfStream(eos -> eos.whenResult(() -> sb.append("eos")));
+
+		cfr.onTransferred(cfr.getRemaining());
+		assertNull(await(supplier.get()));
+		assertEquals(size, cfr.getPosition());
+		assertEquals("eos", sb.toString());
+		assertFalse(cfr.getChannel().isOpen());
+	}
 }
@@ -0,0 +1,222 @@
+package io.activej.csp.process.frames;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufs;
+import io.activej.common.exception.MalformedDataException;
+import io.activej.csp.ChannelSupplier;
+import io.activej.csp.ChannelSuppliers;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class DeflateFrameFormatTest {
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private static final String[] NAMES = {"alice", "bob", "carol", "dave", "eve", "frank", "grace", "heidi"};
+	private static final String[] ACTIONS = {"login", "logout", "purchase", "view", "search"};
+
+	@Test
+	public void testDictionaryImprovesRatioOfSmallBlocks() throws MalformedDataException {
+		Random random = new Random(0);
+		byte[] dictionary = DeflateFrameFormat.trainDictionary(records(random, 1000), 4096);
+		assertTrue(dictionary.length > 0 && dictionary.length <= 4096);
+
+		List<byte[]> records = records(random, 200);
+		DeflateFrameFormat plain = DeflateFrameFormat.create();
+		DeflateFrameFormat withDictionary = DeflateFrameFormat.create().withDictionary(dictionary);
+
+		long plainSize = encodedSize(plain, records);
+		long dictionarySize = encodedSize(withDictionary, records);
+		assertTrue("Dictionary should improve compression: " + dictionarySize + " vs " + plainSize,
+				dictionarySize < plainSize * 0.7);
+	}
+
+	@Test
+	public void testDictionaryMismatch() throws MalformedDataException {
+		List<byte[]> records = records(new Random(0), 10);
+		byte[] dictionary = DeflateFrameFormat.trainDictionary(records, 1024);
+		ByteBufs encoded = encode(DeflateFrameFormat.create().withDictionary(dictionary), records);
+
+		try {
+			decode(DeflateFrameFormat.create(), encoded);
+			fail();
+		} catch (MalformedDataException ignored) {
+		}
+
+		encoded = encode(DeflateFrameFormat.create().withDictionary(dictionary), records);
+		try {
+			decode(DeflateFrameFormat.create().withDictionary("other dictionary".getBytes(UTF_8)), encoded);
+			fail();
+		} catch (MalformedDataException ignored) {
+		}
+	}
+
+	@Test
+	public void testStreamWithoutDictionaryIsDecodedByDecoderWithDictionary() throws MalformedDataException {
+		List<byte[]> records = records(new Random(0), 10);
+		ByteBufs encoded = encode(DeflateFrameFormat.create().withCompressionLevel(9), records);
+
+		List<byte[]> decoded = decode(DeflateFrameFormat.create().withDictionary("dictionary".getBytes(UTF_8)), encoded);
+
+		assertEquals(records.size(), decoded.size());
+		for (int i = 0; i < records.size(); i++) {
+			assertArrayEquals(records.get(i), decoded.get(i));
+		}
+	}
+
+	@Test
+	public void testStreamReleasesEncoderAndDecoder() {
+		List<byte[]> records = records(new Random(0), 10);
+		ClosingFrameFormat format = new ClosingFrameFormat(DeflateFrameFormat.create());
+
+		ByteBuf decoded = await(ChannelSupplier.ofStream(records.stream().map(ByteBuf::wrapForReading))
+				.transformWith(ChannelFrameEncoder.create(format))
+				.transformWith(ChannelFrameDecoder.create(format))
+				.toCollector(ByteBufs.collector()));
+		decoded.recycle();
+
+		assertEquals(1, format.closedEncoders);
+		assertEquals(1, format.closedDecoders);
+	}
+
+	@Test
+	public void testFailedStreamReleasesEncoderAndDecoder() {
+		ClosingFrameFormat format = new ClosingFrameFormat(DeflateFrameFormat.create());
+		Exception exception = new Exception("Test");
+
+		Exception e = awaitException(ChannelSuppliers.concat(
+						ChannelSupplier.of(ByteBuf.wrapForReading("data".getBytes(UTF_8))),
+						ChannelSupplier.<ByteBuf>ofException(exception))
+				.transformWith(ChannelFrameEncoder.create(format))
+				.transformWith(ChannelFrameDecoder.create(format))
+				.toCollector(ByteBufs.collector()));
+
+		assertSame(exception, e);
+		assertEquals(1, format.closedEncoders);
+		assertEquals(1, format.closedDecoders);
+	}
+
+	private static List<byte[]> records(Random random, int count) {
+		List<byte[]> records = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String record = "{\"timestamp\":" + (1_600_000_000_000L + random.nextInt(1_000_000)) +
+					",\"user\":\"" + NAMES[random.nextInt(NAMES.length)] + "\"" +
+					",\"action\":\"" + ACTIONS[random.nextInt(ACTIONS.length)] + "\"" +
+					",\"amount\":" + random.nextInt(1000) + "}";
+			records.add(record.getBytes(UTF_8));
+		}
+		return records;
+	}
+
+	private static long encodedSize(FrameFormat format, List<byte[]> records) {
+		ByteBufs encoded = encode(format, records);
+		long size = encoded.remainingBytes();
+		encoded.recycle();
+		return size;
+	}
+
+	private static ByteBufs encode(FrameFormat format, List<byte[]> records) {
+		BlockEncoder encoder = format.createEncoder();
+		ByteBufs bufs = new ByteBufs();
+		for (byte[] record : records) {
+			bufs.add(encoder.encode(ByteBuf.wrapForReading(record)));
+		}
+		bufs.add(encoder.encodeEndOfStreamBlock());
+		return bufs;
+	}
+
+	private static List<byte[]> decode(FrameFormat format, ByteBufs bufs) throws MalformedDataException {
+		BlockDecoder decoder = format.createDecoder();
+		List<byte[]> result = new ArrayList<>();
+		try {
+			while (true) {
+				ByteBuf buf = decoder.decode(bufs);
+				assertNotNull(buf);
+				if (buf == BlockDecoder.END_OF_STREAM) break;
+				result.add(buf.asArray());
+			}
+			assertTrue(bufs.isEmpty());
+			return result;
+		} finally {
+			bufs.recycle();
+		}
+	}
+
+	private static final class ClosingFrameFormat implements FrameFormat {
+		private final FrameFormat format;
+		int closedEncoders;
+		int closedDecoders;
+
+		ClosingFrameFormat(FrameFormat format) {
+			this.format = format;
+		}
+
+		@Override
+		public BlockEncoder createEncoder() {
+			BlockEncoder encoder = format.createEncoder();
+			return new BlockEncoder() {
+				@Override
+				public ByteBuf encode(ByteBuf inputBuf) {
+					return encoder.encode(inputBuf);
+				}
+
+				@Override
+				public void reset() {
+					encoder.reset();
+				}
+
+				@Override
+				public ByteBuf encodeEndOfStreamBlock() {
+					return encoder.encodeEndOfStreamBlock();
+				}
+
+				@Override
+				public void close() {
+					encoder.close();
+					closedEncoders++;
+				}
+			};
+		}
+
+		@Override
+		public BlockDecoder createDecoder() {
+			BlockDecoder decoder = format.createDecoder();
+			return new BlockDecoder() {
+				@Override
+				public ByteBuf decode(ByteBufs bufs) throws MalformedDataException {
+					return decoder.decode(bufs);
+				}
+
+				@Override
+				public void reset() {
+					decoder.reset();
+				}
+
+				@Override
+				public boolean ignoreMissingEndOfStreamBlock() {
+					return decoder.ignoreMissingEndOfStreamBlock();
+				}
+
+				@Override
+				public void close() {
+					decoder.close();
+					closedDecoders++;
+				}
+			};
+		}
+	}
+}
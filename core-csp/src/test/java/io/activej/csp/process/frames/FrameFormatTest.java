@@ -65,6 +65,8 @@ public class FrameFormatTest {
 		return List.of(
 				new Object[]{"LZ4 format", LZ4FrameFormat.create(), false, true},
 				new Object[]{"Legacy LZ4 format", LZ4LegacyFrameFormat.create(), false, true},
+				new Object[]{"Deflate format", DeflateFrameFormat.create(), false, true},
+				new Object[]{"Deflate format with dictionary", DeflateFrameFormat.create().withDictionary("0123456789abcdef".getBytes(UTF_8)), false, true},
 
 				new Object[]{"Size prefixed", FrameFormats.sizePrefixed(), false, true},
 				new Object[]{"Identity", FrameFormats.identity(), true, true},
@@ -73,6 +75,7 @@ public class FrameFormatTest {
 				new Object[]{"Compound: Encoded with legacy LZ4, decoded with LZ4", testCompound(LZ4LegacyFrameFormat.create(), LZ4FrameFormat.create()), false, true},
 				new Object[]{"Compound: Encoded with legacy LZ4, decoded with two legacy LZ4s", testCompound(LZ4LegacyFrameFormat.create(), LZ4LegacyFrameFormat.create()), false, true},
 				new Object[]{"Compound: Encoded with LZ4, decoded with two LZ4s", testCompound(LZ4FrameFormat.create(), LZ4FrameFormat.create()), false, true},
+				new Object[]{"Compound: Encoded with Deflate or LZ4, decoded with Deflate and LZ4", testCompound(DeflateFrameFormat.create(), LZ4FrameFormat.create(), DeflateFrameFormat.create()), false, true},
 				new Object[]{"Compound: Encoded with LZ4, decoded with Identity", testCompound(LZ4FrameFormat.create(), FrameFormats.identity()), true, true},
 
 				new Object[]{"With random magic number: Size prefixed", withMagicNumber(sizePrefixed(), RANDOM_MAGIC_NUMBER), false, true},
@@ -26,6 +26,10 @@ import io.activej.csp.ChannelOutput;
 import io.activej.datastream.AbstractStreamConsumer;
 import io.activej.datastream.StreamConsumer;
 import io.activej.datastream.StreamDataAcceptor;
+import io.activej.jmx.api.JmxRefreshable;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.stats.EventStats;
+import io.activej.jmx.stats.ValueStats;
 import io.activej.promise.Promise;
 import io.activej.serializer.BinarySerializer;
 import org.jetbrains.annotations.NotNull;
@@ -68,6 +72,9 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 	private byte @Nullable [] explicitEndOfStream;
 
 	private @Nullable Duration autoFlushInterval;
+	private @Nullable MemSize maxFlushSize;
+	private @Nullable Duration maxFlushDelay;
+	private @Nullable FlushStats flushStats;
 	private BiConsumer<T, Exception> serializationErrorHandler = ($, e) -> closeEx(e);
 
 	private Input input;
@@ -108,6 +115,34 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 		return this;
 	}
 
+	/**
+	 * Enables adaptive flushing, which overrides an auto flush interval.
+	 * <p>
+	 * Serialized data is flushed once an eventloop completes a loop during which
+	 * no new items have been serialized, so that a sole item is sent without a delay.
+	 * While new items keep arriving on each loop, they are accumulated
+	 * and flushed as soon as their size reaches {@code maxFlushSize}
+	 * or the oldest of them has been waiting for {@code maxFlushDelay}.
+	 *
+	 * @param maxFlushSize  a size of accumulated data that triggers a flush
+	 * @param maxFlushDelay a maximum time data may be accumulated for
+	 */
+	public ChannelSerializer<T> withAdaptiveFlush(MemSize maxFlushSize, Duration maxFlushDelay) {
+		checkArgument(maxFlushSize.toLong() > 0, "Max flush size should be positive");
+		checkArgument(!maxFlushDelay.isNegative(), "Max flush delay cannot be negative");
+		this.maxFlushSize = maxFlushSize;
+		this.maxFlushDelay = maxFlushDelay;
+		return this;
+	}
+
+	/**
+	 * Makes this serializer record sizes of flushed data and reasons of flushes
+	 */
+	public ChannelSerializer<T> withFlushStats(FlushStats flushStats) {
+		this.flushStats = flushStats;
+		return this;
+	}
+
 	/**
 	 * Enables skipping of serialization errors.
 	 * <p>
@@ -140,6 +175,10 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 		return this;
 	}
 
+	public @Nullable FlushStats getFlushStats() {
+		return flushStats;
+	}
+
 	@Override
 	public ChannelOutput<ByteBuf> getOutput() {
 		return output -> {
@@ -163,7 +202,7 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 
 	@Override
 	protected void onEndOfStream() {
-		input.flush();
+		input.flush(FlushReason.END_OF_STREAM);
 		send();
 	}
 
@@ -224,18 +263,27 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 		private final int initialBufferSize;
 
 		private final int autoFlushIntervalMillis;
+		private final boolean adaptiveFlush;
+		private final int maxFlushBytes;
+		private final long maxFlushDelayMillis;
 		private boolean flushPosted;
+		private boolean acceptedSinceCheck;
+		private long bufferedSince;
 		private final BiConsumer<T, Exception> serializationErrorHandler;
 
 		public Input(@NotNull BinarySerializer<T> serializer, int initialBufferSize, BiConsumer<T, Exception> serializationErrorHandler) {
 			this.serializer = serializer;
 			this.initialBufferSize = initialBufferSize;
 			this.autoFlushIntervalMillis = autoFlushInterval == null ? Integer.MAX_VALUE : (int) autoFlushInterval.toMillis();
+			this.adaptiveFlush = maxFlushSize != null;
+			this.maxFlushBytes = maxFlushSize == null ? Integer.MAX_VALUE : maxFlushSize.toInt();
+			this.maxFlushDelayMillis = maxFlushDelay == null ? 0 : maxFlushDelay.toMillis();
 			this.serializationErrorHandler = serializationErrorHandler;
 		}
 
 		@Override
 		public void accept(T item) {
+			boolean checkPosted = flushPosted;
 			int positionBegin;
 			int positionData;
 			int positionEnd;
@@ -262,6 +310,13 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 				reestimate(positionBegin, positionData, dataSize);
 			}
 			writeSize(buf.array(), positionBegin, dataSize);
+			// an item which has posted a check is not counted, so that a lone item is flushed within the same loop
+			if (checkPosted) {
+				acceptedSinceCheck = true;
+			}
+			if (buf.readRemaining() >= maxFlushBytes) {
+				flush(FlushReason.SIZE);
+			}
 		}
 
 		private void writeSize(byte[] buf, int pos, int size) {
@@ -291,8 +346,9 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 		}
 
 		private void ensureBuffer() {
-			flush();
+			flush(FlushReason.SIZE);
 			buf = ByteBufPool.allocate(max(initialBufferSize, requiredRemainingSize));
+			bufferedSince = eventloop.currentTimeMillis();
 			if (!flushPosted) {
 				postFlush();
 			}
@@ -300,8 +356,9 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 
 		private void enlargeBuffer() {
 			int writeRemaining = buf.writeRemaining();
-			flush();
+			flush(FlushReason.SIZE);
 			buf = ByteBufPool.allocate(max(initialBufferSize, writeRemaining + (writeRemaining >>> 1) + 1));
+			bufferedSince = eventloop.currentTimeMillis();
 		}
 
 		private void reestimate(int positionBegin, int positionData, int dataSize) {
@@ -337,22 +394,46 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 
 		private void postFlush() {
 			flushPosted = true;
-			if (autoFlushIntervalMillis <= 0) {
+			if (adaptiveFlush) {
+				acceptedSinceCheck = false;
+				eventloop.postLast(this::checkFlush);
+			} else if (autoFlushIntervalMillis <= 0) {
 				eventloop.postLast(() -> {
 					flushPosted = false;
-					flush();
+					flush(FlushReason.IDLE);
 				});
 			} else if (autoFlushIntervalMillis < Integer.MAX_VALUE) {
 				eventloop.delayBackground(autoFlushIntervalMillis, () -> {
 					flushPosted = false;
-					flush();
+					flush(FlushReason.DELAY);
 				});
 			}
 		}
 
-		private void flush() {
+		/**
+		 * Flushes accumulated data if no items have been serialized since the last check
+		 * or if the data has been accumulated for too long, otherwise checks again on the next loop
+		 */
+		private void checkFlush() {
+			flushPosted = false;
+			if (buf == null) return;
+			if (!acceptedSinceCheck) {
+				flush(FlushReason.IDLE);
+			} else if (eventloop.currentTimeMillis() - bufferedSince >= maxFlushDelayMillis) {
+				flush(FlushReason.DELAY);
+			} else {
+				flushPosted = true;
+				acceptedSinceCheck = false;
+				eventloop.postNext(this::checkFlush);
+			}
+		}
+
+		private void flush(FlushReason reason) {
 			if (buf == null) return;
 			if (buf.canRead()) {
+				if (flushStats != null) {
+					flushStats.record(buf.readRemaining(), reason);
+				}
 				if (!bufs.isEmpty()) {
 					suspend();
 				}
@@ -370,6 +451,77 @@ public final class ChannelSerializer<T> extends AbstractStreamConsumer<T>
 		}
 	}
 
+	private enum FlushReason {
+		IDLE, SIZE, DELAY, END_OF_STREAM
+	}
+
+	/**
+	 * Statistics of flushes performed by a {@link ChannelSerializer}
+	 */
+	public static final class FlushStats implements JmxRefreshable {
+		private final ValueStats flushSize;
+		private final EventStats idleFlushes;
+		private final EventStats sizeFlushes;
+		private final EventStats delayFlushes;
+		private final EventStats endOfStreamFlushes;
+
+		private FlushStats(Duration smoothingWindow) {
+			flushSize = ValueStats.create(smoothingWindow).withUnit("bytes").withRate();
+			idleFlushes = EventStats.create(smoothingWindow);
+			sizeFlushes = EventStats.create(smoothingWindow);
+			delayFlushes = EventStats.create(smoothingWindow);
+			endOfStreamFlushes = EventStats.create(smoothingWindow);
+		}
+
+		public static FlushStats create(Duration smoothingWindow) {
+			return new FlushStats(smoothingWindow);
+		}
+
+		void record(int size, FlushReason reason) {
+			flushSize.recordValue(size);
+			switch (reason) {
+				case IDLE -> idleFlushes.recordEvent();
+				case SIZE -> sizeFlushes.recordEvent();
+				case DELAY -> delayFlushes.recordEvent();
+				case END_OF_STREAM -> endOfStreamFlushes.recordEvent();
+			}
+		}
+
+		@JmxAttribute(description = "sizes of flushed data")
+		public ValueStats getFlushSize() {
+			return flushSize;
+		}
+
+		@JmxAttribute(description = "flushes on a loop of an eventloop with no new items, or at the end of a loop without adaptive flushing")
+		public EventStats getIdleFlushes() {
+			return idleFlushes;
+		}
+
+		@JmxAttribute(description = "flushes of data that reached a max flush size or filled a buffer")
+		public EventStats getSizeFlushes() {
+			return sizeFlushes;
+		}
+
+		@JmxAttribute(description = "flushes of data that reached a max flush delay or an auto flush interval")
+		public EventStats getDelayFlushes() {
+			return delayFlushes;
+		}
+
+		@JmxAttribute
+		public EventStats getEndOfStreamFlushes() {
+			return endOfStreamFlushes;
+		}
+
+		@Override
+		public void refresh(long timestamp) {
+			flushSize.refresh(timestamp);
+			idleFlushes.refresh(timestamp);
+			sizeFlushes.refresh(timestamp);
+			delayFlushes.refresh(timestamp);
+			endOfStreamFlushes.refresh(timestamp);
+		}
+	}
+
 	private static int varIntSize(int value) {
 		return 1 + (31 - Integer.numberOfLeadingZeros(value)) / 7;
 	}
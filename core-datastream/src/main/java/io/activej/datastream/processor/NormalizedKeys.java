@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.datastream.processor;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Normalized keys for {@link StreamSorter#withNormalizedKey}.
+ * <p>
+ * A normalized key is a fixed-width {@code long} prefix of a key, such that comparing normalized keys
+ * as unsigned numbers is consistent with comparing original keys: if a normalized key of one key is
+ * less than a normalized key of another, then the first key is less than the second one.
+ * Keys with equal normalized keys are compared by a comparator.
+ */
+public final class NormalizedKeys {
+	private static final int RADIX_BITS = 8;
+	private static final int RADIX = 1 << RADIX_BITS;
+	private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+	/**
+	 * Normalized key of {@code long} keys in natural order, which fully determines an order of keys
+	 */
+	public static ToLongFunction<Long> ofLong() {
+		return key -> key ^ Long.MIN_VALUE;
+	}
+
+	public static <K> ToLongFunction<K> ofLong(ToLongFunction<K> longFunction) {
+		return key -> longFunction.applyAsLong(key) ^ Long.MIN_VALUE;
+	}
+
+	/**
+	 * Normalized key of {@code int} keys in natural order, which fully determines an order of keys
+	 */
+	public static ToLongFunction<Integer> ofInt() {
+		return key -> (key ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Normalized key of strings in natural order, which consists of first 4 characters of a string
+	 */
+	public static ToLongFunction<String> ofString() {
+		return key -> {
+			long normalizedKey = 0;
+			for (int i = 0; i < 4; i++) {
+				normalizedKey <<= Character.SIZE;
+				if (i < key.length()) {
+					normalizedKey |= key.charAt(i);
+				}
+			}
+			return normalizedKey;
+		};
+	}
+
+	/**
+	 * Sorts normalized keys as unsigned numbers with LSD radix sort, permuting references along with keys.
+	 * Passes over bytes which are the same for all the keys are skipped.
+	 * The sort is stable.
+	 */
+	static void sort(long[] keys, int[] refs) {
+		int size = keys.length;
+		if (size < 2) return;
+
+		int[][] counts = new int[PASSES][RADIX];
+		for (long key : keys) {
+			for (int pass = 0; pass < PASSES; pass++) {
+				counts[pass][(int) (key >>> (pass * RADIX_BITS)) & (RADIX - 1)]++;
+			}
+		}
+
+		long[] srcKeys = keys;
+		int[] srcRefs = refs;
+		long[] dstKeys = new long[size];
+		int[] dstRefs = new int[size];
+		for (int pass = 0; pass < PASSES; pass++) {
+			int shift = pass * RADIX_BITS;
+			int[] count = counts[pass];
+			if (count[(int) (srcKeys[0] >>> shift) & (RADIX - 1)] == size) continue;
+
+			int offset = 0;
+			for (int i = 0; i < RADIX; i++) {
+				int c = count[i];
+				count[i] = offset;
+				offset += c;
+			}
+			for (int i = 0; i < size; i++) {
+				long key = srcKeys[i];
+				int position = count[(int) (key >>> shift) & (RADIX - 1)]++;
+				dstKeys[position] = key;
+				dstRefs[position] = srcRefs[i];
+			}
+
+			long[] tmpKeys = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = tmpKeys;
+			int[] tmpRefs = srcRefs;
+			srcRefs = dstRefs;
+			dstRefs = tmpRefs;
+		}
+
+		if (srcKeys != keys) {
+			System.arraycopy(srcKeys, 0, keys, 0, size);
+			System.arraycopy(srcRefs, 0, refs, 0, size);
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.datastream.processor;
+
+import io.activej.common.initializer.WithInitializer;
+import io.activej.datastream.*;
+import io.activej.datastream.dsl.HasStreamInputs;
+import io.activej.datastream.dsl.HasStreamOutput;
+import io.activej.datastream.processor.StreamJoin.Joiner;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Joins items of left and right streams by key, similar to {@link StreamJoin},
+ * but does not require any of the streams to be sorted.
+ * <p>
+ * A right (build) stream is fully materialized in a hash table first, only then a left (probe)
+ * stream is consumed, and each of its items is joined with all the right items of the same key.
+ * So a right stream should be the smaller one, it must fit into memory.
+ * <p>
+ * Inner and left joins are performed by a {@link Joiner}.
+ * A semi join, which streams left items that have at least one matching right item,
+ * is created with {@link #createSemiJoin}.
+ */
+@SuppressWarnings("unchecked")
+public final class StreamHashJoin<K, L, R, V> implements HasStreamInputs, HasStreamOutput<V>, WithInitializer<StreamHashJoin<K, L, R, V>> {
+	private final Function<L, K> leftKeyFunction;
+	private final Function<R, K> rightKeyFunction;
+	private final Joiner<K, L, R, V> joiner;
+	private final boolean semiJoin;
+
+	private final LeftInput left;
+	private final RightInput right;
+	private final Output output;
+
+	private final StreamDataAcceptor<L> probingAcceptor = this::probe;
+
+	/**
+	 * Values are either right items or {@link Matches} if there are several right items with the same key
+	 */
+	private Map<K, Object> table = new HashMap<>();
+
+	private StreamHashJoin(@NotNull Function<L, K> leftKeyFunction, @NotNull Function<R, K> rightKeyFunction,
+			@NotNull Joiner<K, L, R, V> joiner, boolean semiJoin) {
+		this.leftKeyFunction = leftKeyFunction;
+		this.rightKeyFunction = rightKeyFunction;
+		this.joiner = joiner;
+		this.semiJoin = semiJoin;
+		this.left = new LeftInput();
+		this.right = new RightInput();
+		this.output = new Output();
+
+		output.getAcknowledgement()
+				.whenResult(left::acknowledge)
+				.whenResult(right::acknowledge)
+				.whenException(left::closeEx)
+				.whenException(right::closeEx);
+	}
+
+	/**
+	 * Creates a new instance of StreamHashJoin
+	 *
+	 * @param leftKeyFunction  function for counting keys of left stream
+	 * @param rightKeyFunction function for counting keys of right stream
+	 * @param joiner           joiner which will join streams
+	 */
+	public static <K, L, R, V> StreamHashJoin<K, L, R, V> create(Function<L, K> leftKeyFunction, Function<R, K> rightKeyFunction,
+			Joiner<K, L, R, V> joiner) {
+		return new StreamHashJoin<>(leftKeyFunction, rightKeyFunction, joiner, false);
+	}
+
+	/**
+	 * Creates a new instance of StreamHashJoin which streams each left item
+	 * at most once, if there is a right item with the same key
+	 *
+	 * @param leftKeyFunction  function for counting keys of left stream
+	 * @param rightKeyFunction function for counting keys of right stream
+	 */
+	public static <K, L, R> StreamHashJoin<K, L, R, L> createSemiJoin(Function<L, K> leftKeyFunction, Function<R, K> rightKeyFunction) {
+		return new StreamHashJoin<>(leftKeyFunction, rightKeyFunction, new StreamJoin.InnerJoiner<>() {
+			@Override
+			public void onInnerJoin(K key, L left, R right, StreamDataAcceptor<L> output) {
+				output.accept(left);
+			}
+		}, true);
+	}
+
+	private void build(R item) {
+		K key = rightKeyFunction.apply(item);
+		Object existing = table.putIfAbsent(key, item);
+		if (existing == null || semiJoin) return;
+		if (existing instanceof Matches) {
+			((Matches<R>) existing).add(item);
+		} else {
+			Matches<R> matches = new Matches<>();
+			matches.add((R) existing);
+			matches.add(item);
+			table.put(key, matches);
+		}
+	}
+
+	private void probe(L item) {
+		StreamDataAcceptor<V> acceptor = output.getBufferedDataAcceptor();
+		K key = leftKeyFunction.apply(item);
+		Object match = table.get(key);
+		if (match == null) {
+			joiner.onLeftJoin(key, item, acceptor);
+		} else if (match instanceof Matches) {
+			for (R rightItem : (Matches<R>) match) {
+				joiner.onInnerJoin(key, item, rightItem, acceptor);
+			}
+		} else {
+			joiner.onInnerJoin(key, item, (R) match, acceptor);
+		}
+	}
+
+	private void sync() {
+		if (right.isEndOfStream() && output.isReady()) {
+			left.resume(probingAcceptor);
+		} else {
+			left.suspend();
+		}
+	}
+
+	private final class RightInput extends AbstractStreamConsumer<R> {
+		@Override
+		protected void onStarted() {
+			resume(StreamHashJoin.this::build);
+		}
+
+		@Override
+		protected void onEndOfStream() {
+			if (left.isEndOfStream()) {
+				output.sendEndOfStream();
+			} else {
+				sync();
+			}
+		}
+
+		@Override
+		protected void onError(Exception e) {
+			output.closeEx(e);
+		}
+	}
+
+	private final class LeftInput extends AbstractStreamConsumer<L> {
+		@Override
+		protected void onStarted() {
+			sync();
+		}
+
+		@Override
+		protected void onEndOfStream() {
+			if (right.isEndOfStream()) {
+				output.sendEndOfStream();
+			}
+		}
+
+		@Override
+		protected void onError(Exception e) {
+			output.closeEx(e);
+		}
+	}
+
+	private final class Output extends AbstractStreamSupplier<V> {
+		@Override
+		protected void onResumed() {
+			sync();
+		}
+
+		@Override
+		protected void onSuspended() {
+			sync();
+		}
+
+		@Override
+		protected void onError(Exception e) {
+			left.closeEx(e);
+			right.closeEx(e);
+		}
+
+		@Override
+		protected void onCleanup() {
+			table = null;
+		}
+	}
+
+	private static final class Matches<R> extends ArrayList<R> {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Returns left (probe) stream
+	 */
+	public StreamConsumer<L> getLeft() {
+		return left;
+	}
+
+	/**
+	 * Returns right (build) stream
+	 */
+	public StreamConsumer<R> getRight() {
+		return right;
+	}
+
+	@Override
+	public List<? extends StreamConsumer<?>> getInputs() {
+		return List.of(left, right);
+	}
+
+	@Override
+	public StreamSupplier<V> getOutput() {
+		return output;
+	}
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.datastream.processor;
+
+import io.activej.common.initializer.WithInitializer;
+import io.activej.datastream.*;
+import io.activej.datastream.processor.StreamReducers.Reducer;
+import io.activej.promise.Promise;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static io.activej.common.Checks.checkArgument;
+
+/**
+ * Applies aggregative functions to the elements of an input stream, grouping them by key in a hash table.
+ * <p>
+ * Unlike {@link StreamReducer}, input items need not be sorted by key, and output items are not sorted either.
+ * <p>
+ * If spilling is enabled, the number of keys kept in memory is bounded. Items with keys
+ * that do not fit into memory are partitioned by key hash and written to a {@link StreamSorterStorage}.
+ * After all the keys kept in memory are reduced, each of the spilled partitions is read back
+ * and reduced by a nested {@link StreamHashReducer}, which may spill further if needed.
+ *
+ * @param <K> type of keys
+ * @param <I> type of input items
+ * @param <O> type of output items
+ * @param <A> type of accumulators
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class StreamHashReducer<K, I, O, A> implements StreamTransformer<I, O>, WithInitializer<StreamHashReducer<K, I, O, A>> {
+	public static final int DEFAULT_SPILL_PARTITIONS = 16;
+
+	private static final Object NO_ACCUMULATOR = new Object();
+
+	private final Function<I, K> keyFunction;
+	private final Reducer<K, I, O, A> reducer;
+	private final int depth;
+
+	private @Nullable StreamSorterStorage<I> storage;
+	private int maxKeysInMemory = Integer.MAX_VALUE;
+	private int spillPartitions = DEFAULT_SPILL_PARTITIONS;
+
+	private final Input input;
+	private final Output output;
+	private final StreamSupplier<O> outputWithSpills;
+	private final StreamDataAcceptor<I> reducingAcceptor = this::reduce;
+
+	private Map<K, Object> accumulators = new HashMap<>();
+	private @Nullable Spill[] spills;
+	private final List<Integer> partitionIds = new ArrayList<>();
+	private @Nullable Promise<Void> cleanupPromise;
+
+	private StreamHashReducer(Function<I, K> keyFunction, Reducer<K, I, O, A> reducer, int depth) {
+		this.keyFunction = keyFunction;
+		this.reducer = reducer;
+		this.depth = depth;
+		this.input = new Input();
+		this.output = new Output();
+		this.outputWithSpills = StreamSupplier.concat(output,
+				StreamSupplier.ofPromise(output.getEndOfStream()
+						.map($ -> StreamSupplier.concat(reduceSpills()))));
+
+		input.getAcknowledgement()
+				.whenException(this::closeEx);
+		outputWithSpills.getAcknowledgement()
+				.then((ackRes, e) -> cleanup()
+						.then(($, e1) -> Promise.of(ackRes, e)))
+				.whenResult(input::acknowledge)
+				.whenException(input::closeEx);
+	}
+
+	/**
+	 * Creates a new instance of StreamHashReducer
+	 *
+	 * @param keyFunction function that extracts a key of an item
+	 * @param reducer     reducer which is applied to items with the same key
+	 */
+	public static <K, I, O, A> StreamHashReducer<K, I, O, A> create(Function<I, K> keyFunction, Reducer<K, I, O, A> reducer) {
+		return new StreamHashReducer<>(keyFunction, reducer, 0);
+	}
+
+	/**
+	 * Bounds the number of keys kept in memory, items with other keys are spilled to a given storage
+	 *
+	 * @param storage         storage for spilled items
+	 * @param maxKeysInMemory maximum number of keys kept in memory
+	 */
+	public StreamHashReducer<K, I, O, A> withSpilling(StreamSorterStorage<I> storage, int maxKeysInMemory) {
+		checkArgument(maxKeysInMemory > 0, "Max keys in memory should be positive");
+		this.storage = storage;
+		this.maxKeysInMemory = maxKeysInMemory;
+		return this;
+	}
+
+	/**
+	 * Sets the number of partitions which spilled items are split into by key hash
+	 */
+	public StreamHashReducer<K, I, O, A> withSpillPartitions(int spillPartitions) {
+		checkArgument(spillPartitions > 0, "Number of spill partitions should be positive");
+		this.spillPartitions = spillPartitions;
+		return this;
+	}
+
+	@Override
+	public StreamConsumer<I> getInput() {
+		return input;
+	}
+
+	@Override
+	public StreamSupplier<O> getOutput() {
+		return outputWithSpills;
+	}
+
+	private void reduce(I item) {
+		K key = keyFunction.apply(item);
+		Object accumulator = accumulators.getOrDefault(key, NO_ACCUMULATOR);
+		if (accumulator != NO_ACCUMULATOR) {
+			accumulators.put(key, reducer.onNextItem(output.getBufferedDataAcceptor(), key, item, (A) accumulator));
+		} else if (accumulators.size() < maxKeysInMemory) {
+			accumulators.put(key, reducer.onFirstItem(output.getBufferedDataAcceptor(), key, item));
+		} else {
+			spill(key, item);
+		}
+	}
+
+	private void spill(K key, I item) {
+		if (spills == null) {
+			spills = new StreamHashReducer.Spill[spillPartitions];
+		}
+		int partition = Math.floorMod(spread(key.hashCode() + depth * 0x9e3779b9), spillPartitions);
+		Spill spill = spills[partition];
+		if (spill == null) {
+			spill = spills[partition] = new Spill();
+		}
+		spill.send(item);
+		if (!spill.isReady()) {
+			input.suspend();
+		}
+	}
+
+	private static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+
+	private List<StreamSupplier<O>> reduceSpills() {
+		if (spills == null) return List.of();
+		assert storage != null;
+		List<StreamSupplier<O>> suppliers = new ArrayList<>();
+		for (Spill spill : spills) {
+			if (spill == null) continue;
+			suppliers.add(StreamSupplier.ofPromise(spill.written
+							.then($ -> spill.partitionId)
+							.then(storage::read))
+					.transformWith(new StreamHashReducer<>(keyFunction, reducer, depth + 1)
+							.withSpilling(storage, maxKeysInMemory)
+							.withSpillPartitions(spillPartitions)));
+		}
+		return suppliers;
+	}
+
+	private void sync() {
+		if (output.isReady() && spillsReady()) {
+			input.resume(reducingAcceptor);
+		} else {
+			input.suspend();
+		}
+	}
+
+	private boolean spillsReady() {
+		if (spills == null) return true;
+		for (Spill spill : spills) {
+			if (spill != null && !spill.isReady()) return false;
+		}
+		return true;
+	}
+
+	private void closeEx(Exception e) {
+		output.closeEx(e);
+		if (spills != null) {
+			for (Spill spill : spills) {
+				if (spill != null) spill.closeEx(e);
+			}
+		}
+	}
+
+	private Promise<Void> cleanup() {
+		if (cleanupPromise != null) return cleanupPromise;
+		return cleanupPromise = partitionIds.isEmpty() || storage == null ?
+				Promise.complete() :
+				storage.cleanup(partitionIds);
+	}
+
+	private final class Input extends AbstractStreamConsumer<I> {
+		@Override
+		protected void onStarted() {
+			sync();
+		}
+
+		@Override
+		protected void onEndOfStream() {
+			if (spills != null) {
+				for (Spill spill : spills) {
+					if (spill != null) spill.sendEndOfStream();
+				}
+			}
+			output.complete();
+		}
+
+		@Override
+		protected void onCleanup() {
+			cleanup();
+		}
+	}
+
+	private final class Output extends AbstractStreamSupplier<O> {
+		private @Nullable Iterator<Map.Entry<K, Object>> completing;
+
+		void complete() {
+			completing = accumulators.entrySet().iterator();
+			resume();
+		}
+
+		@Override
+		protected void onResumed() {
+			if (completing == null) {
+				sync();
+				return;
+			}
+			StreamDataAcceptor<O> acceptor = getBufferedDataAcceptor();
+			while (isReady() && completing.hasNext()) {
+				Map.Entry<K, Object> entry = completing.next();
+				reducer.onComplete(acceptor, entry.getKey(), (A) entry.getValue());
+			}
+			if (!completing.hasNext()) {
+				sendEndOfStream();
+			}
+		}
+
+		@Override
+		protected void onSuspended() {
+			if (completing == null) {
+				sync();
+			}
+		}
+
+		@Override
+		protected void onCleanup() {
+			accumulators = null;
+			completing = null;
+		}
+	}
+
+	private final class Spill extends AbstractStreamSupplier<I> {
+		private final Promise<Integer> partitionId;
+		private final Promise<Void> written;
+
+		Spill() {
+			assert storage != null;
+			this.partitionId = storage.newPartitionId()
+					.whenResult(partitionIds::add);
+			this.written = streamTo(StreamConsumer.ofPromise(partitionId.then(storage::write)))
+					.whenException(input::closeEx);
+		}
+
+		@Override
+		protected void onResumed() {
+			sync();
+		}
+
+		@Override
+		protected void onSuspended() {
+			sync();
+		}
+	}
+}
@@ -16,12 +16,12 @@
 
 package io.activej.datastream.processor;
 
+import io.activej.common.ApplicationSettings;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.datastream.*;
 import io.activej.datastream.dsl.HasStreamInputs;
 import io.activej.datastream.dsl.HasStreamOutput;
 import io.activej.datastream.processor.StreamReducers.Reducer;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -36,10 +36,29 @@ import static io.activej.common.Checks.checkArgument;
  * <p>
  * Elements from stream to input must be sorted by keys. It is Stream Transformer
  * because it represents few consumers and one supplier.
+ * <p>
+ * Inputs are merged with either a binary heap or a tournament tree, see {@link MergeStrategy}.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 public final class StreamReducer<K, O, A> implements HasStreamInputs, HasStreamOutput<O>, WithInitializer<StreamReducer<K, O, A>> {
 	public static final int DEFAULT_BUFFER_SIZE = 2000;
+	public static final MergeStrategy DEFAULT_MERGE_STRATEGY = ApplicationSettings.getEnum(StreamReducer.class, "mergeStrategy", MergeStrategy.class, MergeStrategy.TOURNAMENT_TREE);
+
+	/**
+	 * An algorithm used to pick an input with the least key
+	 */
+	public enum MergeStrategy {
+		/**
+		 * Inputs are kept in a {@link PriorityQueue}, which is re-heapified on each item
+		 */
+		PRIORITY_QUEUE,
+
+		/**
+		 * Inputs are leaves of a tournament tree, an item costs at most log2(k) key comparisons.
+		 * When one input supplies a long run of least keys, each item costs a single comparison
+		 */
+		TOURNAMENT_TREE
+	}
 
 	private final List<Input> inputs = new ArrayList<>();
 	private final Output output;
@@ -50,30 +69,32 @@ public final class StreamReducer<K, O, A> implements HasStreamInputs, HasStreamO
 	private @Nullable K key = null;
 	private @Nullable A accumulator;
 
-	private final PriorityQueue<Input<?>> priorityQueue;
+	private final InputQueue inputQueue;
 	private int streamsAwaiting;
 	private int streamsOpen;
 
-	private StreamReducer(@NotNull PriorityQueue<Input<?>> priorityQueue) {
+	private StreamReducer(Comparator<K> keyComparator, MergeStrategy mergeStrategy) {
 		this.output = new Output();
-		this.priorityQueue = priorityQueue;
+		this.inputQueue = switch (mergeStrategy) {
+			case PRIORITY_QUEUE -> new PriorityInputQueue(keyComparator);
+			case TOURNAMENT_TREE -> new TournamentTree(keyComparator);
+		};
 	}
 
 	public static <K, O, A> StreamReducer<K, O, A> create(Comparator<K> keyComparator) {
-		return new StreamReducer<>(new PriorityQueue<>(1, (input1, input2) -> {
-			int compare = ((Comparator) keyComparator).compare(input1.headKey, input2.headKey);
-			if (compare != 0) return compare;
-			return input1.index - input2.index;
-		}));
+		return new StreamReducer<>(keyComparator, DEFAULT_MERGE_STRATEGY);
+	}
+
+	public static <K, O, A> StreamReducer<K, O, A> create(Comparator<K> keyComparator, MergeStrategy mergeStrategy) {
+		return new StreamReducer<>(keyComparator, mergeStrategy);
 	}
 
-	@SuppressWarnings({"ComparatorCombinators", "Convert2Diamond"})
 	public static <K extends Comparable<K>, O, A> StreamReducer<K, O, A> create() {
-		return new StreamReducer<K, O, A>(new PriorityQueue<>(1, (input1, input2) -> {
-			int compare = input1.headKey.compareTo(input2.headKey);
-			if (compare != 0) return compare;
-			return input1.index - input2.index;
-		}));
+		return new StreamReducer<K, O, A>(Comparator.naturalOrder(), DEFAULT_MERGE_STRATEGY);
+	}
+
+	public static <K extends Comparable<K>, O, A> StreamReducer<K, O, A> create(MergeStrategy mergeStrategy) {
+		return new StreamReducer<K, O, A>(Comparator.naturalOrder(), mergeStrategy);
 	}
 
 	public StreamReducer<K, O, A> withBufferSize(int bufferSize) {
@@ -107,13 +128,13 @@ public final class StreamReducer<K, O, A> implements HasStreamInputs, HasStreamO
 		private I headItem;
 		private K headKey;
 		private final int index;
-		private final PriorityQueue<Input<?>> priorityQueue;
+		private final InputQueue inputQueue;
 		private final ArrayDeque<I> deque = new ArrayDeque<>();
 		private final int bufferSize;
 
 		protected Input() {
 			this.index = StreamReducer.this.inputs.size();
-			this.priorityQueue = StreamReducer.this.priorityQueue;
+			this.inputQueue = StreamReducer.this.inputQueue;
 			this.bufferSize = StreamReducer.this.bufferSize;
 		}
 
@@ -133,7 +154,7 @@ public final class StreamReducer<K, O, A> implements HasStreamInputs, HasStreamO
 			if (headItem == null) {
 				headItem = item;
 				headKey = this.apply(headItem);
-				priorityQueue.offer(this);
+				inputQueue.offer(this);
 				if (advance() == 0) {
 					output.reduce();
 				}
@@ -223,7 +244,7 @@ public final class StreamReducer<K, O, A> implements HasStreamInputs, HasStreamO
 		@Override
 		protected void onResumed() {
 			while (streamsAwaiting == 0) {
-				Input<Object> input = (Input<Object>) priorityQueue.poll();
+				Input<Object> input = (Input<Object>) inputQueue.poll();
 				if (input == null)
 					break;
 				if (input.isComplete())
@@ -242,7 +263,7 @@ public final class StreamReducer<K, O, A> implements HasStreamInputs, HasStreamO
 				lastInput = input;
 				if (input.headItem != null) {
 					input.headKey = input.apply(input.headItem);
-					priorityQueue.offer(input);
+					inputQueue.offer(input);
 				} else {
 					if (!input.isEndOfStream()) {
 						input.await();
@@ -257,7 +278,7 @@ public final class StreamReducer<K, O, A> implements HasStreamInputs, HasStreamO
 				}
 			}
 
-			if (streamsOpen == 0 && priorityQueue.isEmpty()) {
+			if (streamsOpen == 0 && inputQueue.isEmpty()) {
 				if (lastInput != null) {
 					lastInput.onComplete(getBufferedDataAcceptor(), key, accumulator);
 					lastInput = null;
@@ -277,7 +298,178 @@ public final class StreamReducer<K, O, A> implements HasStreamInputs, HasStreamO
 
 		@Override
 		protected void onCleanup() {
+			inputQueue.clear();
+		}
+	}
+
+	/**
+	 * Inputs with items that have not been reduced yet, ordered by head keys and then by indices
+	 */
+	private abstract class InputQueue {
+		abstract void offer(Input<?> input);
+
+		abstract @Nullable Input<?> poll();
+
+		abstract boolean isEmpty();
+
+		abstract void clear();
+	}
+
+	private final class PriorityInputQueue extends InputQueue {
+		private final PriorityQueue<Input<?>> priorityQueue;
+
+		PriorityInputQueue(Comparator<K> keyComparator) {
+			this.priorityQueue = new PriorityQueue<>(1, (input1, input2) -> {
+				int compare = keyComparator.compare(input1.headKey, input2.headKey);
+				if (compare != 0) return compare;
+				return input1.index - input2.index;
+			});
+		}
+
+		@Override
+		void offer(Input<?> input) {
+			priorityQueue.offer(input);
+		}
+
+		@Override
+		@Nullable Input<?> poll() {
+			return priorityQueue.poll();
+		}
+
+		@Override
+		boolean isEmpty() {
+			return priorityQueue.isEmpty();
+		}
+
+		@Override
+		void clear() {
 			priorityQueue.clear();
 		}
 	}
+
+	/**
+	 * A tournament tree over inputs, each internal node holds an index of the winner of its subtree.
+	 * <p>
+	 * A winner tree is used rather than a loser tree, as inputs leave the tree whenever their buffers
+	 * are drained and then re-enter it at arbitrary positions, which a winner tree handles
+	 * by replaying a single path.
+	 * <p>
+	 * A polled input is kept in the tree until it is either offered back with a next key or the tree is polled again.
+	 * If the same input wins twice in a row, the best of its opponents is remembered, so that
+	 * while the input keeps winning, its next keys are compared only to that runner-up.
+	 */
+	private final class TournamentTree extends InputQueue {
+		private static final int NONE = -1;
+
+		private final Comparator<K> keyComparator;
+
+		private Input<?>[] leaves = new StreamReducer.Input[1];
+		private int[] tree = {NONE, NONE};
+		private int capacity = 1;
+
+		private int polled = NONE;
+		private boolean runnerUpKnown;
+		private int runnerUp = NONE;
+
+		TournamentTree(Comparator<K> keyComparator) {
+			this.keyComparator = keyComparator;
+		}
+
+		@Override
+		void offer(Input<?> input) {
+			int index = input.index;
+			if (index == polled) {
+				polled = NONE;
+				if (runnerUpKnown) {
+					if (runnerUp == NONE || beats(index, runnerUp)) return;
+					runnerUpKnown = false;
+					replay(index);
+					return;
+				}
+				replay(index);
+				if (tree[1] == index) {
+					findRunnerUp(index);
+				}
+				return;
+			}
+			removePolled();
+			if (index >= capacity) {
+				grow(index);
+			}
+			leaves[index] = input;
+			runnerUpKnown = false;
+			replay(index);
+		}
+
+		@Override
+		@Nullable Input<?> poll() {
+			removePolled();
+			int winner = tree[1];
+			if (winner == NONE) return null;
+			polled = winner;
+			return leaves[winner];
+		}
+
+		@Override
+		boolean isEmpty() {
+			removePolled();
+			return tree[1] == NONE;
+		}
+
+		@Override
+		void clear() {
+			Arrays.fill(leaves, null);
+			Arrays.fill(tree, NONE);
+			polled = NONE;
+			runnerUpKnown = false;
+		}
+
+		private void removePolled() {
+			if (polled == NONE) return;
+			leaves[polled] = null;
+			runnerUpKnown = false;
+			replay(polled);
+			polled = NONE;
+		}
+
+		private boolean beats(int index1, int index2) {
+			int compare = keyComparator.compare(leaves[index1].headKey, leaves[index2].headKey);
+			return compare < 0 || compare == 0 && index1 < index2;
+		}
+
+		private void replay(int index) {
+			int node = capacity + index;
+			tree[node] = leaves[index] != null ? index : NONE;
+			for (node >>>= 1; node != 0; node >>>= 1) {
+				tree[node] = match(tree[2 * node], tree[2 * node + 1]);
+			}
+		}
+
+		private int match(int index1, int index2) {
+			if (index1 == NONE) return index2;
+			if (index2 == NONE) return index1;
+			return beats(index1, index2) ? index1 : index2;
+		}
+
+		private void findRunnerUp(int winner) {
+			int best = NONE;
+			for (int node = capacity + winner; node != 1; node >>>= 1) {
+				best = match(best, tree[node ^ 1]);
+			}
+			runnerUp = best;
+			runnerUpKnown = true;
+		}
+
+		private void grow(int index) {
+			capacity = Integer.highestOneBit(index) << 1;
+			leaves = Arrays.copyOf(leaves, capacity);
+			tree = new int[2 * capacity];
+			for (int i = 0; i < capacity; i++) {
+				tree[capacity + i] = leaves[i] != null ? i : NONE;
+			}
+			for (int node = capacity - 1; node != 0; node--) {
+				tree[node] = match(tree[2 * node], tree[2 * node + 1]);
+			}
+		}
+	}
 }
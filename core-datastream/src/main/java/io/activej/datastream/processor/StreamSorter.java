@@ -17,21 +17,23 @@
 package io.activej.datastream.processor;
 
 import io.activej.async.AsyncAccumulator;
+import io.activej.common.MemSize;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.datastream.AbstractStreamConsumer;
 import io.activej.datastream.StreamConsumer;
 import io.activej.datastream.StreamDataAcceptor;
 import io.activej.datastream.StreamSupplier;
 import io.activej.promise.Promise;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
+import static io.activej.common.Checks.checkArgument;
 import static io.activej.datastream.processor.StreamReducers.deduplicateReducer;
 import static io.activej.datastream.processor.StreamReducers.mergeReducer;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -39,12 +41,19 @@ import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Represent {@link StreamTransformer} which receives data and saves it in
  * collection, when it receives end of stream it sorts it and streams to destination.
+ * <p>
+ * When a run of items collected in memory exceeds a limit, it is sorted and written to a storage as a partition,
+ * while the next run is being collected. At most {@link #withMaxMergeFanIn max fan-in} partitions are merged at once,
+ * if there are more partitions, they are merged into bigger ones in several passes first.
  *
  * @param <K> type of keys
  * @param <T> type of objects
  */
 public final class StreamSorter<K, T> implements StreamTransformer<T, T>, WithInitializer<StreamSorter<K, T>> {
 	private static final Logger logger = getLogger(StreamSorter.class);
+
+	public static final int DEFAULT_MAX_MERGE_FAN_IN = 64;
+
 	private final AsyncAccumulator<? extends List<Integer>> temporaryStreamsAccumulator;
 	private final StreamSorterStorage<T> storage;
 	private final Function<T, K> keyFunction;
@@ -57,6 +66,11 @@ public final class StreamSorter<K, T> implements StreamTransformer<T, T>, WithIn
 	private final StreamSupplier<T> output;
 
 	private Executor sortingExecutor = Runnable::run;
+	private boolean parallelSort;
+	private int maxMergeFanIn = DEFAULT_MAX_MERGE_FAN_IN;
+	private long memoryLimit = Long.MAX_VALUE;
+	private @Nullable ToIntFunction<T> itemSizeEstimator;
+	private @Nullable ToLongFunction<K> normalizedKeyFunction;
 
 	private StreamSorter(StreamSorterStorage<T> storage,
 			Function<T, K> keyFunction, Comparator<K> keyComparator, boolean deduplicate,
@@ -78,20 +92,20 @@ public final class StreamSorter<K, T> implements StreamTransformer<T, T>, WithIn
 				(this.temporaryStreamsAccumulator = AsyncAccumulator.create(partitionIds))
 						.get()
 						.then(streamIds -> {
-							ArrayList<T> sortedList = input.list;
+							ArrayList<T> list = input.list;
 							input.list = null;
-							return Promise.ofBlocking(sortingExecutor, () -> sortedList.sort(itemComparator))
-									.map($ -> {
+							return Promise.ofBlocking(sortingExecutor, () -> sort(list))
+									.combine(mergePartitions(new ArrayList<>(streamIds)), (sortedList, mergedIds) -> {
 										StreamSupplier<T> listSupplier = StreamSupplier.ofIterator(deduplicate ?
 												new DistinctIterator<>(sortedList, keyFunction, keyComparator) :
 												sortedList.iterator());
-										logger.info("Items in memory: {}, files: {}", sortedList.size(), streamIds.size());
-										if (streamIds.isEmpty()) {
+										logger.info("Items in memory: {}, files: {}", sortedList.size(), mergedIds.size());
+										if (mergedIds.isEmpty()) {
 											return listSupplier;
 										}
 										StreamReducer<K, T, Void> streamMerger = StreamReducer.create(keyComparator);
 										listSupplier.streamTo(streamMerger.newInput(keyFunction, deduplicate ? deduplicateReducer() : mergeReducer()));
-										for (Integer streamId : streamIds) {
+										for (Integer streamId : mergedIds) {
 											StreamSupplier.ofPromise(storage.read(streamId))
 													.streamTo(streamMerger.newInput(keyFunction, deduplicate ? deduplicateReducer() : mergeReducer()));
 										}
@@ -105,13 +119,137 @@ public final class StreamSorter<K, T> implements StreamTransformer<T, T>, WithIn
 		return this;
 	}
 
+	/**
+	 * Makes runs be sorted with {@link Arrays#parallelSort}
+	 *
+	 * @see #withParallelSort(boolean)
+	 */
+	public StreamSorter<K, T> withParallelSort() {
+		return withParallelSort(true);
+	}
+
+	/**
+	 * Sets whether runs are sorted with {@link Arrays#parallelSort}, which splits
+	 * large runs into chunks sorted in parallel by the common fork/join pool.
+	 * <p>
+	 * Disabled by default, as chunks are sorted outside of a sorting executor
+	 * and each run is copied into an array, which doubles memory used by a run while it is sorted
+	 */
+	public StreamSorter<K, T> withParallelSort(boolean parallelSort) {
+		this.parallelSort = parallelSort;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of partitions that are merged at once.
+	 * If there are more partitions, the oldest of them are merged into new partitions first
+	 */
+	public StreamSorter<K, T> withMaxMergeFanIn(int maxMergeFanIn) {
+		checkArgument(maxMergeFanIn >= 2, "Max merge fan-in should be at least 2");
+		this.maxMergeFanIn = maxMergeFanIn;
+		return this;
+	}
+
+	/**
+	 * Bounds a run of items collected in memory by an estimated size of items, in addition to a number of items.
+	 * <p>
+	 * Note that while a run is sorted and written to a storage, next runs are collected,
+	 * so up to 3 runs may be kept in memory at once
+	 *
+	 * @param memoryLimit       maximum estimated size of a run
+	 * @param itemSizeEstimator function that estimates a size of an item in bytes
+	 */
+	public StreamSorter<K, T> withMemoryLimit(MemSize memoryLimit, ToIntFunction<T> itemSizeEstimator) {
+		checkArgument(memoryLimit.toLong() > 0, "Memory limit should be positive");
+		this.memoryLimit = memoryLimit.toLong();
+		this.itemSizeEstimator = itemSizeEstimator;
+		return this;
+	}
+
+	/**
+	 * Makes runs be sorted by normalized keys first, see {@link NormalizedKeys}.
+	 * <p>
+	 * A normalized key is extracted once per item, items are sorted by normalized keys with radix sort,
+	 * and a comparator is used only for items with equal normalized keys.
+	 * A normalized key should be consistent with a key comparator.
+	 */
+	public StreamSorter<K, T> withNormalizedKey(ToLongFunction<K> normalizedKeyFunction) {
+		this.normalizedKeyFunction = normalizedKeyFunction;
+		return this;
+	}
+
+	private List<T> sort(ArrayList<T> list) {
+		if (normalizedKeyFunction != null) {
+			return sortByNormalizedKeys(list, normalizedKeyFunction);
+		}
+		if (!parallelSort) {
+			list.sort(itemComparator);
+			return list;
+		}
+		//noinspection unchecked
+		T[] array = (T[]) list.toArray();
+		Arrays.parallelSort(array, itemComparator);
+		return Arrays.asList(array);
+	}
+
+	private List<T> sortByNormalizedKeys(ArrayList<T> list, ToLongFunction<K> normalizedKeyFunction) {
+		int size = list.size();
+		long[] keys = new long[size];
+		int[] refs = new int[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = normalizedKeyFunction.applyAsLong(keyFunction.apply(list.get(i)));
+			refs[i] = i;
+		}
+		NormalizedKeys.sort(keys, refs);
+
+		//noinspection unchecked
+		T[] sorted = (T[]) new Object[size];
+		for (int i = 0; i < size; i++) {
+			sorted[i] = list.get(refs[i]);
+		}
+		int from = 0;
+		for (int i = 1; i <= size; i++) {
+			if (i == size || keys[i] != keys[from]) {
+				if (i - from > 1) {
+					Arrays.sort(sorted, from, i, itemComparator);
+				}
+				from = i;
+			}
+		}
+		return Arrays.asList(sorted);
+	}
+
+	private Promise<List<Integer>> mergePartitions(List<Integer> partitionIds) {
+		if (partitionIds.size() <= maxMergeFanIn) {
+			return Promise.of(partitionIds);
+		}
+		List<Integer> toMerge = new ArrayList<>(partitionIds.subList(0, maxMergeFanIn));
+		List<Integer> rest = new ArrayList<>(partitionIds.subList(maxMergeFanIn, partitionIds.size()));
+		return storage.newPartitionId()
+				.then(partitionId -> {
+					input.partitionIds.add(partitionId);
+					StreamReducer<K, T, Void> streamMerger = StreamReducer.create(keyComparator);
+					for (Integer id : toMerge) {
+						StreamSupplier.ofPromise(storage.read(id))
+								.streamTo(streamMerger.newInput(keyFunction, distinct ? deduplicateReducer() : mergeReducer()));
+					}
+					return streamMerger.getOutput().streamTo(storage.writeStream(partitionId))
+							.then(() -> storage.cleanup(toMerge))
+							.whenResult(() -> input.partitionIds.removeAll(toMerge))
+							.then(() -> {
+								rest.add(partitionId);
+								return mergePartitions(rest);
+							});
+				});
+	}
+
 	private static final class DistinctIterator<K, T> implements Iterator<T> {
-		private final ArrayList<T> sortedList;
+		private final List<T> sortedList;
 		private final Function<T, K> keyFunction;
 		private final Comparator<K> keyComparator;
 		int i = 0;
 
-		private DistinctIterator(ArrayList<T> sortedList, Function<T, K> keyFunction, Comparator<K> keyComparator) {
+		private DistinctIterator(List<T> sortedList, Function<T, K> keyFunction, Comparator<K> keyComparator) {
 			this.sortedList = sortedList;
 			this.keyFunction = keyFunction;
 			this.keyComparator = keyComparator;
@@ -155,10 +293,32 @@ public final class StreamSorter<K, T> implements StreamTransformer<T, T>, WithIn
 		return new StreamSorter<>(storage, keyFunction, keyComparator, distinct, itemsInMemorySize);
 	}
 
+	/**
+	 * Creates a new instance of StreamSorter, which bounds runs of items collected in memory by their estimated size
+	 *
+	 * @param storage           storage for storing elements which were not placed
+	 *                          to RAM
+	 * @param keyFunction       function for searching key
+	 * @param keyComparator     comparator for comparing key
+	 * @param distinct          if it is true it means that in result will be
+	 *                          not objects with same key
+	 * @param memoryLimit       maximum estimated size of items which can be saved in RAM
+	 *                          before sorting
+	 * @param itemSizeEstimator function that estimates a size of an item in bytes
+	 * @see #withMemoryLimit
+	 */
+	public static <K, T> StreamSorter<K, T> create(StreamSorterStorage<T> storage,
+			Function<T, K> keyFunction, Comparator<K> keyComparator, boolean distinct,
+			MemSize memoryLimit, ToIntFunction<T> itemSizeEstimator) {
+		return new StreamSorter<>(storage, keyFunction, keyComparator, distinct, Integer.MAX_VALUE)
+				.withMemoryLimit(memoryLimit, itemSizeEstimator);
+	}
+
 	private final class Input extends AbstractStreamConsumer<T> implements StreamDataAcceptor<T> {
 		private final List<Integer> partitionIds;
 
 		private ArrayList<T> list = new ArrayList<>();
+		private long listSize;
 		private Promise<Void> cleanupPromise;
 
 		private Input(List<Integer> partitionIds) {
@@ -173,15 +333,19 @@ public final class StreamSorter<K, T> implements StreamTransformer<T, T>, WithIn
 		@Override
 		public void accept(T item) {
 			list.add(item);
-			if (list.size() < itemsInMemory) {
+			if (itemSizeEstimator != null) {
+				listSize += itemSizeEstimator.applyAsInt(item);
+			}
+			if (list.size() < itemsInMemory && listSize < memoryLimit) {
 				return;
 			}
-			ArrayList<T> sortedList = this.list;
-			list = new ArrayList<>(itemsInMemory);
+			ArrayList<T> unsortedList = this.list;
+			list = new ArrayList<>(itemsInMemory != Integer.MAX_VALUE ? itemsInMemory : unsortedList.size());
+			listSize = 0;
 
 			temporaryStreamsAccumulator.addPromise(
-					Promise.ofBlocking(sortingExecutor, () -> sortedList.sort(itemComparator))
-							.then($ -> {
+					Promise.ofBlocking(sortingExecutor, () -> sort(unsortedList))
+							.then(sortedList -> {
 								Iterator<T> iterator = distinct ?
 										new DistinctIterator<>(sortedList, keyFunction, keyComparator) :
 										sortedList.iterator();
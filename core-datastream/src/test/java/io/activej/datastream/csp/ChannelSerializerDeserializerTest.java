@@ -1,17 +1,25 @@
 package io.activej.datastream.csp;
 
+import io.activej.bytebuf.ByteBuf;
 import io.activej.common.MemSize;
+import io.activej.csp.ChannelConsumer;
+import io.activej.csp.ChannelSupplier;
 import io.activej.datastream.StreamConsumerToList;
 import io.activej.datastream.StreamSupplier;
+import io.activej.eventloop.Eventloop;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
 import io.activej.serializer.BinarySerializers;
 import io.activej.test.rules.ByteBufRule;
 import io.activej.test.rules.EventloopRule;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
+import static io.activej.eventloop.Eventloop.getCurrentEventloop;
 import static io.activej.promise.TestUtils.await;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -60,4 +68,91 @@ public final class ChannelSerializerDeserializerTest {
 			assertArrayEquals(byteArrays.get(i), deserialized.get(i));
 		}
 	}
+
+	@Test
+	public void adaptiveFlushCoalescesItemsOfConsecutiveBusyLoops() {
+		List<Integer> ints = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+		ChannelSerializer.FlushStats flushStats = ChannelSerializer.FlushStats.create(Duration.ofMinutes(1));
+		List<ByteBuf> bufs = await(itemsPerLoop(ints, 2)
+				.transformWith(ChannelSerializer.create(BinarySerializers.INT_SERIALIZER)
+						.withAdaptiveFlush(MemSize.kilobytes(64), Duration.ofMinutes(1))
+						.withFlushStats(flushStats))
+				.toList());
+
+		assertEquals(1, bufs.size());
+		assertEquals(ints.size() * 5, bufs.get(0).readRemaining());
+		assertEquals(1, flushStats.getEndOfStreamFlushes().getTotalCount());
+		bufs.forEach(ByteBuf::recycle);
+	}
+
+	@Test
+	public void adaptiveFlushSendsLoneItemWithinSameLoop() {
+		Eventloop eventloop = getCurrentEventloop();
+		long[] sentLoop = {-1};
+		SettablePromise<Long> flushedLoop = new SettablePromise<>();
+		ChannelSupplier<Integer> supplier = ChannelSupplier.ofList(List.of(1, 2))
+				.mapAsync(item -> item == 1 ?
+						Promise.<Integer>ofCallback(cb -> eventloop.postNext(() -> {
+							sentLoop[0] = loop(eventloop);
+							cb.set(item);
+						})) :
+						new SettablePromise<>());
+
+		StreamSupplier.ofChannelSupplier(supplier)
+				.transformWith(ChannelSerializer.create(BinarySerializers.INT_SERIALIZER)
+						.withAdaptiveFlush(MemSize.kilobytes(64), Duration.ofMinutes(1)))
+				.streamTo(ChannelConsumer.of(buf -> {
+					buf.recycle();
+					flushedLoop.trySet(loop(eventloop));
+					return Promise.complete();
+				}));
+
+		long loop = await(flushedLoop);
+		assertEquals(sentLoop[0], loop);
+	}
+
+	@Test
+	public void zeroAutoFlushIntervalFlushesItemsOfEachLoop() {
+		List<Integer> ints = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+		List<ByteBuf> bufs = await(itemsPerLoop(ints, 1)
+				.transformWith(ChannelSerializer.create(BinarySerializers.INT_SERIALIZER)
+						.withAutoFlushInterval(Duration.ZERO))
+				.toList());
+
+		assertEquals(ints.size(), bufs.size());
+		bufs.forEach(ByteBuf::recycle);
+	}
+
+	@Test
+	public void adaptiveFlushIsLimitedBySize() {
+		List<Integer> ints = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+		ChannelSerializer.FlushStats flushStats = ChannelSerializer.FlushStats.create(Duration.ofMinutes(1));
+		List<ByteBuf> bufs = await(StreamSupplier.ofIterable(ints)
+				.transformWith(ChannelSerializer.create(BinarySerializers.INT_SERIALIZER)
+						.withAdaptiveFlush(MemSize.bytes(8), Duration.ofMinutes(1))
+						.withFlushStats(flushStats))
+				.toList());
+
+		assertEquals(5, bufs.size());
+		for (ByteBuf buf : bufs) {
+			assertEquals(10, buf.readRemaining());
+			buf.recycle();
+		}
+		assertEquals(5, flushStats.getSizeFlushes().getTotalCount());
+	}
+
+	private static <T> StreamSupplier<T> itemsPerLoop(List<T> items, int itemsPerLoop) {
+		int[] index = {0};
+		return StreamSupplier.ofChannelSupplier(ChannelSupplier.ofList(items)
+				.mapAsync(item -> index[0]++ % itemsPerLoop == 0 ?
+						Promise.<T>ofCallback(cb -> getCurrentEventloop().postNext(() -> cb.set(item))) :
+						Promise.of(item)));
+	}
+
+	private static long loop(Eventloop eventloop) {
+		return eventloop.tick() >>> 32;
+	}
 }
@@ -0,0 +1,62 @@
+package io.activej.datastream.processor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NormalizedKeysTest {
+	@Test
+	public void testSortIsUnsignedAndStable() {
+		Random random = new Random(1);
+		long[] keys = new long[10_000];
+		int[] refs = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextInt(4) == 0 ? random.nextLong() : random.nextInt(100);
+			refs[i] = i;
+		}
+		long[] original = keys.clone();
+
+		NormalizedKeys.sort(keys, refs);
+
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(original[refs[i]], keys[i]);
+			if (i != 0) {
+				int compare = Long.compareUnsigned(keys[i - 1], keys[i]);
+				assertTrue(compare < 0 || compare == 0 && refs[i - 1] < refs[i]);
+			}
+		}
+	}
+
+	@Test
+	public void testConsistentWithNaturalOrder() {
+		Random random = new Random(1);
+		List<Long> longs = new ArrayList<>();
+		List<Integer> ints = new ArrayList<>();
+		List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			longs.add(random.nextLong());
+			ints.add(random.nextInt());
+			strings.add("prefix".substring(random.nextInt(6)) + random.nextInt(1000));
+		}
+		strings.add("");
+		strings.add("\uFFFF");
+
+		assertConsistent(longs, NormalizedKeys.ofLong());
+		assertConsistent(ints, NormalizedKeys.ofInt());
+		assertConsistent(strings, NormalizedKeys.ofString());
+	}
+
+	private static <K extends Comparable<K>> void assertConsistent(List<K> keys, ToLongFunction<K> normalizedKey) {
+		keys.sort(Comparator.naturalOrder());
+		for (int i = 1; i < keys.size(); i++) {
+			assertTrue(Long.compareUnsigned(normalizedKey.applyAsLong(keys.get(i - 1)), normalizedKey.applyAsLong(keys.get(i))) <= 0);
+		}
+	}
+}
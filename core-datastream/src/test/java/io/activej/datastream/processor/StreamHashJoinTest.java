@@ -0,0 +1,178 @@
+package io.activej.datastream.processor;
+
+import io.activej.datastream.StreamConsumerToList;
+import io.activej.datastream.StreamDataAcceptor;
+import io.activej.datastream.StreamSupplier;
+import io.activej.datastream.processor.StreamJoin.ValueJoiner;
+import io.activej.test.ExpectedException;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.datastream.TestStreamTransformers.oneByOne;
+import static io.activej.datastream.TestStreamTransformers.randomlySuspending;
+import static io.activej.datastream.TestUtils.assertClosedWithError;
+import static io.activej.datastream.TestUtils.assertEndOfStream;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class StreamHashJoinTest {
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@Test
+	public void testLeftJoin() {
+		StreamSupplier<DataItemMaster> source1 = StreamSupplier.of(
+				new DataItemMaster(30, 20, "masterC"),
+				new DataItemMaster(10, 10, "masterA"),
+				new DataItemMaster(25, 15, "masterB+"),
+				new DataItemMaster(40, 20, "masterD"),
+				new DataItemMaster(20, 10, "masterB"));
+
+		StreamSupplier<DataItemDetail> source2 = StreamSupplier.of(
+				new DataItemDetail(20, "detailY"),
+				new DataItemDetail(10, "detailX"),
+				new DataItemDetail(20, "detailZ"));
+
+		StreamHashJoin<Integer, DataItemMaster, DataItemDetail, DataItemMasterDetail> streamJoin =
+				StreamHashJoin.create(
+						input -> input.detailId,
+						input -> input.id,
+						new ValueJoiner<>() {
+							@Override
+							public DataItemMasterDetail doInnerJoin(Integer key, DataItemMaster left, DataItemDetail right) {
+								return new DataItemMasterDetail(left.id, left.detailId, left.master, right.detail);
+							}
+
+							@Override
+							public DataItemMasterDetail doLeftJoin(Integer key, DataItemMaster left) {
+								return new DataItemMasterDetail(left.id, left.detailId, left.master, null);
+							}
+						}
+				);
+
+		StreamConsumerToList<DataItemMasterDetail> consumer = StreamConsumerToList.create();
+
+		await(
+				source1.streamTo(streamJoin.getLeft()),
+				source2.streamTo(streamJoin.getRight()),
+				streamJoin.getOutput().streamTo(
+						consumer.transformWith(oneByOne()))
+		);
+
+		assertEquals(List.of(
+						new DataItemMasterDetail(30, 20, "masterC", "detailY"),
+						new DataItemMasterDetail(30, 20, "masterC", "detailZ"),
+						new DataItemMasterDetail(10, 10, "masterA", "detailX"),
+						new DataItemMasterDetail(25, 15, "masterB+", null),
+						new DataItemMasterDetail(40, 20, "masterD", "detailY"),
+						new DataItemMasterDetail(40, 20, "masterD", "detailZ"),
+						new DataItemMasterDetail(20, 10, "masterB", "detailX")
+				),
+				consumer.getList());
+		assertEndOfStream(source1);
+		assertEndOfStream(source2);
+	}
+
+	@Test
+	public void testInnerJoin() {
+		List<Integer> left = new ArrayList<>();
+		List<Integer> right = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			left.add(i);
+			if (i % 3 == 0) {
+				right.add(i);
+				expected.add(i + ":" + i);
+			}
+		}
+
+		StreamHashJoin<Integer, Integer, Integer, String> streamJoin = StreamHashJoin.create(
+				item -> item,
+				item -> item,
+				new StreamJoin.InnerJoiner<>() {
+					@Override
+					public void onInnerJoin(Integer key, Integer left, Integer right, StreamDataAcceptor<String> output) {
+						output.accept(left + ":" + right);
+					}
+				});
+
+		StreamConsumerToList<String> consumer = StreamConsumerToList.create();
+
+		await(
+				StreamSupplier.ofIterable(left).streamTo(streamJoin.getLeft()),
+				StreamSupplier.ofIterable(right).streamTo(streamJoin.getRight()),
+				streamJoin.getOutput().streamTo(consumer.transformWith(randomlySuspending()))
+		);
+
+		assertEquals(expected, consumer.getList());
+	}
+
+	@Test
+	public void testSemiJoin() {
+		StreamSupplier<DataItemMaster> source1 = StreamSupplier.of(
+				new DataItemMaster(10, 10, "masterA"),
+				new DataItemMaster(25, 15, "masterB+"),
+				new DataItemMaster(30, 20, "masterC"));
+
+		StreamSupplier<DataItemDetail> source2 = StreamSupplier.of(
+				new DataItemDetail(20, "detailY"),
+				new DataItemDetail(10, "detailX"),
+				new DataItemDetail(20, "detailZ"));
+
+		StreamHashJoin<Integer, DataItemMaster, DataItemDetail, DataItemMaster> streamJoin =
+				StreamHashJoin.createSemiJoin(input -> input.detailId, input -> input.id);
+
+		StreamConsumerToList<DataItemMaster> consumer = StreamConsumerToList.create();
+
+		await(
+				source1.streamTo(streamJoin.getLeft()),
+				source2.streamTo(streamJoin.getRight()),
+				streamJoin.getOutput().streamTo(consumer)
+		);
+
+		assertEquals(List.of(
+						new DataItemMaster(10, 10, "masterA"),
+						new DataItemMaster(30, 20, "masterC")),
+				consumer.getList());
+	}
+
+	@Test
+	public void testSupplierWithError() {
+		ExpectedException exception = new ExpectedException("Test Exception");
+		StreamSupplier<DataItemMaster> source1 = StreamSupplier.of(new DataItemMaster(10, 10, "masterA"));
+
+		StreamSupplier<DataItemDetail> source2 = StreamSupplier.concat(
+				StreamSupplier.of(new DataItemDetail(10, "detailX")),
+				StreamSupplier.closingWithError(exception)
+		);
+
+		StreamHashJoin<Integer, DataItemMaster, DataItemDetail, DataItemMaster> streamJoin =
+				StreamHashJoin.createSemiJoin(input -> input.detailId, input -> input.id);
+
+		List<DataItemMaster> list = new ArrayList<>();
+
+		Exception e = awaitException(
+				source1.streamTo(streamJoin.getLeft()),
+				source2.streamTo(streamJoin.getRight()),
+				streamJoin.getOutput().streamTo(StreamConsumerToList.create(list))
+		);
+
+		assertSame(exception, e);
+		assertEquals(0, list.size());
+		assertClosedWithError(source1);
+		assertClosedWithError(source2);
+	}
+
+	private record DataItemMaster(int id, int detailId, String master) {}
+
+	private record DataItemDetail(int id, String detail) {}
+
+	private record DataItemMasterDetail(int id, int detailId, String master, String detail) {}
+}
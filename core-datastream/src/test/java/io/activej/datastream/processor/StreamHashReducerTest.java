@@ -0,0 +1,118 @@
+package io.activej.datastream.processor;
+
+import io.activej.csp.process.frames.FrameFormats;
+import io.activej.datastream.StreamConsumerToList;
+import io.activej.datastream.StreamDataAcceptor;
+import io.activej.datastream.StreamSupplier;
+import io.activej.datastream.processor.StreamReducers.Reducer;
+import io.activej.test.ExpectedException;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static io.activej.datastream.TestStreamTransformers.randomlySuspending;
+import static io.activej.datastream.TestUtils.assertClosedWithError;
+import static io.activej.datastream.TestUtils.assertEndOfStream;
+import static io.activej.datastream.processor.StreamReducers.deduplicateReducer;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static io.activej.serializer.BinarySerializers.INT_SERIALIZER;
+import static org.junit.Assert.*;
+
+public final class StreamHashReducerTest {
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufPool = new ByteBufRule();
+
+	@Test
+	public void testDeduplicate() {
+		StreamSupplier<Integer> source = StreamSupplier.of(3, 1, 3, 2, 5, 1, 4, 3, 2);
+		StreamHashReducer<Integer, Integer, Integer, Void> reducer = StreamHashReducer.create(Function.identity(), deduplicateReducer());
+		StreamConsumerToList<Integer> consumer = StreamConsumerToList.create();
+
+		await(source.transformWith(reducer)
+				.streamTo(consumer.transformWith(randomlySuspending())));
+
+		assertEquals(List.of(3, 1, 2, 5, 4), consumer.getList());
+		assertEndOfStream(source, consumer);
+	}
+
+	@Test
+	public void testCountWithSpilling() throws IOException {
+		List<Integer> items = new ArrayList<>();
+		Random random = new Random(1);
+		Map<Integer, Integer> expected = new TreeMap<>();
+		for (int i = 0; i < 10_000; i++) {
+			int item = random.nextInt(500);
+			items.add(item);
+			expected.merge(item, 1, Integer::sum);
+		}
+
+		Executor executor = Executors.newSingleThreadExecutor();
+		StreamSorterStorage<Integer> storage = StreamSorterStorageImpl.create(executor, INT_SERIALIZER, FrameFormats.sizePrefixed(), tempFolder.newFolder().toPath());
+		StreamHashReducer<Integer, Integer, Map.Entry<Integer, Integer>, int[]> reducer = StreamHashReducer.create(Function.identity(), new CountingReducer())
+				.withSpilling(storage, 20)
+				.withSpillPartitions(4);
+		StreamConsumerToList<Map.Entry<Integer, Integer>> consumer = StreamConsumerToList.create();
+
+		await(StreamSupplier.ofIterable(items)
+				.transformWith(reducer)
+				.streamTo(consumer.transformWith(randomlySuspending())));
+
+		Map<Integer, Integer> actual = new TreeMap<>();
+		for (Map.Entry<Integer, Integer> entry : consumer.getList()) {
+			assertNull(actual.put(entry.getKey(), entry.getValue()));
+		}
+		assertEquals(expected, actual);
+		assertEquals(0, tempFolder.getRoot().toPath().toFile().listFiles()[0].list().length);
+	}
+
+	@Test
+	public void testSupplierWithError() {
+		ExpectedException exception = new ExpectedException("Test Exception");
+		StreamSupplier<Integer> source = StreamSupplier.concat(
+				StreamSupplier.of(3, 1, 3),
+				StreamSupplier.closingWithError(exception));
+		StreamHashReducer<Integer, Integer, Integer, Void> reducer = StreamHashReducer.create(Function.identity(), deduplicateReducer());
+		StreamConsumerToList<Integer> consumer = StreamConsumerToList.create();
+
+		Exception e = awaitException(source.transformWith(reducer)
+				.streamTo(consumer));
+
+		assertSame(exception, e);
+		assertClosedWithError(source);
+		assertClosedWithError(consumer);
+	}
+
+	private static final class CountingReducer implements Reducer<Integer, Integer, Map.Entry<Integer, Integer>, int[]> {
+		@Override
+		public int[] onFirstItem(StreamDataAcceptor<Map.Entry<Integer, Integer>> stream, Integer key, Integer firstValue) {
+			return new int[]{1};
+		}
+
+		@Override
+		public int[] onNextItem(StreamDataAcceptor<Map.Entry<Integer, Integer>> stream, Integer key, Integer nextValue, int[] accumulator) {
+			accumulator[0]++;
+			return accumulator;
+		}
+
+		@Override
+		public void onComplete(StreamDataAcceptor<Map.Entry<Integer, Integer>> stream, Integer key, int[] accumulator) {
+			stream.accept(Map.entry(key, accumulator[0]));
+		}
+	}
+}
@@ -11,8 +11,7 @@ import io.activej.test.rules.EventloopRule;
 import org.junit.ClassRule;
 import org.junit.Test;
 
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 import static io.activej.datastream.TestStreamTransformers.decorate;
 import static io.activej.datastream.TestStreamTransformers.randomlySuspending;
@@ -21,8 +20,7 @@ import static io.activej.datastream.processor.StreamReducers.deduplicateReducer;
 import static io.activej.promise.TestUtils.await;
 import static io.activej.promise.TestUtils.awaitException;
 import static java.util.function.Function.identity;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertSame;
+import static org.junit.Assert.*;
 
 public class StreamReducerTest {
 
@@ -393,4 +391,39 @@ public class StreamReducerTest {
 		assertEndOfStream(source3);
 	}
 
+	@Test
+	public void testMergeStrategies() {
+		Random random = new Random(1);
+		List<List<int[]>> inputs = new ArrayList<>();
+		List<int[]> expected = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			List<int[]> input = new ArrayList<>();
+			int key = random.nextInt(100);
+			int size = random.nextInt(3) == 0 ? 1000 : random.nextInt(20);
+			for (int j = 0; j < size; j++) {
+				key += random.nextInt(3) == 0 ? random.nextInt(10) : 0;
+				input.add(new int[]{key, i, j});
+			}
+			inputs.add(input);
+			expected.addAll(input);
+		}
+		expected.sort(Comparator.<int[]>comparingInt(item -> item[0]).thenComparingInt(item -> item[1]));
+
+		for (StreamReducer.MergeStrategy mergeStrategy : StreamReducer.MergeStrategy.values()) {
+			StreamReducer<Integer, int[], Void> streamReducer = StreamReducer.<Integer, int[], Void>create(Integer::compare, mergeStrategy)
+					.withBufferSize(random.nextInt(10) + 1);
+			StreamConsumerToList<int[]> consumer = StreamConsumerToList.create();
+
+			for (List<int[]> input : inputs) {
+				StreamSupplier.ofIterable(input).streamTo(streamReducer.newInput(item -> item[0], StreamReducers.mergeReducer()));
+			}
+			await(streamReducer.getOutput()
+					.streamTo(consumer.transformWith(randomlySuspending())));
+
+			assertEquals(mergeStrategy.toString(),
+					expected.stream().map(Arrays::toString).toList(),
+					consumer.getList().stream().map(Arrays::toString).toList());
+		}
+	}
+
 }
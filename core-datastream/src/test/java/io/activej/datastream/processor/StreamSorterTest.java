@@ -22,6 +22,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
@@ -34,6 +35,7 @@ import static io.activej.datastream.processor.FailingStreamSorterStorageStub.STO
 import static io.activej.promise.TestUtils.await;
 import static io.activej.promise.TestUtils.awaitException;
 import static io.activej.serializer.BinarySerializers.INT_SERIALIZER;
+import static io.activej.serializer.BinarySerializers.UTF8_SERIALIZER;
 import static org.junit.Assert.*;
 
 public final class StreamSorterTest {
@@ -97,6 +99,29 @@ public final class StreamSorterTest {
 		assertEndOfStream(sorter);
 	}
 
+	@Test
+	public void testParallelSort() throws Exception {
+		List<Integer> items = new ArrayList<>();
+		Random random = new Random(0);
+		for (int i = 0; i < 100_000; i++) {
+			items.add(random.nextInt());
+		}
+
+		Executor executor = Executors.newSingleThreadExecutor();
+		StreamSorterStorage<Integer> storage = StreamSorterStorageImpl.create(executor, INT_SERIALIZER, FRAME_FORMAT, tempFolder.newFolder().toPath());
+		StreamSorter<Integer, Integer> sorter = StreamSorter.create(storage, Function.identity(), Integer::compareTo, false, 30_000)
+				.withSortingExecutor(executor)
+				.withParallelSort();
+
+		StreamConsumerToList<Integer> consumerToList = StreamConsumerToList.create();
+		await(StreamSupplier.ofIterable(items)
+				.transformWith(sorter)
+				.streamTo(consumerToList));
+
+		items.sort(null);
+		assertEquals(items, consumerToList.getList());
+	}
+
 	@Test
 	public void testErrorOnConsumer() throws IOException {
 		StreamSupplier<Integer> source = StreamSupplier.of(3, 1, 3, 2, 5, 1, 4, 3, 2);
@@ -184,6 +209,78 @@ public final class StreamSorterTest {
 				}));
 	}
 
+	@Test
+	public void testMultiPassMerge() throws IOException {
+		Random random = new Random(1);
+		List<Integer> items = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			items.add(random.nextInt(300));
+		}
+
+		Executor executor = Executors.newSingleThreadExecutor();
+		Path storagePath = tempFolder.newFolder().toPath();
+		StreamSorterStorage<Integer> storage = StreamSorterStorageImpl.create(executor, INT_SERIALIZER, FRAME_FORMAT, storagePath);
+		StreamSorter<Integer, Integer> sorter = StreamSorter.create(storage, Function.identity(), Integer::compareTo, false, 10)
+				.withMaxMergeFanIn(3);
+
+		StreamConsumerToList<Integer> consumer = StreamConsumerToList.create();
+
+		await(StreamSupplier.ofIterable(items)
+				.transformWith(sorter)
+				.streamTo(consumer.transformWith(randomlySuspending())));
+
+		items.sort(null);
+		assertEquals(items, consumer.getList());
+		try (Stream<Path> contents = Files.list(storagePath)) {
+			assertFalse(contents.findAny().isPresent());
+		}
+	}
+
+	@Test
+	public void testMemoryLimit() throws IOException {
+		Executor executor = Executors.newSingleThreadExecutor();
+		Path storagePath = tempFolder.newFolder().toPath();
+		StreamSorterStorage<Integer> storage = StreamSorterStorageImpl.create(executor, INT_SERIALIZER, FRAME_FORMAT, storagePath);
+		StreamSorter<Integer, Integer> sorter = StreamSorter.create(storage, Function.identity(), Integer::compareTo, true,
+						MemSize.bytes(64), item -> 16);
+
+		StreamConsumerToList<Integer> consumer = StreamConsumerToList.create();
+		Promise<Void> inputPromise = StreamSupplier.of(9, 8, 7, 6, 5, 4, 3, 2, 1, 1).streamTo(sorter.getInput());
+
+		await(Promise.complete().async());
+
+		// every 4 items form a run
+		try (Stream<Path> contents = Files.list(storagePath)) {
+			assertEquals(2, contents.count());
+		}
+
+		await(inputPromise, sorter.getOutput().streamTo(consumer));
+
+		assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), consumer.getList());
+	}
+
+	@Test
+	public void testNormalizedKeys() throws IOException {
+		Random random = new Random(1);
+		List<String> items = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			items.add("key".substring(random.nextInt(3)) + random.nextInt(100));
+		}
+
+		Executor executor = Executors.newSingleThreadExecutor();
+		StreamSorterStorage<String> storage = StreamSorterStorageImpl.create(executor, UTF8_SERIALIZER, FRAME_FORMAT, tempFolder.newFolder().toPath());
+		StreamSorter<String, String> sorter = StreamSorter.create(storage, Function.<String>identity(), String::compareTo, true, 300)
+				.withNormalizedKey(NormalizedKeys.ofString());
+
+		StreamConsumerToList<String> consumer = StreamConsumerToList.create();
+
+		await(StreamSupplier.ofIterable(items)
+				.transformWith(sorter)
+				.streamTo(consumer.transformWith(randomlySuspending())));
+
+		assertEquals(items.stream().distinct().sorted().toList(), consumer.getList());
+	}
+
 	@Test
 	public void testErrorsOnStorage() throws IOException {
 		FailingStreamSorterStorageStub<Integer> failingNewPartitionStorage = FailingStreamSorterStorageStub.<Integer>create().withFailNewPartition();
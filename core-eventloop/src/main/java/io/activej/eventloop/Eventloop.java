@@ -19,7 +19,9 @@ package io.activej.eventloop;
 import io.activej.async.callback.AsyncComputation;
 import io.activej.async.callback.Callback;
 import io.activej.async.exception.AsyncTimeoutException;
+import io.activej.common.ApplicationSettings;
 import io.activej.common.Checks;
+import io.activej.common.collection.MpscArrayQueue;
 import io.activej.common.exception.FatalErrorHandler;
 import io.activej.common.exception.UncheckedException;
 import io.activej.common.function.RunnableEx;
@@ -34,7 +36,10 @@ import io.activej.eventloop.jmx.EventloopJmxBean;
 import io.activej.eventloop.jmx.EventloopJmxBeanWithStats;
 import io.activej.eventloop.net.DatagramSocketSettings;
 import io.activej.eventloop.net.ServerSocketSettings;
+import io.activej.eventloop.schedule.PriorityScheduledTaskQueue;
 import io.activej.eventloop.schedule.ScheduledRunnable;
+import io.activej.eventloop.schedule.ScheduledTaskQueue;
+import io.activej.eventloop.schedule.TimingWheelScheduledTaskQueue;
 import io.activej.eventloop.schedule.Scheduler;
 import io.activej.eventloop.util.RunnableWithContext;
 import io.activej.jmx.api.attribute.JmxAttribute;
@@ -54,7 +59,9 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -90,6 +97,8 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 	public static final Duration DEFAULT_SMOOTHING_WINDOW = Duration.ofMinutes(1);
 	public static final Duration DEFAULT_IDLE_INTERVAL = Duration.ofSeconds(1);
 
+	private static final int CONCURRENT_TASKS_CAPACITY = ApplicationSettings.getInt(Eventloop.class, "concurrentTasksCapacity", 1024);
+
 	/**
 	 * Collection of local tasks which were added from this thread.
 	 */
@@ -100,19 +109,34 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 	/**
 	 * Collection of concurrent tasks which were added from other threads.
 	 */
-	private final ConcurrentLinkedQueue<Runnable> concurrentTasks = new ConcurrentLinkedQueue<>();
+	private final MpscArrayQueue<Runnable> concurrentTasks = MpscArrayQueue.create(CONCURRENT_TASKS_CAPACITY);
+
+	/**
+	 * Concurrent tasks that did not fit into {@link #concurrentTasks}.
+	 * While it is not empty, new concurrent tasks are added here too, so that
+	 * tasks of each thread are executed in the order they were added
+	 */
+	private final ConcurrentLinkedQueue<Runnable> concurrentTasksOverflow = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Whether a selector has already been woken up by some thread since
+	 * this eventloop last checked its concurrent tasks
+	 */
+	private final AtomicBoolean wakeupPending = new AtomicBoolean();
+	private final LongAdder wakeups = new LongAdder();
+	private final LongAdder wakeupsAvoided = new LongAdder();
 
 	/**
 	 * Collection of scheduled tasks that are scheduled
 	 * to be executed at particular timestamp.
 	 */
-	private final PriorityQueue<ScheduledRunnable> scheduledTasks = new PriorityQueue<>();
+	private @NotNull ScheduledTaskQueue scheduledTasks = PriorityScheduledTaskQueue.create();
 
 	/**
 	 * Collection of background tasks,
 	 * if eventloop contains only background tasks, it will be closed.
 	 */
-	private final PriorityQueue<ScheduledRunnable> backgroundTasks = new PriorityQueue<>();
+	private @NotNull ScheduledTaskQueue backgroundTasks = PriorityScheduledTaskQueue.create();
 
 	/**
 	 * Amount of concurrent operations in other threads,
@@ -140,6 +164,15 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 
 	private @Nullable SelectorProvider selectorProvider;
 
+	/**
+	 * Whether selected keys are collected into an array by {@link Selector#select(Consumer, long)}
+	 * rather than into a selected-key set of a selector
+	 */
+	private boolean batchedSelection;
+	private SelectionKey[] selectedKeysArray = new SelectionKey[64];
+	private int selectedKeysCount;
+	private final Consumer<SelectionKey> selectedKeysCollector = this::collectSelectedKey;
+
 	/**
 	 * The thread in which eventloop is running.
 	 */
@@ -260,6 +293,25 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		return this;
 	}
 
+	/**
+	 * Enables or disables batched selection of keys.
+	 * <p>
+	 * When enabled, keys are selected by {@link Selector#select(Consumer, long)},
+	 * which bypasses a selected-key set of a selector. Ready keys are collected
+	 * into a reusable array and dispatched after a selection completes,
+	 * so that no iterators are allocated and no hash set bookkeeping is done on each loop.
+	 * This works with any {@link SelectorProvider}, including a default one.
+	 * <p>
+	 * By default, batched selection is disabled
+	 *
+	 * @param batchedSelection whether selected keys should be collected into an array
+	 * @return this {@link Eventloop}
+	 */
+	public @NotNull Eventloop withBatchedSelection(boolean batchedSelection) {
+		this.batchedSelection = batchedSelection;
+		return this;
+	}
+
 	/**
 	 * Sets an idle interval for this {@link Eventloop}.
 	 * <p>
@@ -275,6 +327,24 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		return this;
 	}
 
+	/**
+	 * Sets a factory of {@link ScheduledTaskQueue}s that will hold scheduled and background tasks
+	 * of this {@link Eventloop}
+	 * <p>
+	 * By default, tasks are stored in a {@link PriorityScheduledTaskQueue}.
+	 * A {@link TimingWheelScheduledTaskQueue} may be used instead,
+	 * if there are lots of tasks being scheduled and cancelled (e.g. timeouts)
+	 *
+	 * @param queueFactory a factory of scheduled task queues
+	 * @return this {@link Eventloop}
+	 */
+	public @NotNull Eventloop withScheduledTaskQueue(@NotNull Supplier<? extends ScheduledTaskQueue> queueFactory) {
+		checkState(scheduledTasks.isEmpty() && backgroundTasks.isEmpty(), "Eventloop already has scheduled tasks");
+		this.scheduledTasks = queueFactory.get();
+		this.backgroundTasks = queueFactory.get();
+		return this;
+	}
+
 	/**
 	 * Register this {@link Eventloop} to an inner {@link ThreadLocal}.
 	 * <p>
@@ -473,7 +543,7 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		if (breakEventloop)
 			return false;
 		lastExternalTasksCount = externalTasksCount.get();
-		return !localTasks.isEmpty() || !scheduledTasks.isEmpty() || !concurrentTasks.isEmpty()
+		return !localTasks.isEmpty() || !scheduledTasks.isEmpty() || hasConcurrentTasks()
 				|| lastExternalTasksCount > 0
 				|| keepAlive || (selector != null && selector.isOpen() && selector.keys().size() - cancelledKeys > 0);
 	}
@@ -507,9 +577,16 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		long timeAfterBusinessLogic = 0;
 		while (isAlive()) {
 			try {
+				if (wakeupPending.get()) {
+					wakeupPending.set(false);
+				}
 				long selectTimeout = getSelectTimeout();
 				if (inspector != null) inspector.onUpdateSelectorSelectTimeout(selectTimeout);
-				if (selectTimeout <= 0) {
+				if (batchedSelection) {
+					lastSelectedKeys = selectTimeout <= 0 ?
+							selector.selectNow(selectedKeysCollector) :
+							selector.select(selectedKeysCollector, selectTimeout);
+				} else if (selectTimeout <= 0) {
 					lastSelectedKeys = selector.selectNow();
 				} else {
 					lastSelectedKeys = selector.select(selectTimeout);
@@ -556,27 +633,33 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 	}
 
 	private long getSelectTimeout() {
-		if (!concurrentTasks.isEmpty() || !localTasks.isEmpty())
+		if (hasConcurrentTasks() || !localTasks.isEmpty())
 			return 0L;
 		if (scheduledTasks.isEmpty() && backgroundTasks.isEmpty())
 			return idleInterval.toMillis();
 		return Math.min(getTimeBeforeExecution(scheduledTasks), getTimeBeforeExecution(backgroundTasks));
 	}
 
-	private long getTimeBeforeExecution(PriorityQueue<ScheduledRunnable> taskQueue) {
-		while (!taskQueue.isEmpty()) {
-			ScheduledRunnable first = taskQueue.peek();
-			if (first.isCancelled()) {
-				taskQueue.poll();
-				continue;
-			}
-			return first.getTimestamp() - currentTimeMillis();
+	private long getTimeBeforeExecution(ScheduledTaskQueue taskQueue) {
+		long nextTimestamp = taskQueue.nextTimestamp();
+		if (nextTimestamp == Long.MAX_VALUE) {
+			return idleInterval.toMillis();
 		}
-		return idleInterval.toMillis();
+		return nextTimestamp - currentTimeMillis();
+	}
+
+	private void collectSelectedKey(SelectionKey key) {
+		if (selectedKeysCount == selectedKeysArray.length) {
+			selectedKeysArray = Arrays.copyOf(selectedKeysArray, selectedKeysArray.length * 2);
+		}
+		selectedKeysArray[selectedKeysCount++] = key;
 	}
 
 	/**
 	 * Processes selected keys related to various I/O events: accept, connect, read, write.
+	 * <p>
+	 * If batched selection is enabled, keys are taken from an array of collected keys
+	 * instead of a given set
 	 *
 	 * @param selectedKeys set that contains all selected keys, returned from NIO Selector.select()
 	 */
@@ -586,10 +669,18 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 
 		int invalidKeys = 0, acceptKeys = 0, connectKeys = 0, readKeys = 0, writeKeys = 0;
 
-		Iterator<SelectionKey> iterator = lastSelectedKeys != 0 ? selectedKeys.iterator() : emptyIterator();
-		while (iterator.hasNext()) {
-			SelectionKey key = iterator.next();
-			iterator.remove();
+		Iterator<SelectionKey> iterator = batchedSelection || lastSelectedKeys == 0 ? emptyIterator() : selectedKeys.iterator();
+		for (int i = 0; ; i++) {
+			SelectionKey key;
+			if (i < selectedKeysCount) {
+				key = selectedKeysArray[i];
+				selectedKeysArray[i] = null;
+			} else if (iterator.hasNext()) {
+				key = iterator.next();
+				iterator.remove();
+			} else {
+				break;
+			}
 
 			if (!key.isValid()) {
 				invalidKeys++;
@@ -624,6 +715,8 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 			if (sw != null && inspector != null) inspector.onUpdateSelectedKeyDuration(sw);
 		}
 
+		selectedKeysCount = 0;
+
 		int keys = acceptKeys + connectKeys + readKeys + writeKeys + invalidKeys;
 
 		if (keys != 0) {
@@ -694,7 +787,10 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		while (true) {
 			Runnable runnable = this.concurrentTasks.poll();
 			if (runnable == null) {
-				break;
+				runnable = concurrentTasksOverflow.poll();
+				if (runnable == null) {
+					break;
+				}
 			}
 
 			if (sw != null) {
@@ -730,7 +826,7 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		return executeScheduledTasks(backgroundTasks);
 	}
 
-	private int executeScheduledTasks(PriorityQueue<ScheduledRunnable> taskQueue) {
+	private int executeScheduledTasks(ScheduledTaskQueue taskQueue) {
 		long startTimestamp = timestamp;
 		boolean background = taskQueue == backgroundTasks;
 
@@ -738,17 +834,9 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		Stopwatch sw = monitoring ? Stopwatch.createUnstarted() : null;
 
 		for (; ; ) {
-			ScheduledRunnable peeked = taskQueue.peek();
+			ScheduledRunnable peeked = taskQueue.poll(currentTimeMillis());
 			if (peeked == null)
 				break;
-			if (peeked.isCancelled()) {
-				taskQueue.poll();
-				continue;
-			}
-			if (peeked.getTimestamp() > currentTimeMillis()) {
-				break;
-			}
-			taskQueue.poll();
 
 			Runnable runnable = peeked.getRunnable();
 			if (sw != null) {
@@ -1080,9 +1168,47 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 	 */
 	@Override
 	public void execute(@NotNull @Async.Schedule Runnable runnable) {
-		concurrentTasks.offer(runnable);
-		if (selector != null) {
+		addConcurrentTask(runnable);
+		wakeup();
+	}
+
+	/**
+	 * Posts new tasks from other threads, waking up this eventloop at most once.
+	 * Tasks are executed in the order they are listed
+	 *
+	 * @param runnables runnables of these tasks
+	 */
+	@Override
+	public void executeBatch(@NotNull List<? extends Runnable> runnables) {
+		if (runnables.isEmpty()) return;
+		for (Runnable runnable : runnables) {
+			addConcurrentTask(runnable);
+		}
+		wakeup();
+	}
+
+	private void addConcurrentTask(Runnable runnable) {
+		if (!concurrentTasksOverflow.isEmpty() || !concurrentTasks.offer(runnable)) {
+			concurrentTasksOverflow.offer(runnable);
+		}
+	}
+
+	private boolean hasConcurrentTasks() {
+		return !concurrentTasks.isEmpty() || !concurrentTasksOverflow.isEmpty();
+	}
+
+	/**
+	 * Wakes up a selector, unless it has already been woken up
+	 * and this eventloop has not yet checked its concurrent tasks since then
+	 */
+	private void wakeup() {
+		Selector selector = this.selector;
+		if (selector == null) return;
+		if (!wakeupPending.get() && !wakeupPending.getAndSet(true)) {
 			selector.wakeup();
+			wakeups.increment();
+		} else {
+			wakeupsAvoided.increment();
 		}
 	}
 
@@ -1117,8 +1243,8 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 
 	private @NotNull ScheduledRunnable addScheduledTask(long timestamp, Runnable runnable, boolean background) {
 		ScheduledRunnable scheduledTask = ScheduledRunnable.create(timestamp, runnable);
-		PriorityQueue<ScheduledRunnable> taskQueue = background ? backgroundTasks : scheduledTasks;
-		taskQueue.offer(scheduledTask);
+		ScheduledTaskQueue taskQueue = background ? backgroundTasks : scheduledTasks;
+		taskQueue.offer(scheduledTask, currentTimeMillis());
 		return scheduledTask;
 	}
 
@@ -1301,6 +1427,42 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		return threadPriority;
 	}
 
+	@JmxAttribute
+	public int getScheduledTasksCount() {
+		return scheduledTasks.size();
+	}
+
+	@JmxAttribute
+	public int getBackgroundTasksCount() {
+		return backgroundTasks.size();
+	}
+
+	@JmxAttribute(name = "scheduledTasksWheel")
+	public @Nullable TimingWheelScheduledTaskQueue getScheduledTasksTimingWheel() {
+		return scheduledTasks instanceof TimingWheelScheduledTaskQueue ? (TimingWheelScheduledTaskQueue) scheduledTasks : null;
+	}
+
+	@JmxAttribute(name = "backgroundTasksWheel")
+	public @Nullable TimingWheelScheduledTaskQueue getBackgroundTasksTimingWheel() {
+		return backgroundTasks instanceof TimingWheelScheduledTaskQueue ? (TimingWheelScheduledTaskQueue) backgroundTasks : null;
+	}
+
+	@JmxAttribute(description = "number of times a selector was woken up to execute concurrent tasks")
+	public long getWakeups() {
+		return wakeups.sum();
+	}
+
+	@JmxAttribute(description = "number of concurrent tasks that did not wake up a selector, " +
+			"because it had already been woken up")
+	public long getWakeupsAvoided() {
+		return wakeupsAvoided.sum();
+	}
+
+	@JmxAttribute
+	public int getConcurrentTasksCount() {
+		return concurrentTasks.size() + concurrentTasksOverflow.size();
+	}
+
 	@JmxAttribute
 	public boolean getKeepAlive() {
 		return keepAlive;
@@ -1348,8 +1510,8 @@ public final class Eventloop implements Runnable, EventloopExecutor, Scheduler,
 		if (!backgroundTasks.isEmpty()) {
 			sb.append(", backgroundTasks=" + backgroundTasks.size());
 		}
-		if (!concurrentTasks.isEmpty()) {
-			sb.append(", concurrentTasks=" + concurrentTasks.size());
+		if (hasConcurrentTasks()) {
+			sb.append(", concurrentTasks=" + (concurrentTasks.size() + concurrentTasksOverflow.size()));
 		}
 		int externalTasks = externalTasksCount.get();
 		if (externalTasks != 0) {
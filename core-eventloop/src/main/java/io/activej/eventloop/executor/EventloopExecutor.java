@@ -22,6 +22,7 @@ import io.activej.common.function.SupplierEx;
 import io.activej.eventloop.Eventloop;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
@@ -33,6 +34,19 @@ import java.util.concurrent.Executor;
  * @see BlockingEventloopExecutor
  */
 public interface EventloopExecutor extends Executor {
+	/**
+	 * Executes the given tasks at some time in the future in some underlying eventloop,
+	 * in the order they are listed.
+	 * <p>
+	 * An implementation may hand over all the tasks to an eventloop at once,
+	 * which is cheaper than calling {@link #execute} for each task
+	 */
+	default void executeBatch(@NotNull List<? extends Runnable> runnables) {
+		for (Runnable runnable : runnables) {
+			execute(runnable);
+		}
+	}
+
 	/**
 	 * Executes the given computation at some time in the future in some underlying eventloop.
 	 */
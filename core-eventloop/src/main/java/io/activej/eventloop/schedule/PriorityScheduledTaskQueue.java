@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.eventloop.schedule;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.PriorityQueue;
+
+/**
+ * A default {@link ScheduledTaskQueue} backed by a binary heap.
+ * <p>
+ * Tasks are executed in a strict order of their timestamps.
+ * Scheduling a task takes O(log n) time, cancelled tasks
+ * stay in the heap until they reach its head.
+ */
+public final class PriorityScheduledTaskQueue implements ScheduledTaskQueue {
+	private final PriorityQueue<ScheduledRunnable> queue = new PriorityQueue<>();
+
+	private PriorityScheduledTaskQueue() {
+	}
+
+	public static PriorityScheduledTaskQueue create() {
+		return new PriorityScheduledTaskQueue();
+	}
+
+	@Override
+	public void offer(@NotNull ScheduledRunnable task, long currentTimeMillis) {
+		queue.offer(task);
+	}
+
+	@Override
+	public @Nullable ScheduledRunnable poll(long currentTimeMillis) {
+		for (; ; ) {
+			ScheduledRunnable peeked = queue.peek();
+			if (peeked == null)
+				return null;
+			if (peeked.isCancelled()) {
+				queue.poll();
+				continue;
+			}
+			if (peeked.getTimestamp() > currentTimeMillis) {
+				return null;
+			}
+			return queue.poll();
+		}
+	}
+
+	@Override
+	public long nextTimestamp() {
+		while (!queue.isEmpty()) {
+			ScheduledRunnable first = queue.peek();
+			if (first.isCancelled()) {
+				queue.poll();
+				continue;
+			}
+			return first.getTimestamp();
+		}
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public int size() {
+		return queue.size();
+	}
+
+	@Override
+	public String toString() {
+		return "PriorityScheduledTaskQueue{size=" + queue.size() + '}';
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.eventloop.schedule;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A storage of {@link ScheduledRunnable}s used by an {@link io.activej.eventloop.Eventloop}
+ * to keep track of scheduled and background tasks.
+ * <p>
+ * Implementations are not thread-safe and should only be accessed from an eventloop thread.
+ *
+ * @see PriorityScheduledTaskQueue
+ * @see TimingWheelScheduledTaskQueue
+ */
+public interface ScheduledTaskQueue {
+	/**
+	 * Adds a new task to this queue
+	 *
+	 * @param task              a task to be added
+	 * @param currentTimeMillis current time
+	 */
+	void offer(@NotNull ScheduledRunnable task, long currentTimeMillis);
+
+	/**
+	 * Removes and returns a next task that should be executed at a given time.
+	 * Cancelled tasks are skipped.
+	 *
+	 * @param currentTimeMillis current time
+	 * @return a task which timestamp is not after a given time,
+	 * or {@code null} if there are no such tasks
+	 */
+	@Nullable ScheduledRunnable poll(long currentTimeMillis);
+
+	/**
+	 * Returns a timestamp at which a next task may become due.
+	 * <p>
+	 * A returned timestamp may be earlier than an actual timestamp
+	 * of a next task, but should never be later.
+	 *
+	 * @return a timestamp of a next task or {@link Long#MAX_VALUE} if there are no tasks
+	 */
+	long nextTimestamp();
+
+	/**
+	 * Returns the number of tasks in this queue.
+	 * Depending on an implementation, cancelled tasks may be counted as well.
+	 */
+	int size();
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+}
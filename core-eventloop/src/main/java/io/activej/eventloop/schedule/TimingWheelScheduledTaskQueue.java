@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.eventloop.schedule;
+
+import io.activej.common.initializer.WithInitializer;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.stats.EventStats;
+import io.activej.jmx.stats.ValueStats;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+
+import static io.activej.common.Checks.checkArgument;
+import static io.activej.eventloop.Eventloop.DEFAULT_SMOOTHING_WINDOW;
+import static io.activej.jmx.stats.JmxHistogram.POWERS_OF_TWO;
+
+/**
+ * A {@link ScheduledTaskQueue} implemented as a hierarchical hashed timing wheel.
+ * <p>
+ * The wheel consists of {@value LEVELS} levels of {@value SLOTS} slots each.
+ * A slot of the lowest level spans a single tick, a slot of each next level
+ * spans a whole rotation of a previous level. When a lower level completes a rotation,
+ * tasks from a corresponding slot of a higher level are redistributed to lower levels.
+ * <p>
+ * Scheduling and cancelling a task takes O(1) time, cancelled tasks are unlinked
+ * from the wheel immediately. Tasks are executed with a precision of a tick duration,
+ * tasks that become due within the same tick are executed in the order they were scheduled.
+ */
+public final class TimingWheelScheduledTaskQueue implements ScheduledTaskQueue, WithInitializer<TimingWheelScheduledTaskQueue> {
+	public static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(1);
+
+	private static final int LEVELS = 4;
+	private static final int SLOT_BITS = 8;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+
+	private final ScheduledRunnable[] heads = new ScheduledRunnable[LEVELS * SLOTS];
+	private final ScheduledRunnable[] tails = new ScheduledRunnable[LEVELS * SLOTS];
+	private final long[] occupied = new long[LEVELS * SLOTS / Long.SIZE];
+
+	private final ArrayDeque<ScheduledRunnable> expired = new ArrayDeque<>();
+
+	private long tickMillis = DEFAULT_TICK_DURATION.toMillis();
+
+	/**
+	 * The last tick which slots have already been processed
+	 */
+	private long currentTick;
+	private int size;
+
+	// region JMX
+	private final ValueStats lateness = ValueStats.create(DEFAULT_SMOOTHING_WINDOW)
+			.withHistogram(POWERS_OF_TWO)
+			.withUnit("milliseconds");
+	private final EventStats cascadedTasks = EventStats.create(DEFAULT_SMOOTHING_WINDOW);
+	// endregion
+
+	// region builders
+	private TimingWheelScheduledTaskQueue() {
+	}
+
+	public static TimingWheelScheduledTaskQueue create() {
+		return new TimingWheelScheduledTaskQueue();
+	}
+
+	/**
+	 * Sets a duration of a single tick of this wheel.
+	 * <p>
+	 * Tasks may be executed later than scheduled by up to a tick duration
+	 *
+	 * @param tickDuration a duration of a single tick, should be at least 1 millisecond
+	 * @return this {@link TimingWheelScheduledTaskQueue}
+	 */
+	public TimingWheelScheduledTaskQueue withTickDuration(@NotNull Duration tickDuration) {
+		checkArgument(tickDuration.toMillis() >= 1, "Tick duration should be at least 1 millisecond");
+		this.tickMillis = tickDuration.toMillis();
+		return this;
+	}
+	// endregion
+
+	@Override
+	public void offer(@NotNull ScheduledRunnable task, long currentTimeMillis) {
+		if (size == 0) {
+			currentTick = Math.max(currentTick, currentTimeMillis / tickMillis);
+		}
+		place(task, toTick(task.getTimestamp()));
+	}
+
+	@Override
+	public @Nullable ScheduledRunnable poll(long currentTimeMillis) {
+		advance(currentTimeMillis / tickMillis);
+		for (; ; ) {
+			ScheduledRunnable task = expired.poll();
+			if (task == null)
+				return null;
+			if (task.isCancelled())
+				continue;
+			lateness.recordValue((int) (currentTimeMillis - task.getTimestamp()));
+			return task;
+		}
+	}
+
+	@Override
+	public long nextTimestamp() {
+		while (!expired.isEmpty()) {
+			if (!expired.peek().isCancelled()) {
+				return currentTick * tickMillis;
+			}
+			expired.poll();
+		}
+		return size == 0 ? Long.MAX_VALUE : nextTick() * tickMillis;
+	}
+
+	@Override
+	public int size() {
+		return size + expired.size();
+	}
+
+	void remove(ScheduledRunnable task) {
+		unlink(task);
+		size--;
+	}
+
+	private long toTick(long timestamp) {
+		long tick = Math.floorDiv(timestamp, tickMillis);
+		return Math.floorMod(timestamp, tickMillis) == 0 ? tick : tick + 1;
+	}
+
+	private void place(ScheduledRunnable task, long tick) {
+		long delta = tick - currentTick;
+		if (delta <= 0) {
+			expired.add(task);
+			return;
+		}
+
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << SLOT_BITS * (level + 1)) {
+			level++;
+		}
+		int shift = SLOT_BITS * level;
+		long block = delta < 1L << SLOT_BITS * LEVELS ?
+				tick >>> shift :
+				(currentTick >>> shift) + SLOT_MASK; // too far in the future, will be redistributed later
+
+		int slot = level * SLOTS + (int) (block & SLOT_MASK);
+		task.wheel = this;
+		task.slot = slot;
+		task.next = null;
+		task.prev = tails[slot];
+		if (tails[slot] == null) {
+			heads[slot] = task;
+			occupied[slot >>> 6] |= 1L << slot;
+		} else {
+			tails[slot].next = task;
+		}
+		tails[slot] = task;
+		size++;
+	}
+
+	private void unlink(ScheduledRunnable task) {
+		int slot = task.slot;
+		ScheduledRunnable prev = task.prev;
+		ScheduledRunnable next = task.next;
+		if (prev == null) {
+			heads[slot] = next;
+		} else {
+			prev.next = next;
+		}
+		if (next == null) {
+			tails[slot] = prev;
+		} else {
+			next.prev = prev;
+		}
+		if (heads[slot] == null) {
+			occupied[slot >>> 6] &= ~(1L << slot);
+		}
+		task.wheel = null;
+		task.prev = null;
+		task.next = null;
+	}
+
+	private void advance(long targetTick) {
+		while (size != 0) {
+			long nextTick = nextTick();
+			if (nextTick > targetTick) break;
+			currentTick = nextTick;
+			for (int level = LEVELS - 1; level > 0; level--) {
+				int shift = SLOT_BITS * level;
+				if ((currentTick & ((1L << shift) - 1)) == 0) {
+					cascade(level * SLOTS + (int) ((currentTick >>> shift) & SLOT_MASK));
+				}
+			}
+			expire((int) (currentTick & SLOT_MASK));
+		}
+		currentTick = Math.max(currentTick, targetTick);
+	}
+
+	private void cascade(int slot) {
+		ScheduledRunnable task = heads[slot];
+		while (task != null) {
+			ScheduledRunnable next = task.next;
+			unlink(task);
+			size--;
+			place(task, toTick(task.getTimestamp()));
+			cascadedTasks.recordEvent();
+			task = next;
+		}
+	}
+
+	private void expire(int slot) {
+		ScheduledRunnable task = heads[slot];
+		while (task != null) {
+			ScheduledRunnable next = task.next;
+			unlink(task);
+			size--;
+			expired.add(task);
+			task = next;
+		}
+	}
+
+	/**
+	 * Returns the earliest tick after {@link #currentTick} at which
+	 * some slot should be either expired or redistributed
+	 */
+	private long nextTick() {
+		long result = Long.MAX_VALUE;
+		for (int level = 0; level < LEVELS; level++) {
+			int shift = SLOT_BITS * level;
+			long block = currentTick >>> shift;
+			int offset = nextOccupiedOffset(level, (int) ((block + 1) & SLOT_MASK));
+			if (offset != -1) {
+				result = Math.min(result, (block + 1 + offset) << shift);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns an offset from a given slot index to the nearest occupied slot of a level
+	 * in circular order, or -1 if all slots of the level are empty
+	 */
+	private int nextOccupiedOffset(int level, int fromIndex) {
+		int wordsPerLevel = SLOTS / Long.SIZE;
+		int wordIndex = fromIndex >>> 6;
+		long word = occupied[level * wordsPerLevel + wordIndex] & (-1L << fromIndex);
+		for (int i = 0; i <= wordsPerLevel; i++) {
+			if (word != 0) {
+				int index = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+				return (index - fromIndex) & SLOT_MASK;
+			}
+			wordIndex = (wordIndex + 1) & (wordsPerLevel - 1);
+			word = occupied[level * wordsPerLevel + wordIndex];
+		}
+		return -1;
+	}
+
+	// region JMX
+	@JmxAttribute
+	public int getSize() {
+		return size();
+	}
+
+	@JmxAttribute(description = "number of non-empty slots on each level of a wheel")
+	public String getOccupiedSlots() {
+		StringBuilder sb = new StringBuilder();
+		for (int level = 0; level < LEVELS; level++) {
+			int count = 0;
+			for (int i = 0; i < SLOTS / Long.SIZE; i++) {
+				count += Long.bitCount(occupied[(level * SLOTS >>> 6) + i]);
+			}
+			if (level != 0) sb.append(", ");
+			sb.append(count);
+		}
+		return sb.toString();
+	}
+
+	@JmxAttribute
+	public Duration getTickDuration() {
+		return Duration.ofMillis(tickMillis);
+	}
+
+	@JmxAttribute(extraSubAttributes = "histogram", description = "time between a scheduled timestamp and an actual execution of a task")
+	public ValueStats getLateness() {
+		return lateness;
+	}
+
+	@JmxAttribute(description = "tasks redistributed from higher levels of a wheel to lower levels")
+	public EventStats getCascadedTasks() {
+		return cascadedTasks;
+	}
+	// endregion
+
+	@Override
+	public String toString() {
+		return "TimingWheelScheduledTaskQueue{size=" + size() + ", tickDuration=" + getTickDuration() + '}';
+	}
+}
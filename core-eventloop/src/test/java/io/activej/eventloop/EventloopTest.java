@@ -2,13 +2,23 @@ package io.activej.eventloop;
 
 import io.activej.common.ref.Ref;
 import io.activej.eventloop.inspector.EventloopStats;
+import io.activej.eventloop.net.ServerSocketSettings;
 import io.activej.eventloop.util.RunnableWithContext;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static java.util.Objects.requireNonNull;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public final class EventloopTest {
 	@Test
@@ -41,4 +51,122 @@ public final class EventloopTest {
 		Duration smoothingWindow = Eventloop.create().withInspector(EventloopStats.create()).getSmoothingWindow();
 		assertEquals(Eventloop.DEFAULT_SMOOTHING_WINDOW, smoothingWindow);
 	}
+
+	@Test
+	public void testBatchedSelection() throws IOException {
+		Eventloop eventloop = Eventloop.create().withCurrentThread()
+				.withBatchedSelection(true);
+		int connections = 100;
+		List<SocketChannel> channels = new ArrayList<>();
+		Ref<ServerSocketChannel> serverChannelRef = new Ref<>();
+		Ref<Exception> exceptionRef = new Ref<>();
+
+		Consumer<SocketChannel> onChannel = channel -> {
+			channels.add(channel);
+			if (channels.size() != connections * 2) return;
+			try {
+				serverChannelRef.get().close();
+				for (SocketChannel socketChannel : channels) {
+					socketChannel.close();
+				}
+			} catch (IOException e) {
+				exceptionRef.set(e);
+			}
+		};
+
+		ServerSocketChannel serverChannel = eventloop.listen(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+				ServerSocketSettings.create(connections), onChannel);
+		serverChannelRef.set(serverChannel);
+		InetSocketAddress address = (InetSocketAddress) serverChannel.getLocalAddress();
+		for (int i = 0; i < connections; i++) {
+			eventloop.connect(address, (channel, e) -> {
+				if (e != null) {
+					exceptionRef.set(e);
+					return;
+				}
+				onChannel.accept(channel);
+			});
+		}
+		eventloop.run();
+
+		assertNull(exceptionRef.get());
+		assertEquals(connections * 2, channels.size());
+	}
+
+	@Test
+	public void testConcurrentTasksOrder() throws InterruptedException {
+		Eventloop eventloop = Eventloop.create().withCurrentThread();
+		int producers = 4;
+		int tasks = 10_000;
+		int[] executed = new int[producers];
+		Ref<AssertionError> errorRef = new Ref<>();
+
+		eventloop.startExternalTask();
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			int producer = p;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < tasks; i += 10) {
+					List<Runnable> batch = new ArrayList<>();
+					for (int j = i; j < i + 10; j++) {
+						int expected = j;
+						Runnable task = () -> {
+							if (executed[producer]++ != expected) {
+								errorRef.set(new AssertionError("Tasks of producer " + producer + " are reordered"));
+							}
+						};
+						batch.add(task);
+					}
+					if (i % 20 == 0) {
+						eventloop.executeBatch(batch);
+					} else {
+						batch.forEach(eventloop::execute);
+					}
+				}
+			}));
+		}
+		Thread completer = new Thread(() -> {
+			for (Thread thread : threads) {
+				thread.start();
+			}
+			try {
+				for (Thread thread : threads) {
+					thread.join();
+				}
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+			eventloop.execute(eventloop::completeExternalTask);
+		});
+		completer.start();
+		eventloop.run();
+		completer.join();
+
+		assertNull(errorRef.get());
+		for (int count : executed) {
+			assertEquals(tasks, count);
+		}
+	}
+
+	@Test
+	public void testWakeupsAreCoalesced() {
+		Eventloop eventloop = Eventloop.create().withCurrentThread();
+		eventloop.ensureSelector();
+		StringBuilder sb = new StringBuilder();
+
+		eventloop.execute(() -> sb.append("a"));
+		eventloop.execute(() -> sb.append("b"));
+		eventloop.executeBatch(List.of(() -> sb.append("c"), () -> sb.append("d")));
+		assertEquals(1, eventloop.getWakeups());
+		assertEquals(2, eventloop.getWakeupsAvoided());
+
+		eventloop.run();
+		assertEquals("abcd", sb.toString());
+
+		eventloop.ensureSelector();
+		eventloop.execute(() -> sb.append("e"));
+		assertEquals(2, eventloop.getWakeups());
+		eventloop.run();
+		assertEquals("abcde", sb.toString());
+	}
 }
@@ -0,0 +1,122 @@
+package io.activej.eventloop.schedule;
+
+import io.activej.eventloop.Eventloop;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public final class TimingWheelScheduledTaskQueueTest {
+	private static final long START = 1_600_000_000_000L;
+
+	@Test
+	public void testTasksAreExecutedInOrder() {
+		TimingWheelScheduledTaskQueue wheel = TimingWheelScheduledTaskQueue.create();
+		long[] delays = {5, 1, 300, 70_000, 0, 20_000_000, 255, 256, 65_536};
+		for (long delay : delays) {
+			wheel.offer(ScheduledRunnable.create(START + delay, () -> {}), START);
+		}
+		assertEquals(delays.length, wheel.size());
+
+		List<Long> fired = new ArrayList<>();
+		long now = START;
+		while (!wheel.isEmpty()) {
+			now = Math.max(now, wheel.nextTimestamp());
+			ScheduledRunnable task;
+			while ((task = wheel.poll(now)) != null) {
+				assertTrue(task.getTimestamp() <= now);
+				fired.add(task.getTimestamp() - START);
+			}
+		}
+
+		assertEquals(List.of(0L, 1L, 5L, 255L, 256L, 300L, 65_536L, 70_000L, 20_000_000L), fired);
+	}
+
+	@Test
+	public void testCancel() {
+		TimingWheelScheduledTaskQueue wheel = TimingWheelScheduledTaskQueue.create();
+		ScheduledRunnable first = ScheduledRunnable.create(START + 10, () -> {});
+		ScheduledRunnable second = ScheduledRunnable.create(START + 10, () -> {});
+		ScheduledRunnable third = ScheduledRunnable.create(START + 100_000, () -> {});
+		wheel.offer(first, START);
+		wheel.offer(second, START);
+		wheel.offer(third, START);
+
+		first.cancel();
+		third.cancel();
+		assertEquals(1, wheel.size());
+		assertEquals(START + 10, wheel.nextTimestamp());
+
+		assertNull(wheel.poll(START + 9));
+		assertSame(second, wheel.poll(START + 10));
+		assertNull(wheel.poll(START + 1_000_000));
+		assertTrue(wheel.isEmpty());
+		assertEquals(Long.MAX_VALUE, wheel.nextTimestamp());
+	}
+
+	@Test
+	public void testTickDuration() {
+		TimingWheelScheduledTaskQueue wheel = TimingWheelScheduledTaskQueue.create()
+				.withTickDuration(Duration.ofMillis(10));
+		ScheduledRunnable task = ScheduledRunnable.create(START + 15, () -> {});
+		wheel.offer(task, START);
+
+		assertEquals(START + 20, wheel.nextTimestamp());
+		assertNull(wheel.poll(START + 15));
+		assertSame(task, wheel.poll(START + 20));
+	}
+
+	@Test
+	public void testRandomSchedule() {
+		Random random = new Random(0);
+		TimingWheelScheduledTaskQueue wheel = TimingWheelScheduledTaskQueue.create();
+		List<ScheduledRunnable> tasks = new ArrayList<>();
+		long now = START;
+		for (int i = 0; i < 10_000; i++) {
+			ScheduledRunnable task = ScheduledRunnable.create(now + random.nextInt(1 << random.nextInt(30)), () -> {});
+			wheel.offer(task, now);
+			tasks.add(task);
+			if (random.nextInt(4) == 0) {
+				tasks.get(random.nextInt(tasks.size())).cancel();
+			}
+			now += random.nextInt(1000);
+			ScheduledRunnable polled;
+			while ((polled = wheel.poll(now)) != null) {
+				assertTrue(polled.getTimestamp() <= now);
+				assertFalse(polled.isCancelled());
+				polled.complete();
+			}
+		}
+		now += 1 << 30;
+		ScheduledRunnable polled;
+		while ((polled = wheel.poll(now)) != null) {
+			polled.complete();
+		}
+		for (ScheduledRunnable task : tasks) {
+			assertTrue(task.isCancelled() || task.isComplete());
+		}
+		assertTrue(wheel.isEmpty());
+	}
+
+	@Test
+	public void testEventloop() {
+		Eventloop eventloop = Eventloop.create()
+				.withScheduledTaskQueue(TimingWheelScheduledTaskQueue::create)
+				.withCurrentThread();
+		StringBuilder sb = new StringBuilder();
+		eventloop.delay(30, () -> sb.append("c"));
+		eventloop.delay(10, () -> sb.append("a"));
+		eventloop.delay(20, () -> sb.append("b"));
+		eventloop.delayBackground(10_000, () -> sb.append("y"));
+		ScheduledRunnable cancelled = eventloop.delay(15, () -> sb.append("x"));
+		cancelled.cancel();
+
+		eventloop.run();
+
+		assertEquals("abc", sb.toString());
+	}
+}
@@ -0,0 +1,1010 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.common.ApplicationSettings;
+import io.activej.common.MemSize;
+import io.activej.common.collection.IntObjectHashMap;
+import io.activej.csp.AbstractChannelSupplier;
+import io.activej.csp.ChannelSupplier;
+import io.activej.eventloop.Eventloop;
+import io.activej.net.socket.tcp.AsyncTcpSocket;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import static io.activej.bytebuf.ByteBufStrings.equalsLowerCaseAscii;
+import static io.activej.common.Utils.nullify;
+import static io.activej.http.Http2Constants.*;
+import static io.activej.http.Http2Exception.connectionError;
+import static io.activej.http.Http2Exception.streamError;
+import static io.activej.http.HttpHeaders.CONTENT_ENCODING;
+import static io.activej.http.HttpUtils.translateToHttpException;
+import static java.lang.Math.min;
+
+/**
+ * A base class of HTTP/2 connections, as defined in RFC 7540.
+ * <p>
+ * A connection multiplexes many concurrent streams over a single socket.
+ * Frames of all the streams are coalesced into a single write buffer,
+ * which is flushed to a socket once per eventloop cycle.
+ * <p>
+ * Both a connection and each of its streams are flow-controlled.
+ * Received data is credited back to a peer only as it is consumed by an application,
+ * so that a slow consumer of a single stream does not cause unbounded buffering.
+ * Outbound body streams are pulled chunk by chunk, after previous chunks have been flushed
+ * and as long as a peer grants enough window.
+ * <p>
+ * HTTP/1.x-specific hooks of {@link AbstractHttpConnection} are not used.
+ */
+abstract class AbstractHttp2Connection extends AbstractHttpConnection {
+	static final int INITIAL_WINDOW_SIZE = Math.max(DEFAULT_WINDOW_SIZE,
+			ApplicationSettings.getMemSize(AbstractHttp2Connection.class, "initialWindowSize", MemSize.megabytes(1)).toInt());
+	static final int CONNECTION_WINDOW_SIZE = Math.max(DEFAULT_WINDOW_SIZE,
+			ApplicationSettings.getMemSize(AbstractHttp2Connection.class, "connectionWindowSize", MemSize.megabytes(16)).toInt());
+	static final int MAX_FRAME_SIZE = min(MAX_ALLOWED_FRAME_SIZE, Math.max(DEFAULT_MAX_FRAME_SIZE,
+			ApplicationSettings.getMemSize(AbstractHttp2Connection.class, "maxFrameSize", MemSize.kilobytes(16)).toInt()));
+	static final int MAX_CONCURRENT_STREAMS = ApplicationSettings.getInt(AbstractHttp2Connection.class, "maxConcurrentStreams", 256);
+	static final int MAX_HEADER_LIST_SIZE = ApplicationSettings.getMemSize(AbstractHttp2Connection.class, "maxHeaderListSize", MemSize.kilobytes(64)).toInt();
+
+	private static final int SETTING_SIZE = 6;
+
+	final IntObjectHashMap<Stream> streams = IntObjectHashMap.create();
+	int openStreams;
+
+	private final HpackDecoder hpackDecoder = new HpackDecoder(DEFAULT_HEADER_TABLE_SIZE);
+	private final HpackEncoder hpackEncoder = new HpackEncoder();
+
+	private int peerInitialWindowSize = DEFAULT_WINDOW_SIZE;
+	private int peerMaxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+	int peerMaxConcurrentStreams = Integer.MAX_VALUE;
+
+	private int sendWindow = DEFAULT_WINDOW_SIZE;
+	private int receiveWindow = DEFAULT_WINDOW_SIZE;
+	private int unackedReceived;
+	private final ArrayDeque<Stream> blockedStreams = new ArrayDeque<>();
+
+	private int continuationStreamId;
+	private byte continuationFlags;
+	private @Nullable ByteBuf headerBlock;
+
+	HttpHeader[] headerNames = new HttpHeader[16];
+	byte[][] headerValues = new byte[16][];
+	int headersCount;
+	private int headerListSize;
+	private final HpackDecoder.Listener headerListener = this::onDecodedHeader;
+
+	int lastStreamId;
+	boolean goAwaySent;
+	boolean goAwayReceived;
+
+	private @Nullable ByteBuf writeBuf;
+	private @Nullable SettablePromise<Void> flushPromise;
+
+	AbstractHttp2Connection(Eventloop eventloop, AsyncTcpSocket socket, int maxBodySize) {
+		super(eventloop, socket, maxBodySize);
+	}
+
+	// region hooks
+	/**
+	 * Called when a header block is received, decoded headers are stored in {@link #headerNames}
+	 * and {@link #headerValues}
+	 *
+	 * @param stream a stream, or {@code null} if a header block opens a new stream
+	 */
+	abstract void onHeaders(int streamId, @Nullable Stream stream, boolean endStream) throws Http2Exception;
+
+	/**
+	 * Called when a stream is closed, either normally or by a reset
+	 *
+	 * @param e an exception a stream has been reset with, or {@code null} if a stream has been closed normally
+	 */
+	abstract void onStreamClosed(Stream stream, @Nullable Exception e);
+
+	abstract void onGoAway(int lastStreamId, int errorCode);
+
+	abstract void onPeerSettingsChanged();
+
+	/**
+	 * Called when a message has been sent on a stream, while a message of a peer is still being received
+	 */
+	void onHalfClosedLocal(Stream stream) {
+	}
+	// endregion
+
+	// region HTTP/1.x hooks
+	@Override
+	protected final void onStartLine(byte[] line, int pos, int limit) {
+		throw new AssertionError();
+	}
+
+	@Override
+	protected final void onHeader(HttpHeader header, byte[] array, int off, int len) {
+		throw new AssertionError();
+	}
+
+	@Override
+	protected final void onHeadersReceived(@Nullable ByteBuf body, @Nullable ChannelSupplier<ByteBuf> bodySupplier) {
+		throw new AssertionError();
+	}
+
+	@Override
+	protected final void onBodyReceived() {
+		throw new AssertionError();
+	}
+
+	@Override
+	protected final void onBodySent() {
+		throw new AssertionError();
+	}
+
+	@Override
+	protected final void onNoContentLength() {
+		throw new AssertionError();
+	}
+
+	@Override
+	protected final void onMalformedHttpException(@NotNull MalformedHttpException e) {
+		closeEx(e);
+	}
+
+	@Override
+	protected final void readMessage() {
+		readFrames();
+	}
+	// endregion
+
+	/**
+	 * Sends initial settings of this endpoint and starts reading frames
+	 */
+	final void start(boolean server) {
+		ByteBuf buf = ensureWriteBuf(CONNECTION_PREFACE.length + FRAME_HEADER_SIZE + 5 * SETTING_SIZE);
+		if (!server) {
+			buf.put(CONNECTION_PREFACE);
+		}
+		writeFrameHeader(buf, (server ? 4 : 5) * SETTING_SIZE, SETTINGS, (byte) 0, 0);
+		if (server) {
+			writeSetting(buf, SETTINGS_MAX_CONCURRENT_STREAMS, MAX_CONCURRENT_STREAMS);
+		} else {
+			writeSetting(buf, SETTINGS_ENABLE_PUSH, 0);
+			writeSetting(buf, SETTINGS_MAX_CONCURRENT_STREAMS, 0);
+		}
+		writeSetting(buf, SETTINGS_INITIAL_WINDOW_SIZE, INITIAL_WINDOW_SIZE);
+		writeSetting(buf, SETTINGS_MAX_FRAME_SIZE, MAX_FRAME_SIZE);
+		writeSetting(buf, SETTINGS_MAX_HEADER_LIST_SIZE, MAX_HEADER_LIST_SIZE);
+		if (CONNECTION_WINDOW_SIZE > DEFAULT_WINDOW_SIZE) {
+			writeWindowUpdate(0, CONNECTION_WINDOW_SIZE - DEFAULT_WINDOW_SIZE);
+			receiveWindow = CONNECTION_WINDOW_SIZE;
+		}
+		scheduleFlush();
+		read();
+	}
+
+	final boolean isGoingAway() {
+		return goAwaySent || goAwayReceived;
+	}
+
+	// region reading
+	@Override
+	protected final void read() {
+		if (readBuf == null) {
+			socket.read().run(this::onRead);
+		} else {
+			readFrames();
+		}
+	}
+
+	private void onRead(@Nullable ByteBuf buf, @Nullable Exception e) {
+		if (isClosed()) {
+			if (buf != null) buf.recycle();
+			return;
+		}
+		if (e != null) {
+			closeEx(translateToHttpException(e));
+			return;
+		}
+		if (buf == null) {
+			close();
+			return;
+		}
+		if (pool != null) {
+			switchPool(pool);
+		}
+		readBuf = readBuf == null ? buf : ByteBufPool.append(readBuf, buf);
+		readFrames();
+	}
+
+	private void readFrames() {
+		try {
+			while (readBuf != null) {
+				int remaining = readBuf.readRemaining();
+				if (remaining < FRAME_HEADER_SIZE) break;
+				byte[] array = readBuf.array();
+				int head = readBuf.head();
+				int length = (array[head] & 0xFF) << 16 | (array[head + 1] & 0xFF) << 8 | array[head + 2] & 0xFF;
+				if (length > MAX_FRAME_SIZE) {
+					throw connectionError(FRAME_SIZE_ERROR, "Frame size exceeds a maximum frame size");
+				}
+				if (remaining < FRAME_HEADER_SIZE + length) break;
+				byte type = array[head + 3];
+				byte flags = array[head + 4];
+				int streamId = readInt(array, head + 5) & 0x7FFFFFFF;
+				int offset = head + FRAME_HEADER_SIZE;
+				readBuf.head(offset + length);
+
+				onFrame(type, flags, streamId, array, offset, length);
+				if (isClosed() || goAwaySent && openStreams == 0) return;
+
+				if (readBuf != null && !readBuf.canRead()) {
+					readBuf = nullify(readBuf, ByteBuf::recycle);
+				}
+			}
+		} catch (Http2Exception e) {
+			onConnectionError(e);
+			return;
+		}
+		socket.read().run(this::onRead);
+	}
+
+	private void onFrame(byte type, byte flags, int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (continuationStreamId != 0 && (type != CONTINUATION || streamId != continuationStreamId)) {
+			throw connectionError(PROTOCOL_ERROR, "Expected a CONTINUATION frame");
+		}
+		switch (type) {
+			case DATA -> onDataFrame(flags, streamId, array, offset, length);
+			case HEADERS -> onHeadersFrame(flags, streamId, array, offset, length);
+			case PRIORITY -> onPriorityFrame(streamId, length);
+			case RST_STREAM -> onRstStreamFrame(streamId, array, offset, length);
+			case SETTINGS -> onSettingsFrame(flags, streamId, array, offset, length);
+			case PUSH_PROMISE -> throw connectionError(PROTOCOL_ERROR, "Server push is not supported");
+			case PING -> onPingFrame(flags, streamId, array, offset, length);
+			case GOAWAY -> onGoAwayFrame(streamId, array, offset, length);
+			case WINDOW_UPDATE -> onWindowUpdateFrame(streamId, array, offset, length);
+			case CONTINUATION -> onContinuationFrame(flags, streamId, array, offset, length);
+			default -> {
+				// unknown frame types must be ignored
+			}
+		}
+	}
+
+	private void onDataFrame(byte flags, int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (streamId == 0) throw connectionError(PROTOCOL_ERROR, "DATA frame on a connection stream");
+		int padding = 0;
+		if ((flags & FLAG_PADDED) != 0) {
+			if (length == 0) throw connectionError(FRAME_SIZE_ERROR, "Missing padding length");
+			padding = (array[offset] & 0xFF) + 1;
+			if (padding > length) throw connectionError(PROTOCOL_ERROR, "Padding exceeds a frame size");
+		}
+		if (length > receiveWindow) throw connectionError(FLOW_CONTROL_ERROR, "Connection window exceeded");
+		receiveWindow -= length;
+
+		Stream stream = streams.get(streamId);
+		if (stream == null || stream.closed || stream.remoteClosed || stream.inbound == null) {
+			if (stream == null && isIdle(streamId)) throw connectionError(PROTOCOL_ERROR, "DATA frame on an idle stream");
+			creditConnection(length);
+			if (stream != null && !stream.closed) {
+				resetStream(stream, streamError(stream.remoteClosed ? STREAM_CLOSED : PROTOCOL_ERROR, "Unexpected DATA frame"));
+			}
+			// frames of streams that have already been closed are ignored
+			return;
+		}
+		if (length > stream.receiveWindow) {
+			creditConnection(length);
+			resetStream(stream, streamError(FLOW_CONTROL_ERROR, "Stream window exceeded"));
+			return;
+		}
+		stream.receiveWindow -= length;
+
+		int dataLength = length - padding;
+		if (padding != 0) {
+			consume(stream, padding);
+		}
+		if (dataLength != 0) {
+			assert readBuf != null;
+			stream.inbound.onData(readBuf.slice(offset + (padding != 0 ? 1 : 0), dataLength));
+		}
+		if ((flags & FLAG_END_STREAM) != 0) {
+			onRemoteEnd(stream);
+		}
+	}
+
+	private void onHeadersFrame(byte flags, int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (streamId == 0) throw connectionError(PROTOCOL_ERROR, "HEADERS frame on a connection stream");
+		int from = offset;
+		int to = offset + length;
+		if ((flags & FLAG_PADDED) != 0) {
+			if (length == 0) throw connectionError(FRAME_SIZE_ERROR, "Missing padding length");
+			to -= array[from++] & 0xFF;
+		}
+		if ((flags & FLAG_PRIORITY) != 0) {
+			from += 5;
+		}
+		if (from > to) throw connectionError(PROTOCOL_ERROR, "Padding exceeds a frame size");
+
+		if ((flags & FLAG_END_HEADERS) != 0) {
+			onHeaderBlock(streamId, flags, array, from, to);
+		} else {
+			continuationStreamId = streamId;
+			continuationFlags = flags;
+			headerBlock = ByteBufPool.allocate(Math.max(to - from, 256) * 2);
+			headerBlock.put(array, from, to - from);
+		}
+	}
+
+	private void onContinuationFrame(byte flags, int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (continuationStreamId == 0 || streamId != continuationStreamId) {
+			throw connectionError(PROTOCOL_ERROR, "Unexpected CONTINUATION frame");
+		}
+		assert headerBlock != null;
+		if (headerBlock.readRemaining() + length > MAX_HEADER_LIST_SIZE * 2) {
+			throw connectionError(ENHANCE_YOUR_CALM, "Header block is too large");
+		}
+		headerBlock = ByteBufPool.append(headerBlock, array, offset, length);
+		if ((flags & FLAG_END_HEADERS) != 0) {
+			ByteBuf headerBlock = this.headerBlock;
+			this.headerBlock = null;
+			continuationStreamId = 0;
+			try {
+				onHeaderBlock(streamId, continuationFlags, headerBlock.array(), headerBlock.head(), headerBlock.tail());
+			} finally {
+				headerBlock.recycle();
+			}
+		}
+	}
+
+	private void onHeaderBlock(int streamId, byte flags, byte[] array, int from, int to) throws Http2Exception {
+		headersCount = 0;
+		headerListSize = 0;
+		try {
+			hpackDecoder.decode(array, from, to, headerListener);
+			Stream stream = streams.get(streamId);
+			if (stream == null && !isIdle(streamId) || stream != null && stream.closed) {
+				return; // frames of streams that have already been closed are ignored
+			}
+			if (stream != null && stream.remoteClosed) {
+				resetStream(stream, streamError(STREAM_CLOSED, "HEADERS frame on a half-closed stream"));
+				return;
+			}
+			onHeaders(streamId, stream, (flags & FLAG_END_STREAM) != 0);
+		} finally {
+			Arrays.fill(headerNames, 0, headersCount, null);
+			Arrays.fill(headerValues, 0, headersCount, null);
+			headersCount = 0;
+		}
+	}
+
+	private void onDecodedHeader(HttpHeader header, byte[] value) {
+		headerListSize += header.size() + value.length + 32;
+		if (headersCount == headerNames.length) {
+			headerNames = Arrays.copyOf(headerNames, headersCount * 2);
+			headerValues = Arrays.copyOf(headerValues, headersCount * 2);
+		}
+		headerNames[headersCount] = header;
+		headerValues[headersCount++] = value;
+	}
+
+	/**
+	 * Checks limits of a decoded header list. A whole header block is always decoded regardless of these limits,
+	 * so that a state of a decoder stays consistent with a state of a peer encoder
+	 */
+	final void checkHeaderList() throws Http2Exception {
+		if (headerListSize > MAX_HEADER_LIST_SIZE || headersCount > MAX_HEADERS + 5) {
+			throw streamError(PROTOCOL_ERROR, "Too many headers");
+		}
+	}
+
+	/**
+	 * Returns whether decoded headers declare a gzip content encoding of a body
+	 */
+	final boolean isGzipEncoded() {
+		for (int i = 0; i < headersCount; i++) {
+			if (headerNames[i].equals(CONTENT_ENCODING)) {
+				byte[] value = headerValues[i];
+				return equalsLowerCaseAscii(CONTENT_ENCODING_GZIP, value, 0, value.length);
+			}
+		}
+		return false;
+	}
+
+	private void onPriorityFrame(int streamId, int length) throws Http2Exception {
+		if (streamId == 0) throw connectionError(PROTOCOL_ERROR, "PRIORITY frame on a connection stream");
+		if (length != 5) throw connectionError(FRAME_SIZE_ERROR, "Invalid PRIORITY frame size");
+		// stream priorities are advisory and are ignored
+	}
+
+	private void onRstStreamFrame(int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (streamId == 0) throw connectionError(PROTOCOL_ERROR, "RST_STREAM frame on a connection stream");
+		if (length != 4) throw connectionError(FRAME_SIZE_ERROR, "Invalid RST_STREAM frame size");
+		if (isIdle(streamId)) throw connectionError(PROTOCOL_ERROR, "RST_STREAM frame on an idle stream");
+		Stream stream = streams.get(streamId);
+		if (stream != null && !stream.closed) {
+			int errorCode = readInt(array, offset);
+			closeStream(stream, streamError(errorCode, "Stream reset by peer, error code: " + errorCode));
+		}
+	}
+
+	private void onSettingsFrame(byte flags, int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (streamId != 0) throw connectionError(PROTOCOL_ERROR, "SETTINGS frame on a stream");
+		if ((flags & FLAG_ACK) != 0) {
+			if (length != 0) throw connectionError(FRAME_SIZE_ERROR, "Non-empty SETTINGS acknowledgement");
+			return;
+		}
+		if (length % SETTING_SIZE != 0) throw connectionError(FRAME_SIZE_ERROR, "Invalid SETTINGS frame size");
+		for (int i = offset; i < offset + length; i += SETTING_SIZE) {
+			int id = (array[i] & 0xFF) << 8 | array[i + 1] & 0xFF;
+			int value = readInt(array, i + 2);
+			switch (id) {
+				case SETTINGS_HEADER_TABLE_SIZE -> hpackEncoder.setMaxTableSize(value < 0 ? Integer.MAX_VALUE : value);
+				case SETTINGS_ENABLE_PUSH -> {
+					if (value != 0 && value != 1) throw connectionError(PROTOCOL_ERROR, "Invalid ENABLE_PUSH setting");
+				}
+				case SETTINGS_MAX_CONCURRENT_STREAMS -> peerMaxConcurrentStreams = value < 0 ? Integer.MAX_VALUE : value;
+				case SETTINGS_INITIAL_WINDOW_SIZE -> {
+					if (value < 0) throw connectionError(FLOW_CONTROL_ERROR, "Invalid INITIAL_WINDOW_SIZE setting");
+					applyInitialWindowSize(value);
+				}
+				case SETTINGS_MAX_FRAME_SIZE -> {
+					if (value < DEFAULT_MAX_FRAME_SIZE || value > MAX_ALLOWED_FRAME_SIZE) {
+						throw connectionError(PROTOCOL_ERROR, "Invalid MAX_FRAME_SIZE setting");
+					}
+					peerMaxFrameSize = value;
+				}
+				default -> {
+					// MAX_HEADER_LIST_SIZE is advisory, unknown settings must be ignored
+				}
+			}
+		}
+		ByteBuf buf = ensureWriteBuf(FRAME_HEADER_SIZE);
+		writeFrameHeader(buf, 0, SETTINGS, FLAG_ACK, 0);
+		scheduleFlush();
+		onPeerSettingsChanged();
+	}
+
+	private void applyInitialWindowSize(int initialWindowSize) throws Http2Exception {
+		int delta = initialWindowSize - peerInitialWindowSize;
+		peerInitialWindowSize = initialWindowSize;
+		if (delta == 0) return;
+		for (int id : streams.keys()) {
+			Stream stream = streams.get(id);
+			if (stream == null || stream.closed) continue;
+			if ((long) stream.sendWindow + delta > MAX_WINDOW_SIZE) {
+				throw connectionError(FLOW_CONTROL_ERROR, "Stream window overflow");
+			}
+			stream.sendWindow += delta;
+			if (delta > 0) {
+				trySend(stream);
+			}
+		}
+	}
+
+	private void onPingFrame(byte flags, int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (streamId != 0) throw connectionError(PROTOCOL_ERROR, "PING frame on a stream");
+		if (length != 8) throw connectionError(FRAME_SIZE_ERROR, "Invalid PING frame size");
+		if ((flags & FLAG_ACK) != 0) return;
+		ByteBuf buf = ensureWriteBuf(FRAME_HEADER_SIZE + 8);
+		writeFrameHeader(buf, 8, PING, FLAG_ACK, 0);
+		buf.put(array, offset, 8);
+		scheduleFlush();
+	}
+
+	private void onGoAwayFrame(int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (streamId != 0) throw connectionError(PROTOCOL_ERROR, "GOAWAY frame on a stream");
+		if (length < 8) throw connectionError(FRAME_SIZE_ERROR, "Invalid GOAWAY frame size");
+		goAwayReceived = true;
+		onGoAway(readInt(array, offset) & 0x7FFFFFFF, readInt(array, offset + 4));
+	}
+
+	private void onWindowUpdateFrame(int streamId, byte[] array, int offset, int length) throws Http2Exception {
+		if (length != 4) throw connectionError(FRAME_SIZE_ERROR, "Invalid WINDOW_UPDATE frame size");
+		int increment = readInt(array, offset) & 0x7FFFFFFF;
+		if (streamId == 0) {
+			if (increment == 0) throw connectionError(PROTOCOL_ERROR, "Zero window increment");
+			if ((long) sendWindow + increment > MAX_WINDOW_SIZE) {
+				throw connectionError(FLOW_CONTROL_ERROR, "Connection window overflow");
+			}
+			sendWindow += increment;
+			while (sendWindow > 0 && !blockedStreams.isEmpty()) {
+				Stream stream = blockedStreams.poll();
+				stream.blocked = false;
+				trySend(stream);
+			}
+			return;
+		}
+		if (isIdle(streamId)) throw connectionError(PROTOCOL_ERROR, "WINDOW_UPDATE frame on an idle stream");
+		Stream stream = streams.get(streamId);
+		if (stream == null || stream.closed) return;
+		if (increment == 0) {
+			resetStream(stream, streamError(PROTOCOL_ERROR, "Zero window increment"));
+			return;
+		}
+		if ((long) stream.sendWindow + increment > MAX_WINDOW_SIZE) {
+			resetStream(stream, streamError(FLOW_CONTROL_ERROR, "Stream window overflow"));
+			return;
+		}
+		stream.sendWindow += increment;
+		trySend(stream);
+	}
+
+	/**
+	 * Returns whether a stream with a given id could not have been opened yet
+	 */
+	abstract boolean isIdle(int streamId);
+	// endregion
+
+	// region flow control
+	private void consume(Stream stream, int bytes) {
+		creditConnection(bytes);
+		if (stream.remoteClosed || stream.closed) return;
+		stream.unackedReceived += bytes;
+		if (stream.unackedReceived >= INITIAL_WINDOW_SIZE / 2) {
+			writeWindowUpdate(stream.id, stream.unackedReceived);
+			stream.receiveWindow += stream.unackedReceived;
+			stream.unackedReceived = 0;
+			scheduleFlush();
+		}
+	}
+
+	private void creditConnection(int bytes) {
+		if (isClosed()) return;
+		unackedReceived += bytes;
+		if (unackedReceived >= CONNECTION_WINDOW_SIZE / 2) {
+			writeWindowUpdate(0, unackedReceived);
+			receiveWindow += unackedReceived;
+			unackedReceived = 0;
+			scheduleFlush();
+		}
+	}
+	// endregion
+
+	// region streams
+	final void openStream(Stream stream) {
+		streams.put(stream.id, stream);
+		openStreams++;
+	}
+
+	/**
+	 * Sends a header block, splitting it into HEADERS and CONTINUATION frames if needed
+	 *
+	 * @param block a header block, encoded with {@link #encodeHeader}, is recycled by this method
+	 */
+	final void sendHeaders(Stream stream, ByteBuf block, boolean endStream) {
+		int length = block.readRemaining();
+		int frames = Math.max(1, (length + peerMaxFrameSize - 1) / peerMaxFrameSize);
+		ByteBuf buf = ensureWriteBuf(length + frames * FRAME_HEADER_SIZE);
+		byte type = HEADERS;
+		do {
+			int frameLength = min(block.readRemaining(), peerMaxFrameSize);
+			byte flags = (byte) ((block.readRemaining() == frameLength ? FLAG_END_HEADERS : 0) |
+					(type == HEADERS && endStream ? FLAG_END_STREAM : 0));
+			writeFrameHeader(buf, frameLength, type, flags, stream.id);
+			buf.put(block.array(), block.head(), frameLength);
+			block.moveHead(frameLength);
+			type = CONTINUATION;
+		} while (block.canRead());
+		block.recycle();
+		scheduleFlush();
+		if (endStream) {
+			onLocalEnd(stream);
+		}
+	}
+
+	final ByteBuf beginHeaderBlock(int size) {
+		return hpackEncoder.beginBlock(ByteBufPool.allocate(Math.max(size, 256)));
+	}
+
+	final ByteBuf encodeHeader(ByteBuf block, HttpHeader header, byte[] value) {
+		return hpackEncoder.encode(block, header, value);
+	}
+
+	final ByteBuf encodeHeader(ByteBuf block, HttpHeader header, HttpHeaderValue value) {
+		return hpackEncoder.encode(block, header, value);
+	}
+
+	/**
+	 * Encodes regular headers of a message, skipping headers that are specific to HTTP/1.x connections
+	 */
+	final ByteBuf encodeHeaders(ByteBuf block, HttpMessage message) {
+		Object[] kvPairs = message.headers.kvPairs;
+		for (int i = 0; i < kvPairs.length - 1; i += 2) {
+			HttpHeader header = (HttpHeader) kvPairs[i];
+			if (header == null || isConnectionSpecific(header)) continue;
+			block = hpackEncoder.encode(block, header, (HttpHeaderValue) kvPairs[i + 1]);
+		}
+		return block;
+	}
+
+	/**
+	 * Sends a body, the last frame of a body has an END_STREAM flag set
+	 */
+	final void sendBody(Stream stream, ByteBuf body) {
+		assert stream.pendingData == null;
+		stream.pendingData = body;
+		stream.pendingEndStream = true;
+		trySend(stream);
+	}
+
+	/**
+	 * Sends a body stream. Each next chunk is requested once a previous one is flushed to a socket
+	 */
+	final void sendBody(Stream stream, ChannelSupplier<ByteBuf> bodyStream) {
+		stream.outbound = bodyStream;
+		pumpBody(stream);
+	}
+
+	private void pumpBody(Stream stream) {
+		assert stream.outbound != null;
+		stream.outbound.get()
+				.run((buf, e) -> {
+					if (stream.closed) {
+						if (buf != null) buf.recycle();
+						return;
+					}
+					if (e != null) {
+						resetStream(stream, streamError(INTERNAL_ERROR, "Body stream failed"));
+						return;
+					}
+					stream.pendingData = buf != null ? buf : ByteBuf.empty();
+					stream.pendingEndStream = buf == null;
+					trySend(stream);
+				});
+	}
+
+	private void trySend(Stream stream) {
+		ByteBuf data = stream.pendingData;
+		if (data == null || stream.closed || stream.blocked) return;
+		while (true) {
+			int remaining = data.readRemaining();
+			int length = min(min(remaining, peerMaxFrameSize), min(stream.sendWindow, sendWindow));
+			if (length <= 0 && remaining != 0) {
+				if (sendWindow <= 0 && stream.sendWindow > 0) {
+					stream.blocked = true;
+					blockedStreams.add(stream);
+				}
+				return;
+			}
+			boolean last = length == remaining;
+			if (length != 0 || last && stream.pendingEndStream) {
+				boolean endStream = last && stream.pendingEndStream;
+				ByteBuf buf = ensureWriteBuf(FRAME_HEADER_SIZE + length);
+				writeFrameHeader(buf, length, DATA, endStream ? FLAG_END_STREAM : 0, stream.id);
+				buf.put(data.array(), data.head(), length);
+				data.moveHead(length);
+				stream.sendWindow -= length;
+				sendWindow -= length;
+			}
+			if (last) break;
+		}
+		data.recycle();
+		stream.pendingData = null;
+		Promise<Void> flush = scheduleFlush();
+		if (stream.pendingEndStream) {
+			stream.outbound = null;
+			onLocalEnd(stream);
+		} else {
+			flush.whenResult(() -> {
+				if (!stream.closed) pumpBody(stream);
+			});
+		}
+	}
+
+	private void onLocalEnd(Stream stream) {
+		stream.localClosed = true;
+		if (stream.remoteClosed) {
+			closeStream(stream, null);
+		} else {
+			onHalfClosedLocal(stream);
+		}
+	}
+
+	final void onRemoteEnd(Stream stream) {
+		stream.remoteClosed = true;
+		if (stream.inbound != null) {
+			stream.inbound.onEnd();
+		}
+		if (stream.localClosed) {
+			closeStream(stream, null);
+		}
+	}
+
+	/**
+	 * Resets a stream, sending RST_STREAM frame to a peer
+	 */
+	final void resetStream(Stream stream, Http2Exception e) {
+		if (stream.closed) return;
+		writeRstStream(stream.id, e.getErrorCode());
+		closeStream(stream, e);
+	}
+
+	private void closeStream(Stream stream, @Nullable Exception e) {
+		if (stream.closed) return;
+		stream.closed = true;
+		openStreams--;
+		stream.pendingData = nullify(stream.pendingData, ByteBuf::recycle);
+		if (stream.blocked) {
+			stream.blocked = false;
+			blockedStreams.remove(stream);
+		}
+		if (e != null) {
+			stream.outbound = nullify(stream.outbound, supplier -> supplier.closeEx(e));
+			if (stream.inbound != null) {
+				stream.inbound.closeEx(e);
+			}
+		}
+		onStreamClosed(stream, e);
+		releaseStream(stream);
+		if (goAwaySent && openStreams == 0 && !isClosed()) {
+			scheduleFlush().whenComplete(this::close);
+		}
+	}
+
+	private void releaseStream(Stream stream) {
+		if (!stream.closed || stream.released || stream.inbound != null && !stream.inbound.finished) return;
+		stream.released = true;
+		streams.remove(stream.id);
+		stream.onReleased();
+	}
+	// endregion
+
+	// region writing
+	final Promise<Void> scheduleFlush() {
+		if (flushPromise == null) {
+			flushPromise = new SettablePromise<>();
+			eventloop.postLast(this::flush);
+		}
+		return flushPromise;
+	}
+
+	private void flush() {
+		SettablePromise<Void> flushPromise = this.flushPromise;
+		ByteBuf writeBuf = this.writeBuf;
+		assert flushPromise != null;
+		this.flushPromise = null;
+		this.writeBuf = null;
+		if (isClosed()) {
+			if (writeBuf != null) writeBuf.recycle();
+			flushPromise.setException(CONNECTION_CLOSED);
+			return;
+		}
+		if (writeBuf == null) {
+			flushPromise.set(null);
+			return;
+		}
+		socket.write(writeBuf)
+				.run(($, e) -> {
+					if (e == null) {
+						flushPromise.set(null);
+					} else {
+						flushPromise.setException(e);
+						closeEx(translateToHttpException(e));
+					}
+				});
+	}
+
+	private ByteBuf ensureWriteBuf(int size) {
+		return writeBuf = writeBuf == null ?
+				ByteBufPool.allocate(Math.max(size, 4096)) :
+				ByteBufPool.ensureWriteRemaining(writeBuf, size);
+	}
+
+	private static void writeFrameHeader(ByteBuf buf, int length, byte type, byte flags, int streamId) {
+		buf.writeByte((byte) (length >>> 16));
+		buf.writeByte((byte) (length >>> 8));
+		buf.writeByte((byte) length);
+		buf.writeByte(type);
+		buf.writeByte(flags);
+		buf.writeInt(streamId);
+	}
+
+	private static void writeSetting(ByteBuf buf, int id, int value) {
+		buf.writeByte((byte) (id >>> 8));
+		buf.writeByte((byte) id);
+		buf.writeInt(value);
+	}
+
+	private void writeWindowUpdate(int streamId, int increment) {
+		ByteBuf buf = ensureWriteBuf(FRAME_HEADER_SIZE + 4);
+		writeFrameHeader(buf, 4, WINDOW_UPDATE, (byte) 0, streamId);
+		buf.writeInt(increment);
+	}
+
+	private void writeRstStream(int streamId, int errorCode) {
+		ByteBuf buf = ensureWriteBuf(FRAME_HEADER_SIZE + 4);
+		writeFrameHeader(buf, 4, RST_STREAM, (byte) 0, streamId);
+		buf.writeInt(errorCode);
+		scheduleFlush();
+	}
+
+	private void writeGoAway(int errorCode) {
+		goAwaySent = true;
+		ByteBuf buf = ensureWriteBuf(FRAME_HEADER_SIZE + 8);
+		writeFrameHeader(buf, 8, GOAWAY, (byte) 0, 0);
+		buf.writeInt(lastStreamId);
+		buf.writeInt(errorCode);
+	}
+
+	/**
+	 * Sends GOAWAY frame so that a peer does not open new streams.
+	 * A connection is closed once all of the active streams are closed
+	 */
+	final void goAway() {
+		if (goAwaySent || isClosed()) return;
+		writeGoAway(NO_ERROR);
+		Promise<Void> flush = scheduleFlush();
+		if (openStreams == 0) {
+			flush.whenComplete(this::close);
+		}
+	}
+
+	private void onConnectionError(Http2Exception e) {
+		if (isClosed()) return;
+		if (!goAwaySent) {
+			writeGoAway(e.getErrorCode());
+		}
+		scheduleFlush().whenComplete(() -> closeEx(e));
+	}
+
+	private static int readInt(byte[] array, int offset) {
+		return (array[offset] & 0xFF) << 24 | (array[offset + 1] & 0xFF) << 16 |
+				(array[offset + 2] & 0xFF) << 8 | array[offset + 3] & 0xFF;
+	}
+	// endregion
+
+	@Override
+	protected void onClosed() {
+		Exception e = closeException != null ? closeException : CONNECTION_CLOSED;
+		for (int id : streams.keys()) {
+			Stream stream = streams.get(id);
+			if (stream == null) continue;
+			if (!stream.closed) {
+				closeStream(stream, e);
+			} else if (stream.inbound != null) {
+				stream.inbound.closeEx(e);
+			}
+		}
+		streams.clear();
+		blockedStreams.clear();
+		readBuf = nullify(readBuf, ByteBuf::recycle);
+		writeBuf = nullify(writeBuf, ByteBuf::recycle);
+		headerBlock = nullify(headerBlock, ByteBuf::recycle);
+	}
+
+	/**
+	 * A state of a single HTTP/2 stream
+	 */
+	class Stream {
+		final int id;
+
+		int sendWindow = peerInitialWindowSize;
+		int receiveWindow = INITIAL_WINDOW_SIZE;
+		int unackedReceived;
+
+		boolean localClosed;
+		boolean remoteClosed;
+		boolean closed;
+		boolean released;
+		boolean blocked;
+
+		@Nullable InboundBody inbound;
+
+		@Nullable ByteBuf pendingData;
+		boolean pendingEndStream;
+		@Nullable ChannelSupplier<ByteBuf> outbound;
+
+		Stream(int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Called once a stream is closed and its inbound body, if any, has been consumed or closed
+		 */
+		void onReleased() {
+		}
+
+		@Override
+		public String toString() {
+			return "Stream{id=" + id + ", localClosed=" + localClosed + ", remoteClosed=" + remoteClosed + ", closed=" + closed + '}';
+		}
+	}
+
+	/**
+	 * A body of a received message. Data is credited back to a peer as it is consumed
+	 */
+	final class InboundBody extends AbstractChannelSupplier<ByteBuf> {
+		private final Stream stream;
+		private final ArrayDeque<ByteBuf> queue = new ArrayDeque<>();
+		private @Nullable SettablePromise<ByteBuf> pending;
+		private boolean endOfStream;
+		boolean finished;
+
+		InboundBody(Stream stream) {
+			this.stream = stream;
+		}
+
+		void onData(ByteBuf buf) {
+			if (isClosed()) {
+				creditConnection(buf.readRemaining());
+				buf.recycle();
+				return;
+			}
+			if (pending != null) {
+				SettablePromise<ByteBuf> pending = this.pending;
+				this.pending = null;
+				consume(stream, buf.readRemaining());
+				pending.set(buf);
+				return;
+			}
+			queue.add(buf);
+		}
+
+		void onEnd() {
+			endOfStream = true;
+			if (pending != null) {
+				SettablePromise<ByteBuf> pending = this.pending;
+				this.pending = null;
+				finish();
+				pending.set(null);
+			}
+		}
+
+		@Override
+		protected Promise<ByteBuf> doGet() {
+			ByteBuf buf = queue.poll();
+			if (buf != null) {
+				consume(stream, buf.readRemaining());
+				return Promise.of(buf);
+			}
+			if (endOfStream) {
+				finish();
+				return Promise.of(null);
+			}
+			pending = new SettablePromise<>();
+			return pending;
+		}
+
+		@Override
+		protected void onClosed(@NotNull Exception e) {
+			int bytes = 0;
+			for (ByteBuf buf : queue) {
+				bytes += buf.readRemaining();
+				buf.recycle();
+			}
+			queue.clear();
+			creditConnection(bytes);
+			if (pending != null) {
+				SettablePromise<ByteBuf> pending = this.pending;
+				this.pending = null;
+				pending.setException(e);
+			}
+			if (!stream.closed) {
+				resetStream(stream, STREAM_CANCELLED);
+			}
+			finish();
+		}
+
+		private void finish() {
+			if (finished) return;
+			finished = true;
+			releaseStream(stream);
+		}
+	}
+}
@@ -26,14 +26,18 @@ import io.activej.common.MemSize;
 import io.activej.common.recycle.Recyclable;
 import io.activej.csp.*;
 import io.activej.csp.binary.BinaryChannelSupplier;
+import io.activej.csp.file.ChannelFileReader;
+import io.activej.csp.file.ChannelFileSupplier;
 import io.activej.eventloop.Eventloop;
 import io.activej.http.stream.*;
 import io.activej.net.socket.tcp.AsyncTcpSocket;
+import io.activej.net.socket.tcp.AsyncTcpSocketNio;
 import io.activej.promise.Promise;
 import org.intellij.lang.annotations.MagicConstant;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.time.Duration;
 
 import static io.activej.bytebuf.ByteBufStrings.*;
@@ -139,6 +143,13 @@ public abstract class AbstractHttpConnection {
 
 	protected abstract void onMalformedHttpException(@NotNull MalformedHttpException e);
 
+	/**
+	 * Whether bodies of {@link ChannelFileSupplier}s are sent with {@link AsyncTcpSocketNio#transferFrom}
+	 */
+	protected boolean isZeroCopy() {
+		return false;
+	}
+
 	public final boolean isClosed() {
 		return flags < 0;
 	}
@@ -524,6 +535,11 @@ public abstract class AbstractHttpConnection {
 				bodyStream = deflater.getOutput().getSupplier();
 			}
 
+			if (bodyStream instanceof ChannelFileSupplier fileSupplier && (httpMessage.flags & HttpMessage.USE_GZIP) == 0 &&
+					writeFileBody(writeBuf, httpMessage, fileSupplier)) {
+				return;
+			}
+
 			if (httpMessage.headers.get(CONTENT_LENGTH) == null) {
 				httpMessage.addHeader(TRANSFER_ENCODING, ofBytes(TRANSFER_ENCODING_CHUNKED));
 				BufsConsumerChunkedEncoder chunker = BufsConsumerChunkedEncoder.create();
@@ -538,6 +554,58 @@ public abstract class AbstractHttpConnection {
 		writeStream(ChannelSuppliers.concat(writeBuf != null ? ChannelSupplier.of(writeBuf, buf) : ChannelSupplier.of(buf), bodyStream));
 	}
 
+	/**
+	 * Transfers a file directly to a socket, if possible.
+	 * A content length of a message is set to a remaining size of a file.
+	 * If a content length has already been set and it differs from a remaining size of a file,
+	 * a file is not transferred directly
+	 *
+	 * @return {@code true} if a message has been written, otherwise it should be streamed
+	 */
+	private boolean writeFileBody(@Nullable ByteBuf writeBuf, HttpMessage httpMessage, ChannelFileSupplier fileSupplier) {
+		if (!isZeroCopy() || !(socket instanceof AsyncTcpSocketNio nioSocket)) {
+			return false;
+		}
+		ChannelFileReader fileReader = fileSupplier.getFileReader();
+		long length;
+		try {
+			length = fileReader.getRemaining();
+		} catch (IOException ignored) {
+			return false; // a reader will report an error itself
+		}
+		HttpHeaderValue contentLength = httpMessage.headers.get(CONTENT_LENGTH);
+		if (contentLength == null) {
+			httpMessage.addHeader(CONTENT_LENGTH, length <= Integer.MAX_VALUE ?
+					ofDecimal((int) length) :
+					HttpHeaderValue.of(Long.toString(length)));
+		} else if (!contentLength.toString().trim().equals(Long.toString(length))) {
+			return false;
+		}
+
+		ByteBuf buf = ByteBufPool.allocate(httpMessage.estimateSize());
+		httpMessage.writeTo(buf);
+		if (writeBuf != null) {
+			nioSocket.write(writeBuf);
+		}
+		nioSocket.write(buf);
+		nioSocket.transferFrom(fileReader.getChannel(), fileReader.getPosition(), length)
+				.then(() -> {
+					fileReader.onTransferred(length);
+					return fileSupplier.get();
+				})
+				.run((item, e) -> {
+					if (item != null) item.recycle();
+					if (e != null) fileSupplier.closeEx(e);
+					if (isClosed()) return;
+					if (e == null) {
+						onBodySent();
+					} else {
+						closeEx(translateToHttpException(e));
+					}
+				});
+		return true;
+	}
+
 	protected void writeBuf(ByteBuf buf) {
 		socket.write(buf)
 				.run(($, e) -> {
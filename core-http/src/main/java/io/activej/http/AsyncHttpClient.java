@@ -39,6 +39,7 @@ import io.activej.jmx.stats.EventStats;
 import io.activej.jmx.stats.ExceptionStats;
 import io.activej.net.socket.tcp.AsyncTcpSocket;
 import io.activej.net.socket.tcp.AsyncTcpSocketNio;
+import io.activej.net.socket.tcp.AsyncTcpSocketSsl;
 import io.activej.promise.Promise;
 import io.activej.promise.SettablePromise;
 import org.jetbrains.annotations.NotNull;
@@ -52,12 +53,15 @@ import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.Executor;
 
 import static io.activej.common.Checks.checkArgument;
 import static io.activej.common.Checks.checkState;
+import static io.activej.http.Http2Constants.ALPN_HTTP_1_1;
+import static io.activej.http.Http2Constants.ALPN_HTTP_2;
 import static io.activej.http.HttpUtils.translateToHttpException;
 import static io.activej.http.Protocol.*;
 import static io.activej.jmx.stats.MBeanFormat.formatListAsMultilineString;
@@ -85,6 +89,7 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 	public static final MemSize MAX_BODY_SIZE = ApplicationSettings.getMemSize(AsyncHttpClient.class, "maxBodySize", MemSize.ZERO);
 	public static final MemSize MAX_WEB_SOCKET_MESSAGE_SIZE = ApplicationSettings.getMemSize(AsyncHttpClient.class, "maxWebSocketMessageSize", MemSize.megabytes(1));
 	public static final int MAX_KEEP_ALIVE_REQUESTS = ApplicationSettings.getInt(AsyncHttpClient.class, "maxKeepAliveRequests", 0);
+	public static final boolean ZERO_COPY = ApplicationSettings.getBoolean(AsyncHttpClient.class, "zeroCopy", false);
 
 	private final @NotNull Eventloop eventloop;
 	private @NotNull AsyncDnsClient asyncDnsClient;
@@ -93,6 +98,9 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 	final HashMap<InetSocketAddress, AddressLinkedList> addresses = new HashMap<>();
 	final ConnectionsLinkedList poolKeepAlive = new ConnectionsLinkedList();
 	final ConnectionsLinkedList poolReadWrite = new ConnectionsLinkedList();
+	private final HashMap<InetSocketAddress, Http2ClientConnection> http2Connections = new HashMap<>();
+	private final HashMap<InetSocketAddress, Promise<@Nullable Http2ClientConnection>> http2Connecting = new HashMap<>();
+	private final HashSet<InetSocketAddress> http1Addresses = new HashSet<>();
 	private int poolKeepAliveExpired;
 	private int poolReadWriteExpired;
 
@@ -106,11 +114,16 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 	int maxBodySize = MAX_BODY_SIZE.toInt();
 	int maxWebSocketMessageSize = MAX_WEB_SOCKET_MESSAGE_SIZE.toInt();
 	int maxKeepAliveRequests = MAX_KEEP_ALIVE_REQUESTS;
+	boolean zeroCopy = ZERO_COPY;
 
 	// SSL
 	private SSLContext sslContext;
 	private Executor sslExecutor;
 
+	// HTTP/2
+	private boolean http2;
+	private boolean http2PriorKnowledge;
+
 	private @Nullable AsyncTcpSocketNio.Inspector socketInspector;
 	private @Nullable AsyncTcpSocketNio.Inspector socketSslInspector;
 	@Nullable Inspector inspector;
@@ -137,6 +150,12 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 		}
 
 		void onDisconnect(HttpClientConnection connection);
+
+		default void onHttp2Connect(HttpRequest request, InetSocketAddress address) {
+		}
+
+		default void onHttp2Disconnect(InetSocketAddress address) {
+		}
 	}
 
 	@SuppressWarnings("WeakerAccess")
@@ -221,6 +240,18 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 			activeConnections--;
 		}
 
+		@Override
+		public void onHttp2Connect(HttpRequest request, InetSocketAddress address) {
+			activeConnections++;
+			connecting--;
+			connected.recordEvent();
+		}
+
+		@Override
+		public void onHttp2Disconnect(InetSocketAddress address) {
+			activeConnections--;
+		}
+
 		@JmxAttribute(extraSubAttributes = "totalCount", description = "all requests that were sent (both successful and failed)")
 		public EventStats getTotalRequests() {
 			return totalRequests;
@@ -312,6 +343,24 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 		return this;
 	}
 
+	/**
+	 * Enables HTTP/2 for secure requests. HTTP/2 is negotiated by ALPN,
+	 * if a server does not support it, HTTP/1.1 is used
+	 */
+	public AsyncHttpClient withHttp2(boolean http2) {
+		this.http2 = http2;
+		return this;
+	}
+
+	/**
+	 * Enables HTTP/2 for plain text requests. A server is expected to support HTTP/2 (prior knowledge),
+	 * as no HTTP/1.1 upgrade is performed
+	 */
+	public AsyncHttpClient withHttp2PriorKnowledge(boolean http2PriorKnowledge) {
+		this.http2PriorKnowledge = http2PriorKnowledge;
+		return this;
+	}
+
 	public AsyncHttpClient withKeepAliveTimeout(@NotNull Duration keepAliveTime) {
 		this.keepAliveTimeoutMillis = (int) keepAliveTime.toMillis();
 		return this;
@@ -357,6 +406,19 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 		return this;
 	}
 
+	/**
+	 * Makes connections send body streams of {@link io.activej.csp.file.ChannelFileReader}s with
+	 * {@link io.activej.net.socket.tcp.AsyncTcpSocketNio#transferFrom}, without copying file contents
+	 * into user-space buffers. Applies to plain (non-SSL) connections and uncompressed bodies only,
+	 * other bodies are streamed as usual.
+	 * <p>
+	 * As files are read in an eventloop thread, this mode suits files that are likely to be in a page cache
+	 */
+	public AsyncHttpClient withZeroCopy(boolean zeroCopy) {
+		this.zeroCopy = zeroCopy;
+		return this;
+	}
+
 	public AsyncHttpClient withInspector(Inspector inspector) {
 		this.inspector = inspector;
 		return this;
@@ -422,6 +484,16 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 		}
 	}
 
+	void onHttp2ConnectionUnavailable(Http2ClientConnection connection) {
+		http2Connections.remove(connection.remoteAddress, connection);
+	}
+
+	void onHttp2ConnectionClosed(Http2ClientConnection connection) {
+		onHttp2ConnectionUnavailable(connection);
+		if (inspector != null) inspector.onHttp2Disconnect(connection.remoteAddress);
+		onConnectionClosed();
+	}
+
 	@Override
 	public Promise<HttpResponse> request(HttpRequest request) {
 		if (CHECK) checkArgument(request.getProtocol(), protocol -> protocol == HTTP || protocol == HTTPS);
@@ -480,7 +552,10 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 	private Promise<?> doSend(HttpRequest request, InetAddress[] inetAddresses, boolean isWebSocket) {
 		InetAddress inetAddress = inetAddresses[(inetAddressIdx++ & Integer.MAX_VALUE) % inetAddresses.length];
 		InetSocketAddress address = new InetSocketAddress(inetAddress, request.getUrl().getPort());
+		return doSend(request, address, isWebSocket);
+	}
 
+	private Promise<?> doSend(HttpRequest request, InetSocketAddress address, boolean isWebSocket) {
 		HttpClientConnection keepAliveConnection = takeKeepAliveConnection(address);
 		if (keepAliveConnection != null) {
 			if (isWebSocket) {
@@ -496,6 +571,31 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 			throw new IllegalArgumentException("Cannot send Secure Request without SSL enabled");
 		}
 
+		boolean isHttp2 = !isWebSocket && (isSecure ? http2 : http2PriorKnowledge) && !http1Addresses.contains(address);
+		if (isHttp2) {
+			Http2ClientConnection http2Connection = http2Connections.get(address);
+			if (http2Connection != null) {
+				return http2Connection.send(request);
+			}
+			Promise<@Nullable Http2ClientConnection> http2Connect = http2Connecting.get(address);
+			if (http2Connect != null) {
+				return http2Connect.then(connection -> connection != null && connection.isAvailable() ?
+						connection.send(request) :
+						doSend(request, address, false));
+			}
+		}
+
+		return doConnect(request, address, isSecure, isHttp2, isWebSocket);
+	}
+
+	private Promise<?> doConnect(HttpRequest request, InetSocketAddress address, boolean isSecure, boolean isHttp2, boolean isWebSocket) {
+		SettablePromise<@Nullable Http2ClientConnection> http2Connect = null;
+		if (isHttp2) {
+			http2Connect = new SettablePromise<>();
+			http2Connecting.put(address, http2Connect);
+		}
+		SettablePromise<@Nullable Http2ClientConnection> finalHttp2Connect = http2Connect;
+
 		if (inspector != null) inspector.onConnecting(request, address);
 
 		return AsyncTcpSocketNio.connect(address, connectTimeoutMillis, socketSettings)
@@ -507,35 +607,91 @@ public final class AsyncHttpClient implements IAsyncHttpClient, IAsyncWebSocketC
 								asyncTcpSocketImpl.setInspector(socketInspector);
 							}
 
+							if (!isSecure) {
+								return finalHttp2Connect != null ?
+										sendHttp2(request, address, asyncTcpSocketImpl, false, finalHttp2Connect) :
+										sendHttp1(request, address, asyncTcpSocketImpl, isWebSocket);
+							}
+
 							String host = request.getUrl().getHost();
 							assert host != null;
 
-							AsyncTcpSocket asyncTcpSocket = isSecure ?
-									wrapClientSocket(asyncTcpSocketImpl,
-											host, request.getUrl().getPort(),
-											sslContext, sslExecutor) :
-									asyncTcpSocketImpl;
-
-							HttpClientConnection connection = new HttpClientConnection(eventloop, this, asyncTcpSocket, address);
-
-							if (inspector != null) inspector.onConnect(request, connection);
-
-							if (expiredConnectionsCheck == null)
-								scheduleExpiredConnectionsCheck();
-
-							if (isWebSocket) {
-								return connection.sendWebSocketRequest(request);
-							} else {
-								return connection.send(request);
+							if (finalHttp2Connect == null) {
+								return sendHttp1(request, address,
+										wrapClientSocket(asyncTcpSocketImpl,
+												host, request.getUrl().getPort(),
+												sslContext, sslExecutor),
+										isWebSocket);
 							}
+
+							AsyncTcpSocketSsl asyncTcpSocketSsl = wrapClientSocket(asyncTcpSocketImpl,
+									host, request.getUrl().getPort(),
+									sslContext, sslExecutor, List.of(ALPN_HTTP_2, ALPN_HTTP_1_1));
+							return asyncTcpSocketSsl.getHandshakeCompletion()
+									.then(
+											$ -> {
+												if (ALPN_HTTP_2.equals(asyncTcpSocketSsl.getApplicationProtocol())) {
+													return sendHttp2(request, address, asyncTcpSocketSsl, true, finalHttp2Connect);
+												}
+												http1Addresses.add(address);
+												completeHttp2Connect(address, finalHttp2Connect, null);
+												return sendHttp1(request, address, asyncTcpSocketSsl, false);
+											},
+											e -> {
+												completeHttp2Connect(address, finalHttp2Connect, null);
+												if (inspector != null) inspector.onConnectError(request, address, e);
+												request.recycleBody();
+												return Promise.ofException(translateToHttpException(e));
+											});
 						},
 						e -> {
+							if (finalHttp2Connect != null) {
+								completeHttp2Connect(address, finalHttp2Connect, null);
+							}
 							if (inspector != null) inspector.onConnectError(request, address, e);
 							request.recycleBody();
 							return Promise.ofException(translateToHttpException(e));
 						});
 	}
 
+	private Promise<?> sendHttp1(HttpRequest request, InetSocketAddress address, AsyncTcpSocket asyncTcpSocket, boolean isWebSocket) {
+		HttpClientConnection connection = new HttpClientConnection(eventloop, this, asyncTcpSocket, address);
+
+		if (inspector != null) inspector.onConnect(request, connection);
+
+		if (expiredConnectionsCheck == null)
+			scheduleExpiredConnectionsCheck();
+
+		if (isWebSocket) {
+			return connection.sendWebSocketRequest(request);
+		} else {
+			return connection.send(request);
+		}
+	}
+
+	private Promise<HttpResponse> sendHttp2(HttpRequest request, InetSocketAddress address, AsyncTcpSocket asyncTcpSocket,
+			boolean isSecure, SettablePromise<@Nullable Http2ClientConnection> http2Connect) {
+		Http2ClientConnection connection = new Http2ClientConnection(eventloop, this, asyncTcpSocket, address, isSecure);
+
+		if (inspector != null) inspector.onHttp2Connect(request, address);
+
+		connection.connect();
+		http2Connections.put(address, connection);
+
+		if (expiredConnectionsCheck == null)
+			scheduleExpiredConnectionsCheck();
+
+		Promise<HttpResponse> response = connection.send(request);
+		completeHttp2Connect(address, http2Connect, connection);
+		return response;
+	}
+
+	private void completeHttp2Connect(InetSocketAddress address, SettablePromise<@Nullable Http2ClientConnection> http2Connect,
+			@Nullable Http2ClientConnection connection) {
+		http2Connecting.remove(address, http2Connect);
+		http2Connect.set(connection);
+	}
+
 	@Override
 	public @NotNull Eventloop getEventloop() {
 		return eventloop;
@@ -38,6 +38,8 @@ import java.net.InetAddress;
 import java.time.Duration;
 import java.util.List;
 
+import static io.activej.http.Http2Constants.ALPN_HTTP_1_1;
+import static io.activej.http.Http2Constants.ALPN_HTTP_2;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 /**
@@ -53,6 +55,7 @@ public final class AsyncHttpServer extends AbstractServer<AsyncHttpServer> {
 	public static final MemSize MAX_BODY_SIZE = ApplicationSettings.getMemSize(AsyncHttpServer.class, "maxBodySize", MemSize.ZERO);
 	public static final MemSize MAX_WEB_SOCKET_MESSAGE_SIZE = ApplicationSettings.getMemSize(AsyncHttpServer.class, "maxWebSocketMessageSize", MemSize.megabytes(1));
 	public static final int MAX_KEEP_ALIVE_REQUESTS = ApplicationSettings.getInt(AsyncHttpServer.class, "maxKeepAliveRequests", 0);
+	public static final boolean ZERO_COPY = ApplicationSettings.getBoolean(AsyncHttpServer.class, "zeroCopy", false);
 
 	private final @NotNull AsyncServlet servlet;
 	private @NotNull HttpExceptionFormatter errorFormatter = HttpExceptionFormatter.COMMON_FORMATTER;
@@ -64,6 +67,8 @@ public final class AsyncHttpServer extends AbstractServer<AsyncHttpServer> {
 	int maxBodySize = MAX_BODY_SIZE.toInt();
 	int maxWebSocketMessageSize = MAX_WEB_SOCKET_MESSAGE_SIZE.toInt();
 	int maxKeepAliveRequests = MAX_KEEP_ALIVE_REQUESTS;
+	boolean http2;
+	boolean zeroCopy = ZERO_COPY;
 
 	final ConnectionsLinkedList poolNew = new ConnectionsLinkedList();
 	final ConnectionsLinkedList poolReadWrite = new ConnectionsLinkedList();
@@ -244,11 +249,34 @@ public final class AsyncHttpServer extends AbstractServer<AsyncHttpServer> {
 		return this;
 	}
 
+	/**
+	 * Makes connections send body streams of {@link io.activej.csp.file.ChannelFileReader}s with
+	 * {@link io.activej.net.socket.tcp.AsyncTcpSocketNio#transferFrom}, without copying file contents
+	 * into user-space buffers. Applies to plain (non-SSL) connections and uncompressed bodies only,
+	 * other bodies are streamed as usual.
+	 * <p>
+	 * As files are read in an eventloop thread, this mode suits files that are likely to be in a page cache
+	 */
+	public AsyncHttpServer withZeroCopy(boolean zeroCopy) {
+		this.zeroCopy = zeroCopy;
+		return this;
+	}
+
 	public AsyncHttpServer withHttpErrorFormatter(@NotNull HttpExceptionFormatter httpExceptionFormatter) {
 		errorFormatter = httpExceptionFormatter;
 		return this;
 	}
 
+	/**
+	 * Enables HTTP/2 support. HTTP/2 is negotiated by ALPN over SSL connections,
+	 * cleartext connections are switched to HTTP/2 if a client starts with an HTTP/2 connection preface
+	 * (prior knowledge). HTTP/1.x clients are served as usual
+	 */
+	public AsyncHttpServer withHttp2(boolean http2) {
+		this.http2 = http2;
+		return this;
+	}
+
 	public AsyncHttpServer withInspector(Inspector inspector) {
 		this.inspector = inspector;
 		return this;
@@ -289,6 +317,11 @@ public final class AsyncHttpServer extends AbstractServer<AsyncHttpServer> {
 		});
 	}
 
+	@Override
+	protected List<String> getSslApplicationProtocols() {
+		return http2 ? List.of(ALPN_HTTP_2, ALPN_HTTP_1_1) : List.of();
+	}
+
 	@Override
 	protected void serve(AsyncTcpSocket socket, InetAddress remoteAddress) {
 		if (expiredConnectionsCheck == null) {
@@ -19,6 +19,7 @@ package io.activej.http;
 import io.activej.bytebuf.ByteBuf;
 import io.activej.bytebuf.ByteBufPool;
 import io.activej.common.Checks;
+import io.activej.http.stream.ZlibPool;
 
 import java.util.function.Supplier;
 import java.util.zip.CRC32;
@@ -30,6 +31,8 @@ import static io.activej.common.Checks.checkArgument;
 
 /**
  * This class contains various utils for the DEFLATE algorithm.
+ * <p>
+ * Deflaters and inflaters are taken from a thread-local {@link ZlibPool}.
  */
 public final class GzipProcessorUtils {
 	private static final boolean CHECK = Checks.isEnabled(GzipProcessorUtils.class);
@@ -57,7 +60,7 @@ public final class GzipProcessorUtils {
 		check(expectedSize <= maxMessageSize, src, () -> new MalformedHttpException("Decompressed data size exceeds max expected size"));
 		processHeader(src);
 		ByteBuf dst = ByteBufPool.allocate(expectedSize);
-		Inflater decompressor = ensureDecompressor();
+		Inflater decompressor = ZlibPool.takeInflater();
 		decompressor.setInput(src.array(), src.head(), src.readRemaining());
 		try {
 			readDecompressedData(decompressor, src, dst, maxMessageSize);
@@ -65,6 +68,8 @@ public final class GzipProcessorUtils {
 			src.recycle();
 			dst.recycle();
 			throw new MalformedHttpException("Data format exception");
+		} finally {
+			ZlibPool.returnInflater(decompressor);
 		}
 		check(expectedSize == dst.readRemaining(), src, dst, () ->
 				new MalformedHttpException("Decompressed data size is not equal to input size from GZIP trailer"));
@@ -75,17 +80,26 @@ public final class GzipProcessorUtils {
 	}
 
 	public static ByteBuf toGzip(ByteBuf src) {
+		return toGzip(src, ZlibPool.COMPRESSION_LEVEL);
+	}
+
+	public static ByteBuf toGzip(ByteBuf src, int compressionLevel) {
 		if (CHECK) checkArgument(src.readRemaining() >= 0);
 
-		Deflater compressor = ensureCompressor();
-		compressor.setInput(src.array(), src.head(), src.readRemaining());
-		compressor.finish();
 		int dataSize = src.readRemaining();
 		int crc = getCrc(src, dataSize);
 		int maxDataSize = estimateMaxCompressedSize(dataSize);
-		ByteBuf dst = ByteBufPool.allocate(GZIP_HEADER_SIZE + maxDataSize + GZIP_FOOTER_SIZE + SPARE_BYTES_COUNT);
-		dst.put(GZIP_HEADER);
-		dst = writeCompressedData(compressor, src, dst);
+		ByteBuf dst;
+		Deflater compressor = ZlibPool.takeDeflater(compressionLevel);
+		try {
+			compressor.setInput(src.array(), src.head(), src.readRemaining());
+			compressor.finish();
+			dst = ByteBufPool.allocate(GZIP_HEADER_SIZE + maxDataSize + GZIP_FOOTER_SIZE + SPARE_BYTES_COUNT);
+			dst.put(GZIP_HEADER);
+			dst = writeCompressedData(compressor, src, dst);
+		} finally {
+			ZlibPool.returnDeflater(compressor);
+		}
 		dst.writeInt(Integer.reverseBytes(crc));
 		dst.writeInt(Integer.reverseBytes(dataSize));
 
@@ -185,14 +199,6 @@ public final class GzipProcessorUtils {
 		throw new MalformedHttpException("Corrupted GZIP header");
 	}
 
-	private static Inflater ensureDecompressor() {
-		return new Inflater(true);
-	}
-
-	private static Deflater ensureCompressor() {
-		return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
-	}
-
 	private static void check(boolean condition, ByteBuf buf1, ByteBuf buf2, Supplier<MalformedHttpException> exceptionSupplier) throws MalformedHttpException {
 		if (!condition) {
 			buf1.recycle();
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.activej.http;
+
+import io.activej.http.HpackDynamicTable.Entry;
+
+import java.util.Arrays;
+
+import static io.activej.http.Http2Constants.COMPRESSION_ERROR;
+import static io.activej.http.HttpUtils.hashCodeCI;
+
+/**
+ * A decoder of HPACK header blocks, as defined in RFC 7541.
+ * <p>
+ * A decoder keeps a dynamic table, so that a single instance
+ * should decode all header blocks received over a connection, in order
+ */
+final class HpackDecoder {
+	@FunctionalInterface
+	interface Listener {
+		void onHeader(HttpHeader header, byte[] value) throws Http2Exception;
+	}
+
+	private final HpackDynamicTable table;
+	private final int maxTableSizeLimit;
+
+	private byte[] huffmanBuf = new byte[64];
+	private int pos;
+
+	/**
+	 * @param maxTableSizeLimit a maximum size of a dynamic table, advertised to a peer
+	 */
+	HpackDecoder(int maxTableSizeLimit) {
+		this.table = new HpackDynamicTable(maxTableSizeLimit);
+		this.maxTableSizeLimit = maxTableSizeLimit;
+	}
+
+	void decode(byte[] array, int offset, int limit, Listener listener) throws Http2Exception {
+		pos = offset;
+		boolean sizeUpdateAllowed = true;
+		while (pos < limit) {
+			int b = array[pos] & 0xFF;
+			if ((b & 0x80) != 0) {
+				int index = readInt(array, limit, 7);
+				if (index == 0) {
+					throw Http2Exception.connectionError(COMPRESSION_ERROR, "Invalid header index 0");
+				}
+				if (index <= HpackStaticTable.LENGTH) {
+					listener.onHeader(HpackStaticTable.HEADERS[index], HpackStaticTable.VALUES[index]);
+				} else {
+					Entry entry = getDynamicEntry(index);
+					listener.onHeader(entry.header, entry.value);
+				}
+			} else if ((b & 0x40) != 0) {
+				readLiteral(array, limit, 6, true, listener);
+			} else if ((b & 0x20) != 0) {
+				if (!sizeUpdateAllowed) {
+					throw Http2Exception.connectionError(COMPRESSION_ERROR, "Dynamic table size update after a header field");
+				}
+				int maxSize = readInt(array, limit, 5);
+				if (maxSize > maxTableSizeLimit) {
+					throw Http2Exception.connectionError(COMPRESSION_ERROR, "Dynamic table size exceeds a limit: " + maxSize);
+				}
+				table.setMaxSize(maxSize);
+				continue;
+			} else {
+				// literal header field without indexing (0000) or never indexed (0001)
+				readLiteral(array, limit, 4, false, listener);
+			}
+			sizeUpdateAllowed = false;
+		}
+	}
+
+	private void readLiteral(byte[] array, int limit, int prefixBits, boolean indexing, Listener listener) throws Http2Exception {
+		int index = readInt(array, limit, prefixBits);
+		HttpHeader header;
+		byte[] name;
+		if (index == 0) {
+			name = readString(array, limit);
+			header = HttpHeaders.of(hashCodeCI(name), name, 0, name.length);
+		} else if (index <= HpackStaticTable.LENGTH) {
+			header = HpackStaticTable.HEADERS[index];
+			name = HpackStaticTable.NAMES[index];
+		} else {
+			Entry entry = getDynamicEntry(index);
+			header = entry.header;
+			name = entry.name;
+		}
+		byte[] value = readString(array, limit);
+		if (indexing) {
+			table.add(new Entry(header, name, value));
+		}
+		listener.onHeader(header, value);
+	}
+
+	private Entry getDynamicEntry(int index) throws Http2Exception {
+		int dynamicIndex = index - HpackStaticTable.LENGTH;
+		if (dynamicIndex > table.length()) {
+			throw Http2Exception.connectionError(COMPRESSION_ERROR, "Invalid header index " + index);
+		}
+		return table.get(dynamicIndex);
+	}
+
+	private int readInt(byte[] array, int limit, int prefixBits) throws Http2Exception {
+		int mask = (1 << prefixBits) - 1;
+		int value = array[pos++] & mask;
+		if (value < mask) return value;
+		long result = value;
+		for (int shift = 0; ; shift += 7) {
+			if (pos >= limit) {
+				throw Http2Exception.connectionError(COMPRESSION_ERROR, "Truncated integer");
+			}
+			int b = array[pos++];
+			result += (long) (b & 0x7F) << shift;
+			if (result > Integer.MAX_VALUE) {
+				throw Http2Exception.connectionError(COMPRESSION_ERROR, "Integer overflow");
+			}
+			if ((b & 0x80) == 0) return (int) result;
+		}
+	}
+
+	private byte[] readString(byte[] array, int limit) throws Http2Exception {
+		if (pos >= limit) {
+			throw Http2Exception.connectionError(COMPRESSION_ERROR, "Truncated string");
+		}
+		boolean huffman = (array[pos] & 0x80) != 0;
+		int length = readInt(array, limit, 7);
+		if (length > limit - pos) {
+			throw Http2Exception.connectionError(COMPRESSION_ERROR, "Truncated string");
+		}
+		byte[] result;
+		if (huffman) {
+			int maxLength = HpackHuffman.maxDecodedLength(length);
+			if (huffmanBuf.length < maxLength) {
+				huffmanBuf = new byte[Math.max(maxLength, huffmanBuf.length * 2)];
+			}
+			int decodedLength = HpackHuffman.decode(array, pos, length, huffmanBuf);
+			result = Arrays.copyOf(huffmanBuf, decodedLength);
+		} else {
+			result = Arrays.copyOfRange(array, pos, pos + length);
+		}
+		pos += length;
+		return result;
+	}
+
+	int getTableSize() {
+		return table.size();
+	}
+}
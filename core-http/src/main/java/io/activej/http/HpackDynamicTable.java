@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.activej.http;
+
+/**
+ * A dynamic table of HPACK, as defined in RFC 7541, section 2.3.2.
+ * <p>
+ * Entries are kept in a ring buffer, the newest entry has index 1
+ */
+final class HpackDynamicTable {
+	static final int ENTRY_OVERHEAD = 32;
+
+	static final class Entry {
+		final HttpHeader header;
+		final byte[] name;
+		final byte[] value;
+
+		Entry(HttpHeader header, byte[] name, byte[] value) {
+			this.header = header;
+			this.name = name;
+			this.value = value;
+		}
+
+		int size() {
+			return name.length + value.length + ENTRY_OVERHEAD;
+		}
+	}
+
+	private Entry[] entries = new Entry[16];
+	private int head;
+	private int length;
+	private int size;
+	private int maxSize;
+
+	HpackDynamicTable(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns an entry by its index, starting from 1
+	 */
+	Entry get(int index) {
+		assert index >= 1 && index <= length;
+		return entries[(head + index - 1) & (entries.length - 1)];
+	}
+
+	/**
+	 * Adds an entry to this table, evicting the oldest entries if needed.
+	 * An entry larger than a maximum table size empties this table
+	 */
+	void add(Entry entry) {
+		int entrySize = entry.size();
+		evict(maxSize - entrySize);
+		if (entrySize > maxSize) return;
+		if (length == entries.length) {
+			Entry[] newEntries = new Entry[entries.length * 2];
+			for (int i = 0; i < length; i++) {
+				newEntries[i] = entries[(head + i) & (entries.length - 1)];
+			}
+			entries = newEntries;
+			head = 0;
+		}
+		head = (head - 1) & (entries.length - 1);
+		entries[head] = entry;
+		length++;
+		size += entrySize;
+	}
+
+	void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		evict(maxSize);
+	}
+
+	int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns a number of entries
+	 */
+	int length() {
+		return length;
+	}
+
+	/**
+	 * Returns a size of this table in octets, as defined by RFC 7541, section 4.1
+	 */
+	int size() {
+		return size;
+	}
+
+	private void evict(int targetSize) {
+		while (size > targetSize && length != 0) {
+			int last = (head + length - 1) & (entries.length - 1);
+			size -= entries[last].size();
+			entries[last] = null;
+			length--;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.http.HpackDynamicTable.Entry;
+
+import java.util.Arrays;
+
+import static io.activej.http.Http2Constants.DEFAULT_HEADER_TABLE_SIZE;
+import static io.activej.http.HttpHeaders.*;
+
+/**
+ * An encoder of HPACK header blocks, as defined in RFC 7541.
+ * <p>
+ * Header fields are encoded as indexed fields whenever a whole field is found in either a static
+ * or a dynamic table. Otherwise, a field is added to a dynamic table, unless its value is likely
+ * to differ between messages (like {@code :path} or {@code content-length}), or a field is sensitive,
+ * in which case it is encoded as never indexed. String literals are Huffman-encoded if it makes them shorter.
+ * <p>
+ * An encoder keeps a dynamic table, so that a single instance
+ * should encode all header blocks sent over a connection, in order
+ */
+final class HpackEncoder {
+	/**
+	 * A maximum size of a dynamic table used by an encoder, regardless of a larger size allowed by a peer
+	 */
+	static final int MAX_TABLE_SIZE = DEFAULT_HEADER_TABLE_SIZE;
+
+	private final HpackDynamicTable table = new HpackDynamicTable(DEFAULT_HEADER_TABLE_SIZE);
+	private int pendingMinTableSize = -1;
+
+	private byte[] valueBuf = new byte[64];
+
+	/**
+	 * Applies a maximum table size allowed by a peer. A change is signalled at the beginning of the next header block
+	 */
+	void setMaxTableSize(int maxTableSize) {
+		int newMaxSize = Math.min(maxTableSize, MAX_TABLE_SIZE);
+		if (newMaxSize == table.getMaxSize() && pendingMinTableSize == -1) return;
+		pendingMinTableSize = pendingMinTableSize == -1 ? newMaxSize : Math.min(pendingMinTableSize, newMaxSize);
+		table.setMaxSize(newMaxSize);
+	}
+
+	/**
+	 * Should be called before encoding header fields of each header block
+	 */
+	ByteBuf beginBlock(ByteBuf buf) {
+		if (pendingMinTableSize == -1) return buf;
+		buf = ByteBufPool.ensureWriteRemaining(buf, 12);
+		if (pendingMinTableSize < table.getMaxSize()) {
+			writeInt(buf, 0x20, 5, pendingMinTableSize);
+		}
+		writeInt(buf, 0x20, 5, table.getMaxSize());
+		pendingMinTableSize = -1;
+		return buf;
+	}
+
+	ByteBuf encode(ByteBuf buf, HttpHeader header, HttpHeaderValue value) {
+		int maxLength = value.estimateSize();
+		if (valueBuf.length < maxLength) {
+			valueBuf = new byte[Math.max(maxLength, valueBuf.length * 2)];
+		}
+		int length = value.writeTo(valueBuf, 0);
+		return encode(buf, header, valueBuf, 0, length);
+	}
+
+	ByteBuf encode(ByteBuf buf, HttpHeader header, byte[] value) {
+		return encode(buf, header, value, 0, value.length);
+	}
+
+	ByteBuf encode(ByteBuf buf, HttpHeader header, byte[] value, int offset, int length) {
+		buf = ByteBufPool.ensureWriteRemaining(buf, header.size() + length + 16);
+
+		int staticIndex = HpackStaticTable.indexOf(header);
+		if (staticIndex != 0) {
+			for (int i = staticIndex; i <= HpackStaticTable.LENGTH && HpackStaticTable.HEADERS[i] == HpackStaticTable.HEADERS[staticIndex]; i++) {
+				if (Arrays.equals(HpackStaticTable.VALUES[i], 0, HpackStaticTable.VALUES[i].length, value, offset, offset + length)) {
+					writeInt(buf, 0x80, 7, i);
+					return buf;
+				}
+			}
+		}
+
+		int nameIndex = staticIndex;
+		for (int i = 1; i <= table.length(); i++) {
+			Entry entry = table.get(i);
+			if (entry.header.hashCode() != header.hashCode() || !entry.header.equals(header)) continue;
+			if (Arrays.equals(entry.value, 0, entry.value.length, value, offset, offset + length)) {
+				writeInt(buf, 0x80, 7, HpackStaticTable.LENGTH + i);
+				return buf;
+			}
+			if (nameIndex == 0) {
+				nameIndex = HpackStaticTable.LENGTH + i;
+			}
+		}
+
+		if (isSensitive(header)) {
+			writeLiteral(buf, 0x10, 4, nameIndex, header, value, offset, length);
+		} else if (isIndexable(header) && header.size() + length + HpackDynamicTable.ENTRY_OVERHEAD <= table.getMaxSize()) {
+			byte[] name = writeLiteral(buf, 0x40, 6, nameIndex, header, value, offset, length);
+			table.add(new Entry(header, name, Arrays.copyOfRange(value, offset, offset + length)));
+		} else {
+			writeLiteral(buf, 0x00, 4, nameIndex, header, value, offset, length);
+		}
+		return buf;
+	}
+
+	/**
+	 * @return lower-case name bytes of a header
+	 */
+	private static byte[] writeLiteral(ByteBuf buf, int flags, int prefixBits, int nameIndex,
+			HttpHeader header, byte[] value, int offset, int length) {
+		byte[] name;
+		if (nameIndex != 0) {
+			writeInt(buf, flags, prefixBits, nameIndex);
+			name = nameIndex <= HpackStaticTable.LENGTH ? HpackStaticTable.NAMES[nameIndex] : lowerCase(header);
+		} else {
+			writeInt(buf, flags, prefixBits, 0);
+			name = lowerCase(header);
+			writeString(buf, name, 0, name.length);
+		}
+		writeString(buf, value, offset, length);
+		return name;
+	}
+
+	private static byte[] lowerCase(HttpHeader header) {
+		if (header.lowerCase != null) return header.lowerCase;
+		byte[] name = new byte[header.length];
+		for (int i = 0; i < name.length; i++) {
+			byte b = header.bytes[header.offset + i];
+			name[i] = b >= 'A' && b <= 'Z' ? (byte) (b + 'a' - 'A') : b;
+		}
+		return name;
+	}
+
+	private static void writeString(ByteBuf buf, byte[] array, int offset, int length) {
+		int huffmanLength = HpackHuffman.encodedLength(array, offset, length);
+		if (huffmanLength < length) {
+			writeInt(buf, 0x80, 7, huffmanLength);
+			buf.tail(HpackHuffman.encode(array, offset, length, buf.array(), buf.tail()));
+		} else {
+			writeInt(buf, 0x00, 7, length);
+			buf.put(array, offset, length);
+		}
+	}
+
+	static void writeInt(ByteBuf buf, int flags, int prefixBits, int value) {
+		int mask = (1 << prefixBits) - 1;
+		if (value < mask) {
+			buf.writeByte((byte) (flags | value));
+			return;
+		}
+		buf.writeByte((byte) (flags | mask));
+		value -= mask;
+		while (value >= 0x80) {
+			buf.writeByte((byte) (value | 0x80));
+			value >>>= 7;
+		}
+		buf.writeByte((byte) value);
+	}
+
+	private static boolean isSensitive(HttpHeader header) {
+		return header.equals(AUTHORIZATION) || header.equals(PROXY_AUTHORIZATION) ||
+				header.equals(COOKIE) || header.equals(SET_COOKIE);
+	}
+
+	private static boolean isIndexable(HttpHeader header) {
+		return !header.equals(Http2Constants.PSEUDO_PATH) && !header.equals(CONTENT_LENGTH) &&
+				!header.equals(DATE) && !header.equals(ETAG) && !header.equals(LAST_MODIFIED) &&
+				!header.equals(AGE) && !header.equals(EXPIRES);
+	}
+}
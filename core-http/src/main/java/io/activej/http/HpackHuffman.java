@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.activej.http;
+
+import java.util.Arrays;
+
+import static io.activej.http.Http2Constants.COMPRESSION_ERROR;
+
+/**
+ * A canonical Huffman code of HPACK, as defined in RFC 7541, Appendix B.
+ * <p>
+ * The code is canonical, so codes are derived from code lengths only:
+ * codes of the same length are consecutive and ordered by a symbol
+ */
+final class HpackHuffman {
+	private static final int EOS = 256;
+	private static final int MAX_LENGTH = 30;
+
+	private static final byte[] LENGTHS = {
+			13, 23, 28, 28, 28, 28, 28, 28, 28, 24, 30, 28, 28, 30, 28, 28,
+			28, 28, 28, 28, 28, 28, 30, 28, 28, 28, 28, 28, 28, 28, 28, 28,
+			6, 10, 10, 12, 13, 6, 8, 11, 10, 10, 8, 11, 8, 6, 6, 6,
+			5, 5, 5, 6, 6, 6, 6, 6, 6, 6, 7, 8, 15, 6, 12, 10,
+			13, 6, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7,
+			7, 7, 7, 7, 7, 7, 7, 7, 8, 7, 8, 13, 19, 13, 14, 6,
+			15, 5, 6, 5, 6, 5, 6, 6, 6, 5, 7, 7, 6, 6, 6, 5,
+			6, 7, 6, 5, 5, 6, 7, 7, 7, 7, 7, 15, 11, 14, 13, 28,
+			20, 22, 20, 20, 22, 22, 22, 23, 22, 23, 23, 23, 23, 23, 24, 23,
+			24, 24, 22, 23, 24, 23, 23, 23, 23, 21, 22, 23, 22, 23, 23, 24,
+			22, 21, 20, 22, 22, 23, 23, 21, 23, 22, 22, 24, 21, 22, 23, 23,
+			21, 21, 22, 21, 23, 22, 23, 23, 20, 22, 22, 22, 23, 22, 22, 23,
+			26, 26, 20, 19, 22, 23, 22, 25, 26, 26, 26, 27, 27, 26, 24, 25,
+			19, 21, 26, 27, 27, 26, 27, 24, 21, 21, 26, 26, 28, 27, 27, 27,
+			20, 24, 20, 21, 22, 21, 21, 23, 22, 22, 25, 25, 24, 24, 26, 23,
+			26, 27, 26, 26, 27, 27, 27, 27, 27, 28, 27, 27, 27, 27, 27, 26,
+			30
+	};
+
+	private static final int[] CODES = new int[EOS + 1];
+
+	// canonical decoding tables, indexed by a code length
+	private static final int[] FIRST_CODES = new int[MAX_LENGTH + 1];
+	private static final int[] LIMITS = new int[MAX_LENGTH + 1];
+	private static final int[] OFFSETS = new int[MAX_LENGTH + 1];
+	private static final short[] SYMBOLS = new short[EOS + 1];
+
+	/**
+	 * A lookup table of symbols with codes of at most 8 bits, indexed by the next 8 bits of input.
+	 * An entry holds a symbol in lower 8 bits and a code length in upper bits, or -1 if a code is longer
+	 */
+	private static final int[] FAST = new int[256];
+
+	static {
+		int code = 0;
+		int index = 0;
+		for (int length = 1; length <= MAX_LENGTH; length++) {
+			FIRST_CODES[length] = code;
+			OFFSETS[length] = index;
+			for (int symbol = 0; symbol <= EOS; symbol++) {
+				if (LENGTHS[symbol] == length) {
+					CODES[symbol] = code++;
+					SYMBOLS[index++] = (short) symbol;
+				}
+			}
+			LIMITS[length] = code;
+			code <<= 1;
+		}
+		assert index == EOS + 1 && CODES[EOS] == (1 << MAX_LENGTH) - 1;
+
+		Arrays.fill(FAST, -1);
+		for (int symbol = 0; symbol < EOS; symbol++) {
+			int length = LENGTHS[symbol];
+			if (length > 8) continue;
+			int first = CODES[symbol] << (8 - length);
+			for (int suffix = 0; suffix < 1 << (8 - length); suffix++) {
+				FAST[first | suffix] = symbol | length << 8;
+			}
+		}
+	}
+
+	private HpackHuffman() {}
+
+	/**
+	 * Returns a number of bytes that given bytes occupy when Huffman-encoded
+	 */
+	static int encodedLength(byte[] array, int offset, int length) {
+		long bits = 0;
+		for (int i = offset; i < offset + length; i++) {
+			bits += LENGTHS[array[i] & 0xFF];
+		}
+		return (int) ((bits + 7) >>> 3);
+	}
+
+	/**
+	 * Encodes bytes into a given array, padding the last byte with the most significant bits of EOS
+	 *
+	 * @return a position in a destination array after encoded bytes
+	 */
+	static int encode(byte[] array, int offset, int length, byte[] to, int pos) {
+		long acc = 0;
+		int bits = 0;
+		for (int i = offset; i < offset + length; i++) {
+			int symbol = array[i] & 0xFF;
+			int codeLength = LENGTHS[symbol];
+			acc = (acc << codeLength) | CODES[symbol];
+			bits += codeLength;
+			while (bits >= 8) {
+				bits -= 8;
+				to[pos++] = (byte) (acc >>> bits);
+			}
+		}
+		if (bits != 0) {
+			to[pos++] = (byte) ((acc << (8 - bits)) | (0xFF >>> bits));
+		}
+		return pos;
+	}
+
+	/**
+	 * Returns a maximum number of bytes that may be decoded from a given number of Huffman-encoded bytes
+	 */
+	static int maxDecodedLength(int length) {
+		return length * 8 / 5;
+	}
+
+	/**
+	 * Decodes Huffman-encoded bytes into a given array,
+	 * which should be at least {@link #maxDecodedLength(int)} bytes long
+	 *
+	 * @return a number of decoded bytes
+	 * @throws Http2Exception if input contains EOS symbol or an invalid padding
+	 */
+	static int decode(byte[] array, int offset, int length, byte[] to) throws Http2Exception {
+		long acc = 0;
+		int bits = 0;
+		int pos = 0;
+		int i = offset;
+		int limit = offset + length;
+		while (true) {
+			while (bits <= 56 && i < limit) {
+				acc = (acc << 8) | (array[i++] & 0xFF);
+				bits += 8;
+			}
+			if (bits == 0) {
+				return pos;
+			}
+
+			if (bits >= 8) {
+				int entry = FAST[(int) (acc >>> (bits - 8)) & 0xFF];
+				if (entry != -1) {
+					to[pos++] = (byte) entry;
+					bits -= entry >>> 8;
+					continue;
+				}
+			}
+
+			int symbol = -1;
+			int codeLength = 5;
+			for (; codeLength <= bits && codeLength <= MAX_LENGTH; codeLength++) {
+				int code = (int) (acc >>> (bits - codeLength)) & ((1 << codeLength) - 1);
+				if (code < LIMITS[codeLength]) {
+					symbol = SYMBOLS[OFFSETS[codeLength] + code - FIRST_CODES[codeLength]];
+					break;
+				}
+			}
+			if (symbol == -1) {
+				// remaining bits should be a padding of fewer than 8 most significant bits of EOS
+				long mask = (1L << bits) - 1;
+				if (i == limit && bits < 8 && (acc & mask) == mask) {
+					return pos;
+				}
+				throw Http2Exception.connectionError(COMPRESSION_ERROR, "Invalid Huffman padding");
+			}
+			if (symbol == EOS) {
+				throw Http2Exception.connectionError(COMPRESSION_ERROR, "EOS symbol in Huffman-encoded string");
+			}
+			to[pos++] = (byte) symbol;
+			bits -= codeLength;
+		}
+	}
+}
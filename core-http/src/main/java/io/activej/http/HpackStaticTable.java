@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.activej.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.activej.bytebuf.ByteBufStrings.encodeAscii;
+
+/**
+ * A static table of HPACK, as defined in RFC 7541, Appendix A
+ */
+final class HpackStaticTable {
+	static final int LENGTH = 61;
+
+	private static final String[][] ENTRIES = {
+			{":authority", ""},
+			{":method", "GET"},
+			{":method", "POST"},
+			{":path", "/"},
+			{":path", "/index.html"},
+			{":scheme", "http"},
+			{":scheme", "https"},
+			{":status", "200"},
+			{":status", "204"},
+			{":status", "206"},
+			{":status", "304"},
+			{":status", "400"},
+			{":status", "404"},
+			{":status", "500"},
+			{"accept-charset", ""},
+			{"accept-encoding", "gzip, deflate"},
+			{"accept-language", ""},
+			{"accept-ranges", ""},
+			{"accept", ""},
+			{"access-control-allow-origin", ""},
+			{"age", ""},
+			{"allow", ""},
+			{"authorization", ""},
+			{"cache-control", ""},
+			{"content-disposition", ""},
+			{"content-encoding", ""},
+			{"content-language", ""},
+			{"content-length", ""},
+			{"content-location", ""},
+			{"content-range", ""},
+			{"content-type", ""},
+			{"cookie", ""},
+			{"date", ""},
+			{"etag", ""},
+			{"expect", ""},
+			{"expires", ""},
+			{"from", ""},
+			{"host", ""},
+			{"if-match", ""},
+			{"if-modified-since", ""},
+			{"if-none-match", ""},
+			{"if-range", ""},
+			{"if-unmodified-since", ""},
+			{"last-modified", ""},
+			{"link", ""},
+			{"location", ""},
+			{"max-forwards", ""},
+			{"proxy-authenticate", ""},
+			{"proxy-authorization", ""},
+			{"range", ""},
+			{"referer", ""},
+			{"refresh", ""},
+			{"retry-after", ""},
+			{"server", ""},
+			{"set-cookie", ""},
+			{"strict-transport-security", ""},
+			{"transfer-encoding", ""},
+			{"user-agent", ""},
+			{"vary", ""},
+			{"via", ""},
+			{"www-authenticate", ""}
+	};
+
+	// indexed from 1, as in the specification
+	static final HttpHeader[] HEADERS = new HttpHeader[LENGTH + 1];
+	static final byte[][] NAMES = new byte[LENGTH + 1][];
+	static final byte[][] VALUES = new byte[LENGTH + 1][];
+
+	/**
+	 * The lowest index of an entry for each header name
+	 */
+	private static final Map<HttpHeader, Integer> NAME_INDEXES = new HashMap<>();
+
+	static {
+		for (int i = 1; i <= LENGTH; i++) {
+			String name = ENTRIES[i - 1][0];
+			HttpHeader header = switch (name) {
+				case ":authority" -> Http2Constants.PSEUDO_AUTHORITY;
+				case ":method" -> Http2Constants.PSEUDO_METHOD;
+				case ":path" -> Http2Constants.PSEUDO_PATH;
+				case ":scheme" -> Http2Constants.PSEUDO_SCHEME;
+				case ":status" -> Http2Constants.PSEUDO_STATUS;
+				default -> HttpHeaders.of(name);
+			};
+			HEADERS[i] = header;
+			NAMES[i] = encodeAscii(name);
+			VALUES[i] = encodeAscii(ENTRIES[i - 1][1]);
+			NAME_INDEXES.putIfAbsent(header, i);
+		}
+	}
+
+	private HpackStaticTable() {}
+
+	/**
+	 * Returns the lowest index of an entry with a given header name, or 0 if there is no such entry
+	 */
+	static int indexOf(HttpHeader header) {
+		Integer index = NAME_INDEXES.get(header);
+		return index != null ? index : 0;
+	}
+}
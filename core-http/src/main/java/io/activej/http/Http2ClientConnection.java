@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.csp.ChannelSupplier;
+import io.activej.eventloop.Eventloop;
+import io.activej.http.AsyncHttpClient.Inspector;
+import io.activej.http.stream.BufsConsumerGzipDeflater;
+import io.activej.http.stream.BufsConsumerGzipInflater;
+import io.activej.net.socket.tcp.AsyncTcpSocket;
+import io.activej.promise.Promise;
+import io.activej.promise.SettablePromise;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+
+import static io.activej.bytebuf.ByteBufStrings.encodeAscii;
+import static io.activej.http.Http2Constants.*;
+import static io.activej.http.Http2Exception.connectionError;
+import static io.activej.http.Http2Exception.streamError;
+import static io.activej.http.HttpHeaderValue.ofBytes;
+import static io.activej.http.HttpHeaderValue.ofDecimal;
+import static io.activej.http.HttpHeaders.*;
+import static io.activej.http.HttpMessage.MUST_LOAD_BODY;
+import static io.activej.http.HttpMessage.USE_GZIP;
+import static io.activej.http.HttpUtils.decodePositiveInt;
+import static io.activej.http.HttpVersion.HTTP_2_0;
+
+/**
+ * A client side of an HTTP/2 connection.
+ * <p>
+ * A single connection to an address is shared by all the requests to that address,
+ * each request is sent over its own stream. Requests that exceed a number of concurrent streams
+ * allowed by a server are queued until some of the active streams are closed.
+ */
+final class Http2ClientConnection extends AbstractHttp2Connection {
+	private static final byte[] EMPTY_PATH = encodeAscii("/");
+
+	private final AsyncHttpClient client;
+	private final @Nullable Inspector inspector;
+	final InetSocketAddress remoteAddress;
+	private final boolean secure;
+
+	private int nextStreamId = 1;
+	private final ArrayDeque<PendingRequest> pendingRequests = new ArrayDeque<>();
+
+	Http2ClientConnection(Eventloop eventloop, AsyncHttpClient client, AsyncTcpSocket socket,
+			InetSocketAddress remoteAddress, boolean secure) {
+		super(eventloop, socket, client.maxBodySize);
+		this.client = client;
+		this.inspector = client.inspector;
+		this.remoteAddress = remoteAddress;
+		this.secure = secure;
+	}
+
+	void connect() {
+		(pool = client.poolReadWrite).addLastNode(this);
+		poolTimestamp = eventloop.currentTimeMillis();
+		start(false);
+	}
+
+	public InetSocketAddress getRemoteAddress() {
+		return remoteAddress;
+	}
+
+	/**
+	 * Returns whether new requests may be sent over this connection
+	 */
+	boolean isAvailable() {
+		return !isClosed() && !isGoingAway() && nextStreamId > 0 &&
+				(client.maxKeepAliveRequests == 0 || numberOfRequests < client.maxKeepAliveRequests);
+	}
+
+	Promise<HttpResponse> send(HttpRequest request) {
+		assert isAvailable();
+		SettablePromise<HttpResponse> promise = new SettablePromise<>();
+		if (++numberOfRequests == client.maxKeepAliveRequests) {
+			client.onHttp2ConnectionUnavailable(this);
+		}
+		if (openStreams < peerMaxConcurrentStreams && pendingRequests.isEmpty()) {
+			sendRequest(request, promise);
+		} else {
+			pendingRequests.add(new PendingRequest(request, promise));
+		}
+		return promise;
+	}
+
+	private void sendRequest(HttpRequest request, SettablePromise<HttpResponse> promise) {
+		ClientStream stream = new ClientStream(nextStreamId, promise);
+		nextStreamId += 2;
+		openStream(stream);
+		if (pool != client.poolReadWrite) {
+			switchPool(client.poolReadWrite);
+		}
+
+		ByteBuf body = request.body;
+		ChannelSupplier<ByteBuf> bodyStream = request.bodyStream;
+		request.body = null;
+		request.bodyStream = null;
+		if (body != null) {
+			if ((request.flags & USE_GZIP) != 0) {
+				body = GzipProcessorUtils.toGzip(body);
+				request.addHeader(CONTENT_ENCODING, ofBytes(CONTENT_ENCODING_GZIP));
+			}
+			request.addHeader(CONTENT_LENGTH, ofDecimal(body.readRemaining()));
+			if (!body.canRead()) {
+				body.recycle();
+				body = null;
+			}
+		} else if (bodyStream != null) {
+			if ((request.flags & USE_GZIP) != 0) {
+				request.addHeader(CONTENT_ENCODING, ofBytes(CONTENT_ENCODING_GZIP));
+				BufsConsumerGzipDeflater deflater = BufsConsumerGzipDeflater.create();
+				bodyStream.bindTo(deflater.getInput());
+				bodyStream = deflater.getOutput().getSupplier();
+			}
+		} else if (request.isContentLengthExpected()) {
+			request.addHeader(CONTENT_LENGTH, ofDecimal(0));
+		}
+
+		UrlParser url = request.getUrl();
+		ByteBuf block = beginHeaderBlock(request.estimateSize());
+		block = encodeHeader(block, PSEUDO_METHOD, request.getMethod().bytes);
+		block = encodeHeader(block, PSEUDO_SCHEME, secure ? SCHEME_HTTPS : SCHEME_HTTP);
+		HttpHeaderValue host = request.headers.get(HOST);
+		if (host != null) {
+			block = encodeHeader(block, PSEUDO_AUTHORITY, host);
+		} else if (url.getHostAndPort() != null) {
+			block = encodeHeader(block, PSEUDO_AUTHORITY, encodeAscii(url.getHostAndPort()));
+		}
+		String pathAndQuery = url.getPathAndQuery();
+		block = encodeHeader(block, PSEUDO_PATH, pathAndQuery.isEmpty() ? EMPTY_PATH : encodeAscii(pathAndQuery));
+		block = encodeHeaders(block, request);
+		request.recycle();
+		sendHeaders(stream, block, body == null && bodyStream == null);
+
+		if (body != null) {
+			sendBody(stream, body);
+		} else if (bodyStream != null) {
+			sendBody(stream, bodyStream);
+		}
+	}
+
+	private void sendPendingRequests() {
+		while (!pendingRequests.isEmpty() && openStreams < peerMaxConcurrentStreams && !isClosed()) {
+			PendingRequest pending = pendingRequests.poll();
+			sendRequest(pending.request, pending.promise);
+		}
+	}
+
+	@Override
+	boolean isIdle(int streamId) {
+		return (streamId & 1) == 0 || streamId >= nextStreamId;
+	}
+
+	@Override
+	void onHeaders(int streamId, @Nullable Stream stream, boolean endStream) throws Http2Exception {
+		if (stream == null) throw connectionError(PROTOCOL_ERROR, "HEADERS frame on an idle stream");
+		ClientStream clientStream = (ClientStream) stream;
+		if (clientStream.response != null) {
+			if (!endStream) {
+				resetStream(stream, streamError(PROTOCOL_ERROR, "Trailers without END_STREAM flag"));
+				return;
+			}
+			onRemoteEnd(stream); // trailers are ignored
+			return;
+		}
+
+		HttpResponse response;
+		try {
+			checkHeaderList();
+			response = createResponse();
+		} catch (Http2Exception e) {
+			resetStream(stream, e);
+			return;
+		}
+		if (response == null) {
+			if (endStream) {
+				resetStream(stream, streamError(PROTOCOL_ERROR, "END_STREAM flag on an informational response"));
+			}
+			return;
+		}
+
+		response.flags |= MUST_LOAD_BODY;
+		if (endStream) {
+			response.body = ByteBuf.empty();
+		} else {
+			InboundBody inbound = new InboundBody(stream);
+			stream.inbound = inbound;
+			response.bodyStream = isGzipEncoded() ?
+					inbound.transformWith(BufsConsumerGzipInflater.create()) :
+					inbound;
+		}
+		clientStream.response = response;
+		if (inspector != null) inspector.onHttpResponse(response);
+
+		SettablePromise<HttpResponse> promise = clientStream.promise;
+		clientStream.promise = null;
+		assert promise != null;
+		promise.set(response);
+
+		if (endStream && !stream.closed) {
+			onRemoteEnd(stream);
+		}
+	}
+
+	/**
+	 * @return a response, or {@code null} if an informational (1xx) response has been received
+	 */
+	private @Nullable HttpResponse createResponse() throws Http2Exception {
+		int code = 0;
+		int regularHeaders = 0;
+		for (int i = 0; i < headersCount; i++) {
+			HttpHeader header = headerNames[i];
+			if (!isPseudoHeader(header)) {
+				regularHeaders++;
+				continue;
+			}
+			if (regularHeaders != 0) throw streamError(PROTOCOL_ERROR, "Pseudo-header after a regular header");
+			if (!header.equals(PSEUDO_STATUS)) throw streamError(PROTOCOL_ERROR, "Unknown pseudo-header");
+			byte[] value = headerValues[i];
+			try {
+				code = decodePositiveInt(value, 0, value.length);
+			} catch (MalformedHttpException e) {
+				throw streamError(PROTOCOL_ERROR, "Invalid status code");
+			}
+		}
+		if (code < 100 || code >= 600) throw streamError(PROTOCOL_ERROR, "Missing or invalid status code");
+		if (code < 200) return null;
+
+		HttpResponse response = new HttpResponse(HTTP_2_0, code, null);
+		response.maxBodySize = maxBodySize;
+		for (int i = headersCount - regularHeaders; i < headersCount; i++) {
+			HttpHeader header = headerNames[i];
+			if (isConnectionSpecific(header)) continue;
+			response.addHeader(header, headerValues[i]);
+		}
+		return response;
+	}
+
+	@Override
+	void onStreamClosed(Stream stream, @Nullable Exception e) {
+		ClientStream clientStream = (ClientStream) stream;
+		if (clientStream.promise != null) {
+			SettablePromise<HttpResponse> promise = clientStream.promise;
+			clientStream.promise = null;
+			promise.setException(e != null ? e : streamError(PROTOCOL_ERROR, "Stream closed without a response"));
+		}
+		if (isClosed()) return;
+
+		sendPendingRequests();
+		if (openStreams != 0) return;
+
+		if (isGoingAway()) {
+			goAway();
+		} else if (client.keepAliveTimeoutMillis == 0 || !isAvailable()) {
+			client.onHttp2ConnectionUnavailable(this);
+			goAway();
+		} else if (pool != client.poolKeepAlive) {
+			switchPool(client.poolKeepAlive);
+		}
+	}
+
+	@Override
+	void onGoAway(int lastStreamId, int errorCode) {
+		client.onHttp2ConnectionUnavailable(this);
+		Http2Exception e = streamError(REFUSED_STREAM, "Connection is going away, error code: " + errorCode);
+		for (int id : streams.keys()) {
+			Stream stream = streams.get(id);
+			if (stream != null && id > lastStreamId) {
+				resetStream(stream, e);
+			}
+		}
+		failPendingRequests(e);
+		if (openStreams == 0) {
+			goAway();
+		}
+	}
+
+	@Override
+	void onPeerSettingsChanged() {
+		sendPendingRequests();
+	}
+
+	private void failPendingRequests(Exception e) {
+		while (!pendingRequests.isEmpty()) {
+			PendingRequest pending = pendingRequests.poll();
+			pending.request.recycle();
+			pending.promise.setException(e);
+		}
+	}
+
+	@Override
+	protected void onClosedWithError(@NotNull Exception e) {
+	}
+
+	@Override
+	protected void onClosed() {
+		super.onClosed();
+		failPendingRequests(closeException != null ? closeException : CONNECTION_CLOSED);
+		//noinspection ConstantConditions
+		pool.removeNode(this);
+		//noinspection AssertWithSideEffects,ConstantConditions
+		assert (pool = null) == null;
+		client.onHttp2ConnectionClosed(this);
+	}
+
+	private static final class PendingRequest {
+		final HttpRequest request;
+		final SettablePromise<HttpResponse> promise;
+
+		PendingRequest(HttpRequest request, SettablePromise<HttpResponse> promise) {
+			this.request = request;
+			this.promise = promise;
+		}
+	}
+
+	private final class ClientStream extends Stream {
+		@Nullable SettablePromise<HttpResponse> promise;
+		@Nullable HttpResponse response;
+
+		ClientStream(int id, SettablePromise<HttpResponse> promise) {
+			super(id);
+			this.promise = promise;
+		}
+
+		@Override
+		void onReleased() {
+			if (response != null) {
+				HttpResponse response = this.response;
+				this.response = null;
+				eventloop.post(response::recycle);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Http2ClientConnection{" +
+				"remoteAddress=" + remoteAddress +
+				", streams=" + openStreams +
+				", pending=" + pendingRequests.size() +
+				',' + super.toString() +
+				'}';
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.activej.http;
+
+import static io.activej.bytebuf.ByteBufStrings.encodeAscii;
+
+/**
+ * Constants of HTTP/2 protocol, as defined in RFC 7540
+ */
+final class Http2Constants {
+	static final byte[] CONNECTION_PREFACE = encodeAscii("PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n");
+
+	static final String ALPN_HTTP_2 = "h2";
+	static final String ALPN_HTTP_1_1 = "http/1.1";
+
+	static final int FRAME_HEADER_SIZE = 9;
+
+	// region frame types
+	static final byte DATA = 0x0;
+	static final byte HEADERS = 0x1;
+	static final byte PRIORITY = 0x2;
+	static final byte RST_STREAM = 0x3;
+	static final byte SETTINGS = 0x4;
+	static final byte PUSH_PROMISE = 0x5;
+	static final byte PING = 0x6;
+	static final byte GOAWAY = 0x7;
+	static final byte WINDOW_UPDATE = 0x8;
+	static final byte CONTINUATION = 0x9;
+	// endregion
+
+	// region frame flags
+	static final byte FLAG_END_STREAM = 0x1;
+	static final byte FLAG_ACK = 0x1;
+	static final byte FLAG_END_HEADERS = 0x4;
+	static final byte FLAG_PADDED = 0x8;
+	static final byte FLAG_PRIORITY = 0x20;
+	// endregion
+
+	// region error codes
+	static final int NO_ERROR = 0x0;
+	static final int PROTOCOL_ERROR = 0x1;
+	static final int INTERNAL_ERROR = 0x2;
+	static final int FLOW_CONTROL_ERROR = 0x3;
+	static final int SETTINGS_TIMEOUT = 0x4;
+	static final int STREAM_CLOSED = 0x5;
+	static final int FRAME_SIZE_ERROR = 0x6;
+	static final int REFUSED_STREAM = 0x7;
+	static final int CANCEL = 0x8;
+	static final int COMPRESSION_ERROR = 0x9;
+	static final int CONNECT_ERROR = 0xa;
+	static final int ENHANCE_YOUR_CALM = 0xb;
+	static final int INADEQUATE_SECURITY = 0xc;
+	static final int HTTP_1_1_REQUIRED = 0xd;
+	// endregion
+
+	// region settings
+	static final int SETTINGS_HEADER_TABLE_SIZE = 0x1;
+	static final int SETTINGS_ENABLE_PUSH = 0x2;
+	static final int SETTINGS_MAX_CONCURRENT_STREAMS = 0x3;
+	static final int SETTINGS_INITIAL_WINDOW_SIZE = 0x4;
+	static final int SETTINGS_MAX_FRAME_SIZE = 0x5;
+	static final int SETTINGS_MAX_HEADER_LIST_SIZE = 0x6;
+	// endregion
+
+	static final int DEFAULT_HEADER_TABLE_SIZE = 4096;
+	static final int DEFAULT_WINDOW_SIZE = 65535;
+	static final int DEFAULT_MAX_FRAME_SIZE = 16384;
+	static final int MAX_ALLOWED_FRAME_SIZE = (1 << 24) - 1;
+	static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+
+	// region pseudo-headers
+	static final HttpHeader PSEUDO_AUTHORITY = HttpHeaders.of(":authority");
+	static final HttpHeader PSEUDO_METHOD = HttpHeaders.of(":method");
+	static final HttpHeader PSEUDO_PATH = HttpHeaders.of(":path");
+	static final HttpHeader PSEUDO_SCHEME = HttpHeaders.of(":scheme");
+	static final HttpHeader PSEUDO_STATUS = HttpHeaders.of(":status");
+	// endregion
+
+	private static final HttpHeader KEEP_ALIVE = HttpHeaders.of("Keep-Alive");
+	private static final HttpHeader PROXY_CONNECTION = HttpHeaders.of("Proxy-Connection");
+
+	static final byte[] SCHEME_HTTP = encodeAscii("http");
+	static final byte[] SCHEME_HTTPS = encodeAscii("https");
+
+	static final Http2Exception CONNECTION_CLOSED = Http2Exception.connectionError(NO_ERROR, "Connection closed");
+	static final Http2Exception STREAM_REFUSED = Http2Exception.streamError(REFUSED_STREAM, "Stream refused");
+	static final Http2Exception STREAM_CANCELLED = Http2Exception.streamError(CANCEL, "Stream cancelled");
+
+	/**
+	 * Returns whether a header is specific to an HTTP/1.x connection and must not be sent over HTTP/2
+	 */
+	static boolean isConnectionSpecific(HttpHeader header) {
+		return header.equals(HttpHeaders.CONNECTION) ||
+				header.equals(KEEP_ALIVE) ||
+				header.equals(HttpHeaders.TRANSFER_ENCODING) ||
+				header.equals(HttpHeaders.UPGRADE) ||
+				header.equals(PROXY_CONNECTION) ||
+				header.equals(HttpHeaders.HOST);
+	}
+
+	static boolean isPseudoHeader(HttpHeader header) {
+		return header.length != 0 && header.bytes[header.offset] == ':';
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.activej.http;
+
+import io.activej.common.ApplicationSettings;
+
+/**
+ * An HTTP/2 exception that corresponds to an error code of a RST_STREAM or a GOAWAY frame
+ * that has been sent or received.
+ * <p>
+ * A connection error terminates a whole connection, while a stream error only resets a single stream
+ */
+public final class Http2Exception extends HttpException {
+	private static final long serialVersionUID = -2079356034349486341L;
+	public static final boolean WITH_STACK_TRACE = ApplicationSettings.getBoolean(Http2Exception.class, "withStackTrace", false);
+
+	private final int errorCode;
+	private final boolean connectionError;
+
+	Http2Exception(int errorCode, boolean connectionError, String message) {
+		super(message);
+		this.errorCode = errorCode;
+		this.connectionError = connectionError;
+	}
+
+	static Http2Exception connectionError(int errorCode, String message) {
+		return new Http2Exception(errorCode, true, message);
+	}
+
+	static Http2Exception streamError(int errorCode, String message) {
+		return new Http2Exception(errorCode, false, message);
+	}
+
+	/**
+	 * Returns an HTTP/2 error code, as defined in RFC 7540, section 7
+	 */
+	public int getErrorCode() {
+		return errorCode;
+	}
+
+	public boolean isConnectionError() {
+		return connectionError;
+	}
+
+	@Override
+	public Throwable fillInStackTrace() {
+		return WITH_STACK_TRACE ? super.fillInStackTrace() : this;
+	}
+}
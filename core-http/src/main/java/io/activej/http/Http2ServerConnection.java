@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.Checks;
+import io.activej.csp.ChannelSupplier;
+import io.activej.eventloop.Eventloop;
+import io.activej.http.AsyncHttpServer.Inspector;
+import io.activej.http.stream.BufsConsumerGzipDeflater;
+import io.activej.http.stream.BufsConsumerGzipInflater;
+import io.activej.net.socket.tcp.AsyncTcpSocket;
+import io.activej.net.socket.tcp.AsyncTcpSocketSsl;
+import io.activej.promise.Promise;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetAddress;
+
+import static io.activej.bytebuf.ByteBufStrings.encodeAscii;
+import static io.activej.common.Checks.checkState;
+import static io.activej.http.Http2Constants.*;
+import static io.activej.http.Http2Exception.connectionError;
+import static io.activej.http.Http2Exception.streamError;
+import static io.activej.http.HttpHeaderValue.ofBytes;
+import static io.activej.http.HttpHeaderValue.ofDecimal;
+import static io.activej.http.HttpHeaders.*;
+import static io.activej.http.HttpMessage.MUST_LOAD_BODY;
+import static io.activej.http.HttpMessage.USE_GZIP;
+import static io.activej.http.HttpMethod.HEAD;
+import static io.activej.http.HttpVersion.HTTP_2_0;
+import static io.activej.http.Protocol.HTTP;
+import static io.activej.http.Protocol.HTTPS;
+
+/**
+ * A server side of an HTTP/2 connection.
+ * <p>
+ * Each stream opened by a client carries a single request, which is served
+ * by a servlet concurrently with requests of other streams.
+ * <p>
+ * A connection is created by {@link HttpServerConnection} once it receives an HTTP/2 connection preface,
+ * either over a cleartext connection (prior knowledge) or over an SSL connection with {@code h2} negotiated by ALPN.
+ * An original connection is still reported to an {@link Inspector}, as connection-level events are concerned.
+ */
+final class Http2ServerConnection extends AbstractHttp2Connection {
+	private static final boolean CHECK = Checks.isEnabled(Http2ServerConnection.class);
+
+	private static final byte[][] STATUS_CODES = new byte[600][];
+
+	static {
+		for (int code = 100; code < STATUS_CODES.length; code++) {
+			STATUS_CODES[code] = encodeAscii(Integer.toString(code));
+		}
+	}
+
+	private final InetAddress remoteAddress;
+	private final AsyncHttpServer server;
+	private final AsyncServlet servlet;
+	private final HttpServerConnection connection;
+	private final @Nullable Inspector inspector;
+
+	Http2ServerConnection(Eventloop eventloop, AsyncTcpSocket socket, InetAddress remoteAddress,
+			AsyncHttpServer server, AsyncServlet servlet, HttpServerConnection connection) {
+		super(eventloop, socket, server.maxBodySize);
+		this.remoteAddress = remoteAddress;
+		this.server = server;
+		this.servlet = servlet;
+		this.connection = connection;
+		this.inspector = server.inspector;
+	}
+
+	/**
+	 * Starts serving a connection
+	 *
+	 * @param readBuf data received after a connection preface, or {@code null}
+	 */
+	void serve(@Nullable ByteBuf readBuf) {
+		this.readBuf = readBuf;
+		(pool = server.poolNew).addLastNode(this);
+		poolTimestamp = eventloop.currentTimeMillis();
+		start(true);
+	}
+
+	public InetAddress getRemoteAddress() {
+		return remoteAddress;
+	}
+
+	@Override
+	boolean isIdle(int streamId) {
+		return (streamId & 1) == 0 || streamId > lastStreamId;
+	}
+
+	@Override
+	void onHeaders(int streamId, @Nullable Stream stream, boolean endStream) throws Http2Exception {
+		if (stream != null) {
+			if (!endStream) {
+				resetStream(stream, streamError(PROTOCOL_ERROR, "Trailers without END_STREAM flag"));
+				return;
+			}
+			onRemoteEnd(stream); // trailers are ignored
+			return;
+		}
+
+		if ((streamId & 1) == 0) throw connectionError(PROTOCOL_ERROR, "Invalid stream id");
+		lastStreamId = streamId;
+		if (goAwaySent) return;
+
+		Stream serverStream = new Stream(streamId);
+		openStream(serverStream);
+		if (openStreams > MAX_CONCURRENT_STREAMS) {
+			resetStream(serverStream, STREAM_REFUSED);
+			return;
+		}
+
+		HttpRequest request;
+		try {
+			checkHeaderList();
+			request = createRequest();
+		} catch (Http2Exception e) {
+			resetStream(serverStream, e);
+			return;
+		}
+
+		request.flags |= MUST_LOAD_BODY;
+		if (endStream) {
+			request.body = ByteBuf.empty();
+			onRemoteEnd(serverStream);
+		} else {
+			InboundBody inbound = new InboundBody(serverStream);
+			serverStream.inbound = inbound;
+			request.bodyStream = isGzipEncoded() ?
+					inbound.transformWith(BufsConsumerGzipInflater.create()) :
+					inbound;
+		}
+		serve(serverStream, request);
+	}
+
+	private HttpRequest createRequest() throws Http2Exception {
+		HttpMethod method = null;
+		byte[] path = null;
+		byte[] authority = null;
+		int regularHeaders = 0;
+		for (int i = 0; i < headersCount; i++) {
+			HttpHeader header = headerNames[i];
+			if (!isPseudoHeader(header)) {
+				regularHeaders++;
+				continue;
+			}
+			if (regularHeaders != 0) throw streamError(PROTOCOL_ERROR, "Pseudo-header after a regular header");
+			byte[] value = headerValues[i];
+			if (header.equals(PSEUDO_METHOD)) {
+				method = getHttpMethod(value);
+			} else if (header.equals(PSEUDO_PATH)) {
+				path = value;
+			} else if (header.equals(PSEUDO_AUTHORITY)) {
+				authority = value;
+			} else if (!header.equals(PSEUDO_SCHEME)) {
+				throw streamError(PROTOCOL_ERROR, "Unknown pseudo-header");
+			}
+		}
+		if (method == null || path == null || path.length == 0) {
+			throw streamError(PROTOCOL_ERROR, "Missing or invalid mandatory pseudo-headers");
+		}
+
+		UrlParser url;
+		try {
+			url = UrlParser.parse(path, 0, path.length);
+		} catch (MalformedHttpException e) {
+			throw streamError(PROTOCOL_ERROR, "Invalid path");
+		}
+		HttpRequest request = new HttpRequest(HTTP_2_0, method, url, null);
+		request.maxBodySize = maxBodySize;
+		request.setProtocol(socket instanceof AsyncTcpSocketSsl ? HTTPS : HTTP);
+		request.setRemoteAddress(remoteAddress);
+		boolean hasHost = false;
+		for (int i = headersCount - regularHeaders; i < headersCount; i++) {
+			HttpHeader header = headerNames[i];
+			if (header.equals(HOST)) {
+				hasHost = true;
+			} else if (isConnectionSpecific(header)) {
+				continue;
+			}
+			request.addHeader(header, headerValues[i]);
+		}
+		if (!hasHost && authority != null) {
+			request.addHeader(HOST, authority);
+		}
+		return request;
+	}
+
+	private static HttpMethod getHttpMethod(byte[] value) throws Http2Exception {
+		for (HttpMethod method : HttpMethod.values()) {
+			if (method.compareTo(value, 0, value.length)) {
+				return method;
+			}
+		}
+		throw streamError(PROTOCOL_ERROR, "Unknown HTTP method");
+	}
+
+	private void serve(Stream stream, HttpRequest request) {
+		numberOfRequests++;
+		if (inspector != null) inspector.onHttpRequest(request);
+
+		if (pool != server.poolServing) {
+			switchPool(server.poolServing);
+		}
+
+		Promise<HttpResponse> servletResult;
+		try {
+			servletResult = servlet.serveAsync(request);
+		} catch (Exception e) {
+			servletResult = Promise.ofException(e);
+		}
+		servletResult.run((response, e) -> {
+			if (CHECK) checkState(eventloop.inEventloopThread());
+			if (isClosed() || stream.closed) {
+				request.recycle();
+				if (response != null) {
+					response.recycleBody();
+				}
+				return;
+			}
+			if (e == null) {
+				if (inspector != null) inspector.onHttpResponse(request, response);
+			} else {
+				if (inspector != null) inspector.onServletException(request, e);
+				response = server.formatHttpError(e);
+			}
+			request.recycle();
+			writeResponse(stream, request.getMethod(), response);
+		});
+	}
+
+	private void writeResponse(Stream stream, HttpMethod method, HttpResponse response) {
+		ByteBuf body = response.body;
+		ChannelSupplier<ByteBuf> bodyStream = response.bodyStream;
+		response.body = null;
+		response.bodyStream = null;
+
+		int code = response.getCode();
+		if (method == HEAD || code == 204 || code == 304) {
+			if (body != null) body.recycle();
+			if (bodyStream != null) bodyStream.closeEx(STREAM_CANCELLED);
+			body = null;
+			bodyStream = null;
+		} else if (body != null) {
+			if ((response.flags & USE_GZIP) != 0) {
+				body = GzipProcessorUtils.toGzip(body);
+				response.addHeader(CONTENT_ENCODING, ofBytes(CONTENT_ENCODING_GZIP));
+			}
+			response.addHeader(CONTENT_LENGTH, ofDecimal(body.readRemaining()));
+			if (!body.canRead()) {
+				body.recycle();
+				body = null;
+			}
+		} else if (bodyStream != null) {
+			if ((response.flags & USE_GZIP) != 0) {
+				response.addHeader(CONTENT_ENCODING, ofBytes(CONTENT_ENCODING_GZIP));
+				BufsConsumerGzipDeflater deflater = BufsConsumerGzipDeflater.create();
+				bodyStream.bindTo(deflater.getInput());
+				bodyStream = deflater.getOutput().getSupplier();
+			}
+		} else if (response.isContentLengthExpected()) {
+			response.addHeader(CONTENT_LENGTH, ofDecimal(0));
+		}
+
+		ByteBuf block = beginHeaderBlock(response.estimateSize());
+		block = encodeHeader(block, PSEUDO_STATUS, code >= 100 && code < STATUS_CODES.length ?
+				STATUS_CODES[code] :
+				encodeAscii(Integer.toString(code)));
+		block = encodeHeaders(block, response);
+		sendHeaders(stream, block, body == null && bodyStream == null);
+
+		if (body != null) {
+			sendBody(stream, body);
+		} else if (bodyStream != null) {
+			sendBody(stream, bodyStream);
+		}
+	}
+
+	@Override
+	void onHalfClosedLocal(Stream stream) {
+		// a response has been sent, there is no need for the rest of a request
+		resetStream(stream, streamError(NO_ERROR, "Response has been sent"));
+	}
+
+	@Override
+	void onStreamClosed(Stream stream, @Nullable Exception e) {
+		if (isClosed() || openStreams != 0) return;
+
+		if (server.keepAliveTimeoutMillis == 0 ||
+				server.maxKeepAliveRequests != 0 && numberOfRequests >= server.maxKeepAliveRequests) {
+			goAway();
+		} else if (pool != server.poolKeepAlive) {
+			switchPool(server.poolKeepAlive);
+		}
+	}
+
+	@Override
+	void onGoAway(int lastStreamId, int errorCode) {
+		if (openStreams == 0) {
+			close();
+		}
+	}
+
+	@Override
+	void onPeerSettingsChanged() {
+	}
+
+	@Override
+	protected void onClosedWithError(@NotNull Exception e) {
+		if (inspector != null) inspector.onHttpError(connection, e);
+	}
+
+	@Override
+	protected void onClosed() {
+		super.onClosed();
+		if (inspector != null) inspector.onDisconnect(connection);
+		//noinspection ConstantConditions
+		pool.removeNode(this);
+		//noinspection AssertWithSideEffects,ConstantConditions
+		assert (pool = null) == null;
+		server.onConnectionClosed();
+	}
+
+	@Override
+	public String toString() {
+		return "Http2ServerConnection{" +
+				"remoteAddress=" + remoteAddress +
+				", streams=" + openStreams +
+				',' + super.toString() +
+				'}';
+	}
+}
@@ -244,6 +244,11 @@ public final class HttpClientConnection extends AbstractHttpConnection {
 		}
 	}
 
+	@Override
+	protected boolean isZeroCopy() {
+		return client.zeroCopy;
+	}
+
 	@Override
 	protected void onNoContentLength() {
 		ChannelZeroBuffer<ByteBuf> buffer = new ChannelZeroBuffer<>();
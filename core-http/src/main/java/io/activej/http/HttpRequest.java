@@ -358,6 +358,21 @@ public final class HttpRequest extends HttpMessage implements WithInitializer<Ht
 		return url.pollUrlPart();
 	}
 
+	int pollRawUrlPart() {
+		if (CHECK) checkState(!isRecycled());
+		return url.pollRawUrlPart();
+	}
+
+	byte[] getRawUrl() {
+		if (CHECK) checkState(!isRecycled());
+		return url.getRawUrl();
+	}
+
+	@Nullable String decodeUrlPart(int start, int end) {
+		if (CHECK) checkState(!isRecycled());
+		return url.decodeUrlPart(start, end);
+	}
+
 	void removePathParameter(String key) {
 		if (CHECK) checkState(!isRecycled());
 		pathParameters.remove(key);
@@ -38,6 +38,7 @@ import static io.activej.bytebuf.ByteBufStrings.*;
 import static io.activej.common.Checks.checkState;
 import static io.activej.common.Utils.nullify;
 import static io.activej.csp.ChannelSuppliers.concat;
+import static io.activej.http.Http2Constants.CONNECTION_PREFACE;
 import static io.activej.http.HttpHeaderValue.ofBytes;
 import static io.activej.http.HttpHeaderValue.ofDecimal;
 import static io.activej.http.HttpHeaders.*;
@@ -129,6 +130,17 @@ public final class HttpServerConnection extends AbstractHttpConnection {
 
 	@Override
 	protected void readMessage() throws MalformedHttpException {
+		if (server.http2 && numberOfRequests == 0 && pool == server.poolNew) {
+			int prefaceLength = matchHttp2Preface();
+			if (prefaceLength == CONNECTION_PREFACE.length) {
+				switchToHttp2();
+				return;
+			}
+			if (prefaceLength == readBuf.readRemaining()) {
+				socket.read().run(readMessageConsumer);
+				return;
+			}
+		}
 		do {
 			contentLength = 0L; // RFC 7230, section 3.3.3: if no Content-Length header is set, server can assume that a length of a message is 0
 			flags = READING_MESSAGES;
@@ -145,6 +157,39 @@ public final class HttpServerConnection extends AbstractHttpConnection {
 		}
 	}
 
+	/**
+	 * Returns a number of leading bytes of a read buffer that match an HTTP/2 connection preface
+	 */
+	private int matchHttp2Preface() {
+		byte[] array = readBuf.array();
+		int head = readBuf.head();
+		int length = min(readBuf.readRemaining(), CONNECTION_PREFACE.length);
+		for (int i = 0; i < length; i++) {
+			if (array[head + i] != CONNECTION_PREFACE[i]) return 0;
+		}
+		return length;
+	}
+
+	/**
+	 * Hands a socket over to an HTTP/2 connection, this connection is discarded without being closed
+	 */
+	private void switchToHttp2() {
+		//noinspection ConstantConditions
+		pool.removeNode(this);
+		pool = null;
+		flags |= CLOSED;
+		stashedBufs = nullify(stashedBufs, Recyclable::recycle);
+		ByteBuf readBuf = this.readBuf;
+		this.readBuf = null;
+		readBuf.moveHead(CONNECTION_PREFACE.length);
+		if (!readBuf.canRead()) {
+			readBuf.recycle();
+			readBuf = null;
+		}
+		new Http2ServerConnection(eventloop, socket, remoteAddress, server, servlet, this)
+				.serve(readBuf);
+	}
+
 	@Override
 	protected void onClosedWithError(@NotNull Exception e) {
 		if (inspector != null) {
@@ -446,6 +491,11 @@ public final class HttpServerConnection extends AbstractHttpConnection {
 		throw new AssertionError("This method should not be called on a server");
 	}
 
+	@Override
+	protected boolean isZeroCopy() {
+		return server.zeroCopy;
+	}
+
 	private void onHttpMessageComplete() {
 		assert !isClosed();
 		if (WebSocket.ENABLED && isWebSocket()) return;
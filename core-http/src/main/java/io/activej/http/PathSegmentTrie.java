@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * An immutable byte-level radix trie which maps path segments to values.
+ * <p>
+ * Lookups are performed directly over raw bytes of a request URL, so no intermediate
+ * strings are created while routing. Only keys that consist of printable ASCII characters
+ * are compiled into a trie, as only those keys may match a raw segment byte-to-byte
+ * (see {@link UrlParser#isPlainUrlPart(byte[], int, int)}).
+ */
+final class PathSegmentTrie<T> {
+	private static final byte[] NO_BYTES = new byte[0];
+	private static final int LINEAR_SEARCH_THRESHOLD = 8;
+
+	private final byte[] prefix;
+	private final byte[] labels;
+	private final PathSegmentTrie<T>[] children;
+	private final @Nullable T value;
+
+	private PathSegmentTrie(byte[] prefix, byte[] labels, PathSegmentTrie<T>[] children, @Nullable T value) {
+		this.prefix = prefix;
+		this.labels = labels;
+		this.children = children;
+		this.value = value;
+	}
+
+	public static <T> PathSegmentTrie<T> compile(Map<String, T> map) {
+		TreeMap<String, T> sorted = new TreeMap<>();
+		map.forEach((key, value) -> {
+			byte[] bytes = key.getBytes(ISO_8859_1);
+			if (!key.isEmpty() && UrlParser.isPlainUrlPart(bytes, 0, bytes.length)) {
+				sorted.put(key, value);
+			}
+		});
+		byte[][] keys = new byte[sorted.size()][];
+		List<T> values = new ArrayList<>(sorted.size());
+		int i = 0;
+		for (Map.Entry<String, T> entry : sorted.entrySet()) {
+			keys[i++] = entry.getKey().getBytes(ISO_8859_1);
+			values.add(entry.getValue());
+		}
+		if (keys.length == 0) {
+			return create(NO_BYTES, NO_BYTES, List.of(), null);
+		}
+		return compile(keys, values, 0, keys.length, 0);
+	}
+
+	private static <T> PathSegmentTrie<T> compile(byte[][] keys, List<T> values, int from, int to, int depth) {
+		// keys are sorted, so a common prefix of the first and the last key is common for all the keys
+		byte[] first = keys[from];
+		byte[] last = keys[to - 1];
+		int prefixEnd = depth;
+		while (prefixEnd < first.length && prefixEnd < last.length && first[prefixEnd] == last[prefixEnd]) {
+			prefixEnd++;
+		}
+		byte[] prefix = prefixEnd == depth ? NO_BYTES : Arrays.copyOfRange(first, depth, prefixEnd);
+
+		T value = null;
+		if (first.length == prefixEnd) {
+			value = values.get(from++);
+		}
+
+		byte[] labels = new byte[256];
+		List<PathSegmentTrie<T>> children = new ArrayList<>();
+		while (from < to) {
+			byte label = keys[from][prefixEnd];
+			int groupEnd = from + 1;
+			while (groupEnd < to && keys[groupEnd][prefixEnd] == label) {
+				groupEnd++;
+			}
+			labels[children.size()] = label;
+			children.add(compile(keys, values, from, groupEnd, prefixEnd + 1));
+			from = groupEnd;
+		}
+		return create(prefix, Arrays.copyOfRange(labels, 0, children.size()), children, value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> PathSegmentTrie<T> create(byte[] prefix, byte[] labels, List<PathSegmentTrie<T>> children, @Nullable T value) {
+		return new PathSegmentTrie<>(prefix, labels, (PathSegmentTrie<T>[]) children.toArray(new PathSegmentTrie<?>[0]), value);
+	}
+
+	/**
+	 * Looks up a value that is mapped to a path segment
+	 *
+	 * @param bytes an array that contains a segment
+	 * @param from  a start of a segment, inclusive
+	 * @param to    an end of a segment, exclusive
+	 * @return a value mapped to a segment or {@code null} if there is none
+	 */
+	public @Nullable T get(byte[] bytes, int from, int to) {
+		PathSegmentTrie<T> node = this;
+		int i = from;
+		while (true) {
+			byte[] prefix = node.prefix;
+			if (to - i < prefix.length) return null;
+			for (byte b : prefix) {
+				if (bytes[i++] != b) return null;
+			}
+			if (i == to) return node.value;
+
+			int index = indexOf(node.labels, bytes[i++]);
+			if (index == -1) return null;
+			node = node.children[index];
+		}
+	}
+
+	private static int indexOf(byte[] labels, byte label) {
+		if (labels.length <= LINEAR_SEARCH_THRESHOLD) {
+			for (int i = 0; i < labels.length; i++) {
+				if (labels[i] == label) return i;
+			}
+			return -1;
+		}
+		int low = 0;
+		int high = labels.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			byte midLabel = labels[mid];
+			if (midLabel < label) {
+				low = mid + 1;
+			} else if (midLabel > label) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+}
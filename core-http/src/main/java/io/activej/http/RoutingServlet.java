@@ -16,6 +16,7 @@
 
 package io.activej.http;
 
+import io.activej.common.ApplicationSettings;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.promise.Promise;
 import org.jetbrains.annotations.Contract;
@@ -37,12 +38,18 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * This servlet allows building complex servlet trees, routing requests between them by the HTTP paths.
+ * <p>
+ * Static path segments of each node are compiled into a byte-level {@link PathSegmentTrie} on the first request
+ * after a node is modified, so plain path segments are matched over raw bytes of a request URL without being decoded.
+ * Segments which contain percent-encoded or otherwise special characters are decoded and matched as before.
  */
 public final class RoutingServlet implements AsyncServlet, WithInitializer<RoutingServlet> {
 	private static final String ROOT = "/";
 	private static final String STAR = "*";
 	private static final String WILDCARD = "/" + STAR;
 
+	private static final boolean COMPILED_ROUTES = ApplicationSettings.getBoolean(RoutingServlet.class, "compiledRoutes", true);
+
 	private static final int WS_ORDINAL = HttpMethod.values().length;
 	private static final int ANY_HTTP_ORDINAL = WS_ORDINAL + 1;
 
@@ -52,6 +59,8 @@ public final class RoutingServlet implements AsyncServlet, WithInitializer<Routi
 	private final Map<String, RoutingServlet> routes = new HashMap<>();
 	private final Map<String, RoutingServlet> parameters = new HashMap<>();
 
+	private @Nullable PathSegmentTrie<RoutingServlet> compiledRoutes;
+
 	private RoutingServlet() {
 	}
 
@@ -178,21 +187,28 @@ public final class RoutingServlet implements AsyncServlet, WithInitializer<Routi
 
 	private @Nullable Promise<HttpResponse> tryServe(HttpRequest request) throws Exception {
 		int introPosition = request.getPos();
-		String urlPart = request.pollUrlPart();
-		if (urlPart == null) {
-			throw HttpError.badRequest400("Path contains bad percent encoding");
+		int start = introPosition + 1;
+		int end = request.pollRawUrlPart();
+		byte[] url = request.getRawUrl();
+		boolean plain = end == -1 || COMPILED_ROUTES && UrlParser.isPlainUrlPart(url, start, end);
+		String urlPart = null;
+		if (!plain) {
+			urlPart = request.decodeUrlPart(start, end);
+			if (urlPart == null) {
+				throw HttpError.badRequest400("Path contains bad percent encoding");
+			}
 		}
 		Protocol protocol = request.getProtocol();
 		int ordinal = protocol == WS || protocol == WSS ? WS_ORDINAL : request.getMethod().ordinal();
 
-		if (urlPart.isEmpty()) {
+		if (plain ? end == -1 || end == start : urlPart.isEmpty()) {
 			AsyncServlet servlet = getOrDefault(rootServlets, ordinal);
 			if (servlet != null) {
 				return servlet.serveAsync(request);
 			}
 		} else {
 			int position = request.getPos();
-			RoutingServlet transit = routes.get(urlPart);
+			RoutingServlet transit = plain ? getCompiledRoutes().get(url, start, end) : routes.get(urlPart);
 			if (transit != null) {
 				Promise<HttpResponse> result = transit.tryServe(request);
 				if (result != null) {
@@ -200,6 +216,10 @@ public final class RoutingServlet implements AsyncServlet, WithInitializer<Routi
 				}
 				request.setPos(position);
 			}
+			if (!parameters.isEmpty() && urlPart == null) {
+				urlPart = request.decodeUrlPart(start, end);
+				assert urlPart != null;
+			}
 			for (Entry<String, RoutingServlet> entry : parameters.entrySet()) {
 				String key = entry.getKey();
 				request.putPathParameter(key, urlPart);
@@ -220,11 +240,30 @@ public final class RoutingServlet implements AsyncServlet, WithInitializer<Routi
 		return null;
 	}
 
+	private PathSegmentTrie<RoutingServlet> getCompiledRoutes() {
+		PathSegmentTrie<RoutingServlet> compiledRoutes = this.compiledRoutes;
+		if (compiledRoutes == null) {
+			compiledRoutes = PathSegmentTrie.compile(routes);
+			this.compiledRoutes = compiledRoutes;
+		}
+		return compiledRoutes;
+	}
+
 	private RoutingServlet makeSubtree(String path) {
 		return getOrCreateSubtree(path, (servlet, name) ->
 				name.startsWith(":") ?
 						servlet.parameters.computeIfAbsent(name.substring(1), $ -> new RoutingServlet()) :
-						servlet.routes.computeIfAbsent(name, $ -> new RoutingServlet()));
+						servlet.makeRoute(name));
+	}
+
+	private RoutingServlet makeRoute(String name) {
+		RoutingServlet route = routes.get(name);
+		if (route == null) {
+			route = new RoutingServlet();
+			routes.put(name, route);
+			compiledRoutes = null;
+		}
+		return route;
 	}
 
 	private RoutingServlet getOrCreateSubtree(@NotNull String path, BiFunction<RoutingServlet, String, @Nullable RoutingServlet> childGetter) {
@@ -287,6 +326,7 @@ public final class RoutingServlet implements AsyncServlet, WithInitializer<Routi
 					mergeInto(s1, s2);
 					return s1;
 				}));
+		into.compiledRoutes = null;
 		from.parameters.forEach((key, value) ->
 				into.parameters.merge(key, value, (s1, s2) -> {
 					mergeInto(s1, s2);
@@ -21,6 +21,7 @@ import io.activej.bytebuf.ByteBuf;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.http.loader.ResourceIsADirectoryException;
 import io.activej.http.loader.ResourceNotFoundException;
+import io.activej.http.loader.StaticCache;
 import io.activej.http.loader.StaticLoader;
 import io.activej.promise.Promise;
 import io.activej.promise.Promises;
@@ -32,20 +33,31 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static io.activej.bytebuf.ByteBufStrings.encodeAscii;
+import static io.activej.common.Checks.checkState;
 import static io.activej.http.HttpHeaderValue.ofContentType;
-import static io.activej.http.HttpHeaders.CONTENT_TYPE;
+import static io.activej.http.HttpHeaders.*;
 
 /**
  * This servlet allows return HTTP responses by HTTP paths from some predefined storage, mainly the filesystem.
+ * <p>
+ * If a storage is a {@link StaticCache}, responses carry precomputed ETags, conditional requests
+ * with a matching {@code If-None-Match} header are responded with {@code 304 Not Modified},
+ * and cached gzipped content is sent to clients that accept it.
  */
 public final class StaticServlet implements AsyncServlet, WithInitializer<StaticServlet> {
 	public static final Charset DEFAULT_TXT_ENCODING = StandardCharsets.UTF_8;
 
+	private static final String GZIP_EXTENSION = ".gz";
+	private static final HttpHeaderValue GZIP_ENCODING = HttpHeaderValue.ofBytes(encodeAscii("gzip"));
+	private static final HttpHeaderValue ACCEPT_ENCODING_VALUE = HttpHeaderValue.ofBytes(encodeAscii("Accept-Encoding"));
+
 	private final StaticLoader resourceLoader;
 	private Function<String, ContentType> contentTypeResolver = StaticServlet::getContentType;
 	private Function<HttpRequest, @Nullable String> pathMapper = HttpRequest::getRelativePath;
@@ -53,6 +65,8 @@ public final class StaticServlet implements AsyncServlet, WithInitializer<Static
 	private final Set<String> indexResources = new LinkedHashSet<>();
 
 	private @Nullable String defaultResource;
+	private boolean streaming;
+	private boolean precompressed;
 
 	private StaticServlet(StaticLoader resourceLoader) {
 		this.resourceLoader = resourceLoader;
@@ -117,6 +131,38 @@ public final class StaticServlet implements AsyncServlet, WithInitializer<Static
 		return this;
 	}
 
+	/**
+	 * Makes this servlet respond with body streams loaded by {@link StaticLoader#loadStream(String)}
+	 * instead of loading whole resources into memory.
+	 * <p>
+	 * Files streamed this way may be sent to a client without copying
+	 * (see {@link AsyncHttpServer#withZeroCopy(boolean)})
+	 */
+	public StaticServlet withStreaming() {
+		this.streaming = true;
+		return this;
+	}
+
+	/**
+	 * Makes this servlet look for a precompressed {@code .gz} sibling of a resource
+	 * if a request accepts gzip encoding. If a sibling is found, it is sent as is
+	 * with {@code Content-Encoding: gzip} header, so no compression is done per request.
+	 * Otherwise, an original resource is loaded.
+	 * <p>
+	 * A response supplier should not enable gzip compression of a body, as a body would be compressed twice.
+	 * <p>
+	 * Not supported if a storage is a {@link StaticCache}, which compresses cached resources on its own
+	 * (see {@link StaticCache#withGzip()})
+	 *
+	 * @throws IllegalStateException if a storage is a {@link StaticCache}
+	 */
+	public StaticServlet withPrecompressed() {
+		checkState(!(resourceLoader instanceof StaticCache),
+				"Precompressed resources are not supported by StaticCache, use StaticCache.withGzip() instead");
+		this.precompressed = true;
+		return this;
+	}
+
 	public static ContentType getContentType(String path) {
 		int pos = path.lastIndexOf('.');
 		if (pos == -1) {
@@ -140,6 +186,79 @@ public final class StaticServlet implements AsyncServlet, WithInitializer<Static
 		return type;
 	}
 
+	private Promise<HttpResponse> loadHttpResponse(HttpRequest request, String path, ContentType contentType) {
+		if (resourceLoader instanceof StaticCache && !streaming) {
+			return ((StaticCache) resourceLoader).loadResource(path)
+					.map(resource -> createHttpResponse(request, resource, contentType));
+		}
+		if (!precompressed || !isGzipAccepted(request.getHeader(ACCEPT_ENCODING))) {
+			return loadHttpResponse(path, contentType);
+		}
+		return loadHttpResponse(path + GZIP_EXTENSION, contentType)
+				.map(response -> response
+						.withHeader(CONTENT_ENCODING, GZIP_ENCODING)
+						.withHeader(VARY, ACCEPT_ENCODING_VALUE))
+				.then(Promise::of,
+						e -> e instanceof ResourceNotFoundException ?
+								loadHttpResponse(path, contentType)
+										.map(response -> response.withHeader(VARY, ACCEPT_ENCODING_VALUE)) :
+								Promise.ofException(e));
+	}
+
+	private Promise<HttpResponse> loadHttpResponse(String path, ContentType contentType) {
+		if (streaming) {
+			return resourceLoader.loadStream(path)
+					.map(stream -> responseSupplier.get()
+							.withBodyStream(stream)
+							.withHeader(CONTENT_TYPE, ofContentType(contentType)));
+		}
+		return resourceLoader.load(path)
+				.map(buf -> createHttpResponse(buf, contentType));
+	}
+
+	private HttpResponse createHttpResponse(HttpRequest request, StaticCache.Resource resource, ContentType contentType) {
+		byte[] content = resource.getContent();
+		String etag = resource.getETag();
+		boolean gzipped = false;
+		if (resource.getGzippedContent() != null && isGzipAccepted(request.getHeader(ACCEPT_ENCODING))) {
+			content = resource.getGzippedContent();
+			etag = resource.getGzippedETag();
+			gzipped = true;
+		}
+
+		String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+		HttpResponse response = ifNoneMatch != null && matchesETag(ifNoneMatch, etag) ?
+				createNotModifiedResponse() :
+				responseSupplier.get()
+						.withBody(content)
+						.withHeader(CONTENT_TYPE, ofContentType(contentType));
+		response.addHeader(ETAG, etag);
+		if (resource.getGzippedContent() != null) {
+			response.addHeader(VARY, ACCEPT_ENCODING_VALUE);
+		}
+		if (gzipped) {
+			response.addHeader(CONTENT_ENCODING, GZIP_ENCODING);
+		}
+		return response;
+	}
+
+	/**
+	 * Creates a {@code 304 Not Modified} response with headers of a response template,
+	 * as headers like {@code Cache-Control} or {@code Expires} should be repeated (RFC 7232, section 4.1)
+	 */
+	private HttpResponse createNotModifiedResponse() {
+		HttpResponse template = responseSupplier.get();
+		HttpResponse response = HttpResponse.ofCode(304);
+		for (Map.Entry<HttpHeader, HttpHeaderValue> header : template.getHeaders()) {
+			HttpHeader name = header.getKey();
+			if (!name.equals(CONTENT_LENGTH) && !name.equals(TRANSFER_ENCODING) && !name.equals(CONTENT_ENCODING)) {
+				response.addHeader(name, header.getValue());
+			}
+		}
+		template.recycle();
+		return response;
+	}
+
 	private HttpResponse createHttpResponse(ByteBuf buf, ContentType contentType) {
 		return responseSupplier.get()
 				.withBody(buf)
@@ -153,36 +272,80 @@ public final class StaticServlet implements AsyncServlet, WithInitializer<Static
 		ContentType contentType = contentTypeResolver.apply(mappedPath);
 		return Promise.complete()
 				.then(() -> (mappedPath.endsWith("/") || mappedPath.isEmpty()) ?
-						tryLoadIndexResource(mappedPath) :
-						resourceLoader.load(mappedPath)
-								.map(byteBuf -> createHttpResponse(byteBuf, contentType))
+						tryLoadIndexResource(request, mappedPath) :
+						loadHttpResponse(request, mappedPath, contentType)
 								.then((value, e) -> {
 									if (e instanceof ResourceIsADirectoryException) {
-										return tryLoadIndexResource(mappedPath);
+										return tryLoadIndexResource(request, mappedPath);
 									} else {
 										return Promise.of(value, e);
 									}
 								}))
 				.then(Promise::of,
 						e -> e instanceof ResourceNotFoundException ?
-								tryLoadDefaultResource() :
+								tryLoadDefaultResource(request) :
 								Promise.ofException(HttpError.ofCode(400, e)));
 	}
 
-	private @NotNull Promise<HttpResponse> tryLoadIndexResource(String mappedPath) {
+	private @NotNull Promise<HttpResponse> tryLoadIndexResource(HttpRequest request, String mappedPath) {
 		String dirPath = mappedPath.endsWith("/") || mappedPath.isEmpty() ? mappedPath : (mappedPath + '/');
 		return Promises.first(
 						indexResources.stream()
 								.map(indexResource -> (AsyncSupplier<HttpResponse>) () ->
-										resourceLoader.load(dirPath + indexResource)
-												.map(byteBuf -> createHttpResponse(byteBuf, contentTypeResolver.apply(indexResource)))))
+										loadHttpResponse(request, dirPath + indexResource, contentTypeResolver.apply(indexResource))))
 				.mapException(e -> new ResourceNotFoundException("Could not find '" + mappedPath + '\'', e));
 	}
 
-	private @NotNull Promise<? extends HttpResponse> tryLoadDefaultResource() {
+	private @NotNull Promise<? extends HttpResponse> tryLoadDefaultResource(HttpRequest request) {
 		return defaultResource != null ?
-				resourceLoader.load(defaultResource)
-						.map(buf -> createHttpResponse(buf, contentTypeResolver.apply(defaultResource))) :
+				loadHttpResponse(request, defaultResource, contentTypeResolver.apply(defaultResource)) :
 				Promise.ofException(HttpError.notFound404());
 	}
+
+	/**
+	 * Checks whether gzip coding is acceptable according to a value of {@code Accept-Encoding} header.
+	 * An explicit {@code gzip} coding takes precedence over {@code *}, a coding with {@code q=0} is refused
+	 */
+	static boolean isGzipAccepted(@Nullable String acceptEncoding) {
+		if (acceptEncoding == null) return false;
+		double gzipQuality = -1;
+		double anyQuality = -1;
+		for (String coding : acceptEncoding.split(",")) {
+			int semicolon = coding.indexOf(';');
+			String name = (semicolon == -1 ? coding : coding.substring(0, semicolon)).trim();
+			if (name.equalsIgnoreCase("gzip")) {
+				gzipQuality = Math.max(gzipQuality, quality(coding, semicolon));
+			} else if (name.equals("*")) {
+				anyQuality = Math.max(anyQuality, quality(coding, semicolon));
+			}
+		}
+		return gzipQuality != -1 ? gzipQuality > 0 : anyQuality > 0;
+	}
+
+	private static double quality(String coding, int semicolon) {
+		if (semicolon == -1) return 1;
+		for (String parameter : coding.substring(semicolon + 1).split(";")) {
+			parameter = parameter.trim();
+			if (parameter.length() < 2 || Character.toLowerCase(parameter.charAt(0)) != 'q' || parameter.charAt(1) != '=') {
+				continue;
+			}
+			try {
+				double quality = Double.parseDouble(parameter.substring(2).trim());
+				return quality >= 0 && quality <= 1 ? quality : 0;
+			} catch (NumberFormatException e) {
+				return 0;
+			}
+		}
+		return 1;
+	}
+
+	static boolean matchesETag(String ifNoneMatch, String etag) {
+		for (String tag : ifNoneMatch.split(",")) {
+			tag = tag.trim();
+			if (tag.equals("*")) return true;
+			if (tag.startsWith("W/")) tag = tag.substring(2);
+			if (tag.equals(etag)) return true;
+		}
+		return false;
+	}
 }
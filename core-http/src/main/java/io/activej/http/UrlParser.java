@@ -481,6 +481,46 @@ public final class UrlParser {
 		}
 	}
 
+	/**
+	 * Advances a position past the next path segment, same as {@link #pollUrlPart()} does,
+	 * but does not decode a segment. A segment starts right after a previous position.
+	 *
+	 * @return an end of a polled segment or -1 if there are no more segments in a path
+	 */
+	int pollRawUrlPart() {
+		if (pos < pathEnd) {
+			int nextSlash = indexOf(SLASH, pos + 1);
+			pos = nextSlash > pathEnd ? pathEnd : (short) nextSlash;
+			if (no(pos)) {
+				pos = limit;
+				return pathEnd;
+			}
+			return pos;
+		}
+		return -1;
+	}
+
+	byte[] getRawUrl() {
+		return raw;
+	}
+
+	@Nullable String decodeUrlPart(int start, int end) {
+		return urlParse(raw, start, end);
+	}
+
+	/**
+	 * Checks whether a raw path segment consists only of printable ASCII characters
+	 * and would not change when decoded
+	 */
+	static boolean isPlainUrlPart(byte[] url, int start, int end) {
+		for (int i = start; i < end; i++) {
+			byte c = url[i];
+			if (c <= ' ' || c == '%' || c == '+' || c == '&' || c == '#' || c == 0x7F)
+				return false;
+		}
+		return true;
+	}
+
 	private boolean isEqual(@NotNull String key, int start, int end) {
 		if (end - start != key.length()) {
 			return false;
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http.loader;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.MemSize;
+import io.activej.common.initializer.WithInitializer;
+import io.activej.common.time.CurrentTimeProvider;
+import io.activej.http.GzipProcessorUtils;
+import io.activej.jmx.api.ConcurrentJmxBean;
+import io.activej.jmx.api.attribute.JmxAttribute;
+import io.activej.jmx.api.attribute.JmxOperation;
+import io.activej.jmx.api.attribute.JmxParameter;
+import io.activej.promise.Promise;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.zip.CRC32C;
+
+import static io.activej.bytebuf.ByteBuf.wrapForReading;
+import static io.activej.common.Checks.checkArgument;
+
+/**
+ * A {@link StaticLoader} which keeps loaded resources in memory, bounded by a total size of resources.
+ * <p>
+ * Resources are evicted according to W-TinyLFU policy, so that resources that are rarely requested
+ * do not push out popular ones. Each cached resource has a precomputed strong ETag
+ * and, optionally, a gzipped variant of its content,
+ * which are used by {@link io.activej.http.StaticServlet StaticServlet} to respond
+ * with {@code 304 Not Modified} and to send compressed content without compressing it per request.
+ * <p>
+ * Missing resources are cached too, but only for a limited time.
+ * <p>
+ * This class is thread-safe, so a single cache may be shared between worker eventloops.
+ */
+public final class StaticCache implements StaticLoader, ConcurrentJmxBean, WithInitializer<StaticCache> {
+	public static final Duration DEFAULT_NOT_FOUND_TTL = Duration.ofSeconds(10);
+	public static final MemSize DEFAULT_GZIP_MIN_SIZE = MemSize.bytes(256);
+
+	private static final int AVERAGE_RESOURCE_SIZE = 4096;
+	private static final int MAX_EXPECTED_ENTRIES = 1 << 24;
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private final StaticLoader resourceLoader;
+	private final TinyLfuCache<String, Entry> cache;
+
+	private CurrentTimeProvider now = CurrentTimeProvider.ofSystem();
+	private long notFoundTtlMillis = DEFAULT_NOT_FOUND_TTL.toMillis();
+	private boolean gzip;
+	private int gzipMinSize = DEFAULT_GZIP_MIN_SIZE.toInt();
+
+	// region stats
+	private long hits;
+	private long misses;
+	private long notFoundHits;
+	// endregion
+
+	private StaticCache(StaticLoader resourceLoader, long maxSize) {
+		this.resourceLoader = resourceLoader;
+		this.cache = new TinyLfuCache<>(maxSize,
+				(int) Math.min(MAX_EXPECTED_ENTRIES, Math.max(1, maxSize / AVERAGE_RESOURCE_SIZE)));
+	}
+
+	public static StaticCache create(StaticLoader resourceLoader, MemSize maxSize) {
+		checkArgument(maxSize.toLong() > 0, "Max size of a cache should be positive");
+		return new StaticCache(resourceLoader, maxSize.toLong());
+	}
+
+	/**
+	 * Makes a cache keep gzipped variants of resources that are larger than {@code minSize},
+	 * if gzipped content is smaller than an original one
+	 */
+	public StaticCache withGzip(MemSize minSize) {
+		this.gzip = true;
+		this.gzipMinSize = minSize.toInt();
+		return this;
+	}
+
+	public StaticCache withGzip() {
+		return withGzip(DEFAULT_GZIP_MIN_SIZE);
+	}
+
+	/**
+	 * Sets for how long a resource that could not be found is cached as missing.
+	 * A zero TTL disables caching of missing resources
+	 */
+	public StaticCache withNotFoundTtl(Duration notFoundTtl) {
+		checkArgument(!notFoundTtl.isNegative(), "TTL cannot be negative");
+		this.notFoundTtlMillis = notFoundTtl.toMillis();
+		return this;
+	}
+
+	public StaticCache withCurrentTimeProvider(CurrentTimeProvider now) {
+		this.now = now;
+		return this;
+	}
+
+	@Override
+	public Promise<ByteBuf> load(String path) {
+		return loadResource(path).map(resource -> wrapForReading(resource.content));
+	}
+
+	/**
+	 * Loads a resource along with its ETag and gzipped content, if any
+	 */
+	public Promise<Resource> loadResource(String path) {
+		Entry entry;
+		synchronized (this) {
+			entry = cache.get(path);
+			if (entry != null) {
+				if (entry.resource != null) {
+					hits++;
+					return Promise.of(entry.resource);
+				}
+				if (now.currentTimeMillis() < entry.expirationTimestamp) {
+					notFoundHits++;
+					return Promise.ofException(new ResourceNotFoundException("Could not find '" + path + '\''));
+				}
+				cache.remove(path);
+			}
+			misses++;
+		}
+		return resourceLoader.load(path)
+				.map(buf -> {
+					Resource resource = createResource(buf);
+					synchronized (this) {
+						cache.put(path, new Entry(resource, 0), weigh(path, resource));
+					}
+					return resource;
+				})
+				.whenException(ResourceNotFoundException.class, e -> {
+					if (notFoundTtlMillis == 0) return;
+					synchronized (this) {
+						cache.put(path, new Entry(null, now.currentTimeMillis() + notFoundTtlMillis), weigh(path, null));
+					}
+				});
+	}
+
+	private Resource createResource(ByteBuf buf) {
+		byte[] content = buf.asArray();
+		CRC32C crc = new CRC32C();
+		crc.update(content);
+		String tag = Integer.toHexString(content.length) + '-' + Long.toHexString(crc.getValue());
+		byte[] gzipped = null;
+		if (gzip && content.length >= gzipMinSize) {
+			byte[] compressed = GzipProcessorUtils.toGzip(ByteBuf.wrapForReading(content)).asArray();
+			if (compressed.length < content.length) {
+				gzipped = compressed;
+			}
+		}
+		return new Resource(content, '"' + tag + '"', gzipped, gzipped != null ? '"' + tag + "-gz\"" : null);
+	}
+
+	private static long weigh(String path, @Nullable Resource resource) {
+		long weight = ENTRY_OVERHEAD + 2L * path.length();
+		if (resource != null) {
+			weight += resource.content.length + 2L * resource.etag.length();
+			if (resource.gzipped != null) {
+				weight += resource.gzipped.length + 2L * resource.etag.length();
+			}
+		}
+		return weight;
+	}
+
+	/**
+	 * A cached resource, its content must not be modified
+	 */
+	public static final class Resource {
+		private final byte[] content;
+		private final String etag;
+		private final byte @Nullable [] gzipped;
+		private final @Nullable String gzippedETag;
+
+		Resource(byte[] content, String etag, byte @Nullable [] gzipped, @Nullable String gzippedETag) {
+			this.content = content;
+			this.etag = etag;
+			this.gzipped = gzipped;
+			this.gzippedETag = gzippedETag;
+		}
+
+		public byte[] getContent() {
+			return content;
+		}
+
+		public byte @Nullable [] getGzippedContent() {
+			return gzipped;
+		}
+
+		/**
+		 * Returns a strong entity tag of content, including quotes
+		 */
+		public String getETag() {
+			return etag;
+		}
+
+		/**
+		 * Returns a strong entity tag of gzipped content, which differs from a tag of original content
+		 */
+		public @Nullable String getGzippedETag() {
+			return gzippedETag;
+		}
+	}
+
+	private static final class Entry {
+		final @Nullable Resource resource;
+		final long expirationTimestamp;
+
+		Entry(@Nullable Resource resource, long expirationTimestamp) {
+			this.resource = resource;
+			this.expirationTimestamp = expirationTimestamp;
+		}
+	}
+
+	// region JMX
+	@JmxOperation
+	public synchronized void invalidateAll() {
+		cache.clear();
+	}
+
+	@JmxOperation
+	public synchronized void invalidate(@JmxParameter("path") String path) {
+		cache.remove(path);
+	}
+
+	@JmxAttribute
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	@JmxAttribute
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	@JmxAttribute
+	public synchronized long getNotFoundHits() {
+		return notFoundHits;
+	}
+
+	@JmxAttribute
+	public synchronized double getHitRate() {
+		long requests = hits + notFoundHits + misses;
+		return requests == 0 ? 0 : (double) (hits + notFoundHits) / requests;
+	}
+
+	@JmxAttribute(description = "resources evicted to free space for other resources")
+	public synchronized long getEvictions() {
+		return cache.getEvictions();
+	}
+
+	@JmxAttribute(description = "resources that have not been admitted into a cache, as they are requested less often than cached ones")
+	public synchronized long getRejections() {
+		return cache.getRejections();
+	}
+
+	@JmxAttribute
+	public synchronized int getEntries() {
+		return cache.size();
+	}
+
+	@JmxAttribute(description = "total size of cached resources in bytes")
+	public synchronized long getSize() {
+		return cache.weight();
+	}
+	// endregion
+}
@@ -17,6 +17,8 @@
 package io.activej.http.loader;
 
 import io.activej.bytebuf.ByteBuf;
+import io.activej.common.MemSize;
+import io.activej.csp.ChannelSupplier;
 import io.activej.promise.Promise;
 import org.jetbrains.annotations.NotNull;
 
@@ -36,14 +38,49 @@ public interface StaticLoader {
 
 	Promise<ByteBuf> load(String path);
 
+	/**
+	 * Loads a resource as a stream of bufs.
+	 * <p>
+	 * By default, a whole resource is loaded by {@link #load(String)},
+	 * a loader of files supplies a {@link io.activej.csp.file.ChannelFileReader ChannelFileReader} instead,
+	 * so that a file may be sent without being read into memory
+	 */
+	default Promise<ChannelSupplier<ByteBuf>> loadStream(String path) {
+		return load(path).map(buf -> ChannelSupplier.of(buf));
+	}
+
 	default StaticLoader filter(Predicate<String> predicate) {
-		return path -> predicate.test(path) ?
-				load(path) :
-				Promise.ofException(new ResourceNotFoundException("Resource '" + path + "' has been filtered out"));
+		StaticLoader self = this;
+		return new StaticLoader() {
+			@Override
+			public Promise<ByteBuf> load(String path) {
+				return predicate.test(path) ? self.load(path) : filteredOut(path);
+			}
+
+			@Override
+			public Promise<ChannelSupplier<ByteBuf>> loadStream(String path) {
+				return predicate.test(path) ? self.loadStream(path) : filteredOut(path);
+			}
+
+			private <T> Promise<T> filteredOut(String path) {
+				return Promise.ofException(new ResourceNotFoundException("Resource '" + path + "' has been filtered out"));
+			}
+		};
 	}
 
 	default StaticLoader map(UnaryOperator<String> fn) {
-		return path -> this.load(fn.apply(path));
+		StaticLoader self = this;
+		return new StaticLoader() {
+			@Override
+			public Promise<ByteBuf> load(String path) {
+				return self.load(fn.apply(path));
+			}
+
+			@Override
+			public Promise<ChannelSupplier<ByteBuf>> loadStream(String path) {
+				return self.loadStream(fn.apply(path));
+			}
+		};
 	}
 
 	default StaticLoader subdirectory(String subdirectory) {
@@ -59,6 +96,15 @@ public interface StaticLoader {
 		return cacheOf(this, map);
 	}
 
+	/**
+	 * Returns a cache of resources bounded by a total size of resources
+	 *
+	 * @see StaticCache
+	 */
+	default StaticCache cached(MemSize maxSize) {
+		return StaticCache.create(this, maxSize);
+	}
+
 	static StaticLoader cacheOf(StaticLoader loader) {
 		return cacheOf(loader, new HashMap<>());
 	}
@@ -18,6 +18,7 @@ package io.activej.http.loader;
 
 import io.activej.bytebuf.ByteBuf;
 import io.activej.bytebuf.ByteBufs;
+import io.activej.csp.ChannelSupplier;
 import io.activej.csp.file.ChannelFileReader;
 import io.activej.promise.Promise;
 
@@ -40,6 +41,12 @@ class StaticLoaderFileReader implements StaticLoader {
 
 	@Override
 	public Promise<ByteBuf> load(String path) {
+		return loadStream(path)
+				.then(supplier -> supplier.toCollector(ByteBufs.collector()));
+	}
+
+	@Override
+	public Promise<ChannelSupplier<ByteBuf>> loadStream(String path) {
 		Path file = root.resolve(path).normalize();
 
 		if (!file.startsWith(root)) {
@@ -57,7 +64,6 @@ class StaticLoaderFileReader implements StaticLoader {
 						throw new ResourceNotFoundException("Could not find '" + path + '\'');
 					}
 				})
-				.then(() -> ChannelFileReader.open(executor, file))
-				.then(cfr -> cfr.toCollector(ByteBufs.collector()));
+				.then(() -> ChannelFileReader.open(executor, file));
 	}
 }
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http.loader;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache bounded by a total weight of its entries, which uses W-TinyLFU eviction policy.
+ * <p>
+ * New entries are put into a small LRU window. Entries evicted from the window are candidates
+ * for a main space, which is a segmented LRU of a probation and a protected segments.
+ * When the main space is full, a candidate is admitted only if it has been accessed more often
+ * than a victim of the probation segment, according to a {@link FrequencySketch}.
+ * This keeps one-hit wonders from flushing popular entries out of a cache.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class TinyLfuCache<K, V> {
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+
+	private static final double WINDOW_RATIO = 0.01;
+	private static final double PROTECTED_RATIO = 0.8;
+
+	private final Map<K, Node<K, V>> data = new HashMap<>();
+	private final FrequencySketch sketch;
+
+	private final long maxWeight;
+	private final long maxWindowWeight;
+	private final long maxProtectedWeight;
+
+	private final Queue<K, V> window = new Queue<>();
+	private final Queue<K, V> probation = new Queue<>();
+	private final Queue<K, V> protectedQueue = new Queue<>();
+
+	private long evictions;
+	private long rejections;
+
+	TinyLfuCache(long maxWeight, int expectedEntries) {
+		this.maxWeight = maxWeight;
+		this.maxWindowWeight = Math.max(1, (long) (maxWeight * WINDOW_RATIO));
+		this.maxProtectedWeight = (long) ((maxWeight - maxWindowWeight) * PROTECTED_RATIO);
+		this.sketch = new FrequencySketch(expectedEntries);
+	}
+
+	/**
+	 * Returns a value and records an access to a key, whether a value is present or not
+	 */
+	@Nullable V get(K key) {
+		sketch.increment(key);
+		Node<K, V> node = data.get(key);
+		if (node == null) return null;
+		onAccess(node);
+		return node.value;
+	}
+
+	/**
+	 * Returns a value without recording an access
+	 */
+	@Nullable V peek(K key) {
+		Node<K, V> node = data.get(key);
+		return node != null ? node.value : null;
+	}
+
+	/**
+	 * Puts a value into a cache, which may evict other entries or even a value itself.
+	 * A value that is heavier than a whole cache is not put
+	 */
+	void put(K key, V value, long weight) {
+		Node<K, V> node = data.get(key);
+		if (node != null) {
+			queueOf(node).weight += weight - node.weight;
+			node.value = value;
+			node.weight = weight;
+			onAccess(node);
+		} else {
+			if (weight > maxWeight) {
+				rejections++;
+				return;
+			}
+			node = new Node<>(key, value, weight);
+			data.put(key, node);
+			node.queue = WINDOW;
+			window.addLast(node);
+		}
+		evict();
+	}
+
+	@Nullable V remove(K key) {
+		Node<K, V> node = data.remove(key);
+		if (node == null) return null;
+		queueOf(node).remove(node);
+		return node.value;
+	}
+
+	void clear() {
+		data.clear();
+		window.clear();
+		probation.clear();
+		protectedQueue.clear();
+	}
+
+	int size() {
+		return data.size();
+	}
+
+	long weight() {
+		return window.weight + probation.weight + protectedQueue.weight;
+	}
+
+	long getEvictions() {
+		return evictions;
+	}
+
+	long getRejections() {
+		return rejections;
+	}
+
+	private void onAccess(Node<K, V> node) {
+		switch (node.queue) {
+			case WINDOW -> window.moveToLast(node);
+			case PROBATION -> {
+				probation.remove(node);
+				node.queue = PROTECTED;
+				protectedQueue.addLast(node);
+				while (protectedQueue.weight > maxProtectedWeight && protectedQueue.head != protectedQueue.tail) {
+					Node<K, V> demoted = protectedQueue.head;
+					protectedQueue.remove(demoted);
+					demoted.queue = PROBATION;
+					probation.addLast(demoted);
+				}
+			}
+			case PROTECTED -> protectedQueue.moveToLast(node);
+			default -> throw new AssertionError();
+		}
+	}
+
+	private void evict() {
+		Node<K, V> firstCandidate = null;
+		while (window.weight > maxWindowWeight && window.head != null) {
+			Node<K, V> candidate = window.head;
+			window.remove(candidate);
+			candidate.queue = PROBATION;
+			probation.addLast(candidate);
+			if (firstCandidate == null) firstCandidate = candidate;
+		}
+
+		// candidates are the most recent entries of probation segment, victims are the oldest ones
+		Node<K, V> candidate = firstCandidate;
+		while (weight() > maxWeight) {
+			Node<K, V> victim = probation.head;
+			if (candidate == null || victim == null || victim == candidate) {
+				Node<K, V> node = victim != null ? victim : protectedQueue.head != null ? protectedQueue.head : window.head;
+				assert node != null;
+				if (node == candidate) candidate = candidate.next;
+				removeNode(node);
+				evictions++;
+				continue;
+			}
+			if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+				candidate = candidate.next;
+				removeNode(victim);
+				evictions++;
+			} else {
+				Node<K, V> rejected = candidate;
+				candidate = candidate.next;
+				removeNode(rejected);
+				rejections++;
+			}
+		}
+	}
+
+	private void removeNode(Node<K, V> node) {
+		data.remove(node.key);
+		queueOf(node).remove(node);
+	}
+
+	private Queue<K, V> queueOf(Node<K, V> node) {
+		return switch (node.queue) {
+			case WINDOW -> window;
+			case PROBATION -> probation;
+			case PROTECTED -> protectedQueue;
+			default -> throw new AssertionError();
+		};
+	}
+
+	private static final class Node<K, V> {
+		final K key;
+		V value;
+		long weight;
+		int queue;
+
+		@Nullable Node<K, V> prev;
+		@Nullable Node<K, V> next;
+
+		Node(K key, V value, long weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	private static final class Queue<K, V> {
+		@Nullable Node<K, V> head;
+		@Nullable Node<K, V> tail;
+		long weight;
+
+		void addLast(Node<K, V> node) {
+			node.prev = tail;
+			node.next = null;
+			if (tail == null) {
+				head = node;
+			} else {
+				tail.next = node;
+			}
+			tail = node;
+			weight += node.weight;
+		}
+
+		void remove(Node<K, V> node) {
+			if (node.prev == null) {
+				head = node.next;
+			} else {
+				node.prev.next = node.next;
+			}
+			if (node.next == null) {
+				tail = node.prev;
+			} else {
+				node.next.prev = node.prev;
+			}
+			node.prev = null;
+			node.next = null;
+			weight -= node.weight;
+		}
+
+		void moveToLast(Node<K, V> node) {
+			if (node == tail) return;
+			remove(node);
+			addLast(node);
+		}
+
+		void clear() {
+			head = null;
+			tail = null;
+			weight = 0;
+		}
+	}
+}
@@ -18,6 +18,8 @@ package io.activej.http.session;
 
 import io.activej.common.initializer.WithInitializer;
 import io.activej.common.time.CurrentTimeProvider;
+import io.activej.eventloop.Eventloop;
+import io.activej.eventloop.schedule.ScheduledRunnable;
 import io.activej.promise.Promise;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,16 +27,48 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+import static io.activej.common.Checks.checkArgument;
+
 /**
  * A simple reference implementation of the session storage over a hash map.
+ * <p>
+ * Sessions are kept in an order of their last access, so that expired sessions
+ * are always at the head of that order and may be removed without scanning the whole store.
+ * Expired sessions are removed on access, a few of them on each save and,
+ * if an expiration check is enabled, in the background by bounded batches,
+ * one batch per eventloop tick.
+ * <p>
+ * A store may be bounded by a number of sessions, the least recently accessed sessions
+ * are evicted when a store is full.
+ * <p>
+ * This class is not thread-safe.
  */
 public final class SessionStoreInMemory<T> implements SessionStore<T>, WithInitializer<SessionStoreInMemory<T>> {
-	private final Map<String, TWithTimestamp> store = new HashMap<>();
+	public static final Duration DEFAULT_EXPIRATION_CHECK_INTERVAL = Duration.ofSeconds(1);
+	public static final int DEFAULT_MAX_EXPIRATIONS_PER_CHECK = 1000;
+
+	private static final int EXPIRATIONS_PER_SAVE = 2;
+
+	private final Map<String, Node> store = new HashMap<>();
+	private @Nullable Node head;
+	private @Nullable Node tail;
 
 	private @Nullable Duration sessionLifetime;
+	private long sessionLifetimeMillis;
+	private int maxSize = Integer.MAX_VALUE;
+
+	private @Nullable Eventloop eventloop;
+	private long expirationCheckIntervalMillis = DEFAULT_EXPIRATION_CHECK_INTERVAL.toMillis();
+	private int maxExpirationsPerCheck = DEFAULT_MAX_EXPIRATIONS_PER_CHECK;
+	private @Nullable ScheduledRunnable expirationCheck;
 
 	CurrentTimeProvider now = CurrentTimeProvider.ofSystem();
 
+	// region stats
+	private long expiredSessions;
+	private long evictedSessions;
+	// endregion
+
 	private SessionStoreInMemory() {
 	}
 
@@ -43,34 +77,94 @@ public final class SessionStoreInMemory<T> implements SessionStore<T>, WithIniti
 	}
 
 	public SessionStoreInMemory<T> withLifetime(Duration sessionLifetime) {
+		checkArgument(!sessionLifetime.isNegative(), "Session lifetime cannot be negative");
 		this.sessionLifetime = sessionLifetime;
+		this.sessionLifetimeMillis = sessionLifetime.toMillis();
+		return this;
+	}
+
+	/**
+	 * Bounds a store by a number of sessions, the least recently accessed sessions are evicted
+	 * when a store is full
+	 */
+	public SessionStoreInMemory<T> withMaxSize(int maxSize) {
+		checkArgument(maxSize > 0, "Max size should be positive");
+		this.maxSize = maxSize;
+		return this;
+	}
+
+	/**
+	 * Enables removal of expired sessions in the background.
+	 * <p>
+	 * A store should be used only from within the thread of a given eventloop.
+	 */
+	public SessionStoreInMemory<T> withExpirationCheck(Eventloop eventloop) {
+		this.eventloop = eventloop;
+		return this;
+	}
+
+	public SessionStoreInMemory<T> withExpirationCheck(Eventloop eventloop, Duration interval) {
+		checkArgument(interval.toMillis() > 0, "Expiration check interval should be positive");
+		this.expirationCheckIntervalMillis = interval.toMillis();
+		return withExpirationCheck(eventloop);
+	}
+
+	/**
+	 * Sets a maximum number of sessions removed within a single eventloop tick.
+	 * If there are more expired sessions, the rest of them are removed on the next ticks
+	 */
+	public SessionStoreInMemory<T> withMaxExpirationsPerCheck(int maxExpirationsPerCheck) {
+		checkArgument(maxExpirationsPerCheck > 0, "Max expirations per check should be positive");
+		this.maxExpirationsPerCheck = maxExpirationsPerCheck;
 		return this;
 	}
 
 	@Override
 	public Promise<Void> save(String sessionId, T sessionObject) {
-		store.put(sessionId, new TWithTimestamp(sessionObject, now.currentTimeMillis()));
+		long timestamp = now.currentTimeMillis();
+		Node node = store.get(sessionId);
+		if (node != null) {
+			node.value = sessionObject;
+			node.timestamp = timestamp;
+			moveToTail(node);
+		} else {
+			node = new Node(sessionId, sessionObject, timestamp);
+			store.put(sessionId, node);
+			addToTail(node);
+			while (store.size() > maxSize) {
+				removeNode(head);
+				evictedSessions++;
+			}
+		}
+		expireSessions(timestamp, EXPIRATIONS_PER_SAVE);
+		scheduleExpirationCheck();
 		return Promise.complete();
 	}
 
 	@Override
 	public Promise<@Nullable T> get(String sessionId) {
 		long timestamp = now.currentTimeMillis();
-		TWithTimestamp tWithTimestamp = store.get(sessionId);
-		if (tWithTimestamp == null) {
+		Node node = store.get(sessionId);
+		if (node == null) {
 			return Promise.of(null);
 		}
-		if (sessionLifetime != null && tWithTimestamp.timestamp + sessionLifetime.toMillis() < timestamp) {
-			store.remove(sessionId);
+		if (isExpired(node, timestamp)) {
+			removeNode(node);
+			expiredSessions++;
 			return Promise.of(null);
 		}
-		tWithTimestamp.timestamp = timestamp;
-		return Promise.of(tWithTimestamp.value);
+		node.timestamp = timestamp;
+		moveToTail(node);
+		//noinspection unchecked
+		return Promise.of((T) node.value);
 	}
 
 	@Override
 	public Promise<Void> remove(String sessionId) {
-		store.remove(sessionId);
+		Node node = store.get(sessionId);
+		if (node != null) {
+			removeNode(node);
+		}
 		return Promise.complete();
 	}
 
@@ -79,11 +173,105 @@ public final class SessionStoreInMemory<T> implements SessionStore<T>, WithIniti
 		return sessionLifetime;
 	}
 
-	private class TWithTimestamp {
-		final T value;
+	/**
+	 * Removes at most {@code maxExpirations} expired sessions
+	 *
+	 * @return a number of removed sessions
+	 */
+	public int expireSessions(int maxExpirations) {
+		return expireSessions(now.currentTimeMillis(), maxExpirations);
+	}
+
+	private int expireSessions(long timestamp, int maxExpirations) {
+		if (sessionLifetime == null) return 0;
+		int expired = 0;
+		while (expired < maxExpirations && head != null && isExpired(head, timestamp)) {
+			removeNode(head);
+			expired++;
+		}
+		expiredSessions += expired;
+		return expired;
+	}
+
+	private boolean isExpired(Node node, long timestamp) {
+		return sessionLifetime != null && node.timestamp + sessionLifetimeMillis < timestamp;
+	}
+
+	private void scheduleExpirationCheck() {
+		if (eventloop == null || sessionLifetime == null || expirationCheck != null) return;
+		expirationCheck = eventloop.delayBackground(expirationCheckIntervalMillis, this::checkExpiredSessions);
+	}
+
+	private void checkExpiredSessions() {
+		assert eventloop != null;
+		expirationCheck = null;
+		if (expireSessions(maxExpirationsPerCheck) == maxExpirationsPerCheck) {
+			// there may be more expired sessions, continue on the next tick
+			expirationCheck = eventloop.delayBackground(0L, this::checkExpiredSessions);
+		} else if (!store.isEmpty()) {
+			scheduleExpirationCheck();
+		}
+	}
+
+	private void addToTail(Node node) {
+		node.prev = tail;
+		node.next = null;
+		if (tail == null) {
+			head = node;
+		} else {
+			tail.next = node;
+		}
+		tail = node;
+	}
+
+	private void moveToTail(Node node) {
+		if (node == tail) return;
+		unlink(node);
+		addToTail(node);
+	}
+
+	private void removeNode(Node node) {
+		store.remove(node.sessionId);
+		unlink(node);
+	}
+
+	private void unlink(Node node) {
+		if (node.prev == null) {
+			head = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+		if (node.next == null) {
+			tail = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+		node.prev = null;
+		node.next = null;
+	}
+
+	public int getSize() {
+		return store.size();
+	}
+
+	public long getExpiredSessions() {
+		return expiredSessions;
+	}
+
+	public long getEvictedSessions() {
+		return evictedSessions;
+	}
+
+	private static final class Node {
+		final String sessionId;
+		Object value;
 		long timestamp;
 
-		public TWithTimestamp(T value, long timestamp) {
+		@Nullable Node prev;
+		@Nullable Node next;
+
+		Node(String sessionId, Object value, long timestamp) {
+			this.sessionId = sessionId;
 			this.value = value;
 			this.timestamp = timestamp;
 		}
@@ -28,6 +28,7 @@ import io.activej.csp.ChannelSupplier;
 import io.activej.csp.dsl.WithChannelTransformer;
 import io.activej.csp.process.AbstractCommunicatingProcess;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
@@ -41,6 +42,9 @@ import static io.activej.common.Checks.checkState;
  * <p>
  * It is used in HTTP when {@link io.activej.http.HttpMessage#setBodyGzipCompression HttpMessage#setBodyGzipCompression}
  * method is used.
+ * <p>
+ * Unless a custom deflater is set, a deflater is taken from a {@link ZlibPool} once a process starts
+ * and is returned to the pool once a process completes successfully.
  */
 public final class BufsConsumerGzipDeflater extends AbstractCommunicatingProcess
 		implements WithChannelTransformer<BufsConsumerGzipDeflater, ByteBuf, ByteBuf>,
@@ -52,7 +56,9 @@ public final class BufsConsumerGzipDeflater extends AbstractCommunicatingProcess
 
 	private final CRC32 crc32 = new CRC32();
 
-	private Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+	private @Nullable Deflater deflater;
+	private boolean pooled;
+	private int compressionLevel = ZlibPool.COMPRESSION_LEVEL;
 	private int maxBufSize = DEFAULT_MAX_BUF_SIZE;
 	private ChannelSupplier<ByteBuf> input;
 	private ChannelConsumer<ByteBuf> output;
@@ -70,6 +76,16 @@ public final class BufsConsumerGzipDeflater extends AbstractCommunicatingProcess
 		return this;
 	}
 
+	/**
+	 * Sets a compression level of a pooled deflater. Has no effect if a custom deflater is set
+	 */
+	public BufsConsumerGzipDeflater withCompressionLevel(int compressionLevel) {
+		checkArgument(compressionLevel == Deflater.DEFAULT_COMPRESSION ||
+				compressionLevel >= Deflater.NO_COMPRESSION && compressionLevel <= Deflater.BEST_COMPRESSION, "Invalid compression level");
+		this.compressionLevel = compressionLevel;
+		return this;
+	}
+
 	public BufsConsumerGzipDeflater withMaxBufSize(MemSize maxBufSize) {
 		checkArgument(maxBufSize.compareTo(MemSize.ZERO) > 0, "Cannot use buf size that is less than 0");
 		this.maxBufSize = maxBufSize.toInt();
@@ -102,6 +118,19 @@ public final class BufsConsumerGzipDeflater extends AbstractCommunicatingProcess
 	protected void beforeProcess() {
 		checkState(input != null, "Input was not set");
 		checkState(output != null, "Output was not set");
+		if (deflater == null) {
+			deflater = ZlibPool.takeDeflater(compressionLevel);
+			pooled = true;
+		}
+	}
+
+	@Override
+	protected void afterProcess(@Nullable Exception e) {
+		if (pooled && e == null) {
+			//noinspection ConstantConditions
+			ZlibPool.returnDeflater(deflater);
+			deflater = null;
+		}
 	}
 
 	@Override
@@ -154,7 +183,9 @@ public final class BufsConsumerGzipDeflater extends AbstractCommunicatingProcess
 
 	@Override
 	protected void doClose(Exception e) {
-		deflater.end();
+		if (deflater != null) {
+			deflater.end();
+		}
 		input.closeEx(e);
 		output.closeEx(e);
 	}
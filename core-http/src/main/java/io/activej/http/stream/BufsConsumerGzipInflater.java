@@ -33,6 +33,7 @@ import io.activej.csp.dsl.WithChannelTransformer;
 import io.activej.csp.process.AbstractCommunicatingProcess;
 import io.activej.promise.Promise;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.zip.CRC32;
 import java.util.zip.DataFormatException;
@@ -51,6 +52,9 @@ import static java.lang.Short.reverseBytes;
  * <p>
  * It is used in HTTP when {@link io.activej.http.HttpMessage#setBodyGzipCompression HttpMessage#setBodyGzipCompression}
  * method is used.
+ * <p>
+ * Unless a custom inflater is set, an inflater is taken from a {@link ZlibPool} once a process starts
+ * and is returned to the pool once a process completes successfully.
  */
 public final class BufsConsumerGzipInflater extends AbstractCommunicatingProcess
 		implements WithChannelTransformer<BufsConsumerGzipInflater, ByteBuf, ByteBuf>, WithBinaryChannelInput<BufsConsumerGzipInflater>,
@@ -68,7 +72,8 @@ public final class BufsConsumerGzipInflater extends AbstractCommunicatingProcess
 
 	private final CRC32 crc32 = new CRC32();
 
-	private Inflater inflater = new Inflater(true);
+	private @Nullable Inflater inflater;
+	private boolean pooled;
 
 	private ByteBufs bufs;
 	private BinaryChannelSupplier input;
@@ -117,6 +122,19 @@ public final class BufsConsumerGzipInflater extends AbstractCommunicatingProcess
 	protected void beforeProcess() {
 		checkState(input != null, "Input was not set");
 		checkState(output != null, "Output was not set");
+		if (inflater == null) {
+			inflater = ZlibPool.takeInflater();
+			pooled = true;
+		}
+	}
+
+	@Override
+	protected void afterProcess(@Nullable Exception e) {
+		if (pooled && e == null) {
+			//noinspection ConstantConditions
+			ZlibPool.returnInflater(inflater);
+			inflater = null;
+		}
 	}
 
 	@Override
@@ -277,7 +295,9 @@ public final class BufsConsumerGzipInflater extends AbstractCommunicatingProcess
 
 	@Override
 	protected void doClose(Exception e) {
-		inflater.end();
+		if (inflater != null) {
+			inflater.end();
+		}
 		input.closeEx(e);
 		output.closeEx(e);
 	}
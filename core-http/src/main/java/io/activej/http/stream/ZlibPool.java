@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.http.stream;
+
+import io.activej.common.ApplicationSettings;
+
+import java.util.ArrayDeque;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static io.activej.common.Checks.checkArgument;
+
+/**
+ * A pool of {@link Deflater} and {@link Inflater} instances without zlib wrapping, as used by GZIP.
+ * <p>
+ * Both deflaters and inflaters hold native zlib state, so creating one per HTTP message
+ * costs a native allocation and a later cleanup. Instead, instances are reset and reused.
+ * <p>
+ * Pools are thread-local, so each eventloop thread has its own pool and no synchronization is needed.
+ * An instance should be returned to a pool of the same thread it has been taken from.
+ * At most {@code ZlibPool.maxPoolSize} instances of each kind are kept per thread,
+ * extra instances are ended when returned.
+ */
+public final class ZlibPool {
+	/**
+	 * A compression level of pooled deflaters, {@code ZlibPool.compressionLevel} setting
+	 */
+	public static final int COMPRESSION_LEVEL = ApplicationSettings.getInt(ZlibPool.class, "compressionLevel", Deflater.DEFAULT_COMPRESSION);
+	public static final int MAX_POOL_SIZE = ApplicationSettings.getInt(ZlibPool.class, "maxPoolSize", 64);
+
+	private static final ThreadLocal<ArrayDeque<Deflater>> DEFLATERS = ThreadLocal.withInitial(ArrayDeque::new);
+	private static final ThreadLocal<ArrayDeque<Inflater>> INFLATERS = ThreadLocal.withInitial(ArrayDeque::new);
+
+	static {
+		checkArgument(COMPRESSION_LEVEL == Deflater.DEFAULT_COMPRESSION || COMPRESSION_LEVEL >= Deflater.NO_COMPRESSION && COMPRESSION_LEVEL <= Deflater.BEST_COMPRESSION,
+				"Invalid compression level: " + COMPRESSION_LEVEL);
+	}
+
+	private ZlibPool() {
+		throw new AssertionError();
+	}
+
+	public static Deflater takeDeflater() {
+		Deflater deflater = DEFLATERS.get().pollLast();
+		return deflater != null ? deflater : new Deflater(COMPRESSION_LEVEL, true);
+	}
+
+	/**
+	 * Takes a deflater with a custom compression level.
+	 * A level is restored once a deflater is returned to a pool
+	 */
+	public static Deflater takeDeflater(int compressionLevel) {
+		Deflater deflater = takeDeflater();
+		if (compressionLevel != COMPRESSION_LEVEL) {
+			deflater.setLevel(compressionLevel);
+		}
+		return deflater;
+	}
+
+	public static void returnDeflater(Deflater deflater) {
+		ArrayDeque<Deflater> pool = DEFLATERS.get();
+		if (pool.size() >= MAX_POOL_SIZE) {
+			deflater.end();
+			return;
+		}
+		deflater.reset();
+		deflater.setLevel(COMPRESSION_LEVEL);
+		pool.addLast(deflater);
+	}
+
+	public static Inflater takeInflater() {
+		Inflater inflater = INFLATERS.get().pollLast();
+		return inflater != null ? inflater : new Inflater(true);
+	}
+
+	public static void returnInflater(Inflater inflater) {
+		ArrayDeque<Inflater> pool = INFLATERS.get();
+		if (pool.size() >= MAX_POOL_SIZE) {
+			inflater.end();
+			return;
+		}
+		inflater.reset();
+		pool.addLast(inflater);
+	}
+
+	public static int getPooledDeflaters() {
+		return DEFLATERS.get().size();
+	}
+
+	public static int getPooledInflaters() {
+		return INFLATERS.get().size();
+	}
+}
@@ -0,0 +1,113 @@
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.test.rules.ByteBufRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.*;
+
+public final class HpackTest {
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	// RFC 7541, Appendix C.4
+	@Test
+	public void testRequestsWithHuffmanCoding() throws Http2Exception {
+		HpackDecoder decoder = new HpackDecoder(4096);
+
+		assertEquals(List.of(":method: GET", ":scheme: http", ":path: /", ":authority: www.example.com"),
+				decode(decoder, "828684418cf1e3c2e5f23a6ba0ab90f4ff"));
+		assertEquals(57, decoder.getTableSize());
+
+		assertEquals(List.of(":method: GET", ":scheme: http", ":path: /", ":authority: www.example.com", "cache-control: no-cache"),
+				decode(decoder, "828684be5886a8eb10649cbf"));
+		assertEquals(110, decoder.getTableSize());
+
+		assertEquals(List.of(":method: GET", ":scheme: https", ":path: /index.html", ":authority: www.example.com", "custom-key: custom-value"),
+				decode(decoder, "828785bf408825a849e95ba97d7f8925a849e95bb8e8b4bf"));
+		assertEquals(164, decoder.getTableSize());
+	}
+
+	// RFC 7541, Appendix C.6
+	@Test
+	public void testResponsesWithHuffmanCodingAndEviction() throws Http2Exception {
+		HpackDecoder decoder = new HpackDecoder(256);
+
+		assertEquals(List.of(":status: 302", "cache-control: private", "date: Mon, 21 Oct 2013 20:13:21 GMT", "location: https://www.example.com"),
+				decode(decoder, "488264025885aec3771a4b6196d07abe941054d444a8200595040b8166e082a62d1bff6e919d29ad171863c78f0b97c8e9ae82ae43d3"));
+		assertEquals(222, decoder.getTableSize());
+
+		assertEquals(List.of(":status: 307", "cache-control: private", "date: Mon, 21 Oct 2013 20:13:21 GMT", "location: https://www.example.com"),
+				decode(decoder, "4883640effc1c0bf"));
+		assertEquals(222, decoder.getTableSize());
+
+		assertEquals(List.of(":status: 200", "cache-control: private", "date: Mon, 21 Oct 2013 20:13:22 GMT", "location: https://www.example.com",
+						"content-encoding: gzip", "set-cookie: foo=ASDJKHQKBZXOQWEOPIUAXQWEOIU; max-age=3600; version=1"),
+				decode(decoder, "88c16196d07abe941054d444a8200595040b8166e084a62d1bffc05a839bd9ab77ad94e7821dd7f2e6c7b335dfdfcd5b3960d5af27087f3672c1ab270fb5291f9587316065c003ed4ee5b1063d5007"));
+		assertEquals(215, decoder.getTableSize());
+	}
+
+	@Test
+	public void testEncodeDecode() throws Http2Exception {
+		HpackEncoder encoder = new HpackEncoder();
+		HpackDecoder decoder = new HpackDecoder(4096);
+
+		for (int i = 0; i < 3; i++) {
+			ByteBuf block = encoder.beginBlock(ByteBufPool.allocate(16));
+			block = encoder.encode(block, Http2Constants.PSEUDO_METHOD, "GET".getBytes(ISO_8859_1));
+			block = encoder.encode(block, Http2Constants.PSEUDO_PATH, ("/path/" + i).getBytes(ISO_8859_1));
+			block = encoder.encode(block, HttpHeaders.USER_AGENT, HttpHeaderValue.of("activej test client"));
+			block = encoder.encode(block, HttpHeaders.COOKIE, HttpHeaderValue.of("session=secret"));
+			block = encoder.encode(block, HttpHeaders.of("X-Custom-Header"), HttpHeaderValue.of("value-" + i));
+
+			List<String> headers = new ArrayList<>();
+			decoder.decode(block.array(), block.head(), block.tail(),
+					(header, value) -> headers.add(header.toString().toLowerCase() + ": " + new String(value, ISO_8859_1)));
+			block.recycle();
+
+			assertEquals(List.of(":method: GET", ":path: /path/" + i, "user-agent: activej test client",
+					"cookie: session=secret", "x-custom-header: value-" + i), headers);
+		}
+	}
+
+	@Test
+	public void testHuffmanRoundTrip() throws Http2Exception {
+		byte[] data = new byte[256];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		int length = HpackHuffman.encodedLength(data, 0, data.length);
+		byte[] encoded = new byte[length];
+		assertEquals(length, HpackHuffman.encode(data, 0, data.length, encoded, 0));
+
+		byte[] decoded = new byte[HpackHuffman.maxDecodedLength(length)];
+		int decodedLength = HpackHuffman.decode(encoded, 0, length, decoded);
+		assertEquals(data.length, decodedLength);
+		for (int i = 0; i < data.length; i++) {
+			assertEquals(data[i], decoded[i]);
+		}
+	}
+
+	@Test
+	public void testInvalidIndex() {
+		HpackDecoder decoder = new HpackDecoder(4096);
+		Http2Exception e = assertThrows(Http2Exception.class, () -> decode(decoder, "be"));
+		assertTrue(e.isConnectionError());
+	}
+
+	private static List<String> decode(HpackDecoder decoder, String hex) throws Http2Exception {
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+		}
+		List<String> headers = new ArrayList<>();
+		decoder.decode(bytes, 0, bytes.length, (header, value) -> headers.add(header.toString().toLowerCase() + ": " + new String(value, ISO_8859_1)));
+		return headers;
+	}
+}
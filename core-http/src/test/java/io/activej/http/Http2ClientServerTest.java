@@ -0,0 +1,199 @@
+package io.activej.http;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.csp.ChannelSupplier;
+import io.activej.eventloop.Eventloop;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static io.activej.https.SslUtils.createTestSslContext;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.test.TestUtils.getFreePort;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public final class Http2ClientServerTest {
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private static final AsyncServlet ECHO_SERVLET = request -> request.loadBody()
+			.map(body -> HttpResponse.ok200()
+					.withBody((request.getVersion() + " " + request.getProtocol() + " " +
+							request.getMethod() + " " + request.getPathAndQuery() + " " + body.getString(UTF_8)).getBytes(UTF_8)));
+
+	private int port;
+
+	@Before
+	public void setUp() {
+		port = getFreePort();
+	}
+
+	@Test
+	public void testPriorKnowledge() throws IOException {
+		AsyncHttpServer server = AsyncHttpServer.create(Eventloop.getCurrentEventloop(), ECHO_SERVLET)
+				.withHttp2(true)
+				.withListenPort(port)
+				.withAcceptOnce();
+		server.listen();
+
+		AsyncHttpClient client = AsyncHttpClient.create(Eventloop.getCurrentEventloop())
+				.withHttp2PriorKnowledge(true);
+
+		String result = await(client.request(HttpRequest.post("http://127.0.0.1:" + port + "/path?q=1")
+						.withBody("hello".getBytes(UTF_8)))
+				.then(response -> {
+					assertEquals(200, response.getCode());
+					return response.loadBody();
+				})
+				.map(body -> body.getString(UTF_8)));
+
+		assertEquals("HTTP_2_0 HTTP POST /path?q=1 hello", result);
+	}
+
+	@Test
+	public void testConcurrentRequestsShareConnection() throws IOException {
+		AsyncHttpServer server = AsyncHttpServer.create(Eventloop.getCurrentEventloop(), ECHO_SERVLET)
+				.withHttp2(true)
+				.withListenPort(port)
+				.withAcceptOnce();
+		server.listen();
+
+		AsyncHttpClient client = AsyncHttpClient.create(Eventloop.getCurrentEventloop())
+				.withHttp2PriorKnowledge(true);
+
+		List<Promise<String>> responses = IntStream.range(0, 100)
+				.mapToObj(i -> client.request(HttpRequest.get("http://127.0.0.1:" + port + "/" + i))
+						.then(response -> response.loadBody())
+						.map(body -> body.getString(UTF_8)))
+				.collect(toList());
+
+		List<String> result = await(Promises.toList(responses));
+
+		assertEquals(IntStream.range(0, 100).mapToObj(i -> "HTTP_2_0 HTTP GET /" + i + " ").collect(toList()), result);
+	}
+
+	@Test
+	public void testLargeBodiesWithFlowControl() throws IOException {
+		byte[] data = new byte[5 * 1024 * 1024];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (i % 251);
+		}
+
+		AsyncHttpServer server = AsyncHttpServer.create(Eventloop.getCurrentEventloop(),
+						request -> HttpResponse.ok200().withBodyStream(request.getBodyStream()))
+				.withHttp2(true)
+				.withListenPort(port)
+				.withAcceptOnce();
+		server.listen();
+
+		AsyncHttpClient client = AsyncHttpClient.create(Eventloop.getCurrentEventloop())
+				.withHttp2PriorKnowledge(true);
+
+		List<ByteBuf> chunks = new ArrayList<>();
+		for (int i = 0; i < data.length; i += 100_000) {
+			chunks.add(ByteBuf.wrap(data, i, Math.min(data.length, i + 100_000)));
+		}
+
+		byte[] result = await(client.request(HttpRequest.post("http://127.0.0.1:" + port)
+						.withBodyStream(ChannelSupplier.ofList(chunks)))
+				.then(response -> response.loadBody(data.length))
+				.map(ByteBuf::getArray));
+
+		assertArrayEquals(data, result);
+	}
+
+	@Test
+	public void testGzip() throws IOException {
+		AsyncHttpServer server = AsyncHttpServer.create(Eventloop.getCurrentEventloop(),
+						request -> request.loadBody()
+								.map(body -> HttpResponse.ok200()
+										.withBodyGzipCompression()
+										.withBody(body.getString(UTF_8).toUpperCase().getBytes(UTF_8))))
+				.withHttp2(true)
+				.withListenPort(port)
+				.withAcceptOnce();
+		server.listen();
+
+		AsyncHttpClient client = AsyncHttpClient.create(Eventloop.getCurrentEventloop())
+				.withHttp2PriorKnowledge(true);
+
+		String result = await(client.request(HttpRequest.post("http://127.0.0.1:" + port)
+						.withBodyGzipCompression()
+						.withBody("compressed".getBytes(UTF_8)))
+				.then(response -> response.loadBody())
+				.map(body -> body.getString(UTF_8)));
+
+		assertEquals("COMPRESSED", result);
+	}
+
+	@Test
+	public void testHttp1ClientWithHttp2Server() throws IOException {
+		AsyncHttpServer server = AsyncHttpServer.create(Eventloop.getCurrentEventloop(), ECHO_SERVLET)
+				.withHttp2(true)
+				.withListenPort(port)
+				.withAcceptOnce();
+		server.listen();
+
+		String result = await(AsyncHttpClient.create(Eventloop.getCurrentEventloop())
+				.request(HttpRequest.get("http://127.0.0.1:" + port + "/http1"))
+				.then(response -> response.loadBody())
+				.map(body -> body.getString(UTF_8)));
+
+		assertEquals("HTTP_1_1 HTTP GET /http1 ", result);
+	}
+
+	@Test
+	public void testAlpn() throws IOException {
+		AsyncHttpServer server = AsyncHttpServer.create(Eventloop.getCurrentEventloop(), ECHO_SERVLET)
+				.withHttp2(true)
+				.withSslListenAddress(createTestSslContext(), Executors.newSingleThreadExecutor(), new InetSocketAddress(port))
+				.withAcceptOnce();
+		server.listen();
+
+		AsyncHttpClient client = AsyncHttpClient.create(Eventloop.getCurrentEventloop())
+				.withSslEnabled(createTestSslContext(), Executors.newSingleThreadExecutor())
+				.withHttp2(true);
+
+		List<String> result = await(Promises.toList(IntStream.range(0, 3)
+				.mapToObj(i -> client.request(HttpRequest.get("https://127.0.0.1:" + port + "/" + i))
+						.then(response -> response.loadBody())
+						.map(body -> body.getString(UTF_8)))));
+
+		assertEquals(IntStream.range(0, 3).mapToObj(i -> "HTTP_2_0 HTTPS GET /" + i + " ").collect(toList()), result);
+	}
+
+	@Test
+	public void testAlpnFallbackToHttp1() throws IOException {
+		AsyncHttpServer server = AsyncHttpServer.create(Eventloop.getCurrentEventloop(), ECHO_SERVLET)
+				.withSslListenAddress(createTestSslContext(), Executors.newSingleThreadExecutor(), new InetSocketAddress(port))
+				.withAcceptOnce();
+		server.listen();
+
+		AsyncHttpClient client = AsyncHttpClient.create(Eventloop.getCurrentEventloop())
+				.withSslEnabled(createTestSslContext(), Executors.newSingleThreadExecutor())
+				.withHttp2(true);
+
+		String result = await(client.request(HttpRequest.get("https://127.0.0.1:" + port + "/fallback"))
+				.then(response -> response.loadBody())
+				.map(body -> body.getString(UTF_8)));
+
+		assertEquals("HTTP_1_1 HTTPS GET /fallback ", result);
+	}
+}
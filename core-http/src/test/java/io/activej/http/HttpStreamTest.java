@@ -6,6 +6,7 @@ import io.activej.bytebuf.ByteBufs;
 import io.activej.common.recycle.Recyclers;
 import io.activej.csp.ChannelSupplier;
 import io.activej.csp.ChannelSuppliers;
+import io.activej.csp.file.ChannelFileReader;
 import io.activej.eventloop.Eventloop;
 import io.activej.net.socket.tcp.AsyncTcpSocketNio;
 import io.activej.promise.Promise;
@@ -18,9 +19,12 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
@@ -30,6 +34,7 @@ import static io.activej.promise.TestUtils.awaitException;
 import static io.activej.test.TestUtils.getFreePort;
 import static java.lang.Math.min;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.*;
@@ -45,6 +50,9 @@ public final class HttpStreamTest {
 	@Rule
 	public final ActivePromisesRule activePromisesRule = new ActivePromisesRule();
 
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
 	private final String requestBody = """
 			Lorem ipsum dolor sit amet, consectetuer adipiscing elit. Aenean commodo ligula eget dolor.
 			Aenean massa. Cum sociis natoque penatibus et magnis dis parturient montes, nascetur ridiculus mus.
@@ -96,6 +104,32 @@ public final class HttpStreamTest {
 		assertEquals(requestBody, body.asString(UTF_8));
 	}
 
+	@Test
+	public void testZeroCopyFileDownload() throws IOException {
+		Path file = tempFolder.newFile().toPath();
+		Files.write(file, requestBody.getBytes(UTF_8));
+		StringBuilder sb = new StringBuilder();
+		AsyncHttpServer.create(Eventloop.getCurrentEventloop(), request -> ChannelFileReader.open(newCachedThreadPool(), file)
+						.map(reader -> HttpResponse.ok200()
+								.withBodyStream(reader.withEndOfStream(eos -> eos.whenResult(() -> sb.append("eos"))))))
+				.withListenPort(port)
+				.withAcceptOnce()
+				.withZeroCopy(true)
+				.listen();
+
+		ByteBuf body = await(AsyncHttpClient.create(Eventloop.getCurrentEventloop())
+				.request(HttpRequest.get("http://127.0.0.1:" + port))
+				.whenComplete(TestUtils.assertCompleteFn(response -> {
+					assertEquals(200, response.getCode());
+					assertEquals(String.valueOf(requestBody.length()), response.getHeader(HttpHeaders.CONTENT_LENGTH));
+				}))
+				.then(response -> response.getBodyStream().async().toCollector(ByteBufs.collector())));
+
+		assertEquals("eos", sb.toString());
+		assertEquals(requestBody, body.asString(UTF_8));
+		Recyclers.recycle(expectedList);
+	}
+
 	@Test
 	public void testLoopBack() throws IOException {
 		startTestServer(request -> request
@@ -0,0 +1,70 @@
+package io.activej.http;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public final class PathSegmentTrieTest {
+
+	@Test
+	public void testLookup() {
+		Map<String, Integer> map = new HashMap<>();
+		String[] keys = {"a", "ab", "abc", "abd", "b", "users", "user", "userinfo", "x-y_z.~"};
+		for (int i = 0; i < keys.length; i++) {
+			map.put(keys[i], i);
+		}
+		PathSegmentTrie<Integer> trie = PathSegmentTrie.compile(map);
+
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals((Integer) i, get(trie, keys[i]));
+		}
+		assertNull(get(trie, "abe"));
+		assertNull(get(trie, "abcd"));
+		assertNull(get(trie, "us"));
+		assertNull(get(trie, "c"));
+		assertNull(get(trie, "userinf"));
+	}
+
+	@Test
+	public void testManyKeys() {
+		Map<String, Integer> map = new HashMap<>();
+		for (int i = 0; i < 2000; i++) {
+			map.put("segment" + i, i);
+		}
+		PathSegmentTrie<Integer> trie = PathSegmentTrie.compile(map);
+
+		for (int i = 0; i < 2000; i++) {
+			assertEquals((Integer) i, get(trie, "segment" + i));
+		}
+		assertNull(get(trie, "segment2000"));
+		assertNull(get(trie, "segment"));
+	}
+
+	@Test
+	public void testSegmentInsideOfUrl() {
+		PathSegmentTrie<String> trie = PathSegmentTrie.compile(Map.of("b", "value"));
+		byte[] url = "/a/b/c".getBytes(ISO_8859_1);
+
+		assertEquals("value", trie.get(url, 3, 4));
+		assertNull(trie.get(url, 1, 2));
+		assertNull(trie.get(url, 3, 5));
+	}
+
+	@Test
+	public void testNonPlainKeysAreSkipped() {
+		PathSegmentTrie<String> trie = PathSegmentTrie.compile(Map.of("a b", "space", "абв", "cyrillic", "", "empty"));
+
+		assertNull(get(trie, "a b"));
+		assertNull(get(trie, ""));
+	}
+
+	private static <T> T get(PathSegmentTrie<T> trie, String key) {
+		byte[] bytes = key.getBytes(ISO_8859_1);
+		return trie.get(bytes, 0, bytes.length);
+	}
+}
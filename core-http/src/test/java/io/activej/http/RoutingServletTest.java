@@ -471,4 +471,35 @@ public final class RoutingServletTest {
 			assertEquals("Pattern contains bad percent encoding", e.getMessage());
 		}
 	}
+
+	@Test
+	public void testManyRoutesWithCommonPrefixes() throws Exception {
+		RoutingServlet router = RoutingServlet.create();
+		for (int i = 0; i < 1000; i++) {
+			String body = "route" + i;
+			router.map(GET, "/api/v" + (i % 3) + "/items" + i + "/details", request -> HttpResponse.ok200().withBody(body.getBytes(UTF_8)));
+		}
+		router.map(GET, "/api/v0/items", request -> HttpResponse.ok200().withBody("items".getBytes(UTF_8)));
+		router.map(GET, "/api/v0/:item/edit", request -> HttpResponse.ok200().withBody(request.getPathParameter("item").getBytes(UTF_8)));
+
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/items0/details")), "route0", 200);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v1/items1/details")), "route1", 200);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v1/items10/details")), "route10", 200);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/items999/details")), "route999", 200);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/items")), "items", 200);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/items3/edit")), "items3", 200);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/item%733/details")), "route3", 200);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/item/details")), "", 404);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/items1/details")), "", 404);
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/items1000/details")), "", 404);
+
+		// routes that are mapped after a request has been served are visible too
+		router.map(GET, "/api/v0/items1000/details", request -> HttpResponse.ok200().withBody("route1000".getBytes(UTF_8)));
+		check(router.serve(HttpRequest.get(TEMPLATE + "/api/v0/items1000/details")), "route1000", 200);
+
+		RoutingServlet merged = router.merge(RoutingServlet.create()
+				.map(GET, "/api/v0/other", request -> HttpResponse.ok200().withBody("other".getBytes(UTF_8))));
+		check(merged.serve(HttpRequest.get(TEMPLATE + "/api/v0/other")), "other", 200);
+		check(merged.serve(HttpRequest.get(TEMPLATE + "/api/v0/items0/details")), "route0", 200);
+	}
 }
@@ -1,6 +1,7 @@
 package io.activej.http;
 
 import io.activej.bytebuf.ByteBuf;
+import io.activej.common.MemSize;
 import io.activej.http.loader.StaticLoader;
 import io.activej.test.rules.ByteBufRule;
 import io.activej.test.rules.EventloopRule;
@@ -20,7 +21,7 @@ import static io.activej.promise.TestUtils.await;
 import static io.activej.promise.TestUtils.awaitException;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.concurrent.Executors.newCachedThreadPool;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public final class StaticServletTest {
 	public static final String EXPECTED_CONTENT = "Test";
@@ -127,4 +128,108 @@ public final class StaticServletTest {
 		assertEquals(customContent, body.asString(UTF_8));
 		assertEquals(customType, response.getHeader(HttpHeaders.CONTENT_TYPE));
 	}
+
+	@Test
+	public void testPrecompressed() throws IOException, MalformedHttpException {
+		String content = "Uncompressed content";
+		Files.write(resourcesPath.resolve("script.js"), encodeAscii(content));
+		Files.write(resourcesPath.resolve("script.js.gz"), GzipProcessorUtils.toGzip(ByteBuf.wrapForReading(encodeAscii(content))).asArray());
+		Files.write(resourcesPath.resolve("style.css"), encodeAscii(content));
+
+		StaticServlet staticServlet = StaticServlet.create(ofPath(newCachedThreadPool(), resourcesPath))
+				.withPrecompressed();
+
+		HttpResponse response = await(staticServlet.serve(HttpRequest.get("http://test.com:8080/script.js")
+				.withHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8")));
+		assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertEquals("Accept-Encoding", response.getHeader(HttpHeaders.VARY));
+		assertEquals("application/javascript", response.getHeader(HttpHeaders.CONTENT_TYPE));
+		ByteBuf body = await(response.loadBody());
+		assertEquals(content, GzipProcessorUtils.fromGzip(body, 1024).asString(UTF_8));
+
+		response = await(staticServlet.serve(HttpRequest.get("http://test.com:8080/script.js")
+				.withHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")));
+		assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(content, await(response.loadBody()).asString(UTF_8));
+
+		response = await(staticServlet.serve(HttpRequest.get("http://test.com:8080/style.css")
+				.withHeader(HttpHeaders.ACCEPT_ENCODING, "gzip")));
+		assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertEquals("Accept-Encoding", response.getHeader(HttpHeaders.VARY));
+		assertEquals(content, await(response.loadBody()).asString(UTF_8));
+	}
+
+	@Test
+	public void testGzipAccepted() {
+		assertTrue(StaticServlet.isGzipAccepted("gzip"));
+		assertTrue(StaticServlet.isGzipAccepted("deflate, GZIP"));
+		assertTrue(StaticServlet.isGzipAccepted("br;q=1.0, gzip;q=0.5"));
+		assertTrue(StaticServlet.isGzipAccepted("*"));
+		assertFalse(StaticServlet.isGzipAccepted(null));
+		assertFalse(StaticServlet.isGzipAccepted("deflate, br"));
+		assertFalse(StaticServlet.isGzipAccepted("gzip;q=0"));
+		assertFalse(StaticServlet.isGzipAccepted("x-gzip"));
+
+		assertTrue(StaticServlet.isGzipAccepted("*;q=0, gzip"));
+		assertTrue(StaticServlet.isGzipAccepted("*;q=0.1"));
+		assertTrue(StaticServlet.isGzipAccepted("gzip; Q=0.5"));
+		assertFalse(StaticServlet.isGzipAccepted("*, gzip;q=0"));
+		assertFalse(StaticServlet.isGzipAccepted("gzip;q=0, *"));
+		assertFalse(StaticServlet.isGzipAccepted("*;q=0"));
+		assertFalse(StaticServlet.isGzipAccepted("gzip;q=0.000"));
+		assertFalse(StaticServlet.isGzipAccepted("gzip;q=invalid"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPrecompressedIsNotSupportedByCache() {
+		StaticServlet.create(ofPath(newCachedThreadPool(), resourcesPath).cached(MemSize.megabytes(1)))
+				.withPrecompressed();
+	}
+
+	@Test
+	public void testCachedWithETags() throws IOException, MalformedHttpException {
+		String content = "cached content ".repeat(100);
+		Files.write(resourcesPath.resolve("cached.txt"), encodeAscii(content));
+
+		StaticServlet staticServlet = StaticServlet.create(ofPath(newCachedThreadPool(), resourcesPath)
+						.cached(MemSize.megabytes(1))
+						.withGzip())
+				.withResponse(() -> HttpResponse.ok200()
+						.withHeader(HttpHeaders.CACHE_CONTROL, "max-age=60")
+						.withHeader(HttpHeaders.of("X-Custom"), "value"));
+
+		HttpResponse response = await(staticServlet.serve(HttpRequest.get("http://test.com:8080/cached.txt")));
+		String etag = response.getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		assertEquals("Accept-Encoding", response.getHeader(HttpHeaders.VARY));
+		assertEquals(content, await(response.loadBody()).asString(UTF_8));
+
+		response = await(staticServlet.serve(HttpRequest.get("http://test.com:8080/cached.txt")
+				.withHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag)));
+		assertEquals(304, response.getCode());
+		assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+		assertEquals("max-age=60", response.getHeader(HttpHeaders.CACHE_CONTROL));
+		assertEquals("value", response.getHeader(HttpHeaders.of("X-Custom")));
+		assertNull(response.getHeader(HttpHeaders.CONTENT_TYPE));
+
+		response = await(staticServlet.serve(HttpRequest.get("http://test.com:8080/cached.txt")
+				.withHeader(HttpHeaders.ACCEPT_ENCODING, "gzip")));
+		String gzippedETag = response.getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, gzippedETag);
+		assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(content, GzipProcessorUtils.fromGzip(await(response.loadBody()), 1 << 20).asString(UTF_8));
+
+		response = await(staticServlet.serve(HttpRequest.get("http://test.com:8080/cached.txt")
+				.withHeader(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.withHeader(HttpHeaders.IF_NONE_MATCH, "W/" + gzippedETag)));
+		assertEquals(304, response.getCode());
+
+		response = await(staticServlet.serve(HttpRequest.get("http://test.com:8080/cached.txt")
+				.withHeader(HttpHeaders.IF_NONE_MATCH, gzippedETag)));
+		assertEquals(200, response.getCode());
+		assertEquals(content, await(response.loadBody()).asString(UTF_8));
+
+		HttpError e = awaitException(staticServlet.serve(HttpRequest.get("http://test.com:8080/missing.txt")));
+		assertEquals(404, e.getCode());
+	}
 }
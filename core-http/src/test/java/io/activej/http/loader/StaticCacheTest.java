@@ -0,0 +1,159 @@
+package io.activej.http.loader;
+
+import io.activej.bytebuf.ByteBuf;
+import io.activej.common.MemSize;
+import io.activej.promise.Promise;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.activej.promise.TestUtils.await;
+import static io.activej.promise.TestUtils.awaitException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public final class StaticCacheTest {
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	private final Map<String, Integer> loads = new HashMap<>();
+	private final Map<String, byte[]> resources = new HashMap<>();
+
+	private final StaticLoader loader = path -> {
+		loads.merge(path, 1, Integer::sum);
+		byte[] bytes = resources.get(path);
+		return bytes != null ?
+				Promise.of(ByteBuf.wrapForReading(bytes)) :
+				Promise.ofException(new ResourceNotFoundException("Could not find '" + path + '\''));
+	};
+
+	@Test
+	public void testHitsAndMisses() {
+		resources.put("a.txt", "content".getBytes(UTF_8));
+		StaticCache cache = loader.cached(MemSize.kilobytes(64));
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals("content", await(cache.load("a.txt")).asString(UTF_8));
+		}
+		assertEquals(1, (int) loads.get("a.txt"));
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getEntries());
+	}
+
+	@Test
+	public void testETags() {
+		resources.put("a.txt", "content".getBytes(UTF_8));
+		resources.put("b.txt", "other content".getBytes(UTF_8));
+		StaticCache cache = StaticCache.create(loader, MemSize.kilobytes(64));
+
+		String etagA = await(cache.loadResource("a.txt")).getETag();
+		String etagB = await(cache.loadResource("b.txt")).getETag();
+		assertTrue(etagA.startsWith("\"") && etagA.endsWith("\""));
+		assertNotEquals(etagA, etagB);
+		assertEquals(etagA, await(cache.loadResource("a.txt")).getETag());
+	}
+
+	@Test
+	public void testGzippedVariant() {
+		resources.put("large.txt", "compressible ".repeat(100).getBytes(UTF_8));
+		resources.put("small.txt", "tiny".getBytes(UTF_8));
+		StaticCache cache = StaticCache.create(loader, MemSize.kilobytes(64))
+				.withGzip();
+
+		StaticCache.Resource large = await(cache.loadResource("large.txt"));
+		assertNotNull(large.getGzippedContent());
+		assertTrue(large.getGzippedContent().length < large.getContent().length);
+		assertNotEquals(large.getETag(), large.getGzippedETag());
+
+		StaticCache.Resource small = await(cache.loadResource("small.txt"));
+		assertNull(small.getGzippedContent());
+		assertNull(small.getGzippedETag());
+	}
+
+	@Test
+	public void testNotFoundExpires() {
+		AtomicLong now = new AtomicLong();
+		StaticCache cache = StaticCache.create(loader, MemSize.kilobytes(64))
+				.withNotFoundTtl(Duration.ofSeconds(1))
+				.withCurrentTimeProvider(now::get);
+
+		awaitException(cache.load("missing.txt"));
+		awaitException(cache.load("missing.txt"));
+		assertEquals(1, (int) loads.get("missing.txt"));
+		assertEquals(1, cache.getNotFoundHits());
+
+		resources.put("missing.txt", "found".getBytes(UTF_8));
+		now.set(1000);
+		assertEquals("found", await(cache.load("missing.txt")).asString(UTF_8));
+		assertEquals(2, (int) loads.get("missing.txt"));
+	}
+
+	@Test
+	public void testSizeIsBounded() {
+		for (int i = 0; i < 1000; i++) {
+			resources.put("file" + i, new byte[1000]);
+		}
+		StaticCache cache = StaticCache.create(loader, MemSize.kilobytes(100));
+
+		for (int i = 0; i < 1000; i++) {
+			await(cache.load("file" + i));
+			assertTrue(cache.getSize() <= 100 * 1024);
+		}
+		assertTrue(cache.getEntries() > 50);
+		assertTrue(cache.getEvictions() + cache.getRejections() > 0);
+	}
+
+	@Test
+	public void testFrequentEntriesSurviveScan() {
+		TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100, 100);
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 50; i++) {
+				if (cache.get(i) == null) {
+					cache.put(i, "hot" + i, 1);
+				}
+			}
+		}
+
+		for (int i = 1000; i < 11000; i++) {
+			if (cache.get(i) == null) {
+				cache.put(i, "cold" + i, 1);
+			}
+			assertTrue(cache.weight() <= 100);
+		}
+
+		int survived = 0;
+		for (int i = 0; i < 50; i++) {
+			if (cache.peek(i) != null) survived++;
+		}
+		assertTrue("Only " + survived + " hot entries survived", survived >= 45);
+	}
+
+	@Test
+	public void testWeightedEviction() {
+		TinyLfuCache<String, String> cache = new TinyLfuCache<>(1000, 16);
+		cache.put("a", "a", 400);
+		cache.put("b", "b", 400);
+		cache.put("c", "c", 400);
+		assertTrue(cache.weight() <= 1000);
+		assertEquals(2, cache.size());
+
+		cache.put("huge", "huge", 1001);
+		assertNull(cache.peek("huge"));
+
+		cache.remove("c");
+		cache.remove("b");
+		cache.remove("a");
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.weight());
+	}
+}
@@ -0,0 +1,111 @@
+package io.activej.http.session;
+
+import io.activej.eventloop.Eventloop;
+import io.activej.test.rules.EventloopRule;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.activej.promise.TestUtils.await;
+import static org.junit.Assert.*;
+
+public final class SessionStoreInMemoryTest {
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	private long currentTime;
+
+	@Test
+	public void testExpirationOnAccess() {
+		SessionStoreInMemory<String> store = SessionStoreInMemory.<String>create()
+				.withLifetime(Duration.ofMillis(100));
+		store.now = () -> currentTime;
+
+		await(store.save("a", "session a"));
+		currentTime = 80;
+		assertEquals("session a", await(store.get("a")));
+
+		// access has prolonged a session
+		currentTime = 150;
+		assertEquals("session a", await(store.get("a")));
+
+		currentTime = 251;
+		assertNull(await(store.get("a")));
+		assertEquals(0, store.getSize());
+		assertEquals(1, store.getExpiredSessions());
+	}
+
+	@Test
+	public void testLeastRecentlyAccessedSessionsAreEvicted() {
+		SessionStoreInMemory<String> store = SessionStoreInMemory.<String>create()
+				.withMaxSize(3);
+		store.now = () -> currentTime;
+
+		await(store.save("a", "session a"));
+		await(store.save("b", "session b"));
+		await(store.save("c", "session c"));
+		assertEquals("session a", await(store.get("a")));
+
+		await(store.save("d", "session d"));
+		assertEquals(3, store.getSize());
+		assertEquals(1, store.getEvictedSessions());
+		assertNull(await(store.get("b")));
+		assertEquals("session a", await(store.get("a")));
+		assertEquals("session c", await(store.get("c")));
+		assertEquals("session d", await(store.get("d")));
+
+		// overwriting a session does not evict anything
+		await(store.save("a", "new session a"));
+		assertEquals(3, store.getSize());
+		assertEquals("new session a", await(store.get("a")));
+	}
+
+	@Test
+	public void testExpireSessionsInBatches() {
+		SessionStoreInMemory<String> store = SessionStoreInMemory.<String>create()
+				.withLifetime(Duration.ofMillis(100));
+		store.now = () -> currentTime;
+
+		for (int i = 0; i < 10; i++) {
+			store.save("session" + i, "value" + i);
+		}
+		currentTime = 50;
+		store.save("fresh", "fresh value");
+
+		currentTime = 120;
+		assertEquals(4, store.expireSessions(4));
+		assertEquals(4, store.expireSessions(4));
+		assertEquals(2, store.expireSessions(4));
+		assertEquals(0, store.expireSessions(4));
+		assertEquals(1, store.getSize());
+		assertEquals("fresh value", await(store.get("fresh")));
+	}
+
+	@Test
+	public void testBackgroundExpiration() {
+		Eventloop eventloop = Eventloop.getCurrentEventloop();
+		SessionStoreInMemory<String> store = SessionStoreInMemory.<String>create()
+				.withLifetime(Duration.ofMillis(10))
+				.withExpirationCheck(eventloop, Duration.ofMillis(20))
+				.withMaxExpirationsPerCheck(7);
+		store.now = () -> currentTime;
+		// scheduled tasks are timed from a cached timestamp, which may be stale before the eventloop runs
+		eventloop.refreshTimestampAndGet();
+
+		for (int i = 0; i < 100; i++) {
+			store.save("session" + i, "value" + i);
+		}
+		assertEquals(100, store.getSize());
+
+		currentTime = 1000;
+		List<Integer> sizes = new ArrayList<>();
+		eventloop.delay(200, () -> sizes.add(store.getSize()));
+		eventloop.run();
+
+		assertEquals(List.of(0), sizes);
+		assertEquals(100, store.getExpiredSessions());
+	}
+}
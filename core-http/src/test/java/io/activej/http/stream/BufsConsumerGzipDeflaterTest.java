@@ -15,10 +15,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 
 import static io.activej.http.GzipProcessorUtils.toGzip;
 import static io.activej.promise.TestUtils.await;
+import static org.junit.Assert.assertEquals;
 
 public final class BufsConsumerGzipDeflaterTest {
 
@@ -125,6 +127,34 @@ public final class BufsConsumerGzipDeflaterTest {
 		doTest();
 	}
 
+	@Test
+	public void testDeflaterIsReturnedToPool() {
+		byte[] data = "Hello, pooled deflater".getBytes();
+		consumer.setExpectedByteArray(compressWithGzipOutputStream(data));
+		list.add(ByteBuf.wrapForReading(data));
+
+		int pooled = ZlibPool.getPooledDeflaters();
+		ZlibPool.returnDeflater(ZlibPool.takeDeflater(Deflater.BEST_SPEED));
+		assertEquals(Math.max(pooled, 1), ZlibPool.getPooledDeflaters());
+
+		doTest();
+		assertEquals(Math.max(pooled, 1), ZlibPool.getPooledDeflaters());
+	}
+
+	@Test
+	public void testCompressionLevel() {
+		byte[] data = new byte[100_000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (i % 100 < 50 ? 'a' : i % 7);
+		}
+		ByteBuf expected = toGzip(ByteBuf.wrapForReading(data), Deflater.BEST_SPEED);
+		consumer.setExpectedBuf(expected);
+		list.add(ByteBuf.wrapForReading(data));
+
+		gzip.withCompressionLevel(Deflater.BEST_SPEED);
+		doTest();
+	}
+
 	private void doTest() {
 		gzip.getInput().set(ChannelSupplier.ofList(list));
 		await(gzip.getProcessCompletion());
@@ -299,6 +299,14 @@ public abstract class AbstractServer<Self extends AbstractServer<Self>> implemen
 		return ssl ? socketSslInspector : socketInspector;
 	}
 
+	/**
+	 * Returns application protocols that are offered during SSL handshake (ALPN), in order of preference.
+	 * No protocols are offered by default
+	 */
+	protected List<String> getSslApplicationProtocols() {
+		return List.of();
+	}
+
 	private void doAccept(SocketChannel channel, InetSocketAddress localAddress, boolean ssl) {
 		InetSocketAddress remoteSocketAddress;
 		try {
@@ -358,7 +366,7 @@ public abstract class AbstractServer<Self extends AbstractServer<Self>> implemen
 			eventloop.closeChannel(socketChannel, null);
 			return;
 		}
-		asyncTcpSocket = ssl ? wrapServerSocket(asyncTcpSocket, sslContext, sslExecutor) : asyncTcpSocket;
+		asyncTcpSocket = ssl ? wrapServerSocket(asyncTcpSocket, sslContext, sslExecutor, getSslApplicationProtocols()) : asyncTcpSocket;
 		serve(asyncTcpSocket, remoteAddress);
 	}
 
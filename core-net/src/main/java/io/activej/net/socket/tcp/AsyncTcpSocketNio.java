@@ -20,6 +20,7 @@ import io.activej.async.exception.AsyncCloseException;
 import io.activej.async.exception.AsyncTimeoutException;
 import io.activej.bytebuf.ByteBuf;
 import io.activej.bytebuf.ByteBufPool;
+import io.activej.bytebuf.ByteBufs;
 import io.activej.common.ApplicationSettings;
 import io.activej.common.Checks;
 import io.activej.common.inspector.AbstractInspector;
@@ -41,13 +42,16 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.activej.common.Checks.checkState;
 import static io.activej.common.MemSize.kilobytes;
+import static io.activej.common.MemSize.megabytes;
 import static io.activej.common.Utils.nullify;
 import static io.activej.eventloop.Eventloop.getCurrentEventloop;
 
@@ -58,6 +62,14 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 	private static final int DEBUG_READ_OFFSET = ApplicationSettings.getInt(AsyncTcpSocketNio.class, "debugReadOffset", 0);
 
 	public static final int DEFAULT_READ_BUFFER_SIZE = ApplicationSettings.getMemSize(AsyncTcpSocketNio.class, "readBufferSize", kilobytes(16)).toInt();
+
+	/**
+	 * Outgoing {@link ByteBuf}s are queued without being copied and are written
+	 * with a single gathering write. These settings limit the number of buffers and bytes
+	 * that are submitted to a channel within one write call
+	 */
+	public static final int WRITE_MAX_BUFS = ApplicationSettings.getInt(AsyncTcpSocketNio.class, "writeMaxBufs", 64);
+	public static final int WRITE_MAX_BYTES = ApplicationSettings.getMemSize(AsyncTcpSocketNio.class, "writeMaxBytes", megabytes(1)).toInt();
 	public static final int NO_TIMEOUT = 0;
 
 	private static final AtomicInteger CONNECTION_COUNT = new AtomicInteger(0);
@@ -68,7 +80,11 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 	private @Nullable SocketChannel channel;
 	private @Nullable ByteBuf readBuf;
 	private boolean readEndOfStream;
-	private @Nullable ByteBuf writeBuf;
+	private final ByteBufs writeBufs = new ByteBufs();
+	private ByteBuffer @Nullable [] writeByteBuffers;
+	private @Nullable FileChannel writeFile;
+	private long writeFilePosition;
+	private long writeFileRemaining;
 	private boolean writeEndOfStream;
 
 	private @Nullable SettablePromise<ByteBuf> read;
@@ -103,6 +119,9 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 
 		void onWrite(AsyncTcpSocketNio socket, ByteBuf buf, int bytes);
 
+		default void onTransfer(AsyncTcpSocketNio socket, FileChannel file, long bytes) {
+		}
+
 		void onWriteError(AsyncTcpSocketNio socket, IOException e);
 
 		void onDisconnect(AsyncTcpSocketNio socket);
@@ -159,6 +178,11 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 				writeOverloaded.recordEvent();
 		}
 
+		@Override
+		public void onTransfer(AsyncTcpSocketNio socket, FileChannel file, long bytes) {
+			writes.recordValue((int) bytes);
+		}
+
 		@Override
 		public void onWriteError(AsyncTcpSocketNio socket, IOException e) {
 			writeErrors.recordException(e, socket.getRemoteAddress());
@@ -319,7 +343,7 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 
 	private void updateInterests() {
 		assert !isClosed() && ops >= 0;
-		byte newOps = (byte) (((readBuf == null && !readEndOfStream) ? SelectionKey.OP_READ : 0) | (writeBuf == null || writeEndOfStream ? 0 : SelectionKey.OP_WRITE));
+		byte newOps = (byte) (((readBuf == null && !readEndOfStream) ? SelectionKey.OP_READ : 0) | (!hasPendingWrites() || writeEndOfStream ? 0 : SelectionKey.OP_WRITE));
 		if (key == null) {
 			ops = newOps;
 			try {
@@ -414,7 +438,7 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 			buf.recycle();
 			if (inspector != null) inspector.onReadEndOfStream(this);
 			readEndOfStream = true;
-			if (writeEndOfStream && writeBuf == null) {
+			if (writeEndOfStream && !hasPendingWrites()) {
 				doClose();
 			}
 			return;
@@ -437,6 +461,7 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 		if (CHECK) {
 			checkState(eventloop.inEventloopThread());
 			checkState(!writeEndOfStream, "End of stream has already been sent");
+			checkState(buf == null || writeFile == null, "File transfer is in progress");
 		}
 		if (isClosed()) {
 			if (buf != null) buf.recycle();
@@ -444,20 +469,53 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 		}
 		writeEndOfStream |= buf == null;
 
-		if (writeBuf == null) {
-			if (buf != null && !buf.canRead()) {
+		if (buf != null) {
+			if (!buf.canRead() && writeBufs.isEmpty()) {
 				buf.recycle();
 				return Promise.complete();
 			}
-			writeBuf = buf;
-		} else {
-			if (buf != null) {
-				writeBuf = ByteBufPool.ensureWriteRemaining(this.writeBuf, buf.readRemaining());
-				writeBuf.put(buf.array(), buf.head(), buf.readRemaining());
-				buf.recycle();
-			}
+			writeBufs.add(buf);
 		}
 
+		return flush();
+	}
+
+	/**
+	 * Transfers a region of a file directly to this socket with {@link FileChannel#transferTo},
+	 * so that file contents are not copied into user-space buffers.
+	 * <p>
+	 * A region is sent after all the bufs that have already been written to this socket.
+	 * No other data may be written until the returned promise completes.
+	 * A file is not closed by this socket.
+	 * <p>
+	 * Note that reading a file which contents are not in a page cache
+	 * blocks an eventloop thread
+	 *
+	 * @param file     a file channel to transfer bytes from
+	 * @param position a position in a file at which a transfer begins
+	 * @param count    number of bytes to transfer
+	 * @return promise that represents a successful transfer of a file region
+	 */
+	public @NotNull Promise<Void> transferFrom(@NotNull FileChannel file, long position, long count) {
+		if (CHECK) {
+			checkState(eventloop.inEventloopThread());
+			checkState(!writeEndOfStream, "End of stream has already been sent");
+			checkState(writeFile == null, "File transfer is in progress");
+		}
+		if (isClosed()) {
+			return Promise.ofException(new AsyncCloseException());
+		}
+		if (count == 0 && writeBufs.isEmpty()) {
+			return Promise.complete();
+		}
+		writeFile = file;
+		writeFilePosition = position;
+		writeFileRemaining = count;
+
+		return flush();
+	}
+
+	private Promise<Void> flush() {
 		if (write != null) return write;
 
 		try {
@@ -467,7 +525,7 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 			return Promise.ofException(e);
 		}
 
-		if (this.writeBuf == null) {
+		if (!hasPendingWrites()) {
 			return Promise.complete();
 		}
 		SettablePromise<Void> write = new SettablePromise<>();
@@ -496,7 +554,7 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 			closeEx(e);
 			return;
 		}
-		if (writeBuf == null) {
+		if (!hasPendingWrites()) {
 			SettablePromise<@Nullable Void> write = this.write;
 			this.write = null;
 			write.set(null);
@@ -508,26 +566,25 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 
 	private void doWrite() throws IOException {
 		assert channel != null;
-		if (writeBuf != null) {
-			ByteBuf buf = this.writeBuf;
-			ByteBuffer buffer = buf.toReadByteBuffer();
-
+		if (!writeBufs.isEmpty()) {
+			int written;
 			try {
-				channel.write(buffer);
+				written = doWriteGathering();
 			} catch (IOException e) {
 				if (inspector != null) inspector.onWriteError(this, e);
 				throw e;
 			}
 
-			if (inspector != null) inspector.onWrite(this, buf, buffer.position() - buf.head());
+			onWritten(written);
 
-			buf.ofReadByteBuffer(buffer);
+			if (!writeBufs.isEmpty()) {
+				return;
+			}
+		}
 
-			if (buf.canRead()) {
+		if (writeFile != null) {
+			if (!doTransfer()) {
 				return;
-			} else {
-				buf.recycle();
-				writeBuf = null;
 			}
 		}
 
@@ -542,13 +599,85 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 		}
 	}
 
+	private boolean hasPendingWrites() {
+		return !writeBufs.isEmpty() || writeFile != null;
+	}
+
+	/**
+	 * @return {@code true} if a whole file region has been transferred
+	 */
+	private boolean doTransfer() throws IOException {
+		assert channel != null && writeFile != null;
+		long transferred;
+		try {
+			transferred = writeFileRemaining == 0 ? 0 : writeFile.transferTo(writeFilePosition, writeFileRemaining, channel);
+			if (transferred == 0 && writeFileRemaining != 0 && writeFilePosition >= writeFile.size()) {
+				throw new IOException("Unexpected end of file at position " + writeFilePosition);
+			}
+		} catch (IOException e) {
+			if (inspector != null) inspector.onWriteError(this, e);
+			throw e;
+		}
+		if (inspector != null && transferred != 0) inspector.onTransfer(this, writeFile, transferred);
+		writeFilePosition += transferred;
+		writeFileRemaining -= transferred;
+		if (writeFileRemaining != 0) {
+			return false;
+		}
+		writeFile = null;
+		return true;
+	}
+
+	private int doWriteGathering() throws IOException {
+		assert channel != null;
+		int bufs = Math.min(writeBufs.remainingBufs(), WRITE_MAX_BUFS);
+		if (bufs == 1) {
+			ByteBuffer buffer = writeBufs.peekBuf().toReadByteBuffer();
+			return channel.write(buffer);
+		}
+
+		if (writeByteBuffers == null || writeByteBuffers.length < bufs) {
+			writeByteBuffers = new ByteBuffer[bufs];
+		}
+		int count = 0;
+		int bytes = 0;
+		while (count < bufs && bytes < WRITE_MAX_BYTES) {
+			ByteBuf buf = writeBufs.peekBuf(count);
+			writeByteBuffers[count++] = buf.toReadByteBuffer();
+			bytes += buf.readRemaining();
+		}
+		try {
+			return (int) channel.write(writeByteBuffers, 0, count);
+		} finally {
+			Arrays.fill(writeByteBuffers, 0, count, null);
+		}
+	}
+
+	private void onWritten(int written) {
+		if (inspector != null) {
+			int remaining = written;
+			for (int i = 0; i < writeBufs.remainingBufs(); i++) {
+				ByteBuf buf = writeBufs.peekBuf(i);
+				int bytes = Math.min(buf.readRemaining(), remaining);
+				inspector.onWrite(this, buf, bytes);
+				remaining -= bytes;
+				if (remaining == 0) break;
+			}
+		}
+		writeBufs.skip(written);
+	}
+
 	@Override
 	public void closeEx(@NotNull Exception e) {
 		if (CHECK) checkState(eventloop.inEventloopThread());
 		if (isClosed()) return;
 		doClose();
 		readBuf = nullify(readBuf, ByteBuf::recycle);
-		writeBuf = nullify(writeBuf, ByteBuf::recycle);
+		for (ByteBuf buf = writeBufs.poll(); buf != null; buf = writeBufs.poll()) {
+			buf.recycle();
+		}
+		writeByteBuffers = null;
+		writeFile = null;
 		scheduledReadTimeout = nullify(scheduledReadTimeout, ScheduledRunnable::cancel);
 		scheduledWriteTimeout = nullify(scheduledWriteTimeout, ScheduledRunnable::cancel);
 		read = nullify(read, SettablePromise::setException, e);
@@ -576,7 +705,8 @@ public final class AsyncTcpSocketNio implements AsyncTcpSocket, NioChannelEventH
 		return "AsyncTcpSocketImpl{" +
 				"channel=" + (channel != null ? channel : "") +
 				", readBuf=" + readBuf +
-				", writeBuf=" + writeBuf +
+				", writeBufs=" + writeBufs +
+				(writeFile != null ? ", writeFileRemaining=" + writeFileRemaining : "") +
 				", readEndOfStream=" + readEndOfStream +
 				", writeEndOfStream=" + writeEndOfStream +
 				", read=" + read +
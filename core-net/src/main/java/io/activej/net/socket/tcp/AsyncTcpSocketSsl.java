@@ -33,7 +33,9 @@ import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLEngineResult;
 import javax.net.ssl.SSLEngineResult.HandshakeStatus;
 import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import static javax.net.ssl.SSLEngineResult.HandshakeStatus.*;
@@ -61,6 +63,9 @@ public final class AsyncTcpSocketSsl implements AsyncTcpSocket, WithInitializer<
 	private @Nullable SettablePromise<Void> write;
 	private @Nullable Promise<Void> pendingUpstreamWrite;
 
+	private boolean handshakeFinished;
+	private @Nullable SettablePromise<Void> handshakeCompletion;
+
 	public static AsyncTcpSocketSsl wrapClientSocket(AsyncTcpSocket asyncTcpSocket,
 			String host, int port,
 			SSLContext sslContext, Executor executor) {
@@ -69,6 +74,22 @@ public final class AsyncTcpSocketSsl implements AsyncTcpSocket, WithInitializer<
 		return create(asyncTcpSocket, sslEngine, executor);
 	}
 
+	/**
+	 * Wraps a client socket, offering given application protocols during a handshake (ALPN).
+	 * A protocol selected by a server may be obtained with {@link #getApplicationProtocol()}
+	 * once a handshake is finished
+	 *
+	 * @see #getHandshakeCompletion()
+	 */
+	public static AsyncTcpSocketSsl wrapClientSocket(AsyncTcpSocket asyncTcpSocket,
+			String host, int port,
+			SSLContext sslContext, Executor executor, List<String> applicationProtocols) {
+		SSLEngine sslEngine = sslContext.createSSLEngine(host, port);
+		sslEngine.setUseClientMode(true);
+		setApplicationProtocols(sslEngine, applicationProtocols);
+		return create(asyncTcpSocket, sslEngine, executor);
+	}
+
 	public static AsyncTcpSocketSsl wrapClientSocket(AsyncTcpSocket asyncTcpSocket,
 			SSLContext sslContext, Executor executor) {
 		SSLEngine sslEngine = sslContext.createSSLEngine();
@@ -83,6 +104,25 @@ public final class AsyncTcpSocketSsl implements AsyncTcpSocket, WithInitializer<
 		return create(asyncTcpSocket, sslEngine, executor);
 	}
 
+	/**
+	 * Wraps a server socket, selecting one of given application protocols during a handshake (ALPN).
+	 * The first protocol in a list which is also offered by a client is selected
+	 */
+	public static AsyncTcpSocketSsl wrapServerSocket(AsyncTcpSocket asyncTcpSocket,
+			SSLContext sslContext, Executor executor, List<String> applicationProtocols) {
+		SSLEngine sslEngine = sslContext.createSSLEngine();
+		sslEngine.setUseClientMode(false);
+		setApplicationProtocols(sslEngine, applicationProtocols);
+		return create(asyncTcpSocket, sslEngine, executor);
+	}
+
+	private static void setApplicationProtocols(SSLEngine sslEngine, List<String> applicationProtocols) {
+		if (applicationProtocols.isEmpty()) return;
+		SSLParameters sslParameters = sslEngine.getSSLParameters();
+		sslParameters.setApplicationProtocols(applicationProtocols.toArray(new String[0]));
+		sslEngine.setSSLParameters(sslParameters);
+	}
+
 	private AsyncTcpSocketSsl(AsyncTcpSocket asyncTcpSocket, SSLEngine engine, Executor executor) {
 		this.engine = engine;
 		this.executor = executor;
@@ -137,6 +177,30 @@ public final class AsyncTcpSocketSsl implements AsyncTcpSocket, WithInitializer<
 		return write;
 	}
 
+	/**
+	 * Returns a promise that is completed once an initial handshake is finished,
+	 * or completed exceptionally if this socket is closed before that
+	 */
+	public Promise<Void> getHandshakeCompletion() {
+		if (handshakeFinished) return Promise.complete();
+		if (isClosed()) return Promise.ofException(new AsyncCloseException());
+		if (handshakeCompletion == null) {
+			handshakeCompletion = new SettablePromise<>();
+		}
+		return handshakeCompletion;
+	}
+
+	/**
+	 * Returns an application protocol negotiated during a handshake (ALPN)
+	 *
+	 * @return a protocol name, an empty string if no protocol has been negotiated,
+	 * or {@code null} if a handshake is not finished yet
+	 * @see SSLEngine#getApplicationProtocol()
+	 */
+	public @Nullable String getApplicationProtocol() {
+		return handshakeFinished ? engine.getApplicationProtocol() : null;
+	}
+
 	@Override
 	public boolean isReadAvailable() {
 		return engine2app != null && engine2app.canRead();
@@ -316,6 +380,16 @@ public final class AsyncTcpSocketSsl implements AsyncTcpSocket, WithInitializer<
 			return;
 		}
 
+		if (!handshakeFinished) {
+			handshakeFinished = true;
+			if (handshakeCompletion != null) {
+				SettablePromise<Void> handshakeCompletion = this.handshakeCompletion;
+				this.handshakeCompletion = null;
+				handshakeCompletion.set(null);
+				if (isClosed()) return;
+			}
+		}
+
 		// write data to net
 		if (app2engine.canRead()) {
 			do {
@@ -408,6 +482,10 @@ public final class AsyncTcpSocketSsl implements AsyncTcpSocket, WithInitializer<
 			write.setException(e);
 			write = null;
 		}
+		if (handshakeCompletion != null) {
+			handshakeCompletion.setException(e);
+			handshakeCompletion = null;
+		}
 		if (read != null) {
 			if (shouldReturnEndOfStream) {
 				shouldReturnEndOfStream = false;
@@ -681,6 +681,21 @@ public final class CrdtMessagingProto {
      */
     io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadOrBuilder getDownloadOrBuilder();
 
+    /**
+     * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+     * @return Whether the downloadRange field is set.
+     */
+    boolean hasDownloadRange();
+    /**
+     * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+     * @return The downloadRange.
+     */
+    io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange getDownloadRange();
+    /**
+     * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+     */
+    io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRangeOrBuilder getDownloadRangeOrBuilder();
+
     public io.activej.crdt.CrdtMessagingProto.CrdtRequest.RequestCase getRequestCase();
   }
   /**
@@ -826,6 +841,20 @@ public final class CrdtMessagingProto {
               requestCase_ = 7;
               break;
             }
+            case 66: {
+              io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.Builder subBuilder = null;
+              if (requestCase_ == 8) {
+                subBuilder = ((io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_).toBuilder();
+              }
+              request_ =
+                  input.readMessage(io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.parser(), extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom((io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_);
+                request_ = subBuilder.buildPartial();
+              }
+              requestCase_ = 8;
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -2932,52 +2961,549 @@ public final class CrdtMessagingProto {
         }
       };
 
-      public static com.google.protobuf.Parser<TakeAck> parser() {
+      public static com.google.protobuf.Parser<TakeAck> parser() {
+        return PARSER;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Parser<TakeAck> getParserForType() {
+        return PARSER;
+      }
+
+      @java.lang.Override
+      public io.activej.crdt.CrdtMessagingProto.CrdtRequest.TakeAck getDefaultInstanceForType() {
+        return DEFAULT_INSTANCE;
+      }
+
+    }
+
+    public interface DownloadOrBuilder extends
+        // @@protoc_insertion_point(interface_extends:crdt.CrdtRequest.Download)
+        com.google.protobuf.MessageOrBuilder {
+
+      /**
+       * <code>int64 token = 1;</code>
+       * @return The token.
+       */
+      long getToken();
+    }
+    /**
+     * Protobuf type {@code crdt.CrdtRequest.Download}
+     */
+    public static final class Download extends
+        com.google.protobuf.GeneratedMessageV3 implements
+        // @@protoc_insertion_point(message_implements:crdt.CrdtRequest.Download)
+        DownloadOrBuilder {
+    private static final long serialVersionUID = 0L;
+      // Use Download.newBuilder() to construct.
+      private Download(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+        super(builder);
+      }
+      private Download() {
+      }
+
+      @java.lang.Override
+      @SuppressWarnings({"unused"})
+      protected java.lang.Object newInstance(
+          UnusedPrivateParameter unused) {
+        return new Download();
+      }
+
+      @java.lang.Override
+      public final com.google.protobuf.UnknownFieldSet
+      getUnknownFields() {
+        return this.unknownFields;
+      }
+      private Download(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        this();
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+            com.google.protobuf.UnknownFieldSet.newBuilder();
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 8: {
+
+                token_ = input.readInt64();
+                break;
+              }
+              default: {
+                if (!parseUnknownField(
+                    input, unknownFields, extensionRegistry, tag)) {
+                  done = true;
+                }
+                break;
+              }
+            }
+          }
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(this);
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(
+              e).setUnfinishedMessage(this);
+        } finally {
+          this.unknownFields = unknownFields.build();
+          makeExtensionsImmutable();
+        }
+      }
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.class, io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.Builder.class);
+      }
+
+      public static final int TOKEN_FIELD_NUMBER = 1;
+      private long token_;
+      /**
+       * <code>int64 token = 1;</code>
+       * @return The token.
+       */
+      @java.lang.Override
+      public long getToken() {
+        return token_;
+      }
+
+      private byte memoizedIsInitialized = -1;
+      @java.lang.Override
+      public final boolean isInitialized() {
+        byte isInitialized = memoizedIsInitialized;
+        if (isInitialized == 1) return true;
+        if (isInitialized == 0) return false;
+
+        memoizedIsInitialized = 1;
+        return true;
+      }
+
+      @java.lang.Override
+      public void writeTo(com.google.protobuf.CodedOutputStream output)
+                          throws java.io.IOException {
+        if (token_ != 0L) {
+          output.writeInt64(1, token_);
+        }
+        unknownFields.writeTo(output);
+      }
+
+      @java.lang.Override
+      public int getSerializedSize() {
+        int size = memoizedSize;
+        if (size != -1) return size;
+
+        size = 0;
+        if (token_ != 0L) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeInt64Size(1, token_);
+        }
+        size += unknownFields.getSerializedSize();
+        memoizedSize = size;
+        return size;
+      }
+
+      @java.lang.Override
+      public boolean equals(final java.lang.Object obj) {
+        if (obj == this) {
+         return true;
+        }
+        if (!(obj instanceof io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download)) {
+          return super.equals(obj);
+        }
+        io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download other = (io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download) obj;
+
+        if (getToken()
+            != other.getToken()) return false;
+        if (!unknownFields.equals(other.unknownFields)) return false;
+        return true;
+      }
+
+      @java.lang.Override
+      public int hashCode() {
+        if (memoizedHashCode != 0) {
+          return memoizedHashCode;
+        }
+        int hash = 41;
+        hash = (19 * hash) + getDescriptor().hashCode();
+        hash = (37 * hash) + TOKEN_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getToken());
+        hash = (29 * hash) + unknownFields.hashCode();
+        memoizedHashCode = hash;
+        return hash;
+      }
+
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+          java.nio.ByteBuffer data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+          java.nio.ByteBuffer data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+          com.google.protobuf.ByteString data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+          com.google.protobuf.ByteString data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(byte[] data)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+          byte[] data,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return PARSER.parseFrom(data, extensionRegistry);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input, extensionRegistry);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseDelimitedFrom(java.io.InputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseDelimitedWithIOException(PARSER, input);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseDelimitedFrom(
+          java.io.InputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+          com.google.protobuf.CodedInputStream input)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input);
+      }
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        return com.google.protobuf.GeneratedMessageV3
+            .parseWithIOException(PARSER, input, extensionRegistry);
+      }
+
+      @java.lang.Override
+      public Builder newBuilderForType() { return newBuilder(); }
+      public static Builder newBuilder() {
+        return DEFAULT_INSTANCE.toBuilder();
+      }
+      public static Builder newBuilder(io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download prototype) {
+        return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+      }
+      @java.lang.Override
+      public Builder toBuilder() {
+        return this == DEFAULT_INSTANCE
+            ? new Builder() : new Builder().mergeFrom(this);
+      }
+
+      @java.lang.Override
+      protected Builder newBuilderForType(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        Builder builder = new Builder(parent);
+        return builder;
+      }
+      /**
+       * Protobuf type {@code crdt.CrdtRequest.Download}
+       */
+      public static final class Builder extends
+          com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+          // @@protoc_insertion_point(builder_implements:crdt.CrdtRequest.Download)
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadOrBuilder {
+        public static final com.google.protobuf.Descriptors.Descriptor
+            getDescriptor() {
+          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_descriptor;
+        }
+
+        @java.lang.Override
+        protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+            internalGetFieldAccessorTable() {
+          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_fieldAccessorTable
+              .ensureFieldAccessorsInitialized(
+                  io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.class, io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.Builder.class);
+        }
+
+        // Construct using io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.newBuilder()
+        private Builder() {
+          maybeForceBuilderInitialization();
+        }
+
+        private Builder(
+            com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+          super(parent);
+          maybeForceBuilderInitialization();
+        }
+        private void maybeForceBuilderInitialization() {
+          if (com.google.protobuf.GeneratedMessageV3
+                  .alwaysUseFieldBuilders) {
+          }
+        }
+        @java.lang.Override
+        public Builder clear() {
+          super.clear();
+          token_ = 0L;
+
+          return this;
+        }
+
+        @java.lang.Override
+        public com.google.protobuf.Descriptors.Descriptor
+            getDescriptorForType() {
+          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_descriptor;
+        }
+
+        @java.lang.Override
+        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download getDefaultInstanceForType() {
+          return io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.getDefaultInstance();
+        }
+
+        @java.lang.Override
+        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download build() {
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download result = buildPartial();
+          if (!result.isInitialized()) {
+            throw newUninitializedMessageException(result);
+          }
+          return result;
+        }
+
+        @java.lang.Override
+        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download buildPartial() {
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download result = new io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download(this);
+          result.token_ = token_;
+          onBuilt();
+          return result;
+        }
+
+        @java.lang.Override
+        public Builder clone() {
+          return super.clone();
+        }
+        @java.lang.Override
+        public Builder setField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            java.lang.Object value) {
+          return super.setField(field, value);
+        }
+        @java.lang.Override
+        public Builder clearField(
+            com.google.protobuf.Descriptors.FieldDescriptor field) {
+          return super.clearField(field);
+        }
+        @java.lang.Override
+        public Builder clearOneof(
+            com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+          return super.clearOneof(oneof);
+        }
+        @java.lang.Override
+        public Builder setRepeatedField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            int index, java.lang.Object value) {
+          return super.setRepeatedField(field, index, value);
+        }
+        @java.lang.Override
+        public Builder addRepeatedField(
+            com.google.protobuf.Descriptors.FieldDescriptor field,
+            java.lang.Object value) {
+          return super.addRepeatedField(field, value);
+        }
+        @java.lang.Override
+        public Builder mergeFrom(com.google.protobuf.Message other) {
+          if (other instanceof io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download) {
+            return mergeFrom((io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download)other);
+          } else {
+            super.mergeFrom(other);
+            return this;
+          }
+        }
+
+        public Builder mergeFrom(io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download other) {
+          if (other == io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.getDefaultInstance()) return this;
+          if (other.getToken() != 0L) {
+            setToken(other.getToken());
+          }
+          this.mergeUnknownFields(other.unknownFields);
+          onChanged();
+          return this;
+        }
+
+        @java.lang.Override
+        public final boolean isInitialized() {
+          return true;
+        }
+
+        @java.lang.Override
+        public Builder mergeFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws java.io.IOException {
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parsedMessage = null;
+          try {
+            parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+          } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+            parsedMessage = (io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download) e.getUnfinishedMessage();
+            throw e.unwrapIOException();
+          } finally {
+            if (parsedMessage != null) {
+              mergeFrom(parsedMessage);
+            }
+          }
+          return this;
+        }
+
+        private long token_ ;
+        /**
+         * <code>int64 token = 1;</code>
+         * @return The token.
+         */
+        @java.lang.Override
+        public long getToken() {
+          return token_;
+        }
+        /**
+         * <code>int64 token = 1;</code>
+         * @param value The token to set.
+         * @return This builder for chaining.
+         */
+        public Builder setToken(long value) {
+          
+          token_ = value;
+          onChanged();
+          return this;
+        }
+        /**
+         * <code>int64 token = 1;</code>
+         * @return This builder for chaining.
+         */
+        public Builder clearToken() {
+          
+          token_ = 0L;
+          onChanged();
+          return this;
+        }
+        @java.lang.Override
+        public final Builder setUnknownFields(
+            final com.google.protobuf.UnknownFieldSet unknownFields) {
+          return super.setUnknownFields(unknownFields);
+        }
+
+        @java.lang.Override
+        public final Builder mergeUnknownFields(
+            final com.google.protobuf.UnknownFieldSet unknownFields) {
+          return super.mergeUnknownFields(unknownFields);
+        }
+
+
+        // @@protoc_insertion_point(builder_scope:crdt.CrdtRequest.Download)
+      }
+
+      // @@protoc_insertion_point(class_scope:crdt.CrdtRequest.Download)
+      private static final io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download DEFAULT_INSTANCE;
+      static {
+        DEFAULT_INSTANCE = new io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download();
+      }
+
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download getDefaultInstance() {
+        return DEFAULT_INSTANCE;
+      }
+
+      private static final com.google.protobuf.Parser<Download>
+          PARSER = new com.google.protobuf.AbstractParser<Download>() {
+        @java.lang.Override
+        public Download parsePartialFrom(
+            com.google.protobuf.CodedInputStream input,
+            com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+            throws com.google.protobuf.InvalidProtocolBufferException {
+          return new Download(input, extensionRegistry);
+        }
+      };
+
+      public static com.google.protobuf.Parser<Download> parser() {
         return PARSER;
       }
 
       @java.lang.Override
-      public com.google.protobuf.Parser<TakeAck> getParserForType() {
+      public com.google.protobuf.Parser<Download> getParserForType() {
         return PARSER;
       }
 
       @java.lang.Override
-      public io.activej.crdt.CrdtMessagingProto.CrdtRequest.TakeAck getDefaultInstanceForType() {
+      public io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download getDefaultInstanceForType() {
         return DEFAULT_INSTANCE;
       }
 
     }
 
-    public interface DownloadOrBuilder extends
-        // @@protoc_insertion_point(interface_extends:crdt.CrdtRequest.Download)
+    public interface DownloadRangeOrBuilder extends
+        // @@protoc_insertion_point(interface_extends:crdt.CrdtRequest.DownloadRange)
         com.google.protobuf.MessageOrBuilder {
 
       /**
-       * <code>int64 token = 1;</code>
-       * @return The token.
+       * <code>bytes from = 1;</code>
+       * @return The from.
        */
-      long getToken();
+      com.google.protobuf.ByteString getFrom();
+
+      /**
+       * <code>bytes to = 2;</code>
+       * @return The to.
+       */
+      com.google.protobuf.ByteString getTo();
     }
     /**
-     * Protobuf type {@code crdt.CrdtRequest.Download}
+     * Protobuf type {@code crdt.CrdtRequest.DownloadRange}
      */
-    public static final class Download extends
+    public static final class DownloadRange extends
         com.google.protobuf.GeneratedMessageV3 implements
-        // @@protoc_insertion_point(message_implements:crdt.CrdtRequest.Download)
-        DownloadOrBuilder {
+        // @@protoc_insertion_point(message_implements:crdt.CrdtRequest.DownloadRange)
+        DownloadRangeOrBuilder {
     private static final long serialVersionUID = 0L;
-      // Use Download.newBuilder() to construct.
-      private Download(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      // Use DownloadRange.newBuilder() to construct.
+      private DownloadRange(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
         super(builder);
       }
-      private Download() {
+      private DownloadRange() {
+        from_ = com.google.protobuf.ByteString.EMPTY;
+        to_ = com.google.protobuf.ByteString.EMPTY;
       }
 
       @java.lang.Override
       @SuppressWarnings({"unused"})
       protected java.lang.Object newInstance(
           UnusedPrivateParameter unused) {
-        return new Download();
+        return new DownloadRange();
       }
 
       @java.lang.Override
@@ -2985,7 +3511,7 @@ public final class CrdtMessagingProto {
       getUnknownFields() {
         return this.unknownFields;
       }
-      private Download(
+      private DownloadRange(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
@@ -3003,9 +3529,14 @@ public final class CrdtMessagingProto {
               case 0:
                 done = true;
                 break;
-              case 8: {
+              case 10: {
 
-                token_ = input.readInt64();
+                from_ = input.readBytes();
+                break;
+              }
+              case 18: {
+
+                to_ = input.readBytes();
                 break;
               }
               default: {
@@ -3029,26 +3560,37 @@ public final class CrdtMessagingProto {
       }
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_descriptor;
+        return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_DownloadRange_descriptor;
       }
 
       @java.lang.Override
       protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_fieldAccessorTable
+        return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_DownloadRange_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.class, io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.Builder.class);
+                io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.class, io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.Builder.class);
       }
 
-      public static final int TOKEN_FIELD_NUMBER = 1;
-      private long token_;
+      public static final int FROM_FIELD_NUMBER = 1;
+      private com.google.protobuf.ByteString from_;
       /**
-       * <code>int64 token = 1;</code>
-       * @return The token.
+       * <code>bytes from = 1;</code>
+       * @return The from.
        */
       @java.lang.Override
-      public long getToken() {
-        return token_;
+      public com.google.protobuf.ByteString getFrom() {
+        return from_;
+      }
+
+      public static final int TO_FIELD_NUMBER = 2;
+      private com.google.protobuf.ByteString to_;
+      /**
+       * <code>bytes to = 2;</code>
+       * @return The to.
+       */
+      @java.lang.Override
+      public com.google.protobuf.ByteString getTo() {
+        return to_;
       }
 
       private byte memoizedIsInitialized = -1;
@@ -3065,8 +3607,11 @@ public final class CrdtMessagingProto {
       @java.lang.Override
       public void writeTo(com.google.protobuf.CodedOutputStream output)
                           throws java.io.IOException {
-        if (token_ != 0L) {
-          output.writeInt64(1, token_);
+        if (!from_.isEmpty()) {
+          output.writeBytes(1, from_);
+        }
+        if (!to_.isEmpty()) {
+          output.writeBytes(2, to_);
         }
         unknownFields.writeTo(output);
       }
@@ -3077,9 +3622,13 @@ public final class CrdtMessagingProto {
         if (size != -1) return size;
 
         size = 0;
-        if (token_ != 0L) {
+        if (!from_.isEmpty()) {
           size += com.google.protobuf.CodedOutputStream
-            .computeInt64Size(1, token_);
+            .computeBytesSize(1, from_);
+        }
+        if (!to_.isEmpty()) {
+          size += com.google.protobuf.CodedOutputStream
+            .computeBytesSize(2, to_);
         }
         size += unknownFields.getSerializedSize();
         memoizedSize = size;
@@ -3091,13 +3640,15 @@ public final class CrdtMessagingProto {
         if (obj == this) {
          return true;
         }
-        if (!(obj instanceof io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download)) {
+        if (!(obj instanceof io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange)) {
           return super.equals(obj);
         }
-        io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download other = (io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download) obj;
+        io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange other = (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) obj;
 
-        if (getToken()
-            != other.getToken()) return false;
+        if (!getFrom()
+            .equals(other.getFrom())) return false;
+        if (!getTo()
+            .equals(other.getTo())) return false;
         if (!unknownFields.equals(other.unknownFields)) return false;
         return true;
       }
@@ -3109,77 +3660,78 @@ public final class CrdtMessagingProto {
         }
         int hash = 41;
         hash = (19 * hash) + getDescriptor().hashCode();
-        hash = (37 * hash) + TOKEN_FIELD_NUMBER;
-        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
-            getToken());
+        hash = (37 * hash) + FROM_FIELD_NUMBER;
+        hash = (53 * hash) + getFrom().hashCode();
+        hash = (37 * hash) + TO_FIELD_NUMBER;
+        hash = (53 * hash) + getTo().hashCode();
         hash = (29 * hash) + unknownFields.hashCode();
         memoizedHashCode = hash;
         return hash;
       }
 
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(
           java.nio.ByteBuffer data)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return PARSER.parseFrom(data);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(
           java.nio.ByteBuffer data,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return PARSER.parseFrom(data, extensionRegistry);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(
           com.google.protobuf.ByteString data)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return PARSER.parseFrom(data);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(
           com.google.protobuf.ByteString data,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return PARSER.parseFrom(data, extensionRegistry);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(byte[] data)
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(byte[] data)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return PARSER.parseFrom(data);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(
           byte[] data,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
         return PARSER.parseFrom(data, extensionRegistry);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(java.io.InputStream input)
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(java.io.InputStream input)
           throws java.io.IOException {
         return com.google.protobuf.GeneratedMessageV3
             .parseWithIOException(PARSER, input);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(
           java.io.InputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
         return com.google.protobuf.GeneratedMessageV3
             .parseWithIOException(PARSER, input, extensionRegistry);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseDelimitedFrom(java.io.InputStream input)
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseDelimitedFrom(java.io.InputStream input)
           throws java.io.IOException {
         return com.google.protobuf.GeneratedMessageV3
             .parseDelimitedWithIOException(PARSER, input);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseDelimitedFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseDelimitedFrom(
           java.io.InputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
         return com.google.protobuf.GeneratedMessageV3
             .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(
           com.google.protobuf.CodedInputStream input)
           throws java.io.IOException {
         return com.google.protobuf.GeneratedMessageV3
             .parseWithIOException(PARSER, input);
       }
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parseFrom(
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parseFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
@@ -3192,7 +3744,7 @@ public final class CrdtMessagingProto {
       public static Builder newBuilder() {
         return DEFAULT_INSTANCE.toBuilder();
       }
-      public static Builder newBuilder(io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download prototype) {
+      public static Builder newBuilder(io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange prototype) {
         return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
       }
       @java.lang.Override
@@ -3208,26 +3760,26 @@ public final class CrdtMessagingProto {
         return builder;
       }
       /**
-       * Protobuf type {@code crdt.CrdtRequest.Download}
+       * Protobuf type {@code crdt.CrdtRequest.DownloadRange}
        */
       public static final class Builder extends
           com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
-          // @@protoc_insertion_point(builder_implements:crdt.CrdtRequest.Download)
-          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadOrBuilder {
+          // @@protoc_insertion_point(builder_implements:crdt.CrdtRequest.DownloadRange)
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRangeOrBuilder {
         public static final com.google.protobuf.Descriptors.Descriptor
             getDescriptor() {
-          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_descriptor;
+          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_DownloadRange_descriptor;
         }
 
         @java.lang.Override
         protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
             internalGetFieldAccessorTable() {
-          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_fieldAccessorTable
+          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_DownloadRange_fieldAccessorTable
               .ensureFieldAccessorsInitialized(
-                  io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.class, io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.Builder.class);
+                  io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.class, io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.Builder.class);
         }
 
-        // Construct using io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.newBuilder()
+        // Construct using io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.newBuilder()
         private Builder() {
           maybeForceBuilderInitialization();
         }
@@ -3245,7 +3797,9 @@ public final class CrdtMessagingProto {
         @java.lang.Override
         public Builder clear() {
           super.clear();
-          token_ = 0L;
+          from_ = com.google.protobuf.ByteString.EMPTY;
+
+          to_ = com.google.protobuf.ByteString.EMPTY;
 
           return this;
         }
@@ -3253,17 +3807,17 @@ public final class CrdtMessagingProto {
         @java.lang.Override
         public com.google.protobuf.Descriptors.Descriptor
             getDescriptorForType() {
-          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_Download_descriptor;
+          return io.activej.crdt.CrdtMessagingProto.internal_static_crdt_CrdtRequest_DownloadRange_descriptor;
         }
 
         @java.lang.Override
-        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download getDefaultInstanceForType() {
-          return io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.getDefaultInstance();
+        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange getDefaultInstanceForType() {
+          return io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance();
         }
 
         @java.lang.Override
-        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download build() {
-          io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download result = buildPartial();
+        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange build() {
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange result = buildPartial();
           if (!result.isInitialized()) {
             throw newUninitializedMessageException(result);
           }
@@ -3271,9 +3825,10 @@ public final class CrdtMessagingProto {
         }
 
         @java.lang.Override
-        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download buildPartial() {
-          io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download result = new io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download(this);
-          result.token_ = token_;
+        public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange buildPartial() {
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange result = new io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange(this);
+          result.from_ = from_;
+          result.to_ = to_;
           onBuilt();
           return result;
         }
@@ -3312,18 +3867,21 @@ public final class CrdtMessagingProto {
         }
         @java.lang.Override
         public Builder mergeFrom(com.google.protobuf.Message other) {
-          if (other instanceof io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download) {
-            return mergeFrom((io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download)other);
+          if (other instanceof io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) {
+            return mergeFrom((io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange)other);
           } else {
             super.mergeFrom(other);
             return this;
           }
         }
 
-        public Builder mergeFrom(io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download other) {
-          if (other == io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.getDefaultInstance()) return this;
-          if (other.getToken() != 0L) {
-            setToken(other.getToken());
+        public Builder mergeFrom(io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange other) {
+          if (other == io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance()) return this;
+          if (other.getFrom() != com.google.protobuf.ByteString.EMPTY) {
+            setFrom(other.getFrom());
+          }
+          if (other.getTo() != com.google.protobuf.ByteString.EMPTY) {
+            setTo(other.getTo());
           }
           this.mergeUnknownFields(other.unknownFields);
           onChanged();
@@ -3340,11 +3898,11 @@ public final class CrdtMessagingProto {
             com.google.protobuf.CodedInputStream input,
             com.google.protobuf.ExtensionRegistryLite extensionRegistry)
             throws java.io.IOException {
-          io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download parsedMessage = null;
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange parsedMessage = null;
           try {
             parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
           } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-            parsedMessage = (io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download) e.getUnfinishedMessage();
+            parsedMessage = (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) e.getUnfinishedMessage();
             throw e.unwrapIOException();
           } finally {
             if (parsedMessage != null) {
@@ -3354,33 +3912,70 @@ public final class CrdtMessagingProto {
           return this;
         }
 
-        private long token_ ;
+        private com.google.protobuf.ByteString from_ = com.google.protobuf.ByteString.EMPTY;
         /**
-         * <code>int64 token = 1;</code>
-         * @return The token.
+         * <code>bytes from = 1;</code>
+         * @return The from.
          */
         @java.lang.Override
-        public long getToken() {
-          return token_;
+        public com.google.protobuf.ByteString getFrom() {
+          return from_;
         }
         /**
-         * <code>int64 token = 1;</code>
-         * @param value The token to set.
+         * <code>bytes from = 1;</code>
+         * @param value The from to set.
          * @return This builder for chaining.
          */
-        public Builder setToken(long value) {
+        public Builder setFrom(com.google.protobuf.ByteString value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  
+          from_ = value;
+          onChanged();
+          return this;
+        }
+        /**
+         * <code>bytes from = 1;</code>
+         * @return This builder for chaining.
+         */
+        public Builder clearFrom() {
           
-          token_ = value;
+          from_ = getDefaultInstance().getFrom();
           onChanged();
           return this;
         }
+
+        private com.google.protobuf.ByteString to_ = com.google.protobuf.ByteString.EMPTY;
         /**
-         * <code>int64 token = 1;</code>
+         * <code>bytes to = 2;</code>
+         * @return The to.
+         */
+        @java.lang.Override
+        public com.google.protobuf.ByteString getTo() {
+          return to_;
+        }
+        /**
+         * <code>bytes to = 2;</code>
+         * @param value The to to set.
          * @return This builder for chaining.
          */
-        public Builder clearToken() {
+        public Builder setTo(com.google.protobuf.ByteString value) {
+          if (value == null) {
+    throw new NullPointerException();
+  }
+  
+          to_ = value;
+          onChanged();
+          return this;
+        }
+        /**
+         * <code>bytes to = 2;</code>
+         * @return This builder for chaining.
+         */
+        public Builder clearTo() {
           
-          token_ = 0L;
+          to_ = getDefaultInstance().getTo();
           onChanged();
           return this;
         }
@@ -3397,41 +3992,41 @@ public final class CrdtMessagingProto {
         }
 
 
-        // @@protoc_insertion_point(builder_scope:crdt.CrdtRequest.Download)
+        // @@protoc_insertion_point(builder_scope:crdt.CrdtRequest.DownloadRange)
       }
 
-      // @@protoc_insertion_point(class_scope:crdt.CrdtRequest.Download)
-      private static final io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download DEFAULT_INSTANCE;
+      // @@protoc_insertion_point(class_scope:crdt.CrdtRequest.DownloadRange)
+      private static final io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange DEFAULT_INSTANCE;
       static {
-        DEFAULT_INSTANCE = new io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download();
+        DEFAULT_INSTANCE = new io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange();
       }
 
-      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download getDefaultInstance() {
+      public static io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange getDefaultInstance() {
         return DEFAULT_INSTANCE;
       }
 
-      private static final com.google.protobuf.Parser<Download>
-          PARSER = new com.google.protobuf.AbstractParser<Download>() {
+      private static final com.google.protobuf.Parser<DownloadRange>
+          PARSER = new com.google.protobuf.AbstractParser<DownloadRange>() {
         @java.lang.Override
-        public Download parsePartialFrom(
+        public DownloadRange parsePartialFrom(
             com.google.protobuf.CodedInputStream input,
             com.google.protobuf.ExtensionRegistryLite extensionRegistry)
             throws com.google.protobuf.InvalidProtocolBufferException {
-          return new Download(input, extensionRegistry);
+          return new DownloadRange(input, extensionRegistry);
         }
       };
 
-      public static com.google.protobuf.Parser<Download> parser() {
+      public static com.google.protobuf.Parser<DownloadRange> parser() {
         return PARSER;
       }
 
       @java.lang.Override
-      public com.google.protobuf.Parser<Download> getParserForType() {
+      public com.google.protobuf.Parser<DownloadRange> getParserForType() {
         return PARSER;
       }
 
       @java.lang.Override
-      public io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download getDefaultInstanceForType() {
+      public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange getDefaultInstanceForType() {
         return DEFAULT_INSTANCE;
       }
 
@@ -4070,6 +4665,7 @@ public final class CrdtMessagingProto {
       TAKE(5),
       TAKE_ACK(6),
       DOWNLOAD(7),
+      DOWNLOAD_RANGE(8),
       REQUEST_NOT_SET(0);
       private final int value;
       private RequestCase(int value) {
@@ -4094,6 +4690,7 @@ public final class CrdtMessagingProto {
           case 5: return TAKE;
           case 6: return TAKE_ACK;
           case 7: return DOWNLOAD;
+          case 8: return DOWNLOAD_RANGE;
           case 0: return REQUEST_NOT_SET;
           default: return null;
         }
@@ -4326,6 +4923,37 @@ public final class CrdtMessagingProto {
       return io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download.getDefaultInstance();
     }
 
+    public static final int DOWNLOAD_RANGE_FIELD_NUMBER = 8;
+    /**
+     * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+     * @return Whether the downloadRange field is set.
+     */
+    @java.lang.Override
+    public boolean hasDownloadRange() {
+      return requestCase_ == 8;
+    }
+    /**
+     * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+     * @return The downloadRange.
+     */
+    @java.lang.Override
+    public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange getDownloadRange() {
+      if (requestCase_ == 8) {
+         return (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_;
+      }
+      return io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance();
+    }
+    /**
+     * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+     */
+    @java.lang.Override
+    public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRangeOrBuilder getDownloadRangeOrBuilder() {
+      if (requestCase_ == 8) {
+         return (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_;
+      }
+      return io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance();
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -4361,6 +4989,9 @@ public final class CrdtMessagingProto {
       if (requestCase_ == 7) {
         output.writeMessage(7, (io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download) request_);
       }
+      if (requestCase_ == 8) {
+        output.writeMessage(8, (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -4398,6 +5029,10 @@ public final class CrdtMessagingProto {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(7, (io.activej.crdt.CrdtMessagingProto.CrdtRequest.Download) request_);
       }
+      if (requestCase_ == 8) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(8, (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -4443,6 +5078,10 @@ public final class CrdtMessagingProto {
           if (!getDownload()
               .equals(other.getDownload())) return false;
           break;
+        case 8:
+          if (!getDownloadRange()
+              .equals(other.getDownloadRange())) return false;
+          break;
         case 0:
         default:
       }
@@ -4486,6 +5125,10 @@ public final class CrdtMessagingProto {
           hash = (37 * hash) + DOWNLOAD_FIELD_NUMBER;
           hash = (53 * hash) + getDownload().hashCode();
           break;
+        case 8:
+          hash = (37 * hash) + DOWNLOAD_RANGE_FIELD_NUMBER;
+          hash = (53 * hash) + getDownloadRange().hashCode();
+          break;
         case 0:
         default:
       }
@@ -4699,6 +5342,13 @@ public final class CrdtMessagingProto {
             result.request_ = downloadBuilder_.build();
           }
         }
+        if (requestCase_ == 8) {
+          if (downloadRangeBuilder_ == null) {
+            result.request_ = request_;
+          } else {
+            result.request_ = downloadRangeBuilder_.build();
+          }
+        }
         result.requestCase_ = requestCase_;
         onBuilt();
         return result;
@@ -4777,6 +5427,10 @@ public final class CrdtMessagingProto {
             mergeDownload(other.getDownload());
             break;
           }
+          case DOWNLOAD_RANGE: {
+            mergeDownloadRange(other.getDownloadRange());
+            break;
+          }
           case REQUEST_NOT_SET: {
             break;
           }
@@ -5811,6 +6465,147 @@ public final class CrdtMessagingProto {
         onChanged();;
         return downloadBuilder_;
       }
+
+      private com.google.protobuf.SingleFieldBuilderV3<
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange, io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.Builder, io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRangeOrBuilder> downloadRangeBuilder_;
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       * @return Whether the downloadRange field is set.
+       */
+      @java.lang.Override
+      public boolean hasDownloadRange() {
+        return requestCase_ == 8;
+      }
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       * @return The downloadRange.
+       */
+      @java.lang.Override
+      public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange getDownloadRange() {
+        if (downloadRangeBuilder_ == null) {
+          if (requestCase_ == 8) {
+            return (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_;
+          }
+          return io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance();
+        } else {
+          if (requestCase_ == 8) {
+            return downloadRangeBuilder_.getMessage();
+          }
+          return io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       */
+      public Builder setDownloadRange(io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange value) {
+        if (downloadRangeBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          request_ = value;
+          onChanged();
+        } else {
+          downloadRangeBuilder_.setMessage(value);
+        }
+        requestCase_ = 8;
+        return this;
+      }
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       */
+      public Builder setDownloadRange(
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.Builder builderForValue) {
+        if (downloadRangeBuilder_ == null) {
+          request_ = builderForValue.build();
+          onChanged();
+        } else {
+          downloadRangeBuilder_.setMessage(builderForValue.build());
+        }
+        requestCase_ = 8;
+        return this;
+      }
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       */
+      public Builder mergeDownloadRange(io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange value) {
+        if (downloadRangeBuilder_ == null) {
+          if (requestCase_ == 8 &&
+              request_ != io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance()) {
+            request_ = io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.newBuilder((io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_)
+                .mergeFrom(value).buildPartial();
+          } else {
+            request_ = value;
+          }
+          onChanged();
+        } else {
+          if (requestCase_ == 8) {
+            downloadRangeBuilder_.mergeFrom(value);
+          }
+          downloadRangeBuilder_.setMessage(value);
+        }
+        requestCase_ = 8;
+        return this;
+      }
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       */
+      public Builder clearDownloadRange() {
+        if (downloadRangeBuilder_ == null) {
+          if (requestCase_ == 8) {
+            requestCase_ = 0;
+            request_ = null;
+            onChanged();
+          }
+        } else {
+          if (requestCase_ == 8) {
+            requestCase_ = 0;
+            request_ = null;
+          }
+          downloadRangeBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       */
+      public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.Builder getDownloadRangeBuilder() {
+        return getDownloadRangeFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       */
+      @java.lang.Override
+      public io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRangeOrBuilder getDownloadRangeOrBuilder() {
+        if ((requestCase_ == 8) && (downloadRangeBuilder_ != null)) {
+          return downloadRangeBuilder_.getMessageOrBuilder();
+        } else {
+          if (requestCase_ == 8) {
+            return (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_;
+          }
+          return io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>.crdt.CrdtRequest.DownloadRange download_range = 8;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange, io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.Builder, io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRangeOrBuilder> 
+          getDownloadRangeFieldBuilder() {
+        if (downloadRangeBuilder_ == null) {
+          if (!(requestCase_ == 8)) {
+            request_ = io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.getDefaultInstance();
+          }
+          downloadRangeBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange, io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange.Builder, io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRangeOrBuilder>(
+                  (io.activej.crdt.CrdtMessagingProto.CrdtRequest.DownloadRange) request_,
+                  getParentForChildren(),
+                  isClean());
+          request_ = null;
+        }
+        requestCase_ = 8;
+        onChanged();;
+        return downloadRangeBuilder_;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -12790,6 +13585,11 @@ public final class CrdtMessagingProto {
   private static final 
     com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_crdt_CrdtRequest_Download_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_crdt_CrdtRequest_DownloadRange_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_crdt_CrdtRequest_DownloadRange_fieldAccessorTable;
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_crdt_CrdtRequest_Handshake_descriptor;
   private static final 
@@ -12855,7 +13655,7 @@ public final class CrdtMessagingProto {
   static {
     java.lang.String[] descriptorData = {
       "\n\017messaging.proto\022\004crdt\"\'\n\007Version\022\r\n\005ma" +
-      "jor\030\001 \001(\005\022\r\n\005minor\030\002 \001(\005\"\310\003\n\013CrdtRequest" +
+      "jor\030\001 \001(\005\022\r\n\005minor\030\002 \001(\005\"\256\004\n\013CrdtRequest" +
       "\0220\n\thandshake\030\001 \001(\0132\033.crdt.CrdtRequest.H" +
       "andshakeH\000\022*\n\006upload\030\002 \001(\0132\030.crdt.CrdtRe" +
       "quest.UploadH\000\022*\n\006remove\030\003 \001(\0132\030.crdt.Cr" +
@@ -12863,29 +13663,32 @@ public final class CrdtMessagingProto {
       "CrdtRequest.PingH\000\022&\n\004take\030\005 \001(\0132\026.crdt." +
       "CrdtRequest.TakeH\000\022-\n\010take_ack\030\006 \001(\0132\031.c" +
       "rdt.CrdtRequest.TakeAckH\000\022.\n\010download\030\007 " +
-      "\001(\0132\032.crdt.CrdtRequest.DownloadH\000\032\010\n\006Upl" +
-      "oad\032\010\n\006Remove\032\006\n\004Ping\032\006\n\004Take\032\t\n\007TakeAck" +
-      "\032\031\n\010Download\022\r\n\005token\030\001 \001(\003\032+\n\tHandshake" +
-      "\022\036\n\007version\030\001 \001(\0132\r.crdt.VersionB\t\n\007requ" +
-      "est\"\266\005\n\014CrdtResponse\0221\n\thandshake\030\001 \001(\0132" +
-      "\034.crdt.CrdtResponse.HandshakeH\000\0222\n\nuploa" +
-      "d_ack\030\002 \001(\0132\034.crdt.CrdtResponse.UploadAc" +
-      "kH\000\0222\n\nremove_ack\030\003 \001(\0132\034.crdt.CrdtRespo" +
-      "nse.RemoveAckH\000\022\'\n\004pong\030\004 \001(\0132\027.crdt.Crd" +
-      "tResponse.PongH\000\022>\n\020download_started\030\005 \001" +
-      "(\0132\".crdt.CrdtResponse.DownloadStartedH\000" +
-      "\0226\n\014take_started\030\006 \001(\0132\036.crdt.CrdtRespon" +
-      "se.TakeStartedH\000\0226\n\014server_error\030\007 \001(\0132\036" +
-      ".crdt.CrdtResponse.ServerErrorH\000\032\013\n\tUplo" +
-      "adAck\032\013\n\tRemoveAck\032\006\n\004Pong\032\021\n\017DownloadSt" +
-      "arted\032\r\n\013TakeStarted\032\036\n\013ServerError\022\017\n\007m" +
-      "essage\030\001 \001(\t\032\301\001\n\tHandshake\022-\n\002ok\030\001 \001(\0132\037" +
-      ".crdt.CrdtResponse.Handshake.OkH\000\0224\n\006not" +
-      "_ok\030\002 \001(\0132\".crdt.CrdtResponse.Handshake." +
-      "NotOkH\000\032\004\n\002Ok\032?\n\005NotOk\022%\n\016minimalVersion" +
-      "\030\001 \001(\0132\r.crdt.Version\022\017\n\007message\030\002 \001(\tB\010" +
-      "\n\006resultB\n\n\010responseB\'\n\017io.activej.crdtB" +
-      "\022CrdtMessagingProtoP\000b\006proto3"
+      "\001(\0132\032.crdt.CrdtRequest.DownloadH\000\0229\n\016dow" +
+      "nload_range\030\010 \001(\0132\037.crdt.CrdtRequest.Dow" +
+      "nloadRangeH\000\032\010\n\006Upload\032\010\n\006Remove\032\006\n\004Ping" +
+      "\032\006\n\004Take\032\t\n\007TakeAck\032\031\n\010Download\022\r\n\005token" +
+      "\030\001 \001(\003\032)\n\rDownloadRange\022\014\n\004from\030\001 \001(\014\022\n\n" +
+      "\002to\030\002 \001(\014\032+\n\tHandshake\022\036\n\007version\030\001 \001(\0132" +
+      "\r.crdt.VersionB\t\n\007request\"\266\005\n\014CrdtRespon" +
+      "se\0221\n\thandshake\030\001 \001(\0132\034.crdt.CrdtRespons" +
+      "e.HandshakeH\000\0222\n\nupload_ack\030\002 \001(\0132\034.crdt" +
+      ".CrdtResponse.UploadAckH\000\0222\n\nremove_ack\030" +
+      "\003 \001(\0132\034.crdt.CrdtResponse.RemoveAckH\000\022\'\n" +
+      "\004pong\030\004 \001(\0132\027.crdt.CrdtResponse.PongH\000\022>" +
+      "\n\020download_started\030\005 \001(\0132\".crdt.CrdtResp" +
+      "onse.DownloadStartedH\000\0226\n\014take_started\030\006" +
+      " \001(\0132\036.crdt.CrdtResponse.TakeStartedH\000\0226" +
+      "\n\014server_error\030\007 \001(\0132\036.crdt.CrdtResponse" +
+      ".ServerErrorH\000\032\013\n\tUploadAck\032\013\n\tRemoveAck" +
+      "\032\006\n\004Pong\032\021\n\017DownloadStarted\032\r\n\013TakeStart" +
+      "ed\032\036\n\013ServerError\022\017\n\007message\030\001 \001(\t\032\301\001\n\tH" +
+      "andshake\022-\n\002ok\030\001 \001(\0132\037.crdt.CrdtResponse" +
+      ".Handshake.OkH\000\0224\n\006not_ok\030\002 \001(\0132\".crdt.C" +
+      "rdtResponse.Handshake.NotOkH\000\032\004\n\002Ok\032?\n\005N" +
+      "otOk\022%\n\016minimalVersion\030\001 \001(\0132\r.crdt.Vers" +
+      "ion\022\017\n\007message\030\002 \001(\tB\010\n\006resultB\n\n\010respon" +
+      "seB\'\n\017io.activej.crdtB\022CrdtMessagingProt" +
+      "oP\000b\006proto3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -12902,7 +13705,7 @@ public final class CrdtMessagingProto {
     internal_static_crdt_CrdtRequest_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_crdt_CrdtRequest_descriptor,
-        new java.lang.String[] { "Handshake", "Upload", "Remove", "Ping", "Take", "TakeAck", "Download", "Request", });
+        new java.lang.String[] { "Handshake", "Upload", "Remove", "Ping", "Take", "TakeAck", "Download", "DownloadRange", "Request", });
     internal_static_crdt_CrdtRequest_Upload_descriptor =
       internal_static_crdt_CrdtRequest_descriptor.getNestedTypes().get(0);
     internal_static_crdt_CrdtRequest_Upload_fieldAccessorTable = new
@@ -12939,8 +13742,14 @@ public final class CrdtMessagingProto {
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_crdt_CrdtRequest_Download_descriptor,
         new java.lang.String[] { "Token", });
-    internal_static_crdt_CrdtRequest_Handshake_descriptor =
+    internal_static_crdt_CrdtRequest_DownloadRange_descriptor =
       internal_static_crdt_CrdtRequest_descriptor.getNestedTypes().get(6);
+    internal_static_crdt_CrdtRequest_DownloadRange_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_crdt_CrdtRequest_DownloadRange_descriptor,
+        new java.lang.String[] { "From", "To", });
+    internal_static_crdt_CrdtRequest_Handshake_descriptor =
+      internal_static_crdt_CrdtRequest_descriptor.getNestedTypes().get(7);
     internal_static_crdt_CrdtRequest_Handshake_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_crdt_CrdtRequest_Handshake_descriptor,
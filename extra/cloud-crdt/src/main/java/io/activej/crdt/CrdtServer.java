@@ -27,6 +27,7 @@ import io.activej.csp.binary.ByteBufsCodec;
 import io.activej.csp.net.Messaging;
 import io.activej.csp.net.MessagingWithBinaryStreaming;
 import io.activej.datastream.StreamConsumer;
+import io.activej.datastream.StreamSupplier;
 import io.activej.datastream.csp.ChannelDeserializer;
 import io.activej.datastream.csp.ChannelSerializer;
 import io.activej.datastream.stats.StreamStats;
@@ -40,6 +41,7 @@ import io.activej.net.socket.tcp.AsyncTcpSocket;
 import io.activej.promise.Promise;
 import io.activej.promise.jmx.PromiseStats;
 import io.activej.serializer.BinarySerializer;
+import io.activej.serializer.CorruptedDataException;
 
 import java.net.InetAddress;
 import java.time.Duration;
@@ -65,6 +67,7 @@ public final class CrdtServer<K extends Comparable<K>, S> extends AbstractServer
 
 	private final CrdtStorage<K, S> storage;
 	private final CrdtDataSerializer<K, S> serializer;
+	private final BinarySerializer<K> keySerializer;
 	private final BinarySerializer<CrdtTombstone<K>> tombstoneSerializer;
 
 	// region JMX
@@ -96,6 +99,7 @@ public final class CrdtServer<K extends Comparable<K>, S> extends AbstractServer
 		this.storage = storage;
 		this.serializer = serializer;
 
+		keySerializer = serializer.getKeySerializer();
 		tombstoneSerializer = serializer.getTombstoneSerializer();
 	}
 
@@ -125,6 +129,7 @@ public final class CrdtServer<K extends Comparable<K>, S> extends AbstractServer
 							.then(messaging::receive)
 							.then(msg -> switch (msg.getRequestCase()) {
 								case DOWNLOAD -> download(messaging, msg.getDownload());
+								case DOWNLOAD_RANGE -> downloadRange(messaging, msg.getDownloadRange());
 								case UPLOAD -> upload(messaging, msg.getUpload());
 								case REMOVE -> remove(messaging, msg.getRemove());
 								case PING -> ping(messaging, msg.getPing());
@@ -210,15 +215,31 @@ public final class CrdtServer<K extends Comparable<K>, S> extends AbstractServer
 	}
 
 	private Promise<Void> download(MessagingWithBinaryStreaming<CrdtRequest, CrdtResponse> messaging, CrdtRequest.Download download) {
-		return storage.download(download.getToken())
+		return sendDownloaded(messaging, storage.download(download.getToken()))
+				.whenComplete(toLogger(logger, TRACE, thisMethod(), messaging, download, this));
+	}
+
+	private Promise<Void> downloadRange(MessagingWithBinaryStreaming<CrdtRequest, CrdtResponse> messaging, CrdtRequest.DownloadRange downloadRange) {
+		K from, to;
+		try {
+			from = keySerializer.decode(downloadRange.getFrom().toByteArray(), 0);
+			to = keySerializer.decode(downloadRange.getTo().toByteArray(), 0);
+		} catch (CorruptedDataException e) {
+			return Promise.ofException(new CrdtException("Failed to decode a range of keys", e));
+		}
+		return sendDownloaded(messaging, storage.download(from, to))
+				.whenComplete(toLogger(logger, TRACE, thisMethod(), messaging, downloadRange, this));
+	}
+
+	private Promise<Void> sendDownloaded(MessagingWithBinaryStreaming<CrdtRequest, CrdtResponse> messaging, Promise<StreamSupplier<CrdtData<K, S>>> download) {
+		return download
 				.map(consumer -> consumer.transformWith(detailedStats ? downloadStatsDetailed : downloadStats))
 				.whenComplete(downloadBeginPromise.recordStats())
 				.whenResult(() -> messaging.send(response(DOWNLOAD_STARTED)))
 				.then(supplier -> supplier
 						.transformWith(ChannelSerializer.create(serializer))
 						.streamTo(messaging.sendBinaryStream()))
-				.whenComplete(downloadFinishedPromise.recordStats())
-				.whenComplete(toLogger(logger, TRACE, thisMethod(), messaging, download, this));
+				.whenComplete(downloadFinishedPromise.recordStats());
 	}
 
 	private static CrdtResponse response(ResponseCase responseCase) {
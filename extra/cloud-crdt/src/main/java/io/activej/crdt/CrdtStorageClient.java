@@ -16,6 +16,7 @@
 
 package io.activej.crdt;
 
+import com.google.protobuf.ByteString;
 import io.activej.async.service.EventloopService;
 import io.activej.bytebuf.ByteBuf;
 import io.activej.common.ApplicationSettings;
@@ -54,6 +55,7 @@ import java.time.Duration;
 import static io.activej.crdt.CrdtMessagingProto.CrdtRequest.RequestCase.*;
 import static io.activej.crdt.CrdtMessagingProto.CrdtResponse;
 import static io.activej.crdt.CrdtMessagingProto.CrdtResponse.ResponseCase.*;
+import static io.activej.crdt.util.Utils.encode;
 import static io.activej.crdt.util.Utils.onItem;
 import static io.activej.fs.util.ProtobufUtils.codec;
 
@@ -153,9 +155,18 @@ public final class CrdtStorageClient<K extends Comparable<K>, S> implements Crdt
 
 	@Override
 	public Promise<StreamSupplier<CrdtData<K, S>>> download(long timestamp) {
+		return download(downloadRequest(timestamp));
+	}
+
+	@Override
+	public Promise<StreamSupplier<CrdtData<K, S>>> download(K from, K to) {
+		return download(downloadRangeRequest(from, to));
+	}
+
+	private Promise<StreamSupplier<CrdtData<K, S>>> download(CrdtRequest request) {
 		return connect()
 				.then(CrdtStorageClient::performHandshake)
-				.then(messaging -> messaging.send(downloadRequest(timestamp))
+				.then(messaging -> messaging.send(request)
 						.mapException(e -> new CrdtException("Failed to send 'Download' request", e))
 						.then(() -> messaging.receive()
 								.mapException(e -> new CrdtException("Failed to receive response", e)))
@@ -303,6 +314,15 @@ public final class CrdtStorageClient<K extends Comparable<K>, S> implements Crdt
 				.build();
 	}
 
+	private CrdtRequest downloadRangeRequest(K from, K to) {
+		BinarySerializer<K> keySerializer = serializer.getKeySerializer();
+		return CrdtRequest.newBuilder()
+				.setDownloadRange(DownloadRange.newBuilder()
+						.setFrom(ByteString.copyFrom(encode(keySerializer, from)))
+						.setTo(ByteString.copyFrom(encode(keySerializer, to))))
+				.build();
+	}
+
 	// region JMX
 	@JmxOperation
 	public void startDetailedMonitoring() {
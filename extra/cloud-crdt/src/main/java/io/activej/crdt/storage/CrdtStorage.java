@@ -20,7 +20,9 @@ import io.activej.crdt.CrdtData;
 import io.activej.crdt.CrdtTombstone;
 import io.activej.datastream.StreamConsumer;
 import io.activej.datastream.StreamSupplier;
+import io.activej.datastream.processor.StreamFilter;
 import io.activej.promise.Promise;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Interface for various CRDT client implementations.
@@ -55,6 +57,38 @@ public interface CrdtStorage<K extends Comparable<K>, S> {
 		return download(0);
 	}
 
+	/**
+	 * Returns a promise of a stream supplier of key-state pairs in the CRDT storage
+	 * whose keys are within a given range, both bounds are inclusive.
+	 * Pairs are sorted by key.
+	 * <p>
+	 * Default implementation filters all the key-state pairs,
+	 * implementations are expected to read only the data which may contain given keys.
+	 *
+	 * @param from the lowest key of the range
+	 * @param to   the highest key of the range
+	 * @return a promise of a stream supplier of key-state pairs within the range
+	 */
+	default Promise<StreamSupplier<CrdtData<K, S>>> download(K from, K to) {
+		return download()
+				.map(supplier -> supplier
+						.transformWith(StreamFilter.create(data ->
+								from.compareTo(data.getKey()) <= 0 && data.getKey().compareTo(to) <= 0)));
+	}
+
+	/**
+	 * Returns a promise of a key-state pair for a given key,
+	 * or a promise of {@code null} if there is no such key in the CRDT storage.
+	 *
+	 * @param key a key to look up
+	 * @return a promise of a key-state pair or of {@code null}
+	 */
+	default Promise<@Nullable CrdtData<K, S>> fetch(K key) {
+		return download(key, key)
+				.then(StreamSupplier::toList)
+				.map(list -> list.isEmpty() ? null : list.get(0));
+	}
+
 	/**
 	 * Returns a promise of a "destroying" stream supplier of all key-state pairs in the CRDT storage.
 	 * Pairs are sorted by key. After stream supplier is finished, all the returned key-state pairs
@@ -46,6 +46,7 @@ import io.activej.jmx.stats.EventStats;
 import io.activej.promise.Promise;
 import io.activej.promise.Promises;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import java.time.Duration;
@@ -192,6 +193,43 @@ public final class CrdtStorageCluster<K extends Comparable<K>, S, P> implements
 						.transformWith(onItem(downloadedItems::recordEvent)));
 	}
 
+	@Override
+	public Promise<StreamSupplier<CrdtData<K, S>>> download(K from, K to) {
+		return getData(storage -> storage.download(from, to))
+				.map(supplier -> supplier
+						.transformWith(detailedStats ? downloadStatsDetailed : downloadStats)
+						.transformWith(onItem(downloadedItems::recordEvent)));
+	}
+
+	/**
+	 * Looks a key up only at partitions which the key is sharded to.
+	 * If any of them fails, the key might have been uploaded to other partitions,
+	 * so the key is looked up at all the partitions, same as on download
+	 */
+	@Override
+	public Promise<@Nullable CrdtData<K, S>> fetch(K key) {
+		PartitionScheme<P> partitionScheme = this.currentPartitionScheme;
+		List<P> partitions = new ArrayList<>(partitionScheme.getPartitions());
+		Sharder<K> sharder = partitionScheme.createSharder(partitions);
+		if (sharder == null) {
+			return Promise.ofException(new CrdtException("Incomplete cluster"));
+		}
+		return Promises.toList(Arrays.stream(sharder.shard(key))
+						.mapToObj(idx -> crdtStorages.get(partitions.get(idx)).fetch(key)))
+				.then((results, e) -> {
+					if (e == null) {
+						return Promise.of(merge(results));
+					}
+					return execute(partitionScheme, storage -> storage.fetch(key))
+							.map(map -> {
+								if (!partitionScheme.isReadValid(map.keySet())) {
+									throw new CrdtException("Incomplete cluster");
+								}
+								return merge(map.values());
+							});
+				});
+	}
+
 	@Override
 	public Promise<StreamSupplier<CrdtData<K, S>>> take() {
 		return getData(CrdtStorage::take)
@@ -333,9 +371,7 @@ public final class CrdtStorageCluster<K extends Comparable<K>, S, P> implements
 								new BinaryAccumulatorReducer<>() {
 									@Override
 									protected CrdtData<K, S> combine(K key, CrdtData<K, S> nextValue, CrdtData<K, S> accumulator) {
-										long timestamp = Math.max(nextValue.getTimestamp(), accumulator.getTimestamp());
-										S merged = crdtFunction.merge(accumulator.getState(), accumulator.getTimestamp(), nextValue.getState(), nextValue.getTimestamp());
-										return new CrdtData<>(key, timestamp, merged);
+										return merge(accumulator, nextValue);
 									}
 								})
 						);
@@ -344,6 +380,21 @@ public final class CrdtStorageCluster<K extends Comparable<K>, S, P> implements
 				});
 	}
 
+	private @Nullable CrdtData<K, S> merge(Collection<@Nullable CrdtData<K, S>> results) {
+		CrdtData<K, S> merged = null;
+		for (CrdtData<K, S> data : results) {
+			if (data == null) continue;
+			merged = merged == null ? data : merge(merged, data);
+		}
+		return merged;
+	}
+
+	private CrdtData<K, S> merge(CrdtData<K, S> accumulator, CrdtData<K, S> nextValue) {
+		long timestamp = Math.max(nextValue.getTimestamp(), accumulator.getTimestamp());
+		S merged = crdtFunction.merge(accumulator.getState(), accumulator.getTimestamp(), nextValue.getState(), nextValue.getTimestamp());
+		return new CrdtData<>(accumulator.getKey(), timestamp, merged);
+	}
+
 	private void updatePartitionScheme(PartitionScheme<P> partitionScheme) {
 		this.currentPartitionScheme = partitionScheme;
 		crdtStorages.keySet().retainAll(partitionScheme.getPartitions());
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.crdt.storage.local;
+
+import io.activej.common.HashUtils;
+import io.activej.serializer.BinaryInput;
+import io.activej.serializer.BinaryOutput;
+import io.activej.serializer.CorruptedDataException;
+
+/**
+ * A bloom filter over 64-bit hashes of keys.
+ * Bit positions are derived from two halves of a hash (Kirsch-Mitzenmacher),
+ * so a key is hashed only once regardless of a number of hash functions
+ */
+final class BloomFilter {
+	private static final int MAX_HASHES = 16;
+
+	private final long[] words;
+	private final int hashes;
+	private final long bits;
+
+	private BloomFilter(long[] words, int hashes) {
+		this.words = words;
+		this.hashes = hashes;
+		this.bits = (long) words.length * Long.SIZE;
+	}
+
+	static BloomFilter create(long[] keyHashes, int count, int bitsPerKey) {
+		int words = (int) Math.max(1, ((long) count * bitsPerKey + Long.SIZE - 1) / Long.SIZE);
+		int hashes = Math.max(1, Math.min(MAX_HASHES, (int) Math.round(bitsPerKey * Math.log(2))));
+		BloomFilter filter = new BloomFilter(new long[words], hashes);
+		for (int i = 0; i < count; i++) {
+			filter.add(keyHashes[i]);
+		}
+		return filter;
+	}
+
+	static long hash(byte[] bytes) {
+		long h = 0xcbf29ce484222325L;
+		for (byte b : bytes) {
+			h = (h ^ (b & 0xFF)) * 0x100000001b3L;
+		}
+		return HashUtils.murmur3hash(h);
+	}
+
+	private void add(long hash) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + (long) i * h2, bits);
+			words[(int) (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	boolean mightContain(long hash) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + (long) i * h2, bits);
+			if ((words[(int) (bit >>> 6)] & 1L << bit) == 0) return false;
+		}
+		return true;
+	}
+
+	int estimateSize() {
+		return 1 + 5 + words.length * 8;
+	}
+
+	void encode(BinaryOutput out) {
+		out.writeByte((byte) hashes);
+		out.writeVarInt(words.length);
+		for (long word : words) {
+			out.writeLong(word);
+		}
+	}
+
+	static BloomFilter decode(BinaryInput in) throws CorruptedDataException {
+		int hashes = in.readByte();
+		int length = in.readVarInt();
+		if (hashes <= 0 || hashes > MAX_HASHES || length <= 0 || (long) length * 8 > in.array().length - in.pos()) {
+			throw new CorruptedDataException("Malformed bloom filter");
+		}
+		long[] words = new long[length];
+		for (int i = 0; i < length; i++) {
+			words[i] = in.readLong();
+		}
+		return new BloomFilter(words, hashes);
+	}
+}
@@ -20,7 +20,9 @@ import io.activej.async.function.AsyncRunnable;
 import io.activej.async.function.AsyncRunnables;
 import io.activej.async.service.EventloopService;
 import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufs;
 import io.activej.common.ApplicationSettings;
+import io.activej.common.MemSize;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.crdt.CrdtData;
 import io.activej.crdt.CrdtException;
@@ -32,6 +34,8 @@ import io.activej.crdt.storage.CrdtStorage;
 import io.activej.crdt.util.CrdtDataSerializer;
 import io.activej.csp.ChannelConsumer;
 import io.activej.csp.ChannelConsumers;
+import io.activej.csp.ChannelSupplier;
+import io.activej.csp.ChannelSuppliers;
 import io.activej.datastream.StreamConsumer;
 import io.activej.datastream.StreamDataAcceptor;
 import io.activej.datastream.StreamSupplier;
@@ -67,8 +71,10 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static io.activej.common.Checks.checkArgument;
 import static io.activej.common.Utils.entriesToMap;
 import static io.activej.crdt.util.CrdtDataSerializer.TIMESTAMP_SERIALIZER;
+import static io.activej.crdt.util.Utils.encode;
 import static io.activej.crdt.util.Utils.onItem;
 
 @SuppressWarnings("rawtypes")
@@ -78,17 +84,43 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 
 	public static final Duration DEFAULT_SMOOTHING_WINDOW = ApplicationSettings.getDuration(CrdtStorageFs.class, "smoothingWindow", Duration.ofMinutes(1));
 
+	public static final MemSize DEFAULT_INDEX_BLOCK_SIZE = ApplicationSettings.getMemSize(CrdtStorageFs.class, "indexBlockSize", MemSize.kilobytes(4));
+	public static final int DEFAULT_BLOOM_FILTER_BITS_PER_KEY = ApplicationSettings.getInt(CrdtStorageFs.class, "bloomFilterBitsPerKey", 10);
+	public static final boolean DEFAULT_WRITE_FOOTERS = ApplicationSettings.getBoolean(CrdtStorageFs.class, "writeFooters", true);
+
 	public static final String FILE_EXTENSION = ".bin";
 
+	/*
+	 * Each file ends with a footer which allows to skip files without reading them:
+	 * [version][items][min timestamp][max timestamp][min key][max key][sparse index][bloom filter][footer body length : int][FOOTER_MAGIC : long]
+	 * Sparse index holds a first key and an offset of blocks of serialized data, so that only blocks
+	 * which may contain requested keys are read. Footers of version 1 have neither a sparse index nor a bloom filter.
+	 * Files without a footer are read entirely.
+	 * Versions which predate footers read a footer as a malformed record, see withWriteFooters(boolean) for a migration
+	 */
+	private static final long FOOTER_MAGIC = 0x4352_4454_466f_6f74L;
+	private static final byte FOOTER_VERSION_NO_INDEX = 1;
+	private static final byte FOOTER_VERSION = 2;
+	private static final int FOOTER_TAIL_SIZE = 4 + 8;
+	private static final int FOOTER_READ_SIZE = 256;
+
 	private final Eventloop eventloop;
 	private final ActiveFs fs;
 	private final CrdtFunction<S> function;
 	private final BinarySerializer<CrdtReducingData<K, S>> serializer;
+	private final BinarySerializer<K> keySerializer;
 
 	private @Nullable Set<String> taken;
 
+	// files are never modified, so footers are cached until files are deleted
+	private final Map<String, @Nullable FileFooter<K>> footers = new HashMap<>();
+
 	private Supplier<String> namingStrategy = () -> UUID.randomUUID().toString();
 
+	private MemSize indexBlockSize = DEFAULT_INDEX_BLOCK_SIZE;
+	private int bloomFilterBitsPerKey = DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+	private boolean writeFooters = DEFAULT_WRITE_FOOTERS;
+
 	private CrdtFilter<S> filter = $ -> true;
 
 	// region JMX
@@ -109,6 +141,7 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 	private final EventStats downloadedItems = EventStats.create(DEFAULT_SMOOTHING_WINDOW);
 	private final EventStats takenItems = EventStats.create(DEFAULT_SMOOTHING_WINDOW);
 	private final EventStats removedItems = EventStats.create(DEFAULT_SMOOTHING_WINDOW);
+	private final EventStats prunedFiles = EventStats.create(DEFAULT_SMOOTHING_WINDOW);
 
 	private final PromiseStats consolidationStats = PromiseStats.create(DEFAULT_SMOOTHING_WINDOW);
 	// endregion
@@ -123,6 +156,7 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 		this.fs = fs;
 		this.function = function;
 		this.serializer = createSerializer(serializer);
+		this.keySerializer = serializer.getKeySerializer();
 	}
 
 	public static <K extends Comparable<K>, S> CrdtStorageFs<K, S> create(
@@ -149,6 +183,50 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 		this.filter = filter;
 		return this;
 	}
+
+	/**
+	 * Sets an approximate size of blocks of data which a sparse index of a file refers to.
+	 * Smaller blocks make lookups read less data at the cost of a larger index
+	 * <p>
+	 * Defaults to 4kb
+	 */
+	public CrdtStorageFs<K, S> withIndexBlockSize(MemSize indexBlockSize) {
+		checkArgument(indexBlockSize.toLong() > 0, "Index block size should be positive");
+		this.indexBlockSize = indexBlockSize;
+		return this;
+	}
+
+	/**
+	 * Sets a number of bits per key of bloom filters which let point lookups skip files.
+	 * Zero disables bloom filters
+	 * <p>
+	 * Defaults to 10 bits per key, which is about 1% of false positives
+	 */
+	public CrdtStorageFs<K, S> withBloomFilterBitsPerKey(int bloomFilterBitsPerKey) {
+		checkArgument(bloomFilterBitsPerKey >= 0, "Bits per key cannot be negative");
+		this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+		return this;
+	}
+
+	/**
+	 * Sets whether written files end with a footer which holds file metadata, a sparse index and a bloom filter.
+	 * Files with and without footers are read regardless of this setting.
+	 * <p>
+	 * Footers change a format of files: versions of CRDT storage which predate footers
+	 * fail to read files with footers or read footers as records. To migrate a cluster that shares a storage:
+	 * <ol>
+	 *     <li>upgrade all nodes with footers disabled ({@code CrdtStorageFs.writeFooters=false})</li>
+	 *     <li>once no node runs an older version, enable footers</li>
+	 * </ol>
+	 * A rollback to an older version is safe only once no files with footers are left,
+	 * for example after they have been consolidated by nodes with footers disabled.
+	 * <p>
+	 * Enabled by default
+	 */
+	public CrdtStorageFs<K, S> withWriteFooters(boolean writeFooters) {
+		this.writeFooters = writeFooters;
+		return this;
+	}
 	// endregion
 
 	@Override
@@ -168,9 +246,18 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 
 	@Override
 	public Promise<StreamSupplier<CrdtData<K, S>>> download(long timestamp) {
+		return download(timestamp, null, null);
+	}
+
+	@Override
+	public Promise<StreamSupplier<CrdtData<K, S>>> download(K from, K to) {
+		return download(0, from, to);
+	}
+
+	private Promise<StreamSupplier<CrdtData<K, S>>> download(long timestamp, @Nullable K from, @Nullable K to) {
 		return Promises.retry(($, e) -> !(e instanceof FileNotFoundException),
-						() -> fs.list("*")
-								.then(fileMap -> doDownload(fileMap.keySet(), timestamp, false))
+						() -> list()
+								.then(fileMap -> doDownload(fileMap, timestamp, from, to, false))
 								.map(supplier -> supplier
 										.transformWith(StreamFilter.mapper(reducingData -> new CrdtData<>(reducingData.key, reducingData.timestamp, reducingData.state)))
 										.transformWith(detailedStats ? downloadStatsDetailed : downloadStats)
@@ -185,9 +272,9 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 		}
 		taken = new HashSet<>();
 		return Promises.retry(($, e) -> !(e instanceof FileNotFoundException),
-						() -> fs.list("*")
+						() -> list()
 								.whenResult(fileMap -> taken.addAll(fileMap.keySet()))
-								.then(fileMap -> doDownload(fileMap.keySet(), 0, false)
+								.then(fileMap -> doDownload(fileMap, 0, false)
 										.whenException(e -> taken = null)
 										.map(supplier -> supplier
 												.transformWith(StreamFilter.mapper(reducingData -> new CrdtData<>(reducingData.key, reducingData.timestamp, reducingData.state)))
@@ -199,17 +286,56 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 				.mapException(e -> new CrdtException("Failed to take CRDT data", e));
 	}
 
-	private Promise<StreamSupplier<CrdtReducingData<K, S>>> doDownload(Set<String> files, long timestamp, boolean includeTombstones) {
-		return Promises.toList(files.stream()
-						.map(fileName -> fs.download(fileName)
-								.map(supplier -> supplier
-										.transformWith(ChannelDeserializer.create(serializer))
-										.transformWith(StreamFilter.create(data -> data.timestamp >= timestamp))
-								)))
+	private Promise<Map<String, FileMetadata>> list() {
+		return fs.list("*")
+				.whenResult(fileMap -> footers.keySet().retainAll(fileMap.keySet()));
+	}
+
+	private Promise<StreamSupplier<CrdtReducingData<K, S>>> doDownload(Map<String, FileMetadata> files, long timestamp, boolean includeTombstones) {
+		return doDownload(files, timestamp, null, null, includeTombstones);
+	}
+
+	/**
+	 * Downloads data of given files, optionally limited by a range of keys.
+	 * Files are skipped by their footers if they hold no data newer than a timestamp or no keys of a range,
+	 * and for a single key also if a bloom filter of a file does not contain it.
+	 * Only blocks which may contain keys of a range are read from the remaining files
+	 */
+	private Promise<StreamSupplier<CrdtReducingData<K, S>>> doDownload(Map<String, FileMetadata> files, long timestamp,
+			@Nullable K from, @Nullable K to, boolean includeTombstones) {
+		assert (from == null) == (to == null);
+		boolean singleKey = from != null && from.compareTo(to) == 0;
+		long keyHash = singleKey ? BloomFilter.hash(encode(keySerializer, from)) : 0;
+		return Promises.toList(files.entrySet().stream()
+						.map(entry -> getFooter(entry.getKey(), entry.getValue().getSize())
+								.then(footer -> {
+									long offset = 0;
+									long limit = entry.getValue().getSize();
+									if (footer != null) {
+										if (footer.maxTimestamp < timestamp ||
+												from != null && !footer.overlaps(from, to) ||
+												singleKey && footer.bloomFilter != null && !footer.bloomFilter.mightContain(keyHash)) {
+											prunedFiles.recordEvent();
+											return Promise.of(null);
+										}
+										limit = footer.dataSize;
+										if (from != null && footer.index != null) {
+											offset = footer.index.startOffset(from);
+											limit = footer.index.endOffset(to, footer.dataSize) - offset;
+										}
+									}
+									return fs.download(entry.getKey(), offset, limit)
+											.map(supplier -> supplier
+													.transformWith(ChannelDeserializer.create(serializer))
+													.transformWith(StreamFilter.create(data -> data.timestamp >= timestamp &&
+															(from == null || from.compareTo(data.key) <= 0 && data.key.compareTo(to) <= 0))));
+								})))
 				.map(suppliers -> {
 					StreamReducer<K, CrdtReducingData<K, S>, CrdtAccumulator<S>> reducer = StreamReducer.create();
 
-					suppliers.forEach(supplier -> supplier.streamTo(reducer.newInput(x -> x.key, new CrdtReducer(includeTombstones))));
+					suppliers.stream()
+							.filter(Objects::nonNull)
+							.forEach(supplier -> supplier.streamTo(reducer.newInput(x -> x.key, new CrdtReducer(includeTombstones))));
 
 					return reducer.getOutput()
 							.withEndOfStream(eos -> eos
@@ -249,11 +375,16 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 	}
 
 	private Promise<Void> doConsolidate() {
-		return fs.list("*")
+		return list()
 				.map(fileMap -> taken == null ?
 						fileMap :
 						entriesToMap(fileMap.entrySet().stream().filter(entry -> !taken.contains(entry.getKey()))))
-				.map(CrdtStorageFs::pickFilesForConsolidation)
+				.then(fileMap -> Promises.all(fileMap.entrySet().stream()
+								.map(entry -> getFooter(entry.getKey(), entry.getValue().getSize())))
+						.map($ -> {
+							Set<String> picked = pickFilesForConsolidation(fileMap, footers);
+							return entriesToMap(fileMap.entrySet().stream().filter(entry -> picked.contains(entry.getKey())));
+						}))
 				.then(filesToConsolidate -> {
 					if (filesToConsolidate.isEmpty()) {
 						logger.info("No files to consolidate");
@@ -262,25 +393,39 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 
 					String name = namingStrategy.get() + FILE_EXTENSION;
 
-					logger.info("Started consolidating files into {} from {}", name, filesToConsolidate);
+					logger.info("Started consolidating files into {} from {}", name, filesToConsolidate.keySet());
 
 					return doDownload(filesToConsolidate, 0, true)
 							.then(crdtSupplier -> crdtSupplier.streamTo(uploadNonEmpty(name, Function.identity())))
-							.then(() -> fs.deleteAll(filesToConsolidate));
+							.then(() -> fs.deleteAll(filesToConsolidate.keySet()));
 				})
 				.mapException(e -> new CrdtException("Files consolidation failed", e));
 	}
 
 	@VisibleForTesting
 	static Set<String> pickFilesForConsolidation(Map<String, FileMetadata> files) {
+		return pickFilesForConsolidation(files, Map.of());
+	}
+
+	/**
+	 * Files are split into groups by an order of magnitude of their size (not counting footers).
+	 * A largest set of files of the same group with overlapping key ranges is picked,
+	 * as merging them reduces the amount of data which is read on download.
+	 * Files without a footer are considered to overlap each other.
+	 * If no files overlap, a largest group is picked, so that a number of files is bounded anyway
+	 */
+	@VisibleForTesting
+	static <K extends Comparable<K>> Set<String> pickFilesForConsolidation(Map<String, FileMetadata> files, Map<String, ? extends @Nullable FileFooter<K>> footers) {
 		if (files.isEmpty()) return Set.of();
 
 		Map<Integer, Set<String>> groups = new TreeMap<>();
 		for (Map.Entry<String, FileMetadata> entry : files.entrySet()) {
-			int groupIdx = (int) Math.log10(entry.getValue().getSize());
+			FileFooter<K> footer = footers.get(entry.getKey());
+			int groupIdx = (int) Math.log10(footer != null ? footer.dataSize : entry.getValue().getSize());
 			groups.computeIfAbsent(groupIdx, k -> new HashSet<>()).add(entry.getKey());
 		}
 
+		Set<String> overlappingToConsolidate = Set.of();
 		Set<String> groupToConsolidate = Set.of();
 
 		for (Set<String> group : groups.values()) {
@@ -288,21 +433,134 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 			if (groupSize > 1 && groupSize > groupToConsolidate.size()) {
 				groupToConsolidate = group;
 			}
+			for (Set<String> overlapping : splitByOverlap(group, footers)) {
+				if (overlapping.size() > 1 && overlapping.size() > overlappingToConsolidate.size()) {
+					overlappingToConsolidate = overlapping;
+				}
+			}
 		}
 
-		return groupToConsolidate;
+		return overlappingToConsolidate.isEmpty() ? groupToConsolidate : overlappingToConsolidate;
+	}
+
+	private static <K extends Comparable<K>> List<Set<String>> splitByOverlap(Set<String> files, Map<String, ? extends @Nullable FileFooter<K>> footers) {
+		List<Set<String>> result = new ArrayList<>();
+		Set<String> withoutFooter = new HashSet<>();
+		List<Map.Entry<String, FileFooter<K>>> withFooter = new ArrayList<>();
+		for (String file : files) {
+			FileFooter<K> footer = footers.get(file);
+			if (footer == null) {
+				withoutFooter.add(file);
+			} else {
+				withFooter.add(Map.entry(file, footer));
+			}
+		}
+		result.add(withoutFooter);
+
+		withFooter.sort(Comparator.comparing(entry -> entry.getValue().minKey));
+		Set<String> overlapping = new HashSet<>();
+		K maxKey = null;
+		for (Map.Entry<String, FileFooter<K>> entry : withFooter) {
+			FileFooter<K> footer = entry.getValue();
+			if (maxKey != null && footer.minKey.compareTo(maxKey) > 0) {
+				result.add(overlapping);
+				overlapping = new HashSet<>();
+				maxKey = null;
+			}
+			overlapping.add(entry.getKey());
+			if (maxKey == null || footer.maxKey.compareTo(maxKey) > 0) {
+				maxKey = footer.maxKey;
+			}
+		}
+		result.add(overlapping);
+		return result;
+	}
+
+	private Promise<@Nullable FileFooter<K>> getFooter(String filename, long size) {
+		if (footers.containsKey(filename)) {
+			return Promise.of(footers.get(filename));
+		}
+		if (size < FOOTER_TAIL_SIZE) {
+			footers.put(filename, null);
+			return Promise.of(null);
+		}
+		long tailSize = Math.min(size, FOOTER_READ_SIZE);
+		return downloadBytes(filename, size - tailSize, tailSize)
+				.then(tail -> {
+					BinaryInput in = new BinaryInput(tail, tail.length - FOOTER_TAIL_SIZE);
+					int bodyLength = in.readInt();
+					if (in.readLong() != FOOTER_MAGIC || bodyLength <= 0 || bodyLength > size - FOOTER_TAIL_SIZE) {
+						return Promise.of((byte[]) null);
+					}
+					if (bodyLength <= tail.length - FOOTER_TAIL_SIZE) {
+						return Promise.of(Arrays.copyOfRange(tail, tail.length - FOOTER_TAIL_SIZE - bodyLength, tail.length - FOOTER_TAIL_SIZE));
+					}
+					return downloadBytes(filename, size - FOOTER_TAIL_SIZE - bodyLength, bodyLength);
+				})
+				.map(body -> {
+					FileFooter<K> footer = body != null ? decodeFooter(body, size - FOOTER_TAIL_SIZE - body.length) : null;
+					footers.put(filename, footer);
+					return footer;
+				});
+	}
+
+	private Promise<byte[]> downloadBytes(String filename, long offset, long limit) {
+		return fs.download(filename, offset, limit)
+				.then(supplier -> supplier.toCollector(ByteBufs.collector()))
+				.map(ByteBuf::asArray);
+	}
+
+	private FileFooter<K> decodeFooter(byte[] body, long dataSize) throws CorruptedDataException {
+		BinaryInput in = new BinaryInput(body);
+		try {
+			byte version = in.readByte();
+			if (version != FOOTER_VERSION && version != FOOTER_VERSION_NO_INDEX) {
+				throw new CorruptedDataException("Unsupported footer version: " + version);
+			}
+			long items = in.readLong();
+			long minTimestamp = in.readLong();
+			long maxTimestamp = in.readLong();
+			K minKey = keySerializer.decode(in);
+			K maxKey = keySerializer.decode(in);
+			if (version == FOOTER_VERSION_NO_INDEX) {
+				return new FileFooter<>(dataSize, items, minTimestamp, maxTimestamp, minKey, maxKey);
+			}
+
+			int indexSize = in.readVarInt();
+			if (indexSize < 0 || indexSize > body.length) {
+				throw new CorruptedDataException("Malformed sparse index");
+			}
+			List<K> keys = new ArrayList<>(indexSize);
+			long[] offsets = new long[indexSize];
+			for (int i = 0; i < indexSize; i++) {
+				keys.add(keySerializer.decode(in));
+				offsets[i] = in.readVarLong();
+			}
+			SparseIndex<K> index = indexSize != 0 ? new SparseIndex<>(keys, offsets) : null;
+			BloomFilter bloomFilter = in.readBoolean() ? BloomFilter.decode(in) : null;
+			return new FileFooter<>(dataSize, items, minTimestamp, maxTimestamp, minKey, maxKey, index, bloomFilter);
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new CorruptedDataException("Footer is truncated");
+		}
 	}
 
 	private <T> StreamConsumer<T> uploadNonEmpty(String filename, Function<T, CrdtReducingData<K, S>> mapping) {
 		SettablePromise<ChannelConsumer<ByteBuf>> consumerPromise = new SettablePromise<>();
 		NonEmptyFilter<T> nonEmptyFilter = new NonEmptyFilter<>(() -> fs.upload(filename)
 				.whenComplete(consumerPromise::accept));
+		FooterBuilder footerBuilder = new FooterBuilder(indexBlockSize.toInt(), bloomFilterBitsPerKey);
 
 		return StreamConsumer.ofSupplier(supplier ->
-				supplier
-						.transformWith(nonEmptyFilter)
-						.transformWith(StreamFilter.mapper(mapping))
-						.transformWith(ChannelSerializer.create(serializer))
+				ChannelSuppliers.concat(
+								supplier
+										.transformWith(nonEmptyFilter)
+										.transformWith(StreamFilter.mapper(item -> footerBuilder.add(mapping.apply(item))))
+										.transformWith(ChannelSerializer.create(serializer)
+												.withInitialBufferSize(indexBlockSize))
+										.map(footerBuilder::addBlock),
+								ChannelSupplier.ofLazyProvider(() -> !writeFooters || footerBuilder.items == 0 ?
+										ChannelSupplier.of() :
+										ChannelSupplier.of(footerBuilder.build())))
 						.withEndOfStream(eos -> eos
 								.whenComplete(() -> {
 									if (nonEmptyFilter.isEmpty()) {
@@ -359,6 +617,144 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 
 	record CrdtEntry<S>(S state, long timestamp) {}
 
+	record FileFooter<K extends Comparable<K>>(long dataSize, long items, long minTimestamp, long maxTimestamp, K minKey, K maxKey,
+			@Nullable SparseIndex<K> index, @Nullable BloomFilter bloomFilter) {
+		FileFooter(long dataSize, long items, long minTimestamp, long maxTimestamp, K minKey, K maxKey) {
+			this(dataSize, items, minTimestamp, maxTimestamp, minKey, maxKey, null, null);
+		}
+
+		boolean overlaps(K from, K to) {
+			return from.compareTo(maxKey) <= 0 && to.compareTo(minKey) >= 0;
+		}
+	}
+
+	/**
+	 * First keys of blocks of a file and offsets of those blocks, sorted by key.
+	 * A key may span several adjacent blocks, as files may contain duplicate keys
+	 */
+	record SparseIndex<K extends Comparable<K>>(List<K> keys, long[] offsets) {
+		/**
+		 * Returns an offset of the last block which starts with a key lower than {@code from},
+		 * as any preceding block ends before {@code from}
+		 */
+		long startOffset(K from) {
+			int lo = 0, hi = keys.size();
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (keys.get(mid).compareTo(from) < 0) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo == 0 ? 0 : offsets[lo - 1];
+		}
+
+		/**
+		 * Returns an offset of the first block which starts with a key greater than {@code to},
+		 * or a size of data if there is no such block
+		 */
+		long endOffset(K to, long dataSize) {
+			int lo = 0, hi = keys.size();
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (keys.get(mid).compareTo(to) <= 0) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo == keys.size() ? dataSize : offsets[lo];
+		}
+	}
+
+	private final class FooterBuilder {
+		private final int indexBlockSize;
+		private final int bloomFilterBitsPerKey;
+
+		private long items;
+		private long minTimestamp = Long.MAX_VALUE;
+		private long maxTimestamp = Long.MIN_VALUE;
+		private @Nullable K minKey;
+		private @Nullable K maxKey;
+
+		private final List<K> indexKeys = new ArrayList<>();
+		private final List<Long> indexOffsets = new ArrayList<>();
+		private long dataSize;
+
+		private long[] keyHashes = new long[0];
+
+		FooterBuilder(int indexBlockSize, int bloomFilterBitsPerKey) {
+			this.indexBlockSize = indexBlockSize;
+			this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+			if (bloomFilterBitsPerKey != 0) {
+				keyHashes = new long[1024];
+			}
+		}
+
+		CrdtReducingData<K, S> add(CrdtReducingData<K, S> data) {
+			if (bloomFilterBitsPerKey != 0) {
+				if (items == keyHashes.length) {
+					keyHashes = Arrays.copyOf(keyHashes, keyHashes.length * 2);
+				}
+				keyHashes[(int) items] = BloomFilter.hash(encode(keySerializer, data.key));
+			}
+			items++;
+			minTimestamp = Math.min(minTimestamp, data.timestamp);
+			maxTimestamp = Math.max(maxTimestamp, data.timestamp);
+			if (minKey == null || data.key.compareTo(minKey) < 0) minKey = data.key;
+			if (maxKey == null || data.key.compareTo(maxKey) > 0) maxKey = data.key;
+			return data;
+		}
+
+		/*
+		 * Serializer never splits an item between buffers, so each buffer starts with a size of an item followed by its key
+		 */
+		ByteBuf addBlock(ByteBuf buf) {
+			if (buf.canRead() && (indexOffsets.isEmpty() || dataSize - indexOffsets.get(indexOffsets.size() - 1) >= indexBlockSize / 2)) {
+				BinaryInput in = new BinaryInput(buf.array(), buf.head());
+				in.readVarInt();
+				indexKeys.add(keySerializer.decode(in));
+				indexOffsets.add(dataSize);
+			}
+			dataSize += buf.readRemaining();
+			return buf;
+		}
+
+		ByteBuf build() {
+			BloomFilter bloomFilter = bloomFilterBitsPerKey != 0 && items <= Integer.MAX_VALUE ?
+					BloomFilter.create(keyHashes, (int) items, bloomFilterBitsPerKey) :
+					null;
+			byte[] bytes = new byte[FOOTER_READ_SIZE + indexKeys.size() * 16 + (bloomFilter != null ? bloomFilter.estimateSize() : 0)];
+			while (true) {
+				try {
+					BinaryOutput out = new BinaryOutput(bytes);
+					out.writeByte(FOOTER_VERSION);
+					out.writeLong(items);
+					out.writeLong(minTimestamp);
+					out.writeLong(maxTimestamp);
+					keySerializer.encode(out, minKey);
+					keySerializer.encode(out, maxKey);
+					out.writeVarInt(indexKeys.size());
+					for (int i = 0; i < indexKeys.size(); i++) {
+						keySerializer.encode(out, indexKeys.get(i));
+						out.writeVarLong(indexOffsets.get(i));
+					}
+					out.writeBoolean(bloomFilter != null);
+					if (bloomFilter != null) {
+						bloomFilter.encode(out);
+					}
+					int bodyLength = out.pos();
+					out.writeInt(bodyLength);
+					out.writeLong(FOOTER_MAGIC);
+					return ByteBuf.wrap(bytes, 0, out.pos());
+				} catch (ArrayIndexOutOfBoundsException e) {
+					bytes = new byte[bytes.length * 2];
+				}
+			}
+		}
+	}
+
 	class CrdtReducer implements StreamReducers.Reducer<K, CrdtReducingData<K, S>, CrdtReducingData<K, S>, CrdtAccumulator<S>> {
 		final boolean includeTombstones;
 
@@ -490,6 +886,11 @@ public final class CrdtStorageFs<K extends Comparable<K>, S> implements CrdtStor
 		return consolidationStats;
 	}
 
+	@JmxAttribute
+	public EventStats getPrunedFiles() {
+		return prunedFiles;
+	}
+
 	@JmxAttribute
 	public EventStats getUploadedItems() {
 		return uploadedItems;
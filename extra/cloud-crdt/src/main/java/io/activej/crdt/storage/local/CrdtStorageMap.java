@@ -138,6 +138,27 @@ public final class CrdtStorageMap<K extends Comparable<K>, S> implements CrdtSto
 						.mapException(e -> new CrdtException("Error while downloading CRDT data", e))));
 	}
 
+	@Override
+	public Promise<StreamSupplier<CrdtData<K, S>>> download(K from, K to) {
+		Map<K, CrdtData<K, S>> range = extract(
+				map.subMap(from, true, to, true),
+				takenMap != null ? takenMap.subMap(from, true, to, true) : null);
+		return Promise.of(StreamSupplier.ofIterable(range.values())
+				.transformWith(detailedStats ? downloadStatsDetailed : downloadStats)
+				.transformWith(onItem(downloadedItems::recordEvent))
+				.withEndOfStream(eos -> eos
+						.mapException(e -> new CrdtException("Error while downloading CRDT data", e))));
+	}
+
+	@Override
+	public Promise<@Nullable CrdtData<K, S>> fetch(K key) {
+		singleGets.recordEvent();
+		if (takenMap == null) {
+			return Promise.of(map.get(key));
+		}
+		return Promise.of(extract(map.subMap(key, true, key, true), takenMap.subMap(key, true, key, true)).get(key));
+	}
+
 	@Override
 	public Promise<StreamSupplier<CrdtData<K, S>>> take() {
 		if (takenMap != null) {
@@ -192,19 +213,19 @@ public final class CrdtStorageMap<K extends Comparable<K>, S> implements CrdtSto
 	}
 
 	private Stream<CrdtData<K, S>> extract(long timestamp) {
-		Map<K, CrdtData<K, S>> map;
-		if (takenMap == null) {
-			map = this.map;
-		} else {
-			map = new TreeMap<>();
-			doMerge(map, this.map);
-			doMerge(map, this.takenMap);
-		}
-
-		return map.values().stream()
+		return extract(map, takenMap).values().stream()
 				.filter(data -> data.getTimestamp() >= timestamp);
 	}
 
+	private Map<K, CrdtData<K, S>> extract(Map<K, CrdtData<K, S>> map, @Nullable Map<K, CrdtData<K, S>> takenMap) {
+		if (takenMap == null) return map;
+
+		Map<K, CrdtData<K, S>> result = new TreeMap<>();
+		doMerge(result, map);
+		doMerge(result, takenMap);
+		return result;
+	}
+
 	private void doMerge(Map<K, CrdtData<K, S>> to, Map<K, CrdtData<K, S>> from) {
 		assert takenTombstones != null;
 
@@ -27,6 +27,7 @@ import io.activej.datastream.StreamDataAcceptor;
 import io.activej.datastream.processor.StreamFilter;
 import io.activej.datastream.processor.StreamTransformer;
 import io.activej.promise.Promise;
+import io.activej.serializer.BinarySerializer;
 import io.activej.types.TypeT;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -35,6 +36,7 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Executor;
@@ -111,6 +113,18 @@ public final class Utils {
 	}
 	// endregion
 
+	public static <T> byte[] encode(BinarySerializer<T> serializer, T item) {
+		byte[] bytes = new byte[64];
+		while (true) {
+			try {
+				int size = serializer.encode(bytes, 0, item);
+				return Arrays.copyOf(bytes, size);
+			} catch (ArrayIndexOutOfBoundsException e) {
+				bytes = new byte[bytes.length * 2];
+			}
+		}
+	}
+
 	public static <T> StreamTransformer<T, T> ackTransformer(UnaryOperator<Promise<Void>> ackFn) {
 		return new StreamAckTransformer<>(ackFn);
 	}
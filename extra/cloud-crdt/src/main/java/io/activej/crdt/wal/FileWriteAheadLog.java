@@ -20,13 +20,19 @@ import io.activej.async.function.AsyncRunnable;
 import io.activej.async.function.AsyncRunnables;
 import io.activej.async.service.EventloopService;
 import io.activej.bytebuf.ByteBuf;
+import io.activej.bytebuf.ByteBufPool;
+import io.activej.bytebuf.ByteBufs;
 import io.activej.common.ApplicationSettings;
+import io.activej.common.MemSize;
+import io.activej.common.exception.MalformedDataException;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.common.time.CurrentTimeProvider;
 import io.activej.crdt.CrdtData;
 import io.activej.crdt.util.CrdtDataSerializer;
 import io.activej.csp.ChannelConsumer;
 import io.activej.csp.file.ChannelFileWriter;
+import io.activej.csp.process.frames.BlockDecoder;
+import io.activej.csp.process.frames.BlockEncoder;
 import io.activej.csp.process.frames.ChannelFrameEncoder;
 import io.activej.csp.process.frames.FrameFormat;
 import io.activej.csp.process.frames.LZ4FrameFormat;
@@ -49,10 +55,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -65,7 +74,10 @@ import static io.activej.common.Checks.checkArgument;
 import static io.activej.crdt.util.Utils.deleteWalFiles;
 import static io.activej.crdt.util.Utils.getWalFiles;
 import static io.activej.crdt.wal.FileWriteAheadLog.FlushMode.*;
+import static io.activej.jmx.stats.JmxHistogram.POWERS_OF_TWO;
+import static java.lang.Math.min;
 import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.*;
 import static java.util.stream.Collectors.toList;
 
 public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAheadLog<K, S>, EventloopService,
@@ -76,7 +88,12 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 	public static final String EXT_CURRENT = ".current";
 	public static final FrameFormat FRAME_FORMAT = LZ4FrameFormat.create();
 
+	public static final boolean DEFAULT_GROUP_COMMIT = ApplicationSettings.getBoolean(FileWriteAheadLog.class, "groupCommit", false);
+	public static final MemSize DEFAULT_SEGMENT_SIZE = ApplicationSettings.getMemSize(FileWriteAheadLog.class, "segmentSize", MemSize.ZERO);
+
 	private static final Duration SMOOTHING_WINDOW = ApplicationSettings.getDuration(FileWriteAheadLog.class, "smoothingWindow", Duration.ofMinutes(5));
+	private static final int INITIAL_BATCH_SIZE = 4096;
+	private static final int IO_CHUNK_SIZE = 64 * 1024;
 
 	private final Eventloop eventloop;
 	private final Executor executor;
@@ -93,6 +110,10 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 	private boolean flushRequired;
 	private boolean scanLostFiles = true;
 
+	private boolean groupCommit = DEFAULT_GROUP_COMMIT;
+	private MemSize segmentSize = DEFAULT_SEGMENT_SIZE;
+	private @Nullable Segment spareSegment;
+
 	private CurrentTimeProvider now = CurrentTimeProvider.ofSystem();
 
 	// region JMX
@@ -101,6 +122,8 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 	private final EventStats totalPuts = EventStats.create(SMOOTHING_WINDOW);
 	private final EventStats totalFlushes = EventStats.create(SMOOTHING_WINDOW);
 	private final ValueStats totalFlushedSize = ValueStats.create(SMOOTHING_WINDOW).withUnit("bytes");
+	private final ValueStats commitBatchSize = ValueStats.create(SMOOTHING_WINDOW).withHistogram(POWERS_OF_TWO).withUnit("puts");
+	private final ValueStats commitLatency = ValueStats.create(SMOOTHING_WINDOW).withHistogram(POWERS_OF_TWO).withUnit("milliseconds");
 	private boolean detailedMonitoring;
 	// endregion
 
@@ -146,6 +169,32 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 		return this;
 	}
 
+	/**
+	 * Makes puts durable: a promise returned from {@link #put} completes only after the put is forced to disk.
+	 * <p>
+	 * Puts made during a single eventloop tick are appended to a shared batch, which is written and forced
+	 * with a single {@code fsync}. While a batch is being committed, subsequent puts are accumulated
+	 * in the next batch, so the size of a batch grows with the latency of a disk.
+	 */
+	public FileWriteAheadLog<K, S> withGroupCommit(boolean groupCommit) {
+		this.groupCommit = groupCommit;
+		return this;
+	}
+
+	/**
+	 * Sets a size of preallocated write ahead log files in group commit mode.
+	 * Files are filled with zeroes upfront, so that forcing appended data does not have to update file metadata.
+	 * <p>
+	 * As a new file is preallocated on each flush, a segment size should not be much larger
+	 * than the amount of data written between flushes.
+	 * A zero size disables preallocation, which is the default
+	 */
+	public FileWriteAheadLog<K, S> withSegmentSize(MemSize segmentSize) {
+		checkArgument(segmentSize.toLong() >= 0, "Segment size cannot be negative");
+		this.segmentSize = segmentSize;
+		return this;
+	}
+
 	public FlushMode getFlushMode() {
 		return flushMode;
 	}
@@ -182,13 +231,47 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 	@Override
 	public @NotNull Promise<?> stop() {
 		stopping = true;
-		if (flushRequired) return flush();
+		Segment spareSegment = this.spareSegment;
+		this.spareSegment = null;
 
-		return deleteWalFiles(executor, Set.of(consumer.walFile));
+		return (flushRequired ? flush() : consumer.delete())
+				.then(() -> spareSegment == null ? Promise.complete() : discard(spareSegment));
 	}
 
 	private @Nullable WalConsumer createConsumer() {
-		return stopping ? null : new WalConsumer(path.resolve(UUID.randomUUID() + EXT_CURRENT));
+		if (stopping) return null;
+		if (!groupCommit) return new StreamingWalConsumer(path.resolve(UUID.randomUUID() + EXT_CURRENT));
+
+		Segment segment = spareSegment;
+		if (segment == null || segment.channel().isException()) {
+			if (segment != null) discard(segment);
+			segment = allocateSegment();
+		}
+		spareSegment = allocateSegment();
+		return new GroupCommitWalConsumer(segment);
+	}
+
+	private Segment allocateSegment() {
+		Path file = path.resolve(UUID.randomUUID() + EXT_CURRENT);
+		long size = segmentSize.toLong();
+		return new Segment(file, Promise.ofBlocking(executor, () -> {
+			FileChannel channel = FileChannel.open(file, CREATE_NEW, WRITE);
+			try {
+				if (size != 0) preallocate(channel, size);
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+			return channel;
+		}));
+	}
+
+	private Promise<Void> discard(Segment segment) {
+		return segment.channel()
+				.then((channel, e) -> Promise.ofBlocking(executor, () -> {
+					if (channel != null) channel.close();
+					Files.deleteIfExists(segment.file());
+				}));
 	}
 
 	private Promise<Void> doFlush() {
@@ -206,7 +289,7 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 
 		if (detailedMonitoring) {
 			try {
-				totalFlushedSize.recordValue(Files.size(finishedConsumer.walFile));
+				totalFlushedSize.recordValue(finishedConsumer.getSize());
 			} catch (IOException e) {
 				logger.warn("Could not get the size of flushed file {}", finishedConsumer.walFile);
 			}
@@ -240,6 +323,7 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 				.then(lostFiles ->
 						Promise.ofBlocking(executor, () -> {
 							for (Path lostFile : lostFiles) {
+								truncateToLastBlock(lostFile);
 								rename(lostFile);
 							}
 						}))
@@ -248,7 +332,7 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 
 	private void rename(Path from) throws IOException {
 		assert from.toString().endsWith(EXT_CURRENT);
-		assert consumer == null || !from.equals(consumer.getWalFile());
+		assert !getActiveFiles().contains(from);
 
 		String filename = from.getFileName().toString();
 		Path to = from.resolveSibling(filename.replace(EXT_CURRENT, EXT_FINAL));
@@ -267,14 +351,22 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 								.then(this::awaitExternalFlush));
 	}
 
+	private Set<Path> getActiveFiles() {
+		Set<Path> activeFiles = new HashSet<>();
+		if (consumer != null) activeFiles.add(consumer.getWalFile());
+		if (spareSegment != null) activeFiles.add(spareSegment.file());
+		return activeFiles;
+	}
+
 	private Promise<List<Path>> getLostFiles() {
+		Set<Path> activeFiles = getActiveFiles();
 		return Promise.ofBlocking(executor,
 						() -> {
 							try (Stream<Path> list = Files.list(path)) {
 								return list
 										.filter(file -> Files.isRegularFile(file) &&
 												file.toString().endsWith(EXT_CURRENT) &&
-												(consumer == null || !file.equals(consumer.getWalFile())))
+												!activeFiles.contains(file))
 										.collect(toList());
 							}
 						})
@@ -285,19 +377,100 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 				});
 	}
 
-	private final class WalConsumer {
+	/**
+	 * Truncates trailing bytes of a lost file that do not form a complete block,
+	 * including preallocated zeroes of a segment which has not been finished
+	 */
+	private static void truncateToLastBlock(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+			long size = channel.size();
+			long read = 0;
+			long valid = 0;
+			BlockDecoder decoder = FRAME_FORMAT.createDecoder();
+			ByteBufs bufs = new ByteBufs();
+			try {
+				while (true) {
+					ByteBuf block;
+					try {
+						block = decoder.decode(bufs);
+					} catch (MalformedDataException e) {
+						break;
+					}
+					if (block == null) {
+						if (read == size) break;
+						byte[] bytes = new byte[(int) min(IO_CHUNK_SIZE, size - read)];
+						int n = channel.read(ByteBuffer.wrap(bytes), read);
+						if (n <= 0) break;
+						read += n;
+						bufs.add(ByteBuf.wrap(bytes, 0, n));
+						continue;
+					}
+					valid = read - bufs.remainingBytes();
+					if (block == BlockDecoder.END_OF_STREAM) break;
+					block.recycle();
+				}
+			} finally {
+				bufs.recycle();
+			}
+			if (valid != size) {
+				logger.warn("Truncating lost write ahead log {} from {} to {} bytes", file, size, valid);
+				channel.truncate(valid);
+				channel.force(true);
+			}
+		}
+	}
+
+	private static void preallocate(FileChannel channel, long size) throws IOException {
+		ByteBuffer zeroes = ByteBuffer.allocate((int) min(IO_CHUNK_SIZE, size));
+		long position = 0;
+		while (position < size) {
+			zeroes.clear().limit((int) min(zeroes.capacity(), size - position));
+			position += channel.write(zeroes, position);
+		}
+		channel.force(true);
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	private record Segment(Path file, Promise<FileChannel> channel) {
+	}
+
+	private abstract class WalConsumer {
+		protected final Path walFile;
+
+		protected WalConsumer(Path walFile) {
+			this.walFile = walFile;
+		}
+
+		public final Path getWalFile() {
+			return walFile;
+		}
+
+		public abstract long getSize() throws IOException;
+
+		public abstract Promise<Void> accept(CrdtData<K, S> data);
+
+		public abstract Promise<Void> finish();
+
+		public abstract Promise<Void> delete();
+	}
+
+	private final class StreamingWalConsumer extends WalConsumer {
 		private final AbstractStreamSupplier<CrdtData<K, S>> internalSupplier = new AbstractStreamSupplier<>() {
 			@Override
 			protected void onStarted() {
 				resume();
 			}
 		};
-		private final Path walFile;
 
 		private SettablePromise<Void> writeCallback;
 
-		public WalConsumer(Path walFile) {
-			this.walFile = walFile;
+		public StreamingWalConsumer(Path walFile) {
+			super(walFile);
 			ChannelConsumer<ByteBuf> writer = ChannelConsumer.ofPromise(ChannelFileWriter.open(executor, walFile));
 			internalSupplier.streamTo(StreamConsumer.ofSupplier(supplier -> supplier
 					.transformWith(ChannelSerializer.create(serializer)
@@ -313,10 +486,12 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 					}))));
 		}
 
-		public Path getWalFile() {
-			return walFile;
+		@Override
+		public long getSize() throws IOException {
+			return Files.size(walFile);
 		}
 
+		@Override
 		public Promise<Void> accept(CrdtData<K, S> data) {
 			if (this.writeCallback == null) {
 				this.writeCallback = new SettablePromise<>();
@@ -326,10 +501,146 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 			return writeCallback;
 		}
 
+		@Override
 		public Promise<Void> finish() {
 			internalSupplier.sendEndOfStream();
 			return internalSupplier.getAcknowledgement();
 		}
+
+		@Override
+		public Promise<Void> delete() {
+			return deleteWalFiles(executor, Set.of(walFile));
+		}
+	}
+
+	private final class GroupCommitWalConsumer extends WalConsumer {
+		private final Segment segment;
+		private final BlockEncoder encoder = FRAME_FORMAT.createEncoder();
+
+		private byte[] itemBuffer = new byte[256];
+
+		private @Nullable ByteBuf batch;
+		private @Nullable SettablePromise<Void> batchCallback;
+		private int batchPuts;
+		private long batchTimestamp;
+
+		private Promise<Void> lastCommit = Promise.complete();
+		private boolean committing;
+		private long position;
+		private long committedPosition;
+		private @Nullable Exception exception;
+
+		public GroupCommitWalConsumer(Segment segment) {
+			super(segment.file());
+			this.segment = segment;
+		}
+
+		@Override
+		public long getSize() {
+			return committedPosition;
+		}
+
+		@Override
+		public Promise<Void> accept(CrdtData<K, S> data) {
+			if (exception != null) return Promise.ofException(exception);
+
+			int size;
+			while (true) {
+				try {
+					size = serializer.encode(itemBuffer, 0, data);
+					break;
+				} catch (ArrayIndexOutOfBoundsException e) {
+					itemBuffer = new byte[itemBuffer.length * 2];
+				}
+			}
+
+			if (batch == null) {
+				batch = ByteBufPool.allocate(INITIAL_BATCH_SIZE);
+				batchCallback = new SettablePromise<>();
+				batchPuts = 0;
+				batchTimestamp = eventloop.currentTimeMillis();
+				if (!committing) {
+					committing = true;
+					eventloop.postLast(this::commit);
+				}
+			}
+			batch = ByteBufPool.ensureWriteRemaining(batch, 5 + size);
+			batch.writeVarInt(size);
+			batch.write(itemBuffer, 0, size);
+			batchPuts++;
+			return batchCallback;
+		}
+
+		private void commit() {
+			assert batch != null && batchCallback != null;
+			ByteBuf batch = this.batch;
+			SettablePromise<Void> batchCallback = this.batchCallback;
+			int batchPuts = this.batchPuts;
+			long batchTimestamp = this.batchTimestamp;
+			this.batch = null;
+			this.batchCallback = null;
+
+			if (exception != null) {
+				batch.recycle();
+				batchCallback.setException(exception);
+				committing = false;
+				return;
+			}
+
+			ByteBuf frame = encoder.encode(batch);
+			batch.recycle();
+			long position = this.position;
+			long endPosition = position + frame.readRemaining();
+			this.position = endPosition;
+
+			lastCommit = segment.channel()
+					.then(channel -> Promise.ofBlocking(executor, () -> {
+						write(channel, frame.toReadByteBuffer(), position);
+						channel.force(false);
+					}))
+					.whenComplete(frame::recycle)
+					.whenResult(() -> {
+						committedPosition = endPosition;
+						commitBatchSize.recordValue(batchPuts);
+						commitLatency.recordValue(eventloop.currentTimeMillis() - batchTimestamp);
+					})
+					.whenException(e -> {
+						logger.warn("Failed to commit {} puts to write ahead log {}", batchPuts, walFile, e);
+						exception = e;
+					})
+					.whenComplete(batchCallback::accept)
+					.whenComplete(() -> {
+						if (this.batch != null) {
+							commit();
+						} else {
+							committing = false;
+						}
+					});
+		}
+
+		@Override
+		public Promise<Void> finish() {
+			Promise<Void> committed = batchCallback != null ? batchCallback : lastCommit;
+			return committed
+					.then(($, e) -> segment.channel())
+					.then(channel -> {
+						long position = committedPosition;
+						BlockEncoder eosEncoder = position == 0 ? FRAME_FORMAT.createEncoder() : encoder;
+						byte[] endOfStream = eosEncoder.encodeEndOfStreamBlock().asArray();
+						return Promise.ofBlocking(executor, () -> {
+							try (channel) {
+								write(channel, ByteBuffer.wrap(endOfStream), position);
+								channel.truncate(position + endOfStream.length);
+								channel.force(true);
+							}
+						});
+					});
+		}
+
+		@Override
+		public Promise<Void> delete() {
+			return discard(segment);
+		}
 	}
 
 	public enum FlushMode {
@@ -364,6 +675,16 @@ public class FileWriteAheadLog<K extends Comparable<K>, S> implements WriteAhead
 		return totalFlushedSize;
 	}
 
+	@JmxAttribute
+	public ValueStats getCommitBatchSize() {
+		return commitBatchSize;
+	}
+
+	@JmxAttribute
+	public ValueStats getCommitLatency() {
+		return commitLatency;
+	}
+
 	@JmxAttribute
 	public boolean isDetailedMonitoring() {
 		return detailedMonitoring;
@@ -38,8 +38,7 @@ import static io.activej.promise.TestUtils.await;
 import static io.activej.promise.TestUtils.awaitException;
 import static io.activej.serializer.BinarySerializers.INT_SERIALIZER;
 import static io.activej.serializer.BinarySerializers.UTF8_SERIALIZER;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 @RunWith(Parameterized.class)
 public class CrdtStorageAPITest {
@@ -178,6 +177,36 @@ public class CrdtStorageAPITest {
 				list);
 	}
 
+	@Test
+	public void testFetchAndDownloadRange() {
+		await(StreamSupplier.of(
+						new CrdtData<>("test_1", 123, 1),
+						new CrdtData<>("test_2", 123, 2),
+						new CrdtData<>("test_3", 123, 4))
+				.streamTo(client.upload()));
+		await(StreamSupplier.of(
+						new CrdtData<>("test_2", 123, 3),
+						new CrdtData<>("test_3", 123, 2),
+						new CrdtData<>("test_5", 123, 5))
+				.streamTo(client.upload()));
+		await(StreamSupplier.of(
+						new CrdtTombstone<>("test_3", 124))
+				.streamTo(StreamConsumer.ofPromise(client.remove())));
+
+		assertEquals(new CrdtData<>("test_1", 123, 1), await(client.fetch("test_1")));
+		assertEquals(new CrdtData<>("test_2", 123, 3), await(client.fetch("test_2")));
+		assertNull(await(client.fetch("test_3")));
+		assertNull(await(client.fetch("test_4")));
+
+		assertEquals(List.of(
+						new CrdtData<>("test_2", 123, 3),
+						new CrdtData<>("test_5", 123, 5)),
+				await(await(client.download("test_2", "test_5")).toList()));
+		assertEquals(List.of(new CrdtData<>("test_1", 123, 1)),
+				await(await(client.download("test_0", "test_1")).toList()));
+		assertTrue(await(await(client.download("test_6", "test_9")).toList()).isEmpty());
+	}
+
 	@Test
 	public void testUploadAtomicity() {
 		List<CrdtData<String, Integer>> expected = List.of(
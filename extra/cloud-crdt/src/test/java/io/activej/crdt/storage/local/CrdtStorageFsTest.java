@@ -1,5 +1,6 @@
 package io.activej.crdt.storage.local;
 
+import io.activej.common.MemSize;
 import io.activej.crdt.CrdtData;
 import io.activej.crdt.CrdtTombstone;
 import io.activej.crdt.function.CrdtFunction;
@@ -17,6 +18,7 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -172,6 +174,131 @@ public final class CrdtStorageFsTest {
 		assertEquals(expected, downloadedAfter);
 	}
 
+	@Test
+	public void testDownloadSkipsOlderFiles() {
+		await(StreamSupplier.of(
+				new CrdtData<>("a", 100, Set.of(1)),
+				new CrdtData<>("b", 200, Set.of(2))
+		).streamTo(client.upload()));
+		await(StreamSupplier.of(
+				new CrdtData<>("b", 1000, Set.of(3)),
+				new CrdtData<>("c", 300, Set.of(4))
+		).streamTo(client.upload()));
+
+		List<CrdtData<String, Set<Integer>>> downloaded = await(client.download(500).then(StreamSupplier::toList));
+		assertEquals(List.of(new CrdtData<>("b", 1000, Set.of(3))), downloaded);
+		assertEquals(1, client.getPrunedFiles().getTotalCount());
+
+		List<CrdtData<String, Set<Integer>>> downloadedAll = await(client.download().then(StreamSupplier::toList));
+		assertEquals(List.of(
+				new CrdtData<>("a", 100, Set.of(1)),
+				new CrdtData<>("b", 1000, Set.of(2, 3)),
+				new CrdtData<>("c", 300, Set.of(4))
+		), downloadedAll);
+	}
+
+	@Test
+	public void testLookupsReadOnlyMatchingFilesAndBlocks() {
+		client.withIndexBlockSize(MemSize.bytes(64));
+		List<CrdtData<String, Set<Integer>>> even = new ArrayList<>();
+		List<CrdtData<String, Set<Integer>>> odd = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			(i % 2 == 0 ? even : odd).add(new CrdtData<>(key(i), 100, Set.of(i)));
+		}
+		await(StreamSupplier.ofIterable(even).streamTo(client.upload()));
+		await(StreamSupplier.ofIterable(odd).streamTo(client.upload()));
+		await(StreamSupplier.of(new CrdtData<>("other", 100, Set.of(-1))).streamTo(client.upload()));
+		await(StreamSupplier.of(new CrdtTombstone<>(key(500), 200)).streamTo(client.remove()));
+
+		for (int i : new int[]{0, 1, 2, 499, 501, 998, 999}) {
+			assertEquals(new CrdtData<>(key(i), 100, Set.of(i)), await(client.fetch(key(i))));
+		}
+		assertNull(await(client.fetch(key(500))));
+		assertNull(await(client.fetch(key(1000))));
+		assertNull(await(client.fetch("a")));
+
+		// a file with other keys is skipped by a range of keys, a file with even keys is skipped by a bloom filter
+		long pruned = client.getPrunedFiles().getTotalCount();
+		await(client.fetch(key(1)));
+		assertEquals(pruned + 3, client.getPrunedFiles().getTotalCount());
+
+		List<CrdtData<String, Set<Integer>>> expected = new ArrayList<>();
+		for (int i = 100; i < 600; i++) {
+			if (i != 500) expected.add(new CrdtData<>(key(i), 100, Set.of(i)));
+		}
+		assertEquals(expected, await(client.download(key(100), key(599)).then(StreamSupplier::toList)));
+	}
+
+	@Test
+	public void testFilesWithAndWithoutFooters() {
+		List<CrdtData<String, Set<Integer>>> items = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			items.add(new CrdtData<>(key(i), 100, Set.of(i)));
+		}
+		client.withWriteFooters(false);
+		await(StreamSupplier.ofIterable(items).streamTo(client.upload()));
+		long withoutFooterSize = first(await(fsClient.list("**")).values()).getSize();
+
+		client.withWriteFooters(true);
+		await(StreamSupplier.ofIterable(items).streamTo(client.upload()));
+		Set<Long> sizes = new HashSet<>(transformMap(await(fsClient.list("**")), FileMetadata::getSize).values());
+		assertEquals(2, sizes.size());
+		assertTrue(sizes.stream().allMatch(size -> size >= withoutFooterSize));
+
+		assertEquals(new CrdtData<>(key(42), 100, Set.of(42)), await(client.fetch(key(42))));
+		assertEquals(items, await(client.download().then(StreamSupplier::toList)));
+
+		await(client.consolidate());
+		assertEquals(1, await(fsClient.list("**")).size());
+		assertEquals(items, await(client.download().then(StreamSupplier::toList)));
+	}
+
+	@Test
+	public void sparseIndexOffsets() {
+		CrdtStorageFs.SparseIndex<String> index = new CrdtStorageFs.SparseIndex<>(List.of("a", "c", "c", "e"), new long[]{0, 10, 20, 30});
+
+		// "c" may be at the end of a block which starts with "a"
+		assertEquals(0, index.startOffset("c"));
+		assertEquals(30, index.endOffset("c", 40));
+
+		assertEquals(20, index.startOffset("d"));
+		assertEquals(30, index.endOffset("d", 40));
+
+		assertEquals(0, index.startOffset("0"));
+		assertEquals(0, index.endOffset("0", 40));
+
+		assertEquals(30, index.startOffset("z"));
+		assertEquals(40, index.endOffset("z", 40));
+	}
+
+	@Test
+	public void pickOverlappingFilesForConsolidation() {
+		Map<String, FileMetadata> files = Map.of(
+				"a", FileMetadata.of(120, 0),
+				"b", FileMetadata.of(150, 0),
+				"c", FileMetadata.of(170, 0),
+				"d", FileMetadata.of(12, 0),
+				"e", FileMetadata.of(13, 0));
+		Map<String, CrdtStorageFs.FileFooter<String>> footers = Map.of(
+				"a", new CrdtStorageFs.FileFooter<>(100, 10, 0, 0, "a", "c"),
+				"b", new CrdtStorageFs.FileFooter<>(100, 10, 0, 0, "b", "d"),
+				"c", new CrdtStorageFs.FileFooter<>(100, 10, 0, 0, "x", "z"),
+				"d", new CrdtStorageFs.FileFooter<>(10, 1, 0, 0, "e", "e"),
+				"e", new CrdtStorageFs.FileFooter<>(10, 1, 0, 0, "f", "f"));
+
+		assertEquals(Set.of("a", "b"), CrdtStorageFs.pickFilesForConsolidation(files, footers));
+
+		// no files overlap, so a largest group of files of similar size is picked
+		Map<String, CrdtStorageFs.FileFooter<String>> disjointFooters = Map.of(
+				"a", new CrdtStorageFs.FileFooter<>(100, 10, 0, 0, "a", "b"),
+				"b", new CrdtStorageFs.FileFooter<>(100, 10, 0, 0, "c", "d"),
+				"c", new CrdtStorageFs.FileFooter<>(100, 10, 0, 0, "x", "z"),
+				"d", new CrdtStorageFs.FileFooter<>(10, 1, 0, 0, "e", "e"),
+				"e", new CrdtStorageFs.FileFooter<>(10, 1, 0, 0, "f", "f"));
+
+		assertEquals(Set.of("a", "b", "c"), CrdtStorageFs.pickFilesForConsolidation(files, disjointFooters));
+	}
+
 	@Test
 	public void pickFilesForConsolidation() {
 		testPickFilesForConsolidation(
@@ -215,6 +342,10 @@ public final class CrdtStorageFsTest {
 		assertEquals(expected, filesForConsolidation);
 	}
 
+	private static String key(int i) {
+		return String.format("key%04d", i);
+	}
+
 	private static Set<Integer> union(Set<Integer> first, Set<Integer> second) {
 		Set<Integer> res = new HashSet<>(Math.max((int) ((first.size() + second.size()) / .75f) + 1, 16));
 		res.addAll(first);
@@ -1,5 +1,6 @@
 package io.activej.crdt.wal;
 
+import io.activej.common.MemSize;
 import io.activej.crdt.CrdtData;
 import io.activej.crdt.function.CrdtFunction;
 import io.activej.crdt.primitives.GSet;
@@ -13,6 +14,7 @@ import io.activej.datastream.StreamSupplier;
 import io.activej.datastream.csp.ChannelSerializer;
 import io.activej.eventloop.Eventloop;
 import io.activej.fs.LocalActiveFs;
+import io.activej.jmx.stats.ValueStats;
 import io.activej.promise.Promises;
 import io.activej.test.rules.ByteBufRule;
 import io.activej.test.rules.EventloopRule;
@@ -291,6 +293,80 @@ public class FileWriteAheadLogTest {
 		assertEquals(expected, actual);
 	}
 
+	@Test
+	public void groupCommitOfSingleTick() {
+		wal = wal.withGroupCommit(true)
+				.withSegmentSize(MemSize.kilobytes(64))
+				.withCurrentTimeProvider(TestCurrentTimeProvider.ofTimeSequence(100, 10));
+		await(wal.start());
+		List<CrdtData<Long, GSet<Integer>>> expected = List.of(
+				new CrdtData<>(1L, 140, GSet.of(1, 2, 3, 6, 9, 10, 11)),
+				new CrdtData<>(2L, 130, GSet.of(-12, 0, 2, 3, 100, 200))
+		);
+		await(
+				wal.put(1L, GSet.of(1, 2, 3)),
+				wal.put(2L, GSet.of(-12, 0, 200)),
+				wal.put(1L, GSet.of(1, 6))
+		);
+		await(
+				wal.put(2L, GSet.of(2, 3, 100)),
+				wal.put(1L, GSet.of(9, 10, 11))
+		);
+
+		ValueStats commitBatchSize = wal.getCommitBatchSize();
+		commitBatchSize.refresh(Eventloop.getCurrentEventloop().currentTimeMillis());
+		assertEquals(2, commitBatchSize.getCount());
+		assertEquals(3, commitBatchSize.getAbsoluteMax(), 0.0);
+		assertEquals(2, commitBatchSize.getAbsosuteMin(), 0.0);
+
+		await(wal.flush());
+
+		List<CrdtData<Long, GSet<Integer>>> actual = await(await(storage.download()).toList());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void startupWithLostPreallocatedSegments() throws IOException {
+		wal = wal.withGroupCommit(true)
+				.withSegmentSize(MemSize.kilobytes(64))
+				.withCurrentTimeProvider(TestCurrentTimeProvider.ofTimeSequence(100, 10));
+		await(wal.start());
+		List<CrdtData<Long, GSet<Integer>>> expected = List.of(
+				new CrdtData<>(1L, 120, GSet.of(1, 2, 3, 6)),
+				new CrdtData<>(2L, 110, GSet.of(-12, 0, 200))
+		);
+		await(
+				wal.put(1L, GSet.of(1, 2, 3)),
+				wal.put(2L, GSet.of(-12, 0, 200))
+		);
+		await(wal.put(1L, GSet.of(1, 6)));
+
+		Set<Path> lostFiles;
+		try (Stream<Path> list = Files.list(path)) {
+			lostFiles = list.collect(toSet());
+			// a current segment and a spare one
+			assertEquals(2, lostFiles.size());
+			for (Path lostFile : lostFiles) {
+				assertEquals(MemSize.kilobytes(64).toLong(), Files.size(lostFile));
+			}
+		}
+
+		Eventloop eventloop = Eventloop.getCurrentEventloop();
+		WalUploader<Long, GSet<Integer>> uploader = WalUploader.create(eventloop, executor, path, function, serializer, storage);
+		FileWriteAheadLog<Long, GSet<Integer>> restartedWal = FileWriteAheadLog.create(eventloop, executor, path, serializer, uploader)
+				.withCurrentTimeProvider(eventloop);
+		await(restartedWal.start());
+
+		try (Stream<Path> list = Files.list(path)) {
+			Set<Path> walFilesAfterStart = list.collect(toSet());
+			assertEquals(1, walFilesAfterStart.size());
+			assertFalse(lostFiles.contains(first(walFilesAfterStart)));
+		}
+
+		List<CrdtData<Long, GSet<Integer>>> actual = await(await(storage.download()).toList());
+		assertEquals(expected, actual);
+	}
+
 	@SafeVarargs
 	private final Path craftWALFile(CrdtData<Long, GSet<Integer>>... mockData) {
 		Path file = path.resolve(UUID.randomUUID() + EXT_FINAL);
@@ -16,16 +16,29 @@
 
 package io.activej.memcache.client;
 
-import io.activej.memcache.protocol.MemcacheRpcMessage.GetRequest;
-import io.activej.memcache.protocol.MemcacheRpcMessage.GetResponse;
-import io.activej.memcache.protocol.MemcacheRpcMessage.PutRequest;
-import io.activej.memcache.protocol.MemcacheRpcMessage.Slice;
+import io.activej.memcache.protocol.MemcacheRpcMessage.*;
 import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.promise.SettablePromise;
 import io.activej.rpc.client.IRpcClient;
+import io.activej.rpc.client.sender.RpcStrategyRendezvousHashing;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+import static io.activej.eventloop.Eventloop.getCurrentEventloop;
 
 public abstract class AbstractMemcacheClient<K, V> implements MemcacheClient<K, V> {
 	private final IRpcClient rpcClient;
 
+	private int @Nullable [] bucketOwners;
+	private int shards;
+	private boolean batching;
+
+	private @Nullable GetBatch[] pendingGets;
+	private @Nullable PutBatch[] pendingPuts;
+	private boolean flushScheduled;
+
 	protected AbstractMemcacheClient(IRpcClient rpcClient) {
 		this.rpcClient = rpcClient;
 	}
@@ -36,14 +49,60 @@ public abstract class AbstractMemcacheClient<K, V> implements MemcacheClient<K,
 
 	protected abstract V decodeValue(Slice slice);
 
+	/**
+	 * Lets this client group keys by the server which owns them.
+	 * <p>
+	 * A strategy should be the one which routes requests of an underlying RPC client,
+	 * so that each group is sent as a single request to the server that would have received
+	 * each of its keys individually. If some servers are down, their buckets are spread among
+	 * remaining servers, and keys of a group may be looked up at a server which does not hold them
+	 */
+	protected void setShards(RpcStrategyRendezvousHashing strategy) {
+		List<Object> owners = strategy.getBucketOwners();
+		Map<Object, Integer> shardIndexes = new HashMap<>();
+		int[] bucketOwners = new int[owners.size()];
+		for (int bucket = 0; bucket < bucketOwners.length; bucket++) {
+			bucketOwners[bucket] = shardIndexes.computeIfAbsent(owners.get(bucket), $ -> shardIndexes.size());
+		}
+		this.bucketOwners = bucketOwners;
+		this.shards = shardIndexes.size();
+	}
+
+	/**
+	 * Requests which are issued during the same eventloop tick are grouped by server
+	 * and sent as a single multi-key request per server at the end of the tick.
+	 * Has no effect unless shards are set
+	 */
+	protected void setBatching(boolean batching) {
+		this.batching = batching;
+	}
+
 	@Override
 	public Promise<Void> put(K key, V value, int timeout) {
+		if (batching && bucketOwners != null) {
+			byte[] encodedKey = encodeKey(key);
+			int shard = shardOf(encodedKey);
+			if (pendingPuts == null) pendingPuts = new PutBatch[shards];
+			if (pendingPuts[shard] == null) pendingPuts[shard] = new PutBatch();
+			SettablePromise<Void> promise = pendingPuts[shard].addPending(encodedKey, encodeValue(value), timeout);
+			scheduleFlush();
+			return promise;
+		}
 		PutRequest request = new PutRequest(encodeKey(key), encodeValue(value));
 		return rpcClient.sendRequest(request, timeout).toVoid();
 	}
 
 	@Override
 	public Promise<V> get(K key, int timeout) {
+		if (batching && bucketOwners != null) {
+			byte[] encodedKey = encodeKey(key);
+			int shard = shardOf(encodedKey);
+			if (pendingGets == null) pendingGets = new GetBatch[shards];
+			if (pendingGets[shard] == null) pendingGets[shard] = new GetBatch();
+			SettablePromise<Slice> promise = pendingGets[shard].addPending(encodedKey, timeout);
+			scheduleFlush();
+			return promise.map(this::decodeValue);
+		}
 		GetRequest request = new GetRequest(encodeKey(key));
 		return rpcClient.<GetRequest, GetResponse>sendRequest(request, timeout)
 				.map(response -> decodeValue(response.getData()));
@@ -51,14 +110,158 @@ public abstract class AbstractMemcacheClient<K, V> implements MemcacheClient<K,
 
 	@Override
 	public Promise<Void> put(K key, V value) {
-		PutRequest request = new PutRequest(encodeKey(key), encodeValue(value));
-		return rpcClient.sendRequest(request).toVoid();
+		return put(key, value, Integer.MAX_VALUE);
 	}
 
 	@Override
 	public Promise<V> get(K key) {
-		GetRequest request = new GetRequest(encodeKey(key));
-		return rpcClient.<GetRequest, GetResponse>sendRequest(request)
-				.map(response -> decodeValue(response.getData()));
+		return get(key, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public Promise<List<V>> getAll(List<K> keys, int timeout) {
+		if (bucketOwners == null) {
+			return MemcacheClient.super.getAll(keys, timeout);
+		}
+		GetBatch[] batches = new GetBatch[shards];
+		for (int i = 0; i < keys.size(); i++) {
+			byte[] encodedKey = encodeKey(keys.get(i));
+			int shard = shardOf(encodedKey);
+			if (batches[shard] == null) batches[shard] = new GetBatch();
+			batches[shard].addIndexed(encodedKey, i);
+		}
+		List<V> result = new ArrayList<>(Collections.nCopies(keys.size(), null));
+		List<Promise<List<Slice>>> promises = new ArrayList<>();
+		for (GetBatch batch : batches) {
+			if (batch == null) continue;
+			promises.add(sendGets(batch.keys, timeout)
+					.whenResult(data -> {
+						for (int i = 0; i < data.size(); i++) {
+							// received slices refer to a buffer which is reused once a response is handled
+							Slice slice = data.get(i);
+							result.set(batch.indexes.get(i), decodeValue(slice == null ? null :
+									new Slice(Arrays.copyOfRange(slice.array(), slice.offset(), slice.offset() + slice.length()))));
+						}
+					}));
+		}
+		return Promises.all(promises).map($ -> result);
+	}
+
+	@Override
+	public Promise<Void> putAll(Map<K, V> entries, int timeout) {
+		if (bucketOwners == null) {
+			return MemcacheClient.super.putAll(entries, timeout);
+		}
+		PutBatch[] batches = new PutBatch[shards];
+		for (Map.Entry<K, V> entry : entries.entrySet()) {
+			byte[] encodedKey = encodeKey(entry.getKey());
+			int shard = shardOf(encodedKey);
+			if (batches[shard] == null) batches[shard] = new PutBatch();
+			batches[shard].add(encodedKey, encodeValue(entry.getValue()));
+		}
+		List<Promise<Void>> promises = new ArrayList<>();
+		for (PutBatch batch : batches) {
+			if (batch == null) continue;
+			promises.add(sendPuts(batch.keys, batch.data, timeout));
+		}
+		return Promises.all(promises);
+	}
+
+	private int shardOf(byte[] key) {
+		assert bucketOwners != null;
+		// same bucket as the one RpcStrategyRendezvousHashing picks using MemcacheRpcMessage.HASH_FUNCTION
+		return bucketOwners[Arrays.hashCode(key) & (bucketOwners.length - 1)];
+	}
+
+	private Promise<List<Slice>> sendGets(List<byte[]> keys, int timeout) {
+		if (keys.size() == 1) {
+			return rpcClient.<GetRequest, GetResponse>sendRequest(new GetRequest(keys.get(0)), timeout)
+					.map(response -> Collections.singletonList(response.getData()));
+		}
+		return rpcClient.<MultiGetRequest, MultiGetResponse>sendRequest(new MultiGetRequest(keys), timeout)
+				.map(MultiGetResponse::getData);
+	}
+
+	private Promise<Void> sendPuts(List<byte[]> keys, List<Slice> data, int timeout) {
+		if (keys.size() == 1) {
+			return rpcClient.sendRequest(new PutRequest(keys.get(0), data.get(0)), timeout).toVoid();
+		}
+		return rpcClient.sendRequest(new MultiPutRequest(keys, data), timeout).toVoid();
+	}
+
+	private void scheduleFlush() {
+		if (flushScheduled) return;
+		flushScheduled = true;
+		getCurrentEventloop().postLast(this::flush);
+	}
+
+	private void flush() {
+		flushScheduled = false;
+		GetBatch[] gets = pendingGets;
+		PutBatch[] puts = pendingPuts;
+		pendingGets = null;
+		pendingPuts = null;
+		if (puts != null) {
+			for (PutBatch batch : puts) {
+				if (batch == null) continue;
+				sendPuts(batch.keys, batch.data, batch.timeout)
+						.whenComplete((result, e) -> {
+							for (SettablePromise<Void> promise : batch.promises) {
+								promise.accept(result, e);
+							}
+						});
+			}
+		}
+		if (gets != null) {
+			for (GetBatch batch : gets) {
+				if (batch == null) continue;
+				sendGets(batch.keys, batch.timeout)
+						.whenComplete((data, e) -> {
+							for (int i = 0; i < batch.promises.size(); i++) {
+								batch.promises.get(i).accept(e == null ? data.get(i) : null, e);
+							}
+						});
+			}
+		}
+	}
+
+	private static final class GetBatch {
+		final List<byte[]> keys = new ArrayList<>();
+		final List<Integer> indexes = new ArrayList<>();
+		final List<SettablePromise<Slice>> promises = new ArrayList<>();
+		int timeout = Integer.MAX_VALUE;
+
+		void addIndexed(byte[] key, int index) {
+			keys.add(key);
+			indexes.add(index);
+		}
+
+		SettablePromise<Slice> addPending(byte[] key, int timeout) {
+			SettablePromise<Slice> promise = new SettablePromise<>();
+			keys.add(key);
+			promises.add(promise);
+			this.timeout = Math.min(this.timeout, timeout);
+			return promise;
+		}
+	}
+
+	private static final class PutBatch {
+		final List<byte[]> keys = new ArrayList<>();
+		final List<Slice> data = new ArrayList<>();
+		final List<SettablePromise<Void>> promises = new ArrayList<>();
+		int timeout = Integer.MAX_VALUE;
+
+		void add(byte[] key, Slice value) {
+			keys.add(key);
+			data.add(value);
+		}
+
+		SettablePromise<Void> addPending(byte[] key, Slice value, int timeout) {
+			SettablePromise<Void> promise = new SettablePromise<>();
+			add(key, value);
+			promises.add(promise);
+			this.timeout = Math.min(this.timeout, timeout);
+			return promise;
+		}
 	}
 }
@@ -17,6 +17,10 @@
 package io.activej.memcache.client;
 
 import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+
+import java.util.List;
+import java.util.Map;
 
 public interface MemcacheClient<K, V> {
 
@@ -31,4 +35,30 @@ public interface MemcacheClient<K, V> {
 	default Promise<V> get(K key) {
 		return get(key, Integer.MAX_VALUE);
 	}
+
+	/**
+	 * Returns values of given keys, in the same order as keys.
+	 * Keys which belong to the same server are requested at once
+	 * if an implementation supports batching, otherwise each key is requested separately
+	 */
+	default Promise<List<V>> getAll(List<K> keys, int timeout) {
+		return Promises.toList(keys.stream().map(key -> get(key, timeout)));
+	}
+
+	/**
+	 * Stores all given entries.
+	 * Entries which belong to the same server are sent at once
+	 * if an implementation supports batching, otherwise each entry is sent separately
+	 */
+	default Promise<Void> putAll(Map<K, V> entries, int timeout) {
+		return Promises.all(entries.entrySet().stream().map(entry -> put(entry.getKey(), entry.getValue(), timeout)));
+	}
+
+	default Promise<List<V>> getAll(List<K> keys) {
+		return getAll(keys, Integer.MAX_VALUE);
+	}
+
+	default Promise<Void> putAll(Map<K, V> entries) {
+		return putAll(entries, Integer.MAX_VALUE);
+	}
 }
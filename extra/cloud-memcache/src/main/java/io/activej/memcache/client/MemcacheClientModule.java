@@ -44,10 +44,7 @@ public class MemcacheClientModule extends AbstractModule {
 	@Provides
 	RpcClient rpcClient(Eventloop eventloop, Config config) {
 		return RpcClient.create(eventloop)
-				.withStrategy(
-						RpcStrategyRendezvousHashing.create(HASH_FUNCTION)
-								.withMinActiveShards(config.get(ofInteger(), "client.minAliveConnections", 1))
-								.withShards(config.get(ofList(ofInetSocketAddress()), "client.addresses")))
+				.withStrategy(strategy(config))
 				.withMessageTypes(MemcacheRpcMessage.MESSAGE_TYPES)
 				.withSerializerBuilder(SerializerBuilder.create()
 						.with(Slice.class, ctx -> new SerializerDefSlice()))
@@ -61,8 +58,20 @@ public class MemcacheClientModule extends AbstractModule {
 	}
 
 	@Provides
-	RawMemcacheClient memcacheClient(RpcClient client) {
-		return RawMemcacheClient.create(client);
+	RawMemcacheClient memcacheClient(RpcClient client, Config config) {
+		return RawMemcacheClient.create(client)
+				.withShards(strategy(config))
+				.withBatching(config.get(ofBoolean(), "client.batching", false));
+	}
+
+	private static RpcStrategyRendezvousHashing strategy(Config config) {
+		return RpcStrategyRendezvousHashing.create(HASH_FUNCTION)
+				.withInitializer(strategy -> {
+					Integer buckets = config.get(ofInteger(), "client.buckets", null);
+					if (buckets != null) strategy.withBuckets(buckets);
+				})
+				.withMinActiveShards(config.get(ofInteger(), "client.minAliveConnections", 1))
+				.withShards(config.get(ofList(ofInetSocketAddress()), "client.addresses"));
 	}
 
 }
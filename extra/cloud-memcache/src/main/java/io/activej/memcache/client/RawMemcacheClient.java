@@ -19,6 +19,7 @@ package io.activej.memcache.client;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.memcache.protocol.MemcacheRpcMessage.Slice;
 import io.activej.rpc.client.IRpcClient;
+import io.activej.rpc.client.sender.RpcStrategyRendezvousHashing;
 
 public class RawMemcacheClient extends AbstractMemcacheClient<byte[], Slice> implements WithInitializer<RawMemcacheClient> {
 	private RawMemcacheClient(IRpcClient rpcClient) {
@@ -29,6 +30,16 @@ public class RawMemcacheClient extends AbstractMemcacheClient<byte[], Slice> imp
 		return new RawMemcacheClient(rpcClient);
 	}
 
+	public RawMemcacheClient withShards(RpcStrategyRendezvousHashing strategy) {
+		setShards(strategy);
+		return this;
+	}
+
+	public RawMemcacheClient withBatching(boolean batching) {
+		setBatching(batching);
+		return this;
+	}
+
 	@Override
 	protected byte[] encodeKey(byte[] key) {
 		return key;
@@ -32,11 +32,16 @@ public class MemcacheRpcMessage {
 					return Arrays.hashCode(request.getKey());
 				} else if (item instanceof PutRequest request) {
 					return Arrays.hashCode(request.getKey());
+				} else if (item instanceof MultiGetRequest request) {
+					return Arrays.hashCode(request.getKeys().get(0));
+				} else if (item instanceof MultiPutRequest request) {
+					return Arrays.hashCode(request.getKeys().get(0));
 				}
 				throw new IllegalArgumentException("Unknown request type " + item);
 			};
 
-	public static final List<Class<?>> MESSAGE_TYPES = List.of(GetRequest.class, GetResponse.class, PutRequest.class, PutResponse.class);
+	public static final List<Class<?>> MESSAGE_TYPES = List.of(GetRequest.class, GetResponse.class, PutRequest.class, PutResponse.class,
+			MultiGetRequest.class, MultiGetResponse.class, MultiPutRequest.class);
 
 	public static final class GetRequest implements RpcMandatoryData {
 		private final byte[] key;
@@ -86,6 +91,63 @@ public class MemcacheRpcMessage {
 		}
 	}
 
+	/**
+	 * Requests data of several keys at once. Keys should belong to the same server,
+	 * as a request is routed by its first key
+	 */
+	public static final class MultiGetRequest implements RpcMandatoryData {
+		private final List<byte[]> keys;
+
+		public MultiGetRequest(@Deserialize("keys") List<byte[]> keys) {
+			this.keys = keys;
+		}
+
+		@Serialize(order = 1)
+		public List<byte[]> getKeys() {
+			return keys;
+		}
+	}
+
+	public static final class MultiGetResponse {
+		private final List<Slice> data;
+
+		public MultiGetResponse(@Deserialize("data") List<Slice> data) {
+			this.data = data;
+		}
+
+		/**
+		 * Returns data in the order of requested keys, missing data is {@code null}
+		 */
+		@Serialize(order = 1)
+		public List<@SerializeNullable Slice> getData() {
+			return data;
+		}
+	}
+
+	/**
+	 * Puts data of several keys at once, it is answered with {@link PutResponse}.
+	 * Keys should belong to the same server, as a request is routed by its first key
+	 */
+	public static final class MultiPutRequest {
+		private final List<byte[]> keys;
+		private final List<Slice> data;
+
+		public MultiPutRequest(@Deserialize("keys") List<byte[]> keys, @Deserialize("data") List<Slice> data) {
+			this.keys = keys;
+			this.data = data;
+		}
+
+		@Serialize(order = 1)
+		public List<byte[]> getKeys() {
+			return keys;
+		}
+
+		@Serialize(order = 2)
+		public List<Slice> getData() {
+			return data;
+		}
+	}
+
 	@SuppressWarnings("InstantiationOfUtilityClass")
 	public static final class PutResponse {
 		public static final PutResponse INSTANCE = new PutResponse();
@@ -16,6 +16,7 @@
 
 package io.activej.memcache.server;
 
+import io.activej.common.exception.MalformedDataException;
 import io.activej.config.Config;
 import io.activej.eventloop.Eventloop;
 import io.activej.inject.annotation.Provides;
@@ -25,6 +26,9 @@ import io.activej.promise.Promise;
 import io.activej.rpc.server.RpcServer;
 import io.activej.serializer.SerializerBuilder;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static io.activej.common.MemSize.kilobytes;
 import static io.activej.config.converter.ConfigConverters.*;
 import static io.activej.launchers.initializers.ConfigConverters.ofFrameFormat;
@@ -53,6 +57,11 @@ public class MemcacheServerModule extends AbstractModule {
 
 	@Provides
 	RpcServer server(Eventloop eventloop, Config config, RingBuffer storage) {
+		return createServer(eventloop, config, storage)
+				.withListenAddresses(config.get(ofList(ofInetSocketAddress()), "server.listenAddresses"));
+	}
+
+	static RpcServer createServer(Eventloop eventloop, Config config, RingBuffer storage) {
 		return RpcServer.create(eventloop)
 				.withHandler(GetRequest.class,
 						request -> Promise.of(new GetResponse(storage.get(request.getKey()))))
@@ -62,6 +71,28 @@ public class MemcacheServerModule extends AbstractModule {
 							storage.put(request.getKey(), slice.array(), slice.offset(), slice.length());
 							return Promise.of(PutResponse.INSTANCE);
 						})
+				.withHandler(MultiGetRequest.class,
+						request -> {
+							List<byte[]> keys = request.getKeys();
+							List<Slice> data = new ArrayList<>(keys.size());
+							for (byte[] key : keys) {
+								data.add(storage.get(key));
+							}
+							return Promise.of(new MultiGetResponse(data));
+						})
+				.withHandler(MultiPutRequest.class,
+						request -> {
+							List<byte[]> keys = request.getKeys();
+							List<Slice> data = request.getData();
+							if (keys.size() != data.size()) {
+								return Promise.ofException(new MalformedDataException("Number of keys does not match number of values"));
+							}
+							for (int i = 0; i < keys.size(); i++) {
+								Slice slice = data.get(i);
+								storage.put(keys.get(i), slice.array(), slice.offset(), slice.length());
+							}
+							return Promise.of(PutResponse.INSTANCE);
+						})
 				.withSerializerBuilder(SerializerBuilder.create()
 						.with(Slice.class, ctx -> new SerializerDefSlice()))
 				.withMessageTypes(MESSAGE_TYPES)
@@ -69,7 +100,6 @@ public class MemcacheServerModule extends AbstractModule {
 						config.get(ofMemSize(), "protocol.packetSize", kilobytes(64)),
 						config.get(ofFrameFormat(), "protocol.frameFormat", null))
 				.withServerSocketSettings(config.get(ofServerSocketSettings(), "server.serverSocketSettings", DEFAULT_SERVER_SOCKET_SETTINGS))
-				.withSocketSettings(config.get(ofSocketSettings(), "server.socketSettings", DEFAULT_SOCKET_SETTINGS))
-				.withListenAddresses(config.get(ofList(ofInetSocketAddress()), "server.listenAddresses"));
+				.withSocketSettings(config.get(ofSocketSettings(), "server.socketSettings", DEFAULT_SOCKET_SETTINGS));
 	}
 }
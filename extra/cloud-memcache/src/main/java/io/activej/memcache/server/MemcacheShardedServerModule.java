@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.memcache.server;
+
+import io.activej.config.Config;
+import io.activej.eventloop.Eventloop;
+import io.activej.inject.annotation.Provides;
+import io.activej.inject.module.AbstractModule;
+import io.activej.rpc.server.RpcServer;
+import io.activej.worker.WorkerPool;
+import io.activej.worker.WorkerPools;
+import io.activej.worker.annotation.Worker;
+import io.activej.worker.annotation.WorkerId;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static io.activej.config.converter.ConfigConverters.*;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A memcache server which is sharded across several eventloops, one per worker.
+ * <p>
+ * Each shard owns its own {@link RingBuffer} and listens on its own port
+ * (a port of each of {@code server.listenAddresses} plus a worker id),
+ * so a client which treats each port as a separate server routes every key to exactly one shard
+ * and no request ever hops between threads.
+ * <p>
+ * Settings {@code memcache.buffers} and {@code memcache.bufferCapacity} are applied per shard.
+ * A {@link io.activej.worker.WorkerPoolModule} should be installed along with this module.
+ */
+public class MemcacheShardedServerModule extends AbstractModule {
+	private MemcacheShardedServerModule() {}
+
+	public static MemcacheShardedServerModule create() {
+		return new MemcacheShardedServerModule();
+	}
+
+	@Provides
+	WorkerPool workerPool(WorkerPools workerPools, Config config) {
+		return workerPools.createPool(config.get(ofInteger(), "memcache.shards", Runtime.getRuntime().availableProcessors()));
+	}
+
+	@Provides
+	@Worker
+	Eventloop eventloop() {
+		return Eventloop.create();
+	}
+
+	@Provides
+	@Worker
+	RingBuffer ringBuffer(Config config) {
+		return RingBuffer.create(
+				config.get(ofInteger(), "memcache.buffers"),
+				config.get(ofMemSize(), "memcache.bufferCapacity").toInt());
+	}
+
+	@Provides
+	@Worker
+	RpcServer server(Eventloop eventloop, Config config, RingBuffer storage, @WorkerId int workerId) {
+		List<InetSocketAddress> listenAddresses = config.get(ofList(ofInetSocketAddress()), "server.listenAddresses").stream()
+				.map(address -> new InetSocketAddress(address.getAddress(), address.getPort() + workerId))
+				.collect(toList());
+		return MemcacheServerModule.createServer(eventloop, config, storage)
+				.withListenAddresses(listenAddresses);
+	}
+}
@@ -16,14 +16,13 @@
 
 package io.activej.memcache.server;
 
-import com.carrotsearch.hppc.IntLongHashMap;
-import com.carrotsearch.hppc.LongLongHashMap;
-import com.carrotsearch.hppc.ObjectLongHashMap;
 import io.activej.common.Checks;
 import io.activej.common.initializer.WithInitializer;
 import io.activej.jmx.stats.EventStats;
 import io.activej.memcache.protocol.MemcacheRpcMessage.Slice;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.Arrays;
 
@@ -36,112 +35,90 @@ import static java.lang.System.currentTimeMillis;
  * The implementation to handle the big amount of data
  * It works like a cache, when you use it you shouldn't rely on the result,
  * because it can be rewritten by the new data when it overfills
+ * <p>
+ * Data is appended to off-heap buffers, which are filled one after another in a ring,
+ * so that the oldest buffer is cleared when the current one is full.
+ * A single index maps each key to a location of its latest data, so {@code get} and {@code put}
+ * take constant time regardless of a number of buffers.
+ * <p>
+ * A location is tagged with an epoch, a sequential number of a fill of a buffer.
+ * When a buffer is cleared, all the locations that point to it become stale at once,
+ * stale index entries are skipped by lookups and are reused or dropped lazily.
+ * <p>
+ * Buffers are allocated with {@link ByteBuffer#allocateDirect(int)} when they are used for the first time,
+ * so {@code -XX:MaxDirectMemorySize} should allow for a total capacity of buffers.
  */
 public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBuffer> {
 	private static final boolean CHECK = Checks.isEnabled(RingBuffer.class);
 
+	private static final int INITIAL_INDEX_CAPACITY = 1024;
+	private static final double MAX_INDEX_LOAD_FACTOR = 0.75;
+
 	/**
-	 * The main class for the caching the byte-arrays
+	 * An off-heap arena of a ring
 	 */
-	private static class Buffer {
-		private final byte[] array;
-		private final IntLongHashMap indexInt = new IntLongHashMap();
-		private final LongLongHashMap indexLong = new LongLongHashMap();
-		private final ObjectLongHashMap<byte[]> indexBytes = new ObjectLongHashMap<>() {
-			@Override
-			protected int hashKey(byte[] key) {
-				int result = 0;
-				for (byte element : key) {
-					result = 92821 * result + element;
-				}
-				return result;
-			}
-
-			@Override
-			protected boolean equals(Object v1, Object v2) {
-				return Arrays.equals((byte[]) v1, (byte[]) v2);
-			}
-		};
+	private static final class Buffer {
+		private final int capacity;
+		private @Nullable ByteBuffer arena;
 
 		private int position = 0;
 		private long timestamp;
+		private int items;
+		private int indexedItems;
 
 		Buffer(int capacity) {
-			this.array = new byte[capacity];
+			this.capacity = capacity;
 			this.timestamp = currentTimeMillis();
 		}
 
 		void clear() {
-			indexInt.clear();
-			indexLong.clear();
-			indexBytes.clear();
 			position = 0;
+			items = 0;
+			indexedItems = 0;
 			timestamp = currentTimeMillis();
 		}
 
-		static int intValueOf(byte[] bytes) {
-			return ((bytes[0] << 24)) |
-					(bytes[1] & 0xff) << 16 |
-					(bytes[2] & 0xff) << 8 |
-					(bytes[3] & 0xff);
-		}
-
-		static long longValueOf(byte[] bytes) {
-			return ((((long) bytes[0]) << 56) |
-					(((long) bytes[1] & 0xff) << 48) |
-					(((long) bytes[2] & 0xff) << 40) |
-					(((long) bytes[3] & 0xff) << 32) |
-					(((long) bytes[4] & 0xff) << 24) |
-					(((long) bytes[5] & 0xff) << 16) |
-					(((long) bytes[6] & 0xff) << 8) |
-					(((long) bytes[7] & 0xff)));
-		}
-
-		Slice get(byte[] key) {
-			long segment;
-			if (key.length == 4) {
-				segment = indexInt.getOrDefault(intValueOf(key), -1L);
-			} else if (key.length == 8) {
-				segment = indexLong.getOrDefault(longValueOf(key), -1L);
-			} else {
-				segment = indexBytes.getOrDefault(key, -1L);
-			}
-			if (segment < 0)
-				return null;
-			int offset = (int) (segment);
-			int size = (int) (segment >>> 32);
-			return new Slice(array, offset, size);
+		byte[] get(int offset, int length) {
+			assert arena != null;
+			byte[] bytes = new byte[length];
+			arena.get(offset, bytes);
+			return bytes;
 		}
 
-		void put(byte[] key, byte[] data, int offset, int length) {
+		int put(byte[] data, int offset, int length) {
 			assert length <= remaining();
-			long segment = ((long) length << 32) | position;
-			if (key.length == 4) {
-				indexInt.put(intValueOf(key), segment);
-			} else if (key.length == 8) {
-				indexLong.put(longValueOf(key), segment);
-			} else {
-				indexBytes.put(key, segment);
+			if (arena == null) {
+				arena = ByteBuffer.allocateDirect(capacity);
 			}
-			System.arraycopy(data, offset, array, position, length);
+			int result = position;
+			arena.put(position, data, offset, length);
 			position += length;
+			items++;
+			return result;
 		}
 
 		int remaining() {
-			return array.length - position;
+			return capacity - position;
 		}
 
 		long getTimestamp() {
 			return timestamp;
 		}
-
-		int items() {
-			return indexInt.size() + indexLong.size() + indexBytes.size();
-		}
 	}
 
 	private final Buffer[] ringBuffers;
 	private int currentBuffer = 0;
+	private int currentEpoch = 0;
+
+	// region index
+	private int[] indexHashes = new int[INITIAL_INDEX_CAPACITY];
+	private byte[][] indexKeys = new byte[INITIAL_INDEX_CAPACITY][];
+	private long[] indexLocations = new long[INITIAL_INDEX_CAPACITY];
+	private int[] indexLengths = new int[INITIAL_INDEX_CAPACITY];
+	private int indexMask = INITIAL_INDEX_CAPACITY - 1;
+	private int indexOccupied;
+	private int indexedItems;
+	// endregion
 
 	// JMX
 	private static final Duration SMOOTHING_WINDOW = Duration.ofMinutes(1);
@@ -149,6 +126,9 @@ public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBu
 	private final EventStats statsGets = EventStats.create(SMOOTHING_WINDOW);
 	private final EventStats statsMisses = EventStats.create(SMOOTHING_WINDOW);
 	private int countCycles = 0;
+	private long probes;
+	private long probedSlots;
+	private int maxProbeLength;
 
 	public static RingBuffer create(int amountBuffers, int bufferCapacity) {
 		checkArgument(amountBuffers > 0, "Amount of buffers should be greater than 0");
@@ -167,23 +147,21 @@ public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBu
 	/**
 	 * The method is used to try to get the slice from the {@link Buffer}
 	 * It will return the latest actual data for the {@code key}
+	 * <p>
+	 * A returned slice is a copy of data, so it stays intact when a buffer is overwritten
 	 *
 	 * @param key of your item
 	 * @return the item in case your item is still present in {@link Buffer}
 	 */
 	public Slice get(byte[] key) {
 		statsGets.recordEvent();
-		for (int i = 0; i < ringBuffers.length; i++) {
-			int current = currentBuffer - i;
-			if (current < 0)
-				current = ringBuffers.length + current;
-			Slice slice = ringBuffers[current].get(key);
-			if (slice != null) {
-				return slice;
-			}
+		int slot = find(key, hash(key));
+		if (slot == -1) {
+			statsMisses.recordEvent();
+			return null;
 		}
-		statsMisses.recordEvent();
-		return null;
+		long location = indexLocations[slot];
+		return new Slice(bufferOf(epochOf(location)).get(offsetOf(location), indexLengths[slot]));
 	}
 
 	/**
@@ -201,7 +179,7 @@ public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBu
 	 * there are extra params to handle the {@code data}
 	 */
 	public void put(byte[] key, byte[] data, int offset, int length) {
-		if (CHECK) checkArgument(data.length <= ringBuffers[currentBuffer].array.length,
+		if (CHECK) checkArgument(length <= ringBuffers[currentBuffer].capacity,
 				"Size of data is larger than the size of buffer");
 		statsPuts.recordEvent();
 		if (ringBuffers[currentBuffer].remaining() < length) {
@@ -209,10 +187,135 @@ public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBu
 				countCycles++;
 			}
 			currentBuffer = (currentBuffer + 1) % ringBuffers.length;
-			ringBuffers[currentBuffer].clear();
+			currentEpoch++;
+			Buffer buffer = ringBuffers[currentBuffer];
+			// index entries that refer to a cleared buffer become stale as the epoch changes
+			indexedItems -= buffer.indexedItems;
+			buffer.clear();
+		}
+		Buffer buffer = ringBuffers[currentBuffer];
+		int position = buffer.put(data, offset, length);
+		index(key, hash(key), (long) currentEpoch << 32 | position, length);
+	}
+
+	// region index
+	private int find(byte[] key, int hash) {
+		int slot = hash & indexMask;
+		int probeLength = 1;
+		while (true) {
+			int slotHash = indexHashes[slot];
+			if (slotHash == 0) {
+				slot = -1;
+				break;
+			}
+			if (slotHash == hash && isLive(indexLocations[slot]) && Arrays.equals(indexKeys[slot], key)) {
+				break;
+			}
+			slot = (slot + 1) & indexMask;
+			probeLength++;
+		}
+		probes++;
+		probedSlots += probeLength;
+		if (probeLength > maxProbeLength) maxProbeLength = probeLength;
+		return slot;
+	}
+
+	private void index(byte[] key, int hash, long location, int length) {
+		int freeSlot = -1;
+		int slot = hash & indexMask;
+		for (; ; slot = (slot + 1) & indexMask) {
+			int slotHash = indexHashes[slot];
+			if (slotHash == 0) break;
+			if (!isLive(indexLocations[slot])) {
+				if (freeSlot == -1) freeSlot = slot;
+				continue;
+			}
+			if (slotHash == hash && Arrays.equals(indexKeys[slot], key)) {
+				bufferOf(epochOf(indexLocations[slot])).indexedItems--;
+				indexLocations[slot] = location;
+				indexLengths[slot] = length;
+				ringBuffers[currentBuffer].indexedItems++;
+				return;
+			}
+		}
+		if (freeSlot == -1) {
+			freeSlot = slot;
+			indexOccupied++;
+		}
+		indexHashes[freeSlot] = hash;
+		indexKeys[freeSlot] = key;
+		indexLocations[freeSlot] = location;
+		indexLengths[freeSlot] = length;
+		ringBuffers[currentBuffer].indexedItems++;
+		indexedItems++;
+
+		if (indexOccupied > indexHashes.length * MAX_INDEX_LOAD_FACTOR) {
+			rebuildIndex();
+		}
+	}
+
+	/**
+	 * Rehashes live entries into a new table, which is at most half full, dropping stale entries
+	 */
+	private void rebuildIndex() {
+		int capacity = Math.max(INITIAL_INDEX_CAPACITY, Integer.highestOneBit(Math.max(indexedItems, 1)) << 2);
+		int[] oldHashes = indexHashes;
+		byte[][] oldKeys = indexKeys;
+		long[] oldLocations = indexLocations;
+		int[] oldLengths = indexLengths;
+
+		indexHashes = new int[capacity];
+		indexKeys = new byte[capacity][];
+		indexLocations = new long[capacity];
+		indexLengths = new int[capacity];
+		indexMask = capacity - 1;
+		indexOccupied = 0;
+
+		for (int i = 0; i < oldHashes.length; i++) {
+			int hash = oldHashes[i];
+			if (hash == 0 || !isLive(oldLocations[i])) continue;
+			int slot = hash & indexMask;
+			while (indexHashes[slot] != 0) {
+				slot = (slot + 1) & indexMask;
+			}
+			indexHashes[slot] = hash;
+			indexKeys[slot] = oldKeys[i];
+			indexLocations[slot] = oldLocations[i];
+			indexLengths[slot] = oldLengths[i];
+			indexOccupied++;
+		}
+		assert indexOccupied == indexedItems;
+	}
+
+	private boolean isLive(long location) {
+		return Integer.compareUnsigned(currentEpoch - epochOf(location), ringBuffers.length) < 0;
+	}
+
+	private Buffer bufferOf(int epoch) {
+		return ringBuffers[Integer.remainderUnsigned(epoch, ringBuffers.length)];
+	}
+
+	private static int epochOf(long location) {
+		return (int) (location >>> 32);
+	}
+
+	private static int offsetOf(long location) {
+		return (int) location;
+	}
+
+	private static int hash(byte[] key) {
+		// FNV-1a followed by a finalizer of MurmurHash3, as low bits of a hash are used as an index of a slot
+		long h = 0xcbf29ce484222325L;
+		for (byte b : key) {
+			h = (h ^ (b & 0xFF)) * 0x100000001b3L;
 		}
-		ringBuffers[currentBuffer].put(key, data, offset, length);
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		int result = (int) h;
+		return result != 0 ? result : 1; // zero marks an empty slot
 	}
+	// endregion
 
 	private long getLifetimeMillis() {
 		return currentTimeMillis() - ringBuffers[(currentBuffer + 1) % ringBuffers.length].getTimestamp();
@@ -223,6 +326,9 @@ public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBu
 	public void reset() {
 		countCycles = 0;
 		statsMisses.resetStats();
+		probes = 0;
+		probedSlots = 0;
+		maxProbeLength = 0;
 	}
 
 	@Override
@@ -271,7 +377,8 @@ public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBu
 	}
 
 	/**
-	 * Is used to figure out the amount of byte[] arrays which are stored
+	 * Is used to figure out the amount of byte[] arrays which are stored,
+	 * including the ones that have been superseded by newer data for the same key
 	 *
 	 * @return amount of stored data
 	 */
@@ -279,7 +386,7 @@ public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBu
 	public int getItems() {
 		int items = 0;
 		for (Buffer ringBuffer : ringBuffers) {
-			items += ringBuffer.items();
+			items += ringBuffer.items;
 		}
 		return items;
 	}
@@ -298,6 +405,43 @@ public final class RingBuffer implements RingBufferMBean, WithInitializer<RingBu
 		return size;
 	}
 
+	@Override
+	public int getIndexedItems() {
+		return indexedItems;
+	}
+
+	@Override
+	public int getIndexCapacity() {
+		return indexHashes.length;
+	}
+
+	@Override
+	public double getAverageProbeLength() {
+		return probes != 0 ? (double) probedSlots / probes : 0;
+	}
+
+	@Override
+	public int getMaxProbeLength() {
+		return maxProbeLength;
+	}
+
+	@Override
+	public long getOffHeapMemory() {
+		long memory = 0;
+		for (Buffer ringBuffer : ringBuffers) {
+			if (ringBuffer.arena != null) {
+				memory += ringBuffer.capacity;
+			}
+		}
+		return memory;
+	}
+
+	@Override
+	public long getIndexMemory() {
+		// a hash, a key reference, a location and a length per slot, not counting keys themselves
+		return (long) indexHashes.length * (4 + 4 + 8 + 4);
+	}
+
 	@Override
 	public String getLifetime() {
 		return formatDuration(Duration.ofMillis(getLifetimeMillis()));
@@ -41,6 +41,18 @@ public interface RingBufferMBean {
 
 	long getSize();
 
+	int getIndexedItems();
+
+	int getIndexCapacity();
+
+	double getAverageProbeLength();
+
+	int getMaxProbeLength();
+
+	long getOffHeapMemory();
+
+	long getIndexMemory();
+
 	String getCurrentBuffer();
 
 	int getFullCycles();
@@ -0,0 +1,77 @@
+package io.activej.memcache.server;
+
+import io.activej.config.Config;
+import io.activej.eventloop.Eventloop;
+import io.activej.inject.Injector;
+import io.activej.inject.module.ModuleBuilder;
+import io.activej.rpc.server.RpcServer;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import io.activej.worker.WorkerPool;
+import io.activej.worker.WorkerPoolModule;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static io.activej.test.TestUtils.getFreePort;
+import static org.junit.Assert.assertEquals;
+
+public final class MemcacheShardedServerModuleTest {
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	private static final int SHARDS = 3;
+
+	@Test
+	public void eachWorkerListensOnItsOwnPort() throws Exception {
+		int port = getFreePort();
+		Config config = Config.create()
+				.with("memcache.shards", String.valueOf(SHARDS))
+				.with("memcache.buffers", "2")
+				.with("memcache.bufferCapacity", "64kb")
+				.with("server.listenAddresses", "localhost:" + port);
+
+		Injector injector = Injector.of(
+				ModuleBuilder.create()
+						.bind(Config.class).toInstance(config)
+						.build(),
+				WorkerPoolModule.create(),
+				MemcacheShardedServerModule.create());
+
+		WorkerPool workerPool = injector.getInstance(WorkerPool.class);
+		assertEquals(SHARDS, workerPool.getSize());
+
+		List<RpcServer> servers = workerPool.getInstances(RpcServer.class).getList();
+		List<Eventloop> eventloops = workerPool.getInstances(Eventloop.class).getList();
+		assertEquals(SHARDS, new HashSet<>(eventloops).size());
+
+		for (int i = 0; i < SHARDS; i++) {
+			RpcServer server = servers.get(i);
+			Eventloop eventloop = eventloops.get(i);
+			assertEquals(eventloop, server.getEventloop());
+
+			List<InetSocketAddress> boundAddresses = new ArrayList<>();
+			eventloop.post(() -> {
+				try {
+					server.listen();
+				} catch (Exception e) {
+					throw new AssertionError(e);
+				}
+				boundAddresses.addAll(server.getBoundAddresses());
+				server.close();
+			});
+			eventloop.run();
+
+			assertEquals(1, boundAddresses.size());
+			assertEquals(port + i, boundAddresses.get(0).getPort());
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package io.activej.memcache.server;
+
+import io.activej.config.Config;
+import io.activej.eventloop.Eventloop;
+import io.activej.memcache.client.RawMemcacheClient;
+import io.activej.memcache.protocol.MemcacheRpcMessage;
+import io.activej.memcache.protocol.MemcacheRpcMessage.Slice;
+import io.activej.memcache.protocol.SerializerDefSlice;
+import io.activej.promise.Promise;
+import io.activej.promise.Promises;
+import io.activej.rpc.client.RpcClient;
+import io.activej.rpc.client.sender.RpcStrategyRendezvousHashing;
+import io.activej.rpc.server.RpcServer;
+import io.activej.serializer.SerializerBuilder;
+import io.activej.test.rules.ByteBufRule;
+import io.activej.test.rules.ClassBuilderConstantsRule;
+import io.activej.test.rules.EventloopRule;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.*;
+
+import static io.activej.memcache.protocol.MemcacheRpcMessage.HASH_FUNCTION;
+import static io.activej.promise.TestUtils.await;
+import static io.activej.test.TestUtils.getFreePort;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public final class MemcacheShardingTest {
+	@ClassRule
+	public static final EventloopRule eventloopRule = new EventloopRule();
+
+	@ClassRule
+	public static final ByteBufRule byteBufRule = new ByteBufRule();
+
+	@Rule
+	public final ClassBuilderConstantsRule classBuilderConstantsRule = new ClassBuilderConstantsRule();
+
+	private static final int BUCKETS = 256;
+	private static final int SHARDS = 3;
+
+	private final List<InetSocketAddress> addresses = new ArrayList<>();
+	private final List<RingBuffer> storages = new ArrayList<>();
+	private final List<RpcServer> servers = new ArrayList<>();
+	private RpcStrategyRendezvousHashing strategy;
+	private RpcClient rpcClient;
+
+	@Before
+	public void setUp() throws IOException {
+		Eventloop eventloop = Eventloop.getCurrentEventloop();
+		for (int i = 0; i < SHARDS; i++) {
+			InetSocketAddress address = new InetSocketAddress("localhost", getFreePort());
+			RingBuffer storage = RingBuffer.create(4, 64 * 1024);
+			RpcServer server = MemcacheServerModule.createServer(eventloop, Config.EMPTY, storage)
+					.withListenAddresses(address);
+			server.listen();
+			addresses.add(address);
+			storages.add(storage);
+			servers.add(server);
+		}
+		strategy = RpcStrategyRendezvousHashing.create(HASH_FUNCTION)
+				.withBuckets(BUCKETS)
+				.withShards(addresses);
+		rpcClient = RpcClient.create(eventloop)
+				.withStrategy(strategy)
+				.withMessageTypes(MemcacheRpcMessage.MESSAGE_TYPES)
+				.withSerializerBuilder(SerializerBuilder.create()
+						.with(Slice.class, ctx -> new SerializerDefSlice()));
+	}
+
+	@Test
+	public void testPutAllAndGetAll() {
+		RawMemcacheClient client = RawMemcacheClient.create(rpcClient)
+				.withShards(strategy);
+		RawMemcacheClient plainClient = RawMemcacheClient.create(rpcClient);
+
+		Map<byte[], Slice> entries = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			entries.put(key(i), value(i));
+		}
+		List<byte[]> keys = new ArrayList<>(entries.keySet());
+		keys.add(key(1000));
+
+		List<Slice> values = new ArrayList<>();
+		// every key should be stored only at the server which a request for this key alone is routed to
+		List<Slice> routedValues = await(rpcClient.start()
+				.then(() -> client.putAll(entries))
+				.then(() -> client.getAll(keys))
+				.whenResult(values::addAll)
+				.then(() -> Promises.toList(keys.stream().map(key -> plainClient.get(key).map(MemcacheShardingTest::copy))))
+				.whenComplete(this::stop));
+
+		assertEquals(keys.size(), values.size());
+		assertNull(values.get(100));
+		assertNull(routedValues.get(100));
+		for (int i = 0; i < 100; i++) {
+			assertSlice(value(i), values.get(i));
+			assertSlice(value(i), routedValues.get(i));
+			int found = 0;
+			for (RingBuffer storage : storages) {
+				if (storage.get(key(i)) != null) found++;
+			}
+			assertEquals(1, found);
+		}
+	}
+
+	@Test
+	public void testBatching() {
+		RawMemcacheClient client = RawMemcacheClient.create(rpcClient)
+				.withShards(strategy)
+				.withBatching(true);
+
+		List<Slice> values = await(rpcClient.start()
+				.then(() -> {
+					List<Promise<Void>> puts = new ArrayList<>();
+					for (int i = 0; i < 50; i++) {
+						puts.add(client.put(key(i), value(i), 10_000));
+					}
+					return Promises.all(puts);
+				})
+				.then(() -> {
+					List<Promise<Slice>> gets = new ArrayList<>();
+					for (int i = 0; i < 60; i++) {
+						gets.add(client.get(key(i)).map(MemcacheShardingTest::copy));
+					}
+					return Promises.toList(gets);
+				})
+				.whenComplete(this::stop));
+
+		for (int i = 0; i < 50; i++) {
+			assertSlice(value(i), values.get(i));
+		}
+		for (int i = 50; i < 60; i++) {
+			assertNull(values.get(i));
+		}
+		int stored = 0;
+		for (RingBuffer storage : storages) {
+			stored += storage.getItems();
+		}
+		assertEquals(50, stored);
+	}
+
+	private void stop() {
+		rpcClient.stop();
+		servers.forEach(RpcServer::close);
+	}
+
+	private static byte[] key(int i) {
+		return ("key" + i).getBytes(UTF_8);
+	}
+
+	private static Slice value(int i) {
+		byte[] bytes = ("value" + i).getBytes(UTF_8);
+		return new Slice(bytes, 0, bytes.length);
+	}
+
+	private static Slice copy(Slice slice) {
+		return slice == null ? null : new Slice(Arrays.copyOfRange(slice.array(), slice.offset(), slice.offset() + slice.length()));
+	}
+
+	private static void assertSlice(Slice expected, Slice actual) {
+		assertNotNull(actual);
+		assertArrayEquals(
+				Arrays.copyOfRange(expected.array(), expected.offset(), expected.offset() + expected.length()),
+				Arrays.copyOfRange(actual.array(), actual.offset(), actual.offset() + actual.length()));
+	}
+}
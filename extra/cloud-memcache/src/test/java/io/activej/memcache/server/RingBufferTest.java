@@ -3,8 +3,9 @@ package io.activej.memcache.server;
 import io.activej.memcache.protocol.MemcacheRpcMessage.Slice;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.fail;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
 
 public class RingBufferTest {
 	private final byte[] BASE_KEY = new byte[]{0};
@@ -129,6 +130,65 @@ public class RingBufferTest {
 		assertEquals(expectedNumberCycles, buffer.getFullCycles());
 	}
 
+	@Test
+	public void testGetLatestValue() {
+		RingBuffer buffer = RingBuffer.create(4, 100);
+		byte[] key = {1, 2, 3};
+		for (byte i = 0; i < 50; i++) {
+			buffer.put(key, new byte[]{i, i, i, i, i, i, i, i, i, i});
+		}
+
+		Slice slice = buffer.get(key);
+		assertNotNull(slice);
+		assertArrayEquals(new byte[]{49, 49, 49, 49, 49, 49, 49, 49, 49, 49}, slice.array());
+		assertEquals(1, buffer.getIndexedItems());
+	}
+
+	@Test
+	public void testOverwrittenBuffersAreNotVisible() {
+		int amountBuffers = 4;
+		int bufferCapacity = 100;
+		RingBuffer buffer = RingBuffer.create(amountBuffers, bufferCapacity);
+
+		byte[] item = new byte[bufferCapacity / 2];
+		int items = amountBuffers * 2 * 3;
+		for (int i = 0; i < items; i++) {
+			buffer.put(key(i), item);
+		}
+
+		// the oldest buffer is cleared only when the current one overflows
+		int visibleItems = amountBuffers * 2;
+		for (int i = 0; i < items; i++) {
+			Slice slice = buffer.get(key(i));
+			assertEquals(i >= items - visibleItems, slice != null);
+		}
+		assertEquals(visibleItems, buffer.getIndexedItems());
+	}
+
+	@Test
+	public void testManyKeys() {
+		int keys = 100_000;
+		RingBuffer buffer = RingBuffer.create(8, keys * 4 / 7);
+		for (int i = 0; i < keys; i++) {
+			buffer.put(key(i), key(i * 31));
+		}
+
+		for (int i = 0; i < keys; i++) {
+			Slice slice = buffer.get(key(i));
+			assertNotNull(slice);
+			assertArrayEquals(key(i * 31), slice.array());
+		}
+		assertNull(buffer.get(key(keys)));
+		assertEquals(keys, buffer.getIndexedItems());
+		assertTrue(buffer.getIndexCapacity() >= 2 * keys);
+		assertTrue(buffer.getAverageProbeLength() < 2);
+		assertEquals(8L * (keys * 4 / 7), buffer.getOffHeapMemory());
+	}
+
+	private static byte[] key(int i) {
+		return ByteBuffer.allocate(4).putInt(i).array();
+	}
+
 	private void fillBufferFully(RingBuffer buffer, byte[] item, int finalNumberItems) {
 		for (int i = 0; i < finalNumberItems; i++) {
 			byte[] newKey = new byte[i];
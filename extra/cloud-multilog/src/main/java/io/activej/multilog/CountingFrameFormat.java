@@ -73,6 +73,11 @@ final class CountingFrameFormat implements FrameFormat {
 			public boolean ignoreMissingEndOfStreamBlock() {
 				return decoder.ignoreMissingEndOfStreamBlock();
 			}
+
+			@Override
+			public void close() {
+				decoder.close();
+			}
 		};
 	}
 }
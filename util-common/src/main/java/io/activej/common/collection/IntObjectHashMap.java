@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.common.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.activej.common.Checks.checkArgument;
+import static java.lang.Integer.numberOfLeadingZeros;
+
+/**
+ * A map of primitive {@code int} keys to non-null values, implemented as an
+ * open-addressing hash table with linear probing.
+ * <p>
+ * Unlike {@code HashMap<Integer, V>}, keys are not boxed and no entry objects are created,
+ * so that {@link #put}, {@link #get} and {@link #remove} do not allocate unless the table grows.
+ * Removal shifts subsequent entries of a probe sequence back, so no tombstones are left behind
+ * and a table never degrades after many insertions and removals.
+ * <p>
+ * This map is intended for correlating in-flight requests with their responses by
+ * a sequential id. It is not thread-safe, {@code null} values are not permitted.
+ *
+ * @param <V> type of values
+ */
+public final class IntObjectHashMap<V> {
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private int[] keys;
+	private Object[] values;
+	private int mask;
+	private int shift;
+	private int size;
+	private int resizeThreshold;
+
+	private IntObjectHashMap(int capacity) {
+		allocate(capacity);
+	}
+
+	public static <V> IntObjectHashMap<V> create() {
+		return new IntObjectHashMap<>(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new map that can hold a given number of entries without growing
+	 *
+	 * @param expectedSize expected number of entries
+	 */
+	public static <V> IntObjectHashMap<V> create(int expectedSize) {
+		checkArgument(expectedSize >= 0, "Expected size cannot be negative");
+		return new IntObjectHashMap<>(capacityFor(expectedSize));
+	}
+
+	/**
+	 * Returns a value associated with a given key
+	 *
+	 * @return a value or {@code null} if there is no mapping for a key
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable V get(int key) {
+		int index = indexOf(key);
+		return index == -1 ? null : (V) values[index];
+	}
+
+	public boolean containsKey(int key) {
+		return indexOf(key) != -1;
+	}
+
+	/**
+	 * Associates a value with a given key, replacing a previous value if any
+	 *
+	 * @return a previous value or {@code null} if there was no mapping for a key
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable V put(int key, @NotNull V value) {
+		int index = hash(key);
+		for (; ; index = (index + 1) & mask) {
+			Object existing = values[index];
+			if (existing == null) {
+				keys[index] = key;
+				values[index] = value;
+				if (++size > resizeThreshold) {
+					grow();
+				}
+				return null;
+			}
+			if (keys[index] == key) {
+				values[index] = value;
+				return (V) existing;
+			}
+		}
+	}
+
+	/**
+	 * Removes a mapping for a given key
+	 *
+	 * @return a removed value or {@code null} if there was no mapping for a key
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable V remove(int key) {
+		int index = indexOf(key);
+		if (index == -1) return null;
+		V value = (V) values[index];
+		size--;
+		shiftBack(index);
+		return value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		if (size == 0) return;
+		for (int i = 0; i < values.length; i++) {
+			values[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Returns a snapshot of keys of this map,
+	 * so that a map may be safely modified while iterating over them
+	 */
+	public int[] keys() {
+		int[] result = new int[size];
+		int j = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null) {
+				result[j++] = keys[i];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Performs an action for each entry of this map.
+	 * A map should not be modified by an action
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(@NotNull EntryConsumer<? super V> action) {
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (value != null) {
+				action.accept(keys[i], (V) value);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+		void accept(int key, V value);
+	}
+
+	private int indexOf(int key) {
+		int index = hash(key);
+		for (; ; index = (index + 1) & mask) {
+			if (values[index] == null) return -1;
+			if (keys[index] == key) return index;
+		}
+	}
+
+	/**
+	 * Fills a freed slot with a subsequent entry of the same probe sequence, if any,
+	 * so that lookups never stop at a hole in the middle of a sequence
+	 */
+	private void shiftBack(int hole) {
+		int index = hole;
+		for (; ; ) {
+			index = (index + 1) & mask;
+			Object value = values[index];
+			if (value == null) break;
+			int key = keys[index];
+			int home = hash(key);
+			// an entry may fill the hole only if its home slot is not in (hole, index] cyclically
+			if (((index - home) & mask) >= ((index - hole) & mask)) {
+				keys[hole] = key;
+				values[hole] = value;
+				hole = index;
+			}
+		}
+		values[hole] = null;
+	}
+
+	private void grow() {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(oldValues.length << 1);
+		for (int i = 0; i < oldValues.length; i++) {
+			Object value = oldValues[i];
+			if (value == null) continue;
+			int key = oldKeys[i];
+			int index = hash(key);
+			while (values[index] != null) {
+				index = (index + 1) & mask;
+			}
+			keys[index] = key;
+			values[index] = value;
+		}
+	}
+
+	private void allocate(int capacity) {
+		checkArgument(capacity > 0 && capacity <= MAX_CAPACITY, "Map is too large");
+		keys = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		shift = numberOfLeadingZeros(mask);
+		resizeThreshold = capacity >>> 1;
+	}
+
+	/**
+	 * Fibonacci hashing spreads both sequential and strided keys evenly across a table
+	 */
+	private int hash(int key) {
+		return (key * 0x9E3779B9) >>> shift & mask;
+	}
+
+	private static int capacityFor(int expectedSize) {
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity >>> 1 < expectedSize && capacity < MAX_CAPACITY) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		forEach((key, value) -> {
+			if (sb.length() != 1) sb.append(", ");
+			sb.append(key).append('=').append(value);
+		});
+		return sb.append('}').toString();
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2020 ActiveJ LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.activej.common.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static io.activej.common.Checks.checkArgument;
+import static java.lang.Integer.numberOfLeadingZeros;
+
+/**
+ * A bounded queue backed by a ring buffer, which allows many threads to offer elements
+ * and a single thread to poll them.
+ * <p>
+ * Producers claim a slot with a single CAS on a producer index and then publish an element
+ * into the slot, no nodes are allocated. A consumer never performs a CAS.
+ * <p>
+ * Elements offered by the same thread are polled in the order they were offered.
+ * If a slot has been claimed but an element is not yet published,
+ * {@link #poll()} waits for it rather than skipping it, so that the order is preserved
+ * even when a queue is used together with some other queue as an overflow.
+ *
+ * @param <E> type of elements
+ */
+public final class MpscArrayQueue<E> {
+	private final AtomicReferenceArray<E> buffer;
+	private final int mask;
+
+	private final AtomicLong producerIndex = new AtomicLong();
+	private final AtomicLong consumerIndex = new AtomicLong();
+
+	private MpscArrayQueue(int capacity) {
+		this.buffer = new AtomicReferenceArray<>(capacity);
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Creates a new queue
+	 *
+	 * @param capacity a minimum capacity of a queue, rounded up to a power of 2
+	 */
+	public static <E> MpscArrayQueue<E> create(int capacity) {
+		checkArgument(capacity > 0 && capacity <= 1 << 30, "Capacity should be positive and not greater than 2^30");
+		return new MpscArrayQueue<>(1 << (32 - numberOfLeadingZeros(capacity - 1)));
+	}
+
+	/**
+	 * Offers an element to this queue, may be called from any thread
+	 *
+	 * @return {@code false} if a queue is full
+	 */
+	public boolean offer(@NotNull E element) {
+		long index;
+		do {
+			index = producerIndex.get();
+			if (index - consumerIndex.get() > mask) {
+				return false;
+			}
+		} while (!producerIndex.compareAndSet(index, index + 1));
+		buffer.lazySet((int) index & mask, element);
+		return true;
+	}
+
+	/**
+	 * Polls an element from this queue, should only be called from a single consumer thread
+	 *
+	 * @return an element or {@code null} if a queue is empty
+	 */
+	public @Nullable E poll() {
+		long index = consumerIndex.get();
+		int offset = (int) index & mask;
+		E element = buffer.get(offset);
+		if (element == null) {
+			if (index == producerIndex.get()) {
+				return null;
+			}
+			do {
+				Thread.yield(); // a producer has claimed a slot but has not published an element yet
+				element = buffer.get(offset);
+			} while (element == null);
+		}
+		buffer.lazySet(offset, null);
+		consumerIndex.lazySet(index + 1);
+		return element;
+	}
+
+	public boolean isEmpty() {
+		return consumerIndex.get() == producerIndex.get();
+	}
+
+	public int size() {
+		long consumed = consumerIndex.get();
+		return (int) (producerIndex.get() - consumed);
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	@Override
+	public String toString() {
+		return "MpscArrayQueue{size=" + size() + ", capacity=" + capacity() + '}';
+	}
+}
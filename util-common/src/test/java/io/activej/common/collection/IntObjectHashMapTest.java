@@ -0,0 +1,77 @@
+package io.activej.common.collection;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public final class IntObjectHashMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		IntObjectHashMap<String> map = IntObjectHashMap.create();
+		assertTrue(map.isEmpty());
+		assertNull(map.put(1, "a"));
+		assertNull(map.put(-1, "b"));
+		assertNull(map.put(0, "c"));
+		assertEquals("a", map.put(1, "d"));
+		assertEquals(3, map.size());
+
+		assertEquals("d", map.get(1));
+		assertEquals("b", map.get(-1));
+		assertEquals("c", map.get(0));
+		assertNull(map.get(2));
+		assertTrue(map.containsKey(0));
+
+		assertEquals("b", map.remove(-1));
+		assertNull(map.remove(-1));
+		assertEquals(2, map.size());
+
+		int[] keys = map.keys();
+		Arrays.sort(keys);
+		assertArrayEquals(new int[]{0, 1}, keys);
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(1));
+	}
+
+	@Test
+	public void testSequentialCookies() {
+		IntObjectHashMap<Integer> map = IntObjectHashMap.create();
+		int window = 1000;
+		for (int cookie = Integer.MAX_VALUE - 10_000; cookie != Integer.MIN_VALUE + 10_000; cookie++) {
+			map.put(cookie, cookie);
+			if (map.size() > window) {
+				assertEquals(Integer.valueOf(cookie - window), map.remove(cookie - window));
+			}
+		}
+		assertEquals(window, map.size());
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(0);
+		IntObjectHashMap<Integer> map = IntObjectHashMap.create(4);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100_000; i++) {
+			int key = random.nextInt(2_000) - 1_000;
+			if (random.nextBoolean()) {
+				assertEquals(expected.put(key, i), map.put(key, i));
+			} else {
+				assertEquals(expected.remove(key), map.remove(key));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		for (int key = -1_000; key < 1_000; key++) {
+			assertEquals(expected.get(key), map.get(key));
+		}
+		Map<Integer, Integer> actual = new HashMap<>();
+		map.forEach(actual::put);
+		assertEquals(expected, actual);
+	}
+}
@@ -0,0 +1,66 @@
+package io.activej.common.collection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public final class MpscArrayQueueTest {
+
+	@Test
+	public void testOfferPoll() {
+		MpscArrayQueue<Integer> queue = MpscArrayQueue.create(3);
+		assertEquals(4, queue.capacity());
+		assertTrue(queue.isEmpty());
+		assertNull(queue.poll());
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(queue.offer(i));
+		}
+		assertFalse(queue.offer(4));
+		assertEquals(4, queue.size());
+
+		assertEquals(0, (int) queue.poll());
+		assertTrue(queue.offer(4));
+		for (int i = 1; i <= 4; i++) {
+			assertEquals(i, (int) queue.poll());
+		}
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testElementsOfEachProducerAreOrdered() throws InterruptedException {
+		int producers = 4;
+		int elements = 200_000;
+		MpscArrayQueue<long[]> queue = MpscArrayQueue.create(64);
+
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			int producer = p;
+			threads[p] = new Thread(() -> {
+				for (int i = 0; i < elements; i++) {
+					long[] element = {producer, i};
+					while (!queue.offer(element)) {
+						Thread.yield();
+					}
+				}
+			});
+			threads[p].start();
+		}
+
+		long[] expected = new long[producers];
+		for (int received = 0; received < producers * elements; ) {
+			long[] element = queue.poll();
+			if (element == null) {
+				Thread.yield();
+				continue;
+			}
+			assertEquals(expected[(int) element[0]]++, element[1]);
+			received++;
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(queue.isEmpty());
+	}
+}